@@ -0,0 +1,86 @@
+/*
+ * @(#)DateFormatting.java	1.1 96/08/06
+ *
+ * Copyright (c) 1994-1996 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL or COMMERCIAL purposes and
+ * without fee is hereby granted.
+ * Please refer to the file http://www.javasoft.com/copy_trademarks.html
+ * for further important copyright and trademark information and to
+ * http://www.javasoft.com/licensing.html for further important
+ * licensing information for the Java (tm) Technology.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+
+import java.util.Date;
+import java.util.DateFormatter;
+
+/**
+ * Formats and parses a run of log timestamps, one every few
+ * milliseconds, with Date.toGMTString() and Date.parse() and with
+ * the DateFormatter methods, which write into a reused buffer.
+ * <pre>
+ *	java DateFormatting [times]
+ * </pre>
+ *
+ * @version 	1.1, 06 Aug 1996
+ */
+public class DateFormatting {
+    public static void main(String args[]) {
+	int n = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+	long first = System.currentTimeMillis();
+	char buf[] = new char[DateFormatter.RFC1123_LENGTH];
+
+	for (int pass = 0 ; pass < 3 ; pass++) {
+	    long start = System.currentTimeMillis();
+	    int len = 0;
+	    for (int i = 0 ; i < n ; i++) {
+		len += new Date(first + i * 7).toGMTString().length();
+	    }
+	    report("Date.toGMTString", len, start);
+
+	    start = System.currentTimeMillis();
+	    len = 0;
+	    for (int i = 0 ; i < n ; i++) {
+		len += DateFormatter.formatRFC1123(first + i * 7, buf, 0);
+	    }
+	    report("DateFormatter.formatRFC1123 into a buffer", len, start);
+
+	    start = System.currentTimeMillis();
+	    len = 0;
+	    for (int i = 0 ; i < n ; i++) {
+		len += DateFormatter.formatISO8601(first + i * 7).length();
+	    }
+	    report("DateFormatter.formatISO8601", len, start);
+
+	    String header = DateFormatter.formatRFC1123(first);
+	    String general = "Sat, 12 Aug 1995 13:30:00 GMT+0430";
+	    start = System.currentTimeMillis();
+	    long sum = 0;
+	    for (int i = 0 ; i < n ; i++) {
+		sum += Date.parse(general);
+	    }
+	    report("Date.parse with an offset", (int)sum, start);
+
+	    start = System.currentTimeMillis();
+	    sum = 0;
+	    for (int i = 0 ; i < n ; i++) {
+		sum += Date.parse(header);
+	    }
+	    report("Date.parse RFC 1123", (int)sum, start);
+	}
+    }
+
+    static void report(String what, int check, long start) {
+	System.out.println(what + ": " + (System.currentTimeMillis() - start) +
+			   " ms (" + check + ")");
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * @(#)FloatingConversion.java	1.1 96/05/21
+ *
+ * Copyright (c) 1994-1996 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL or COMMERCIAL purposes and
+ * without fee is hereby granted.
+ * Please refer to the file http://www.javasoft.com/copy_trademarks.html
+ * for further important copyright and trademark information and to
+ * http://www.javasoft.com/licensing.html for further important
+ * licensing information for the Java (tm) Technology.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+import java.io.StreamTokenizer;
+import java.io.StringBufferInputStream;
+import java.io.IOException;
+
+/**
+ * Measures the cost of converting doubles to and from text. Each test
+ * runs several passes over the same numbers and prints the time of
+ * every pass, so that the first, slower passes can be told apart from
+ * the steady state.<p>
+ *
+ * The "compat" set only uses Double.valueOf(), Double.toString() and
+ * StreamTokenizer, which also exist in releases where the first two are
+ * native methods. Running that set on such a release gives the numbers
+ * to compare against.
+ * <pre>
+ *	java FloatingConversion [all|compat] [numbers] [passes]
+ * </pre>
+ *
+ * @version 	1.1, 21 May 1996
+ */
+public class FloatingConversion {
+    public static void main(String args[]) throws IOException {
+	boolean all = (args.length == 0) || !args[0].equals("compat");
+	int n = (args.length > 1) ? Integer.parseInt(args[1]) : 100000;
+	int passes = (args.length > 2) ? Integer.parseInt(args[2]) : 5;
+
+	// A mix of short prices, measurements with many digits, and
+	// numbers with exponents.
+	double values[] = new double[n];
+	String strings[] = new String[n];
+	int r = 12345;
+	for (int i = 0 ; i < n ; i++) {
+	    r = r * 1103515245 + 12345;
+	    int x = (r >>> 8) & 0xfffff;
+	    switch (i % 3) {
+	      case 0:
+		values[i] = x / 100.0;
+		break;
+	      case 1:
+		values[i] = x / 1048576.0 * Math.PI;
+		break;
+	      default:
+		values[i] = x * 1.0e-300 * Math.E;
+		break;
+	    }
+	    strings[i] = Double.toString(values[i]);
+	}
+	StringBuffer text = new StringBuffer();
+	for (int i = 0 ; i < n ; i++) {
+	    text.append(strings[i]);
+	    text.append(' ');
+	}
+	String input = text.toString();
+
+	for (int pass = 0 ; pass < passes ; pass++) {
+	    long start = System.currentTimeMillis();
+	    double sum = 0;
+	    for (int i = 0 ; i < n ; i++) {
+		sum += Double.valueOf(strings[i]).doubleValue();
+	    }
+	    report("Double.valueOf", pass, n, start, sum);
+
+	    start = System.currentTimeMillis();
+	    int chars = 0;
+	    for (int i = 0 ; i < n ; i++) {
+		chars += Double.toString(values[i]).length();
+	    }
+	    report("Double.toString", pass, n, start, chars);
+
+	    start = System.currentTimeMillis();
+	    StreamTokenizer st = new StreamTokenizer(new StringBufferInputStream(input));
+	    sum = 0;
+	    while (st.nextToken() != StreamTokenizer.TT_EOF) {
+		sum += st.nval;
+	    }
+	    report("StreamTokenizer", pass, n, start, sum);
+
+	    if (all) {
+		runNew(values, strings, pass);
+	    }
+	}
+    }
+
+    /**
+     * Runs the tests of the calls that do not create objects.
+     */
+    static void runNew(double values[], String strings[], int pass) {
+	int n = values.length;
+	long start = System.currentTimeMillis();
+	double sum = 0;
+	for (int i = 0 ; i < n ; i++) {
+	    sum += Double.parseDouble(strings[i]);
+	}
+	report("Double.parseDouble", pass, n, start, sum);
+
+	char buf[] = new char[32];
+	start = System.currentTimeMillis();
+	int chars = 0;
+	for (int i = 0 ; i < n ; i++) {
+	    chars += Double.getChars(values[i], buf, 0);
+	}
+	report("Double.getChars", pass, n, start, chars);
+
+	start = System.currentTimeMillis();
+	sum = 0;
+	for (int i = 0 ; i < n ; i++) {
+	    sum += Double.parseDouble(buf, 0, Double.getChars(values[i], buf, 0));
+	}
+	report("getChars+parseDouble", pass, n, start, sum);
+
+	StringBuffer sb = new StringBuffer(n * 24);
+	start = System.currentTimeMillis();
+	for (int i = 0 ; i < n ; i++) {
+	    sb.append(values[i]);
+	}
+	report("StringBuffer.append", pass, n, start, sb.length());
+    }
+
+    /**
+     * Prints the time per operation. The result of the test is printed
+     * too so that the work cannot be skipped.
+     */
+    static void report(String name, int pass, int n, long start, double result) {
+	long millis = System.currentTimeMillis() - start;
+	System.out.println(name + " pass " + pass + ": " + (millis * 1000000 / n)
+			   + " ns/op (" + result + ")");
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * @(#)ForkJoinScaling.java	1.1 96/08/20
+ *
+ * Copyright (c) 1994-1996 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL or COMMERCIAL purposes and
+ * without fee is hereby granted.
+ * Please refer to the file http://www.javasoft.com/copy_trademarks.html
+ * for further important copyright and trademark information and to
+ * http://www.javasoft.com/licensing.html for further important
+ * licensing information for the Java (tm) Technology.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+
+import java.util.ForkJoinPool;
+import java.util.ForkJoinTask;
+import java.util.Sort;
+
+/**
+ * Shows how a parallel sort and a parallel array transform scale with
+ * the number of threads. For 1, 2, 4 and so on up to the maximum
+ * number of threads, it sorts an array of ints with Sort.parallelSort()
+ * and transforms an array of vertices, as Matrix3D.transform() does
+ * for the WireFrame and MoleculeViewer demos, in a ForkJoinPool.
+ * The speedup is the time with one thread divided by the time.
+ * <pre>
+ *	java ForkJoinScaling [elements] [max threads]
+ * </pre>
+ *
+ * @version 	1.1, 20 Aug 1996
+ */
+public class ForkJoinScaling {
+    public static void main(String args[]) {
+	int n = (args.length > 0) ? Integer.parseInt(args[0]) : 2000000;
+	int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) :
+	    ForkJoinPool.getDefaultParallelism();
+
+	int data[] = new int[n];
+	float v[] = new float[n * 3];
+	int r = 1;
+	for (int i = 0 ; i < n ; i++) {
+	    r = r * 1103515245 + 12345;
+	    data[i] = r >>> 1;
+	    v[3 * i] = (r & 0x3ff) - 512;
+	    v[3 * i + 1] = ((r >> 10) & 0x3ff) - 512;
+	    v[3 * i + 2] = ((r >> 20) & 0x3ff) - 512;
+	}
+	int tv[] = new int[n * 3];
+	int a[] = new int[n];
+
+	for (int pass = 0 ; pass < 3 ; pass++) {
+	    long sortBase = 0;
+	    long transformBase = 0;
+	    for (int threads = 1 ; threads <= maxThreads ; threads *= 2) {
+		System.arraycopy(data, 0, a, 0, n);
+		Sort.setParallelism(threads);
+		long start = System.currentTimeMillis();
+		Sort.parallelSort(a);
+		long sortTime = Math.max(1, System.currentTimeMillis() - start);
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		start = System.currentTimeMillis();
+		for (int k = 0 ; k < 10 ; k++) {
+		    pool.invoke(new Transform(v, tv, 0, n, 0.5f + k));
+		}
+		long transformTime = Math.max(1, System.currentTimeMillis() - start);
+		pool.shutdown();
+
+		if (threads == 1) {
+		    sortBase = sortTime;
+		    transformBase = transformTime;
+		}
+		System.out.println(threads + ((threads == 1) ? " thread" : " threads") + ": sort " + sortTime + " ms (" +
+				   speedup(sortBase, sortTime) + "x), transform " +
+				   transformTime + " ms (" +
+				   speedup(transformBase, transformTime) + "x)");
+	    }
+	}
+    }
+
+    static String speedup(long base, long time) {
+	long tenths = (base * 10 + time / 2) / time;
+	return (tenths / 10) + "." + (tenths % 10);
+    }
+}
+
+/**
+ * Transforms a range of vertices with a rotation about the z axis
+ * and a scale, splitting it in halves until the pieces are small.
+ */
+class Transform extends ForkJoinTask {
+    static final int GRAIN = 16384;
+
+    float v[];
+    int tv[];
+    int from;
+    int to;
+    float scale;
+
+    Transform(float v[], int tv[], int from, int to, float scale) {
+	this.v = v;
+	this.tv = tv;
+	this.from = from;
+	this.to = to;
+	this.scale = scale;
+    }
+
+    protected void compute() {
+	if (to - from > GRAIN) {
+	    int mid = (from + to) >>> 1;
+	    invokeAll(new Transform(v, tv, from, mid, scale),
+		      new Transform(v, tv, mid, to, scale));
+	    return;
+	}
+	float xx = 0.8f * scale, xy = -0.6f * scale;
+	float yx = 0.6f * scale, yy = 0.8f * scale;
+	float zz = scale;
+	for (int i = to * 3 ; (i -= 3) >= from * 3 ;) {
+	    float x = v[i];
+	    float y = v[i + 1];
+	    float z = v[i + 2];
+	    tv[i] = (int)(x * xx + y * xy);
+	    tv[i + 1] = (int)(x * yx + y * yy);
+	    tv[i + 2] = (int)(z * zz);
+	}
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * @(#)HashtableIndexing.java	1.1 96/04/09
+ *
+ * Copyright (c) 1994-1996 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL or COMMERCIAL purposes and
+ * without fee is hereby granted.
+ * Please refer to the file http://www.javasoft.com/copy_trademarks.html
+ * for further important copyright and trademark information and to
+ * http://www.javasoft.com/licensing.html for further important
+ * licensing information for the Java (tm) Technology.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+import java.util.Hashtable;
+
+/**
+ * Compares get() and put() times of a Hashtable using the default
+ * modulo indexing with one using power-of-two capacities and masked
+ * indexing, for String and for Integer keys. The Integer keys are
+ * multiples of 1024 so that only the mixing step keeps them from
+ * landing in a few buckets of the power-of-two table.
+ * <pre>
+ *	java HashtableIndexing [keys] [rounds]
+ * </pre>
+ *
+ * @version 	1.1, 09 Apr 1996
+ */
+public class HashtableIndexing {
+    public static void main(String args[]) {
+	int nkeys = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+	int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+
+	Object strings[] = new Object[nkeys];
+	Object integers[] = new Object[nkeys];
+	for (int i = 0 ; i < nkeys ; i++) {
+	    strings[i] = "key" + i;
+	    integers[i] = new Integer(i << 10);
+	}
+
+	for (int pass = 0 ; pass < 3 ; pass++) {
+	    run("String, modulo", strings, rounds, false);
+	    run("String, power of two", strings, rounds, true);
+	    run("Integer, modulo", integers, rounds, false);
+	    run("Integer, power of two", integers, rounds, true);
+	}
+    }
+
+    static void run(String name, Object keys[], int rounds, boolean powerOfTwo) {
+	long start = System.currentTimeMillis();
+	Hashtable table = new Hashtable(16, 0.75f, powerOfTwo);
+	for (int i = 0 ; i < keys.length ; i++) {
+	    table.put(keys[i], keys[i]);
+	}
+	long put = System.currentTimeMillis() - start;
+
+	start = System.currentTimeMillis();
+	int found = 0;
+	for (int r = 0 ; r < rounds ; r++) {
+	    for (int i = 0 ; i < keys.length ; i++) {
+		if (table.get(keys[i]) != null) {
+		    found++;
+		}
+	    }
+	}
+	long get = System.currentTimeMillis() - start;
+	if (found != rounds * keys.length) {
+	    throw new InternalError(name + ": lost keys");
+	}
+	System.out.println(name + ": put " + put + " ms, get " + get + " ms");
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * @(#)HashtableThroughput.java	1.1 96/04/02
+ *
+ * Copyright (c) 1994-1996 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL or COMMERCIAL purposes and
+ * without fee is hereby granted.
+ * Please refer to the file http://www.javasoft.com/copy_trademarks.html
+ * for further important copyright and trademark information and to
+ * http://www.javasoft.com/licensing.html for further important
+ * licensing information for the Java (tm) Technology.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.ConcurrentHashtable;
+
+/**
+ * Measures lookup throughput of Hashtable against ConcurrentHashtable
+ * with several threads. Every thread does mostly get() calls with a
+ * put() every tenth operation.
+ * <pre>
+ *	java HashtableThroughput [threads] [operations per thread]
+ * </pre>
+ *
+ * @version 	1.1, 02 Apr 1996
+ */
+public class HashtableThroughput {
+    static final int KEYS = 10000;
+
+    public static void main(String args[]) throws InterruptedException {
+	int nthreads = (args.length > 0) ? Integer.parseInt(args[0]) : 4;
+	int nops = (args.length > 1) ? Integer.parseInt(args[1]) : 1000000;
+
+	Integer keys[] = new Integer[KEYS];
+	for (int i = 0 ; i < KEYS ; i++) {
+	    keys[i] = new Integer(i * 7919);
+	}
+
+	for (int round = 0 ; round < 3 ; round++) {
+	    report("Hashtable", run(new Hashtable(), keys, nthreads, nops),
+		   nthreads * nops);
+	    report("ConcurrentHashtable", run(new ConcurrentHashtable(), keys, nthreads, nops),
+		   nthreads * nops);
+	}
+    }
+
+    static long run(Dictionary table, Integer keys[], int nthreads, int nops)
+	throws InterruptedException {
+	for (int i = 0 ; i < keys.length ; i++) {
+	    table.put(keys[i], keys[i]);
+	}
+
+	ThroughputWorker workers[] = new ThroughputWorker[nthreads];
+	for (int i = 0 ; i < nthreads ; i++) {
+	    workers[i] = new ThroughputWorker(table, keys, nops, i);
+	}
+	long start = System.currentTimeMillis();
+	for (int i = 0 ; i < nthreads ; i++) {
+	    workers[i].start();
+	}
+	for (int i = 0 ; i < nthreads ; i++) {
+	    workers[i].join();
+	}
+	return System.currentTimeMillis() - start;
+    }
+
+    static void report(String name, long millis, long ops) {
+	if (millis == 0) {
+	    millis = 1;
+	}
+	System.out.println(name + ": " + millis + " ms, "
+			   + (ops * 1000 / millis) + " ops/s");
+    }
+}
+
+class ThroughputWorker extends Thread {
+    Dictionary table;
+    Integer keys[];
+    int nops;
+    int seed;
+
+    ThroughputWorker(Dictionary table, Integer keys[], int nops, int seed) {
+	super("throughput worker " + seed);
+	this.table = table;
+	this.keys = keys;
+	this.nops = nops;
+	this.seed = seed * 31 + 17;
+    }
+
+    public void run() {
+	Dictionary t = table;
+	Integer k[] = keys;
+	int r = seed;
+	for (int i = 0 ; i < nops ; i++) {
+	    r = r * 1103515245 + 12345;
+	    Integer key = k[(r >>> 8) % k.length];
+	    if (i % 10 == 0) {
+		t.put(key, key);
+	    } else {
+		t.get(key);
+	    }
+	}
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * @(#)PropertiesLoading.java	1.1 96/07/16
+ *
+ * Copyright (c) 1994-1996 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL or COMMERCIAL purposes and
+ * without fee is hereby granted.
+ * Please refer to the file http://www.javasoft.com/copy_trademarks.html
+ * for further important copyright and trademark information and to
+ * http://www.javasoft.com/licensing.html for further important
+ * licensing information for the Java (tm) Technology.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Compares loading a large property list from a text file with
+ * load() and from a binary snapshot with loadSnapshot(). Half of the
+ * properties are defaults, so the snapshot holds two levels.
+ * <pre>
+ *	java PropertiesLoading [properties] [rounds]
+ * </pre>
+ * The files are written to the current directory and removed at the
+ * end.
+ *
+ * @version 	1.1, 16 Jul 1996
+ */
+public class PropertiesLoading {
+    public static void main(String args[]) throws IOException {
+	int n = (args.length > 0) ? Integer.parseInt(args[0]) : 200000;
+	int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+	Properties defaults = new Properties();
+	Properties props = new Properties(defaults);
+	for (int i = 0 ; i < n ; i++) {
+	    Properties p = ((i & 1) == 0) ? props : defaults;
+	    p.put("service.node" + (i % 100) + ".setting" + i,
+		  "value " + i + " of the\tconfiguration");
+	}
+
+	File text = new File("PropertiesLoading.txt");
+	File defaultsText = new File("PropertiesLoading.defaults.txt");
+	File snapshot = new File("PropertiesLoading.bin");
+	FileOutputStream out = new FileOutputStream(text);
+	props.save(out, "PropertiesLoading");
+	out.close();
+	out = new FileOutputStream(defaultsText);
+	defaults.save(out, "PropertiesLoading defaults");
+	out.close();
+	out = new FileOutputStream(snapshot);
+	props.saveSnapshot(out);
+	out.close();
+	System.out.println("text: " + (text.length() + defaultsText.length())
+			   + " bytes, snapshot: " + snapshot.length() + " bytes");
+
+	for (int pass = 0 ; pass < 3 ; pass++) {
+	    long start = System.currentTimeMillis();
+	    int count = 0;
+	    for (int r = 0 ; r < rounds ; r++) {
+		Properties d = new Properties();
+		FileInputStream in = new FileInputStream(defaultsText);
+		d.load(in);
+		in.close();
+		Properties p = new Properties(d);
+		in = new FileInputStream(text);
+		p.load(in);
+		in.close();
+		count += p.size() + d.size();
+	    }
+	    System.out.println("load: " + (System.currentTimeMillis() - start)
+			       + " ms (" + count + ")");
+
+	    start = System.currentTimeMillis();
+	    count = 0;
+	    for (int r = 0 ; r < rounds ; r++) {
+		Properties p = new Properties();
+		FileInputStream in = new FileInputStream(snapshot);
+		p.loadSnapshot(in);
+		in.close();
+		count += p.size() + ((p.getProperty("service.node1.setting1") != null)
+				     ? n - p.size() : 0);
+	    }
+	    System.out.println("loadSnapshot: " + (System.currentTimeMillis() - start)
+			       + " ms (" + count + ")");
+	}
+
+	text.delete();
+	defaultsText.delete();
+	snapshot.delete();
+    }
+}
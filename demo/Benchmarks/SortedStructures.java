@@ -0,0 +1,146 @@
+/*
+ * @(#)SortedStructures.java	1.1 96/07/02
+ *
+ * Copyright (c) 1994-1996 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL or COMMERCIAL purposes and
+ * without fee is hereby granted.
+ * Please refer to the file http://www.javasoft.com/copy_trademarks.html
+ * for further important copyright and trademark information and to
+ * http://www.javasoft.com/licensing.html for further important
+ * licensing information for the Java (tm) Technology.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+import java.util.Enumeration;
+import java.util.PriorityQueue;
+import java.util.TreeDictionary;
+import java.util.Vector;
+
+/**
+ * Compares a Vector that is sorted again after every insert with a
+ * PriorityQueue and a TreeDictionary. Each round inserts timers with
+ * random expiry times, interleaved with taking the earliest timer
+ * after every second insert, then takes the remaining timers in order.
+ * The TreeDictionary also enumerates the timers expiring in the first
+ * tenth of the period.
+ * <pre>
+ *	java SortedStructures [timers] [rounds]
+ * </pre>
+ *
+ * @version 	1.1, 02 Jul 1996
+ */
+public class SortedStructures {
+    public static void main(String args[]) {
+	int n = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+	int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+	Long times[] = new Long[n];
+	int r = 1;
+	for (int i = 0 ; i < n ; i++) {
+	    r = r * 1103515245 + 12345;
+	    times[i] = new Long((r >>> 1) % 1000000000L);
+	}
+
+	for (int pass = 0 ; pass < 3 ; pass++) {
+	    long sum = 0;
+	    long start = System.currentTimeMillis();
+	    for (int round = 0 ; round < rounds ; round++) {
+		Vector v = new Vector();
+		for (int i = 0 ; i < n ; i++) {
+		    v.addElement(times[i]);
+		    sort(v, 0, v.size() - 1);
+		    if ((i & 1) != 0) {
+			sum += ((Long)v.elementAt(0)).longValue();
+			v.removeElementAt(0);
+		    }
+		}
+		while (!v.isEmpty()) {
+		    sum += ((Long)v.elementAt(0)).longValue();
+		    v.removeElementAt(0);
+		}
+	    }
+	    report("sorted Vector", start, sum);
+
+	    sum = 0;
+	    start = System.currentTimeMillis();
+	    for (int round = 0 ; round < rounds ; round++) {
+		PriorityQueue q = new PriorityQueue();
+		for (int i = 0 ; i < n ; i++) {
+		    q.add(times[i]);
+		    if ((i & 1) != 0) {
+			sum += ((Long)q.poll()).longValue();
+		    }
+		}
+		while (!q.isEmpty()) {
+		    sum += ((Long)q.poll()).longValue();
+		}
+	    }
+	    report("PriorityQueue", start, sum);
+
+	    sum = 0;
+	    start = System.currentTimeMillis();
+	    for (int round = 0 ; round < rounds ; round++) {
+		TreeDictionary d = new TreeDictionary();
+		for (int i = 0 ; i < n ; i++) {
+		    d.put(times[i], times[i]);
+		    if ((i & 1) != 0) {
+			sum += ((Long)d.remove(d.firstKey())).longValue();
+		    }
+		}
+		Enumeration e = d.keys(null, new Long(100000000L));
+		while (e.hasMoreElements()) {
+		    e.nextElement();
+		}
+		while (!d.isEmpty()) {
+		    sum += ((Long)d.remove(d.firstKey())).longValue();
+		}
+	    }
+	    report("TreeDictionary", start, sum);
+	}
+    }
+
+    static void report(String what, long start, long sum) {
+	System.out.println(what + ": " + (System.currentTimeMillis() - start)
+			   + " ms (" + sum + ")");
+    }
+
+    /**
+     * The quick sort of the SortDemo, on a Vector of Longs.
+     */
+    static void sort(Vector v, int lo0, int hi0) {
+	int lo = lo0;
+	int hi = hi0;
+	if (hi0 > lo0) {
+	    long mid = ((Long)v.elementAt((lo0 + hi0) / 2)).longValue();
+	    while (lo <= hi) {
+		while ((lo < hi0) && (((Long)v.elementAt(lo)).longValue() < mid)) {
+		    ++lo;
+		}
+		while ((hi > lo0) && (((Long)v.elementAt(hi)).longValue() > mid)) {
+		    --hi;
+		}
+		if (lo <= hi) {
+		    Object t = v.elementAt(lo);
+		    v.setElementAt(v.elementAt(hi), lo);
+		    v.setElementAt(t, hi);
+		    ++lo;
+		    --hi;
+		}
+	    }
+	    if (lo0 < hi) {
+		sort(v, lo0, hi);
+	    }
+	    if (lo < hi0) {
+		sort(v, lo, hi0);
+	    }
+	}
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * @(#)Sorting.java	1.1 96/07/23
+ *
+ * Copyright (c) 1994-1996 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL or COMMERCIAL purposes and
+ * without fee is hereby granted.
+ * Please refer to the file http://www.javasoft.com/copy_trademarks.html
+ * for further important copyright and trademark information and to
+ * http://www.javasoft.com/licensing.html for further important
+ * licensing information for the Java (tm) Technology.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+import java.util.Sort;
+import java.util.Vector;
+
+/**
+ * Compares the quick sort of the SortDemo with Sort.sort() and
+ * Sort.parallelSort() on random and on nearly sorted arrays of ints,
+ * and sorting Strings by hand in a Vector with Vector.sort().
+ * <pre>
+ *	java Sorting [elements] [threads]
+ * </pre>
+ *
+ * @version 	1.1, 23 Jul 1996
+ */
+public class Sorting {
+    public static void main(String args[]) {
+	int n = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+	if (args.length > 1) {
+	    Sort.setParallelism(Integer.parseInt(args[1]));
+	}
+
+	int random[] = new int[n];
+	int nearlySorted[] = new int[n];
+	int r = 1;
+	for (int i = 0 ; i < n ; i++) {
+	    r = r * 1103515245 + 12345;
+	    random[i] = r >>> 1;
+	    nearlySorted[i] = ((r & 0xff) == 0) ? (r >>> 1) : i;
+	}
+	String strings[] = new String[n / 10];
+	for (int i = 0 ; i < strings.length ; i++) {
+	    strings[i] = Integer.toString(random[i], 36);
+	}
+
+	for (int pass = 0 ; pass < 3 ; pass++) {
+	    for (int k = 0 ; k < 2 ; k++) {
+		int data[] = (k == 0) ? random : nearlySorted;
+		String what = (k == 0) ? " random" : " nearly sorted";
+
+		int a[] = copy(data);
+		long start = System.currentTimeMillis();
+		quickSort(a, 0, a.length - 1);
+		report("QSortAlgorithm" + what, start);
+
+		a = copy(data);
+		start = System.currentTimeMillis();
+		Sort.sort(a);
+		report("Sort.sort" + what, start);
+
+		a = copy(data);
+		start = System.currentTimeMillis();
+		Sort.parallelSort(a);
+		report("Sort.parallelSort" + what, start);
+	    }
+
+	    Vector v = new Vector(strings.length);
+	    for (int i = 0 ; i < strings.length ; i++) {
+		v.addElement(strings[i]);
+	    }
+	    long start = System.currentTimeMillis();
+	    quickSort(v, 0, v.size() - 1);
+	    report("QSortAlgorithm Vector of Strings", start);
+
+	    v = new Vector(strings.length);
+	    for (int i = 0 ; i < strings.length ; i++) {
+		v.addElement(strings[i]);
+	    }
+	    start = System.currentTimeMillis();
+	    v.sort();
+	    report("Vector.sort Strings", start);
+	}
+    }
+
+    static int[] copy(int a[]) {
+	int b[] = new int[a.length];
+	System.arraycopy(a, 0, b, 0, a.length);
+	return b;
+    }
+
+    static void report(String what, long start) {
+	System.out.println(what + ": " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * The quick sort of the SortDemo, without the pauses.
+     */
+    static void quickSort(int a[], int lo0, int hi0) {
+	int lo = lo0;
+	int hi = hi0;
+	if (hi0 > lo0) {
+	    int mid = a[(lo0 + hi0) / 2];
+	    while (lo <= hi) {
+		while ((lo < hi0) && (a[lo] < mid)) {
+		    ++lo;
+		}
+		while ((hi > lo0) && (a[hi] > mid)) {
+		    --hi;
+		}
+		if (lo <= hi) {
+		    int t = a[lo];
+		    a[lo] = a[hi];
+		    a[hi] = t;
+		    ++lo;
+		    --hi;
+		}
+	    }
+	    if (lo0 < hi) {
+		quickSort(a, lo0, hi);
+	    }
+	    if (lo < hi0) {
+		quickSort(a, lo, hi0);
+	    }
+	}
+    }
+
+    /**
+     * The same quick sort on a Vector of Strings.
+     */
+    static void quickSort(Vector v, int lo0, int hi0) {
+	int lo = lo0;
+	int hi = hi0;
+	if (hi0 > lo0) {
+	    String mid = (String)v.elementAt((lo0 + hi0) / 2);
+	    while (lo <= hi) {
+		while ((lo < hi0) && (((String)v.elementAt(lo)).compareTo(mid) < 0)) {
+		    ++lo;
+		}
+		while ((hi > lo0) && (((String)v.elementAt(hi)).compareTo(mid) > 0)) {
+		    --hi;
+		}
+		if (lo <= hi) {
+		    Object t = v.elementAt(lo);
+		    v.setElementAt(v.elementAt(hi), lo);
+		    v.setElementAt(t, hi);
+		    ++lo;
+		    --hi;
+		}
+	    }
+	    if (lo0 < hi) {
+		quickSort(v, lo0, hi);
+	    }
+	    if (lo < hi0) {
+		quickSort(v, lo, hi0);
+	    }
+	}
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * @(#)SparseBitmaps.java	1.1 96/06/11
+ *
+ * Copyright (c) 1994-1996 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL or COMMERCIAL purposes and
+ * without fee is hereby granted.
+ * Please refer to the file http://www.javasoft.com/copy_trademarks.html
+ * for further important copyright and trademark information and to
+ * http://www.javasoft.com/licensing.html for further important
+ * licensing information for the Java (tm) Technology.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+import java.util.BitSet;
+import java.util.CompressedBitSet;
+
+/**
+ * Compares the memory use and intersection time of BitSet and
+ * CompressedBitSet for sparse sets. Each set holds a number of
+ * random bits spread over the whole range, plus a few dense stretches.
+ * <pre>
+ *	java SparseBitmaps [bits per set] [range] [rounds]
+ * </pre>
+ *
+ * @version 	1.1, 11 Jun 1996
+ */
+public class SparseBitmaps {
+    public static void main(String args[]) {
+	int nbits = (args.length > 0) ? Integer.parseInt(args[0]) : 10000;
+	int range = (args.length > 1) ? Integer.parseInt(args[1]) : 100000000;
+	int rounds = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+
+	long before = used();
+	BitSet b1 = new BitSet();
+	BitSet b2 = new BitSet();
+	fill(b1, null, nbits, range, 1);
+	fill(b2, null, nbits, range, 2);
+	System.out.println("BitSet: " + (used() - before) / 2 + " bytes per set");
+
+	before = used();
+	CompressedBitSet c1 = new CompressedBitSet();
+	CompressedBitSet c2 = new CompressedBitSet();
+	fill(null, c1, nbits, range, 1);
+	fill(null, c2, nbits, range, 2);
+	System.out.println("CompressedBitSet: " + (used() - before) / 2 + " bytes per set");
+
+	for (int pass = 0 ; pass < 3 ; pass++) {
+	    long start = System.currentTimeMillis();
+	    int count = 0;
+	    for (int r = 0 ; r < rounds ; r++) {
+		BitSet b = (BitSet)b1.clone();
+		b.and(b2);
+		count += b.cardinality();
+	    }
+	    System.out.println("BitSet and: " + (System.currentTimeMillis() - start)
+			       + " ms (" + count + ")");
+
+	    start = System.currentTimeMillis();
+	    count = 0;
+	    for (int r = 0 ; r < rounds ; r++) {
+		CompressedBitSet c = (CompressedBitSet)c1.clone();
+		c.and(c2);
+		count += c.cardinality();
+	    }
+	    System.out.println("CompressedBitSet and: " + (System.currentTimeMillis() - start)
+			       + " ms (" + count + ")");
+	}
+    }
+
+    static void fill(BitSet b, CompressedBitSet c, int nbits, int range, int seed) {
+	int r = seed;
+	for (int i = 0 ; i < nbits ; i++) {
+	    r = r * 1103515245 + 12345;
+	    int bit = (int)(((r >>> 1) * (long)range) >>> 31);
+	    if (b != null) {
+		b.set(bit);
+	    } else {
+		c.set(bit);
+	    }
+	}
+	for (int i = 0 ; i < 10 ; i++) {
+	    int from = (range / 10) * i;
+	    for (int bit = from ; bit < from + 5000 ; bit++) {
+		if (b != null) {
+		    b.set(bit);
+		} else {
+		    c.set(bit);
+		}
+	    }
+	}
+    }
+
+    static long used() {
+	Runtime rt = Runtime.getRuntime();
+	rt.gc();
+	return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * @(#)StringHashing.java	1.1 96/04/23
+ *
+ * Copyright (c) 1994-1996 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL or COMMERCIAL purposes and
+ * without fee is hereby granted.
+ * Please refer to the file http://www.javasoft.com/copy_trademarks.html
+ * for further important copyright and trademark information and to
+ * http://www.javasoft.com/licensing.html for further important
+ * licensing information for the Java (tm) Technology.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+import java.util.Hashtable;
+
+/**
+ * Measures how well String.hashCode() and String.fullHashCode() spread
+ * a corpus of URL-like keys, and the lookup time of a Hashtable using
+ * each of them. The URLs share long prefixes and suffixes and differ
+ * only in a few characters in the middle, which is where the sampling
+ * hashCode() tends to miss them.
+ * <pre>
+ *	java StringHashing [urls] [rounds]
+ * </pre>
+ *
+ * @version 	1.1, 23 Apr 1996
+ */
+public class StringHashing {
+    static String hosts[] = {
+	"http://www.javasoft.com/", "http://java.sun.com/",
+	"http://www.gamelan.com/", "ftp://ftp.uu.net/"
+    };
+    static String dirs[] = {
+	"products/jdk/1.0.2/api/", "doc/programmer.guide/applets/",
+	"pub/archiving/zip/WIN32/", "applets/demo/"
+    };
+    static String files[] = {
+	"/index.html", "/package-summary.html", "/readme.txt", "/images/logo.gif"
+    };
+
+    public static void main(String args[]) {
+	int nurls = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+	int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+
+	String urls[] = new String[nurls];
+	for (int i = 0 ; i < nurls ; i++) {
+	    urls[i] = hosts[i % hosts.length] + dirs[(i / 4) % dirs.length]
+		+ "item" + (i / 16) + files[(i / 2) % files.length];
+	}
+
+	collisions("hashCode", urls, false);
+	collisions("fullHashCode", urls, true);
+	for (int pass = 0 ; pass < 3 ; pass++) {
+	    lookups("hashCode", urls, rounds, false);
+	    lookups("fullHashCode", urls, rounds, true);
+	}
+    }
+
+    /**
+     * Prints the number of keys that share their hash code with
+     * some other key.
+     */
+    static void collisions(String name, String urls[], boolean full) {
+	Hashtable seen = new Hashtable();
+	int colliding = 0;
+	for (int i = 0 ; i < urls.length ; i++) {
+	    Integer h = new Integer(full ? urls[i].fullHashCode() : urls[i].hashCode());
+	    if (seen.put(h, h) != null) {
+		colliding++;
+	    }
+	}
+	System.out.println(name + ": " + seen.size() + " distinct hash codes for "
+			   + urls.length + " urls, " + colliding + " collisions ("
+			   + (colliding * 100 / urls.length) + "%)");
+    }
+
+    static void lookups(String name, String urls[], int rounds, boolean full) {
+	Hashtable table = new Hashtable();
+	table.setFullStringHashing(full);
+	for (int i = 0 ; i < urls.length ; i++) {
+	    table.put(urls[i], urls[i]);
+	}
+
+	long start = System.currentTimeMillis();
+	for (int r = 0 ; r < rounds ; r++) {
+	    for (int i = 0 ; i < urls.length ; i++) {
+		if (table.get(urls[i]) == null) {
+		    throw new InternalError(name + ": lost " + urls[i]);
+		}
+	    }
+	}
+	long millis = System.currentTimeMillis() - start;
+	System.out.println(name + ": " + (rounds * urls.length) + " lookups in "
+			   + millis + " ms");
+    }
+}
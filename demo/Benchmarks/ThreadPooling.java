@@ -0,0 +1,95 @@
+/*
+ * @(#)ThreadPooling.java	1.1 96/08/13
+ *
+ * Copyright (c) 1994-1996 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL or COMMERCIAL purposes and
+ * without fee is hereby granted.
+ * Please refer to the file http://www.javasoft.com/copy_trademarks.html
+ * for further important copyright and trademark information and to
+ * http://www.javasoft.com/licensing.html for further important
+ * licensing information for the Java (tm) Technology.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+
+import java.util.Future;
+import java.util.ThreadPool;
+
+/**
+ * Runs many small tasks, first starting a Thread for each task, then
+ * in a fixed ThreadPool and in an elastic one, and waits for all
+ * of them to finish.
+ * <pre>
+ *	java ThreadPooling [tasks] [threads]
+ * </pre>
+ *
+ * @version 	1.1, 13 Aug 1996
+ */
+public class ThreadPooling {
+    public static void main(String args[]) throws Exception {
+	int n = (args.length > 0) ? Integer.parseInt(args[0]) : 20000;
+	int threads = (args.length > 1) ? Integer.parseInt(args[1]) : 4;
+
+	for (int pass = 0 ; pass < 3 ; pass++) {
+	    long start = System.currentTimeMillis();
+	    Thread t[] = new Thread[n];
+	    for (int i = 0 ; i < n ; i++) {
+		t[i] = new Thread(new SmallTask(i));
+		t[i].start();
+	    }
+	    for (int i = 0 ; i < n ; i++) {
+		t[i].join();
+	    }
+	    report("a Thread for each task", start);
+
+	    run("fixed pool", new ThreadPool("fixed", threads), n);
+	    run("elastic pool", new ThreadPool("elastic", 1, threads, 256, 1000), n);
+	}
+    }
+
+    static void run(String what, ThreadPool pool, int n) throws Exception {
+	long start = System.currentTimeMillis();
+	Future f[] = new Future[n];
+	for (int i = 0 ; i < n ; i++) {
+	    f[i] = pool.submit(new SmallTask(i));
+	}
+	for (int i = 0 ; i < n ; i++) {
+	    f[i].get();
+	}
+	pool.shutdown();
+	pool.awaitTermination(0);
+	report(what, start);
+    }
+
+    static void report(String what, long start) {
+	System.out.println(what + ": " + (System.currentTimeMillis() - start) + " ms");
+    }
+}
+
+/**
+ * A task that does a little arithmetic.
+ */
+class SmallTask implements Runnable {
+    int seed;
+    int result;
+
+    SmallTask(int seed) {
+	this.seed = seed;
+    }
+
+    public void run() {
+	int r = seed;
+	for (int i = 0 ; i < 1000 ; i++) {
+	    r = r * 1103515245 + 12345;
+	}
+	result = r;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * @(#)Tokenizing.java	1.1 96/07/30
+ *
+ * Copyright (c) 1994-1996 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL or COMMERCIAL purposes and
+ * without fee is hereby granted.
+ * Please refer to the file http://www.javasoft.com/copy_trademarks.html
+ * for further important copyright and trademark information and to
+ * http://www.javasoft.com/licensing.html for further important
+ * licensing information for the Java (tm) Technology.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+
+import java.util.StringTokenizer;
+
+/**
+ * Splits log lines with StringTokenizer, counting the tokens with
+ * countTokens(), taking them with nextToken(), and finding them
+ * without creating Strings with nextTokenSpan().
+ * <pre>
+ *	java Tokenizing [lines]
+ * </pre>
+ *
+ * @version 	1.1, 30 Jul 1996
+ */
+public class Tokenizing {
+    public static void main(String args[]) {
+	int n = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+
+	String lines[] = new String[n];
+	for (int i = 0 ; i < n ; i++) {
+	    lines[i] = "1996-07-30 12:" + (i % 60) + ":" + (i % 59) +
+		" host" + (i % 17) + " httpd[" + i + "]: " +
+		(((i % 13) == 0) ? "ERROR" : "INFO") +
+		" GET /index.html 200 " + (i * 7 % 10000);
+	}
+
+	for (int pass = 0 ; pass < 3 ; pass++) {
+	    long start = System.currentTimeMillis();
+	    int count = 0;
+	    for (int i = 0 ; i < n ; i++) {
+		count += new StringTokenizer(lines[i], " :[]").countTokens();
+	    }
+	    report("countTokens", count, start);
+
+	    start = System.currentTimeMillis();
+	    count = 0;
+	    for (int i = 0 ; i < n ; i++) {
+		StringTokenizer st = new StringTokenizer(lines[i], " :[]");
+		while (st.hasMoreTokens()) {
+		    if (st.nextToken().equals("ERROR")) {
+			count++;
+		    }
+		}
+	    }
+	    report("nextToken errors", count, start);
+
+	    start = System.currentTimeMillis();
+	    count = 0;
+	    for (int i = 0 ; i < n ; i++) {
+		String line = lines[i];
+		StringTokenizer st = new StringTokenizer(line, " :[]");
+		while (st.nextTokenSpan()) {
+		    int s = st.tokenStart();
+		    if ((st.tokenEnd() - s == 5) && line.regionMatches(s, "ERROR", 0, 5)) {
+			count++;
+		    }
+		}
+	    }
+	    report("nextTokenSpan errors", count, start);
+	}
+    }
+
+    static void report(String what, int count, long start) {
+	System.out.println(what + ": " + count + " in " +
+			   (System.currentTimeMillis() - start) + " ms");
+    }
+}
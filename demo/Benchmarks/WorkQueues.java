@@ -0,0 +1,135 @@
+/*
+ * @(#)WorkQueues.java	1.1 96/06/25
+ *
+ * Copyright (c) 1994-1996 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL or COMMERCIAL purposes and
+ * without fee is hereby granted.
+ * Please refer to the file http://www.javasoft.com/copy_trademarks.html
+ * for further important copyright and trademark information and to
+ * http://www.javasoft.com/licensing.html for further important
+ * licensing information for the Java (tm) Technology.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+import java.util.ArrayDeque;
+import java.util.BlockingDeque;
+import java.util.Deque;
+import java.util.Stack;
+import java.util.Vector;
+
+/**
+ * Compares queues of jobs. A Vector used as a FIFO queue, removing
+ * its first element, is compared with a Deque and an ArrayDeque, and
+ * a Stack with an ArrayDeque used as a stack. Every queue starts with
+ * a backlog of jobs, and each job removed is replaced by a new one.
+ * Finally jobs are handed from a producer thread to a consumer thread
+ * through a BlockingDeque.
+ * <pre>
+ *	java WorkQueues [backlog] [jobs]
+ * </pre>
+ *
+ * @version 	1.1, 25 Jun 1996
+ */
+public class WorkQueues {
+    public static void main(String args[]) throws InterruptedException {
+	int backlog = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+	int jobs = (args.length > 1) ? Integer.parseInt(args[1]) : 100000;
+
+	Integer job = new Integer(0);
+	for (int pass = 0 ; pass < 3 ; pass++) {
+	    Vector v = new Vector();
+	    for (int i = 0 ; i < backlog ; i++) {
+		v.addElement(job);
+	    }
+	    long start = System.currentTimeMillis();
+	    for (int i = 0 ; i < jobs ; i++) {
+		Object o = v.elementAt(0);
+		v.removeElementAt(0);
+		v.addElement(o);
+	    }
+	    report("Vector FIFO", start);
+
+	    Deque d = new Deque();
+	    for (int i = 0 ; i < backlog ; i++) {
+		d.addLast(job);
+	    }
+	    start = System.currentTimeMillis();
+	    for (int i = 0 ; i < jobs ; i++) {
+		d.addLast(d.removeFirst());
+	    }
+	    report("Deque FIFO", start);
+
+	    ArrayDeque a = new ArrayDeque();
+	    for (int i = 0 ; i < backlog ; i++) {
+		a.addLast(job);
+	    }
+	    start = System.currentTimeMillis();
+	    for (int i = 0 ; i < jobs ; i++) {
+		a.addLast(a.removeFirst());
+	    }
+	    report("ArrayDeque FIFO", start);
+
+	    Stack s = new Stack();
+	    for (int i = 0 ; i < backlog ; i++) {
+		s.push(job);
+	    }
+	    start = System.currentTimeMillis();
+	    for (int i = 0 ; i < jobs ; i++) {
+		s.push(s.pop());
+	    }
+	    report("Stack LIFO", start);
+
+	    a = new ArrayDeque();
+	    for (int i = 0 ; i < backlog ; i++) {
+		a.push(job);
+	    }
+	    start = System.currentTimeMillis();
+	    for (int i = 0 ; i < jobs ; i++) {
+		a.push(a.pop());
+	    }
+	    report("ArrayDeque LIFO", start);
+
+	    BlockingDeque q = new BlockingDeque(1000);
+	    Producer p = new Producer(q, jobs);
+	    start = System.currentTimeMillis();
+	    p.start();
+	    for (int i = 0 ; i < jobs ; i++) {
+		q.takeFirst();
+	    }
+	    p.join();
+	    report("BlockingDeque handoff", start);
+	}
+    }
+
+    static void report(String what, long start) {
+	System.out.println(what + ": " + (System.currentTimeMillis() - start) + " ms");
+    }
+}
+
+class Producer extends Thread {
+    BlockingDeque queue;
+    int jobs;
+
+    Producer(BlockingDeque queue, int jobs) {
+	this.queue = queue;
+	this.jobs = jobs;
+    }
+
+    public void run() {
+	Integer job = new Integer(0);
+	try {
+	    for (int i = 0 ; i < jobs ; i++) {
+		queue.putLast(job);
+	    }
+	} catch (InterruptedException e) {
+	}
+    }
+}
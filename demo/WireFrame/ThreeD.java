@@ -39,6 +39,7 @@ import java.io.StreamTokenizer;
 import java.io.InputStream;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Sort;
 
 class FileFormatException extends Exception {
     public FileFormatException(String s) {
@@ -174,75 +175,11 @@ scan:
 	transformed = true;
     }
 
-   /* Quick Sort implementation
-    */
-   private void quickSort(int a[], int left, int right)
-   {
-      int leftIndex = left;
-      int rightIndex = right;
-      int partionElement;
-      if ( right > left)
-      {
-
-         /* Arbitrarily establishing partition element as the midpoint of
-          * the array.
-          */
-         partionElement = a[ ( left + right ) / 2 ];
-
-         // loop through the array until indices cross
-         while( leftIndex <= rightIndex )
-         {
-            /* find the first element that is greater than or equal to 
-             * the partionElement starting from the leftIndex.
-             */
-            while( ( leftIndex < right ) && ( a[leftIndex] < partionElement ) )
-               ++leftIndex;
-
-            /* find an element that is smaller than or equal to 
-             * the partionElement starting from the rightIndex.
-             */
-            while( ( rightIndex > left ) && 
-                   ( a[rightIndex] > partionElement ) )
-               --rightIndex;
-
-            // if the indexes have not crossed, swap
-            if( leftIndex <= rightIndex ) 
-            {
-               swap(a, leftIndex, rightIndex);
-               ++leftIndex;
-               --rightIndex;
-            }
-         }
-
-         /* If the right index has not reached the left side of array
-          * must now sort the left partition.
-          */
-         if( left < rightIndex )
-            quickSort( a, left, rightIndex );
-
-         /* If the left index has not reached the right side of array
-          * must now sort the right partition.
-          */
-         if( leftIndex < right )
-            quickSort( a, leftIndex, right );
-
-      }
-   }
-
-   private void swap(int a[], int i, int j)
-   {
-      int T;
-      T = a[i]; 
-      a[i] = a[j];
-      a[j] = T;
-   }
-
-
     /** eliminate duplicate lines */
     void compress() {
 	int limit = ncon;
 	int c[] = con;
-	quickSort(con, 0, ncon - 1);
+	Sort.sort(con, 0, ncon);
 	int d = 0;
 	int pp1 = -1;
 	for (int i = 0; i < limit; i++) {
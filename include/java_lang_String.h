@@ -9,7 +9,7 @@ typedef struct Classjava_lang_String {
     struct HArrayOfChar *value;
     long offset;
     long count;
-/* Inaccessible static: InternSet */
+    long hash;
 } Classjava_lang_String;
 HandleTo(java_lang_String);
 
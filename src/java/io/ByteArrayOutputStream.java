@@ -24,14 +24,24 @@ package java.io;
  * used as an OutputStream. The buffer automatically
  * grows when data is written to the stream.
  * The data can be retrieved using toByteArray() and
- * toString().
+ * toString().<p>
+ *
+ * When the buffer is full, a ByteArrayOutputStream keeps it as a
+ * chunk and continues in a new buffer at least as large as everything
+ * written so far, so the data already written is never copied while
+ * the stream grows. The chunks are joined when the data is retrieved,
+ * and writeTo() writes them out one by one without joining them.
+ * A subclass that uses the buf and count fields directly creates its
+ * stream with the protected constructor, which can keep all of the
+ * data in buf.
  * @version 	1.16, 18 Dec 1995
  * @author	Arthur van Hoff
  */
 public
 class ByteArrayOutputStream extends OutputStream {
     /** 
-     * The buffer where data is stored.
+     * The buffer where data is stored. Unless the stream was created
+     * without chunks, it holds only the data written last.
      */
     protected byte buf[];
 
@@ -40,6 +50,31 @@ class ByteArrayOutputStream extends OutputStream {
      */
     protected int count;
 
+    /**
+     * True if the stream grows by adding chunks.
+     */
+    private boolean chunked;
+
+    /**
+     * The buffers filled before buf, oldest first.
+     */
+    private byte chunks[][];
+
+    /**
+     * The number of bytes used in each chunk.
+     */
+    private int chunkLengths[];
+
+    /**
+     * The number of chunks in use.
+     */
+    private int chunkCount;
+
+    /**
+     * The number of bytes in the chunks.
+     */
+    private int chunkedSize;
+
     /**
      * Creates a new ByteArrayOutputStream.
      */
@@ -52,22 +87,79 @@ class ByteArrayOutputStream extends OutputStream {
      * @param size the initial size
      */
     public ByteArrayOutputStream(int size) {
+	this(size, true);
+    }
+
+    /**
+     * Creates a new ByteArrayOutputStream with the specified initial
+     * size. A stream without chunks copies buf into a bigger one when
+     * it is full, so that buf always holds all of the data.
+     * @param size the initial size
+     * @param chunked true if the stream grows by adding chunks
+     */
+    protected ByteArrayOutputStream(int size, boolean chunked) {
 	buf = new byte[size];
+	this.chunked = chunked;
     }
 
     /**
-     * Writes a byte to the buffer.
-     * @param b	the byte
+     * Makes room in buf for len more bytes. The full buffer is either
+     * kept as a chunk or, without chunks, copied into a bigger one.
      */
-    public synchronized void write(int b) {
-	int newcount = count + 1;
-	if (newcount > buf.length) {
+    private void grow(int len) {
+	int newcount = count + len;
+	if (!chunked) {
 	    byte newbuf[] = new byte[Math.max(buf.length << 1, newcount)];
 	    System.arraycopy(buf, 0, newbuf, 0, count);
 	    buf = newbuf;
+	    return;
+	}
+
+	if (count > 0) {
+	    if (chunks == null) {
+		chunks = new byte[8][];
+		chunkLengths = new int[8];
+	    } else if (chunkCount == chunks.length) {
+		byte newChunks[][] = new byte[chunkCount * 2][];
+		int newLengths[] = new int[chunkCount * 2];
+		System.arraycopy(chunks, 0, newChunks, 0, chunkCount);
+		System.arraycopy(chunkLengths, 0, newLengths, 0, chunkCount);
+		chunks = newChunks;
+		chunkLengths = newLengths;
+	    }
+	    chunks[chunkCount] = buf;
+	    chunkLengths[chunkCount++] = count;
+	    chunkedSize += count;
+	}
+	buf = new byte[Math.max(Math.max(buf.length, chunkedSize), len)];
+	count = 0;
+    }
+
+    /**
+     * Joins the chunks and buf into buf, which then holds exactly
+     * all of the data.
+     */
+    private void join() {
+	if (chunkCount > 0) {
+	    buf = toByteArray();
+	    count = buf.length;
+	    for (int i = 0 ; i < chunkCount ; i++) {
+		chunks[i] = null;
+	    }
+	    chunkCount = 0;
+	    chunkedSize = 0;
+	}
+    }
+
+    /**
+     * Writes a byte to the buffer.
+     * @param b	the byte
+     */
+    public synchronized void write(int b) {
+	if (count + 1 > buf.length) {
+	    grow(1);
 	}
-	buf[count] = (byte)b;
-	count = newcount;
+	buf[count++] = (byte)b;
     }
 
     /**
@@ -77,29 +169,37 @@ class ByteArrayOutputStream extends OutputStream {
      * @param len	the number of bytes that are written
      */
     public synchronized void write(byte b[], int off, int len) {
-	int newcount = count + len;
-	if (newcount > buf.length) {
-	    byte newbuf[] = new byte[Math.max(buf.length << 1, newcount)];
-	    System.arraycopy(buf, 0, newbuf, 0, count);
-	    buf = newbuf;
+	if (count + len > buf.length) {
+	    grow(len);
 	}
 	System.arraycopy(b, off, buf, count, len);
-	count = newcount;
+	count += len;
     }
 
     /**
-     * Writes the contents of the buffer to another stream.
+     * Writes the contents of the buffer to another stream. The chunks
+     * of a large buffer are written one after the other without first
+     * being copied into one array.
      * @param out	the output stream to write to
      */
     public synchronized void writeTo(OutputStream out) throws IOException {
+	for (int i = 0 ; i < chunkCount ; i++) {
+	    out.write(chunks[i], 0, chunkLengths[i]);
+	}
 	out.write(buf, 0, count);
     }
 
     /**
      * Resets the buffer so that you can use it again without
-     * throwing away the already allocated buffer.
+     * throwing away the already allocated buffer. Only the most
+     * recently allocated chunk is kept.
      */
     public synchronized void reset() {
+	for (int i = 0 ; i < chunkCount ; i++) {
+	    chunks[i] = null;
+	}
+	chunkCount = 0;
+	chunkedSize = 0;
 	count = 0;
     }
 
@@ -107,8 +207,13 @@ class ByteArrayOutputStream extends OutputStream {
      * Returns a copy of the input data.
      */
     public synchronized byte toByteArray()[] {
-	byte newbuf[] = new byte[count];
-	System.arraycopy(buf, 0, newbuf, 0, count);
+	byte newbuf[] = new byte[chunkedSize + count];
+	int pos = 0;
+	for (int i = 0 ; i < chunkCount ; i++) {
+	    System.arraycopy(chunks[i], 0, newbuf, pos, chunkLengths[i]);
+	    pos += chunkLengths[i];
+	}
+	System.arraycopy(buf, 0, newbuf, pos, count);
 	return newbuf;
     }
 
@@ -116,7 +221,7 @@ class ByteArrayOutputStream extends OutputStream {
      * Returns the current size of the buffer.
      */
     public int size() {
-	return count;
+	return chunkedSize + count;
     }
 
     /**
@@ -124,15 +229,18 @@ class ByteArrayOutputStream extends OutputStream {
      * @return the string.
      */
     public String toString() {
-	return new String(toByteArray(), 0);
+	return toString(0);
     }
 
     /**
      * Converts input data to a string. The top 8 bits of 
-     * each 16 bit Unicode character are set to hibyte.
+     * each 16 bit Unicode character are set to hibyte. The chunks
+     * of a large buffer are joined once and kept joined, so the
+     * data is not copied again by later calls.
      * @param hibyte the bits set
      */
-    public String toString(int hibyte) {
-	return new String(toByteArray(), hibyte);
+    public synchronized String toString(int hibyte) {
+	join();
+	return new String(buf, hibyte, 0, count);
     }
 }
@@ -35,6 +35,11 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
      */
     protected int written;
 
+    /**
+     * Scratch space for writing numbers as text, or null.
+     */
+    private byte digits[];
+
     /**
      * Creates a new DataOutputStream.
      * @param out	the output stream
@@ -176,6 +181,38 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
 	written += len;
     }
 
+    /**
+     * Writes the decimal representation of an int as a sequence of
+     * bytes, the same bytes as writeBytes(String.valueOf(v)) but
+     * without creating a String.
+     * @param v the int to be written
+     */
+    public final synchronized void writeDecimal(int v) throws IOException {
+	byte buf[] = digits;
+	if (buf == null) {
+	    buf = digits = new byte[20];
+	}
+	int len = Integer.getBytes(v, buf, 0);
+	out.write(buf, 0, len);
+	written += len;
+    }
+
+    /**
+     * Writes the decimal representation of a long as a sequence of
+     * bytes, the same bytes as writeBytes(String.valueOf(v)) but
+     * without creating a String.
+     * @param v the long to be written
+     */
+    public final synchronized void writeDecimal(long v) throws IOException {
+	byte buf[] = digits;
+	if (buf == null) {
+	    buf = digits = new byte[20];
+	}
+	int len = Long.getBytes(v, buf, 0);
+	out.write(buf, 0, len);
+	written += len;
+    }
+
     /**
      * Writes a String as a sequence of chars.
      * @param s the String of chars to be written
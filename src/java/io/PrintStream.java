@@ -42,6 +42,11 @@ class PrintStream extends FilterOutputStream {
     private boolean autoflush;
     private boolean trouble;
 
+    /**
+     * Scratch space for printing numbers.
+     */
+    private byte digits[] = new byte[20];
+
     /**
      * Creates a new PrintStream.
      * @param out	the output stream
@@ -185,16 +190,31 @@ class PrintStream extends FilterOutputStream {
      * Prints an integer.
      * @param i the integer to be printed
      */
-    public void print(int i) {
-	print(String.valueOf(i));
+    synchronized public void print(int i) {
+	writeDigits(Integer.getBytes(i, digits, 0));
     }
 
     /**
      * Prints a long.
      * @param l the long to be printed.
      */
-    public void print(long l) {
-	print(String.valueOf(l));
+    synchronized public void print(long l) {
+	writeDigits(Long.getBytes(l, digits, 0));
+    }
+
+    /**
+     * Writes the first len bytes of the digit buffer. Digits never
+     * contain a newline, so there is nothing to flush.
+     */
+    private void writeDigits(int len) {
+	try {
+	    out.write(digits, 0, len);
+  	} catch (InterruptedIOException ex) {
+	    // We've been interrupted.  Make sure we're still interrupted.
+	    Thread.currentThread().interrupt();
+	} catch (IOException ex) {
+	    trouble = true;
+	}
     }
 
     /**
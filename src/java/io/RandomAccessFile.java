@@ -344,7 +344,7 @@ class RandomAccessFile implements DataOutput, DataInput {
      * Reads a line terminated by a '\n' or EOF.
      */
     public final String readLine() throws IOException {
-	StringBuffer input = new StringBuffer();
+	StringBuilder input = new StringBuilder();
 	int c;
 
 	while (((c = read()) != -1) && (c != '\n')) {
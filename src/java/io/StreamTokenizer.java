@@ -290,30 +290,27 @@ class StreamTokenizer {
 		}
 		neg = true;
 	    }
-	    double v = 0;
-	    int decexp = 0;
-	    int seendot = 0;
+	    int i = 0;
+	    boolean seendot = false;
+	    boolean seendigit = false;
 	    while (true) {
-		if (c == '.' && seendot == 0)
-		    seendot = 1;
-		else if ('0' <= c && c <= '9') {
-		    v = v * 10 + (c - '0');
-		    decexp += seendot;
-		} else
+		if (c == '.' && !seendot)
+		    seendot = true;
+		else if ('0' <= c && c <= '9')
+		    seendigit = true;
+		else
 		    break;
+		if (i >= buf.length) {
+		    char nb[] = new char[buf.length * 2];
+		    System.arraycopy(buf, 0, nb, 0, buf.length);
+		    buf = nb;
+		}
+		buf[i++] = (char) c;
 		c = is.read();
 	    }
 	    peekc = c;
-	    if (decexp != 0) {
-		double denom = 10;
-		decexp--;
-		while (decexp > 0) {
-		    denom *= 10;
-		    decexp--;
-		}
-		/* do one division of a likely-to-be-more-accurate number */
-		v = v / denom;
-	    }
+	    /* convert the collected digits to the nearest double */
+	    double v = seendigit ? Double.parseDouble(buf, 0, i) : 0;
 	    nval = neg ? -v : v;
 	    return ttype = TT_NUMBER;
 	}
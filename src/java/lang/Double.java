@@ -62,9 +62,29 @@ class Double extends Number {
 
     /**
      * Returns a String representation for the specified double value.
+     * The digits are the fewest that convert back to the same double.
      * @param d	the double to be converted
      */
-    public static native String toString(double d);
+    public static String toString(double d) {
+	char buf[] = new char[FloatingDecimal.MAX_CHARS];
+	return new String(buf, 0, FloatingDecimal.getChars(d, buf, 0));
+    }
+
+    /**
+     * Writes the String representation of the specified double into
+     * a character array, without creating a String. The array must
+     * have room for 24 characters at the offset.
+     * @param d		the double to be converted
+     * @param dst	the destination array
+     * @param off	where to start in the destination array
+     * @return		the offset just past the last character written.
+     * @exception ArrayIndexOutOfBoundsException If there is not enough
+     * room in the array.
+     * @see Double#toString
+     */
+    public static int getChars(double d, char dst[], int off) {
+	return FloatingDecimal.getChars(d, dst, off);
+    }
 
     /**
      * Returns a new Double value initialized to the value represented by the 
@@ -72,7 +92,34 @@ class Double extends Number {
      * @param s		the String to be parsed
      * @exception NumberFormatException If the String cannot be parsed.
      */
-    public static native Double valueOf(String s) throws NumberFormatException;
+    public static Double valueOf(String s) throws NumberFormatException {
+	return new Double(parseDouble(s));
+    }
+
+    /**
+     * Returns the double value represented by the specified String.
+     * Unlike valueOf(), no Double object is created. The result is
+     * the double nearest to the decimal number.
+     * @param s		the String to be parsed
+     * @exception NumberFormatException If the String cannot be parsed.
+     */
+    public static double parseDouble(String s) throws NumberFormatException {
+	return FloatingDecimal.parse(s, null, 0, s.length(), false);
+    }
+
+    /**
+     * Returns the double value represented by a range of characters.
+     * No object is created unless the characters cannot be parsed.
+     * @param buf	the characters to be parsed
+     * @param offset	the index of the first character
+     * @param count	the number of characters
+     * @exception NumberFormatException If the characters cannot be parsed.
+     * @see Double#parseDouble(String)
+     */
+    public static double parseDouble(char buf[], int offset, int count)
+	throws NumberFormatException {
+	return FloatingDecimal.parse(null, buf, offset, count, false);
+    }
 
 
     /**
@@ -111,8 +158,7 @@ class Double extends Number {
      * @exception	NumberFormatException If the String does not contain a parsable number.
      */
     public Double(String s) throws NumberFormatException {
-	// REMIND: this is inefficient
-	this(valueOf(s).doubleValue());
+	this(parseDouble(s));
     }
 
     /**
@@ -61,9 +61,29 @@ class Float extends Number {
 
     /**
      * Returns a String representation for the specified float value.
+     * The digits are the fewest that convert back to the same float.
      * @param f	the float to be converted
      */
-    public static native String toString(float f);
+    public static String toString(float f) {
+	char buf[] = new char[FloatingDecimal.MAX_CHARS];
+	return new String(buf, 0, FloatingDecimal.getChars(f, buf, 0));
+    }
+
+    /**
+     * Writes the String representation of the specified float into
+     * a character array, without creating a String. The array must
+     * have room for 24 characters at the offset.
+     * @param f		the float to be converted
+     * @param dst	the destination array
+     * @param off	where to start in the destination array
+     * @return		the offset just past the last character written.
+     * @exception ArrayIndexOutOfBoundsException If there is not enough
+     * room in the array.
+     * @see Float#toString
+     */
+    public static int getChars(float f, char dst[], int off) {
+	return FloatingDecimal.getChars(f, dst, off);
+    }
 
     /**
      * Returns the floating point value represented by the specified String.
@@ -71,7 +91,35 @@ class Float extends Number {
      * @exception	NumberFormatException If the String does not contain a parsable 
      * Float.
      */
-    public static native Float valueOf(String s) throws NumberFormatException;
+    public static Float valueOf(String s) throws NumberFormatException {
+	return new Float(parseFloat(s));
+    }
+
+    /**
+     * Returns the float value represented by the specified String.
+     * Unlike valueOf(), no Float object is created. The result is
+     * the float nearest to the decimal number.
+     * @param s		the String to be parsed
+     * @exception	NumberFormatException If the String does not contain a parsable 
+     * Float.
+     */
+    public static float parseFloat(String s) throws NumberFormatException {
+	return (float)FloatingDecimal.parse(s, null, 0, s.length(), true);
+    }
+
+    /**
+     * Returns the float value represented by a range of characters.
+     * No object is created unless the characters cannot be parsed.
+     * @param buf	the characters to be parsed
+     * @param offset	the index of the first character
+     * @param count	the number of characters
+     * @exception NumberFormatException If the characters cannot be parsed.
+     * @see Float#parseFloat(String)
+     */
+    public static float parseFloat(char buf[], int offset, int count)
+	throws NumberFormatException {
+	return (float)FloatingDecimal.parse(null, buf, offset, count, true);
+    }
 
     /**
      * Returns true if the specified number is the special Not-a-Number (NaN) value.
@@ -117,8 +165,7 @@ class Float extends Number {
      * @exception	NumberFormatException If the String does not contain a parsable number.
      */
     public Float(String s) throws NumberFormatException {
-	// REMIND: this is inefficient
-	this(valueOf(s).floatValue());
+	this(parseFloat(s));
     }
 
     /**
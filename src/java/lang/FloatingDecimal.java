@@ -0,0 +1,835 @@
+/*
+ * @(#)FloatingDecimal.java	1.1 96/05/21
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.lang;
+
+/**
+ * Conversions between decimal text and double or float values, used by
+ * Double and Float.<p>
+ *
+ * Parsing returns a primitive and allocates nothing when the number
+ * has few enough digits to be converted with a single exact floating
+ * point multiplication or division, which covers most numbers found in
+ * real input. Other numbers are converted exactly with big integer
+ * arithmetic. Either way the result is the value nearest to the decimal
+ * number.<p>
+ *
+ * Printing produces the shortest decimal number that converts back to
+ * the same value. Integers below 10^7 are printed directly; other values
+ * use the free-format algorithm of Steele and White.
+ *
+ * @version 	1.1, 21 May 1996
+ */
+final
+class FloatingDecimal {
+    /**
+     * The maximum number of characters written by getChars().
+     */
+    static final int MAX_CHARS = 24;
+
+    /**
+     * The powers of ten that are exact as doubles.
+     */
+    private static final double doublePow10[] = {
+	1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+	1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+	1e21, 1e22
+    };
+
+    /**
+     * The powers of ten that are exact as floats.
+     */
+    private static final float floatPow10[] = {
+	1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private FloatingDecimal() {
+    }
+
+    private static char charAt(String s, char buf[], int i) {
+	return (s != null) ? s.charAt(i) : buf[i];
+    }
+
+    private static boolean matches(String s, char buf[], int i, int end, String word) {
+	int len = word.length();
+	if (end - i != len) {
+	    return false;
+	}
+	for (int j = 0 ; j < len ; j++) {
+	    if (charAt(s, buf, i + j) != word.charAt(j)) {
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    private static NumberFormatException error(String s, char buf[], int off, int len) {
+	return new NumberFormatException((s != null) ? s : new String(buf, off, len));
+    }
+
+    /**
+     * Parses a decimal number. The number is taken from s if it is not
+     * null, and from len characters of buf at off otherwise. A float
+     * result is returned as the double with the same value.
+     * @param s		the String to be parsed, or null
+     * @param buf	the characters to be parsed if s is null
+     * @param off	the offset of the first character
+     * @param len	the number of characters
+     * @param single	true to round to a float instead of a double
+     * @exception NumberFormatException If the text is not a number.
+     */
+    static double parse(String s, char buf[], int off, int len, boolean single)
+	throws NumberFormatException {
+	int i = off;
+	int end = off + len;
+	while ((i < end) && (charAt(s, buf, i) <= ' ')) {
+	    i++;
+	}
+	while ((end > i) && (charAt(s, buf, end - 1) <= ' ')) {
+	    end--;
+	}
+
+	boolean neg = false;
+	if (i < end) {
+	    char c = charAt(s, buf, i);
+	    if ((c == '-') || (c == '+')) {
+		neg = (c == '-');
+		i++;
+	    }
+	}
+	if (matches(s, buf, i, end, "NaN")) {
+	    return Double.NaN;
+	}
+	if (matches(s, buf, i, end, "Infinity")) {
+	    return neg ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+	}
+	if (end > i) {
+	    char c = charAt(s, buf, end - 1);
+	    if ((c == 'd') || (c == 'D') || (c == 'f') || (c == 'F')) {
+		end--;
+	    }
+	}
+
+	// Scan the mantissa. Only the digits from the first to the last
+	// nonzero one matter; up to 18 of them are collected in mant.
+	int start = i;
+	int digits = 0;
+	int intDigits = -1;
+	int first = -1;
+	int last = -1;
+	long mant = 0;
+	int mantDigits = 0;
+	for (; i < end ; i++) {
+	    char c = charAt(s, buf, i);
+	    if ((c >= '0') && (c <= '9')) {
+		if (c != '0') {
+		    if (first < 0) {
+			first = digits;
+		    }
+		    last = digits;
+		}
+		if ((first >= 0) && (mantDigits < 18)) {
+		    mant = mant * 10 + (c - '0');
+		    mantDigits++;
+		}
+		digits++;
+	    } else if ((c == '.') && (intDigits < 0)) {
+		intDigits = digits;
+	    } else {
+		break;
+	    }
+	}
+	if (digits == 0) {
+	    throw error(s, buf, off, len);
+	}
+	if (intDigits < 0) {
+	    intDigits = digits;
+	}
+
+	// Scan the exponent, which is clamped well beyond any
+	// value that could make a difference.
+	int exp = 0;
+	if ((i < end) && ((charAt(s, buf, i) == 'e') || (charAt(s, buf, i) == 'E'))) {
+	    boolean negExp = false;
+	    if (++i < end) {
+		char c = charAt(s, buf, i);
+		if ((c == '-') || (c == '+')) {
+		    negExp = (c == '-');
+		    i++;
+		}
+	    }
+	    int expStart = i;
+	    for (; i < end ; i++) {
+		char c = charAt(s, buf, i);
+		if ((c < '0') || (c > '9')) {
+		    break;
+		}
+		if (exp < 100000) {
+		    exp = exp * 10 + (c - '0');
+		}
+	    }
+	    if (i == expStart) {
+		throw error(s, buf, off, len);
+	    }
+	    if (negExp) {
+		exp = -exp;
+	    }
+	}
+	if (i != end) {
+	    throw error(s, buf, off, len);
+	}
+
+	if (first < 0) {
+	    return neg ? -0.0 : 0.0;
+	}
+
+	// The value is D * 10^e, where D is the integer made of the
+	// nd significant digits.
+	int nd = last - first + 1;
+	int e = exp + intDigits - (last + 1);
+	double v;
+
+	if ((nd <= 15) && !single) {
+	    while (mantDigits > nd) {
+		mant /= 10;
+		mantDigits--;
+	    }
+	    v = (double)mant;
+	    if (e == 0) {
+		return neg ? -v : v;
+	    }
+	    if ((e > 0) && (e <= 22)) {
+		v *= doublePow10[e];
+		return neg ? -v : v;
+	    }
+	    if ((e < 0) && (e >= -22)) {
+		v /= doublePow10[-e];
+		return neg ? -v : v;
+	    }
+	    if ((e > 22) && (e <= 22 + 15 - nd)) {
+		// Move some of the exponent into the mantissa, which
+		// still has few enough digits to be exact.
+		v *= doublePow10[e - 22];
+		v *= doublePow10[22];
+		return neg ? -v : v;
+	    }
+	} else if ((nd <= 7) && single) {
+	    while (mantDigits > nd) {
+		mant /= 10;
+		mantDigits--;
+	    }
+	    float f = (float)mant;
+	    if ((e >= 0) && (e <= 10)) {
+		f *= floatPow10[e];
+		return neg ? -f : f;
+	    }
+	    if ((e < 0) && (e >= -10)) {
+		f /= floatPow10[-e];
+		return neg ? -f : f;
+	    }
+	}
+
+	// Values far outside the range are decided by their length alone.
+	if (nd + e > (single ? 39 : 310)) {
+	    return neg ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+	}
+	if (nd + e <= (single ? -46 : -324)) {
+	    return neg ? -0.0 : 0.0;
+	}
+
+	FDBigInt d = new FDBigInt(((nd * 7) >> 6) + 2);
+	int chunk = 0;
+	int chunkDigits = 0;
+	for (int j = 0, k = start ; j <= last ; k++) {
+	    char c = charAt(s, buf, k);
+	    if (c == '.') {
+		continue;
+	    }
+	    if (j++ < first) {
+		continue;
+	    }
+	    chunk = chunk * 10 + (c - '0');
+	    if (++chunkDigits == 9) {
+		d.mulAdd(1000000000, chunk);
+		chunk = 0;
+		chunkDigits = 0;
+	    }
+	}
+	if (chunkDigits > 0) {
+	    int scale = 10;
+	    while (--chunkDigits > 0) {
+		scale *= 10;
+	    }
+	    d.mulAdd(scale, chunk);
+	}
+	v = exact(d, e, single);
+	return neg ? -v : v;
+    }
+
+    /**
+     * Returns the double or float nearest to d * 10^e. The value is
+     * first reduced exactly to q * 2^t, where q is an integer of 62
+     * or 63 bits and a sticky bit records whether anything was left
+     * over, and then rounded to the nearest even.
+     */
+    private static double exact(FDBigInt d, int e, boolean single) {
+	long q;
+	int t;
+	boolean sticky;
+	if (e >= 0) {
+	    d.mulPow5(e);
+	    int shift = d.bitLength() - 62;
+	    if (shift > 0) {
+		q = d.longAt(shift);
+		sticky = d.lowBitsNonZero(shift);
+	    } else {
+		q = d.longAt(0) << -shift;
+		sticky = false;
+	    }
+	    t = e + shift;
+	} else {
+	    FDBigInt s = new FDBigInt(((-e * 10) >> 7) + 2);
+	    s.setLong(1);
+	    s.mulPow5(-e);
+	    int shift = s.bitLength() - d.bitLength() + 62;
+	    if (shift > 0) {
+		d.shiftLeft(shift);
+	    } else {
+		s.shiftLeft(-shift);
+	    }
+	    s.shiftLeft(62);
+	    q = 0;
+	    for (int bit = 62 ; bit >= 0 ; bit--) {
+		if (d.cmp(s) >= 0) {
+		    d.sub(s);
+		    q |= 1L << bit;
+		}
+		s.shiftRight1();
+	    }
+	    sticky = !d.isZero();
+	    t = e - shift;
+	}
+
+	int p = single ? 24 : 53;
+	int minK = single ? -149 : -1074;
+	int maxK = single ? 104 : 971;
+	int k = t + bitLength(q) - p;
+	if (k < minK) {
+	    k = minK;
+	}
+	int shift = k - t;
+	long m;
+	if (shift > 63) {
+	    m = 0;
+	} else {
+	    m = q >>> shift;
+	    long rest = q & ((1L << shift) - 1);
+	    long half = 1L << (shift - 1);
+	    if ((rest > half) || ((rest == half) && (sticky || ((m & 1) != 0)))) {
+		m++;
+		if (m == (1L << p)) {
+		    m >>>= 1;
+		    k++;
+		}
+	    }
+	}
+	if (k > maxK) {
+	    return Double.POSITIVE_INFINITY;
+	}
+
+	long hidden = 1L << (p - 1);
+	if (single) {
+	    int bits = (int)m;
+	    if (m >= hidden) {
+		bits = ((k - minK + 1) << (p - 1)) | (int)(m & (hidden - 1));
+	    }
+	    return (double)Float.intBitsToFloat(bits);
+	}
+	long bits = m;
+	if (m >= hidden) {
+	    bits = ((long)(k - minK + 1) << (p - 1)) | (m & (hidden - 1));
+	}
+	return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Returns the number of significant bits in x.
+     */
+    static int bitLength(long x) {
+	int n = 0;
+	if ((x >>> 32) != 0) {
+	    x >>>= 32;
+	    n = 32;
+	}
+	return n + bitLength((int)x);
+    }
+
+    /**
+     * Returns the number of significant bits in x, which is treated
+     * as unsigned.
+     */
+    static int bitLength(int x) {
+	int n = 0;
+	if ((x >>> 16) != 0) {
+	    x >>>= 16;
+	    n += 16;
+	}
+	if ((x >>> 8) != 0) {
+	    x >>>= 8;
+	    n += 8;
+	}
+	if ((x >>> 4) != 0) {
+	    x >>>= 4;
+	    n += 4;
+	}
+	while (x != 0) {
+	    x >>>= 1;
+	    n++;
+	}
+	return n;
+    }
+
+    /**
+     * Writes the shortest decimal representation of a double that
+     * converts back to the same double.
+     * @return	the offset just past the last character written.
+     */
+    static int getChars(double v, char dst[], int off) {
+	if (v != v) {
+	    return putString("NaN", dst, off);
+	}
+	long bits = Double.doubleToLongBits(v);
+	if (bits < 0) {
+	    dst[off++] = '-';
+	}
+	if (v == 0) {
+	    return putString("0.0", dst, off);
+	}
+	if ((v == Double.POSITIVE_INFINITY) || (v == Double.NEGATIVE_INFINITY)) {
+	    return putString("Infinity", dst, off);
+	}
+	int be = (int)(bits >>> 52) & 0x7ff;
+	long f = bits & 0xfffffffffffffL;
+	if (be == 0) {
+	    return format(f, -1074, 53, -1074, dst, off);
+	}
+	return format(f | (1L << 52), be - 1075, 53, -1074, dst, off);
+    }
+
+    /**
+     * Writes the shortest decimal representation of a float that
+     * converts back to the same float.
+     * @return	the offset just past the last character written.
+     */
+    static int getChars(float v, char dst[], int off) {
+	if (v != v) {
+	    return putString("NaN", dst, off);
+	}
+	int bits = Float.floatToIntBits(v);
+	if (bits < 0) {
+	    dst[off++] = '-';
+	}
+	if (v == 0) {
+	    return putString("0.0", dst, off);
+	}
+	if ((v == Float.POSITIVE_INFINITY) || (v == Float.NEGATIVE_INFINITY)) {
+	    return putString("Infinity", dst, off);
+	}
+	int be = (bits >>> 23) & 0xff;
+	int f = bits & 0x7fffff;
+	if (be == 0) {
+	    return format(f, -149, 24, -149, dst, off);
+	}
+	return format(f | (1 << 23), be - 150, 24, -149, dst, off);
+    }
+
+    private static int putString(String str, char dst[], int off) {
+	int len = str.length();
+	str.getChars(0, len, dst, off);
+	return off + len;
+    }
+
+    /**
+     * Writes the positive value f * 2^e, where f has at most p bits
+     * and e is not below minE.
+     */
+    private static int format(long f, int e, int p, int minE, char dst[], int off) {
+	// Small integers are printed directly.
+	if ((e <= 0) && (e > -p) && ((f & ((1L << -e) - 1)) == 0)) {
+	    long n = f >> -e;
+	    if (n < 10000000) {
+		off = Long.getChars(n, dst, off);
+		dst[off++] = '.';
+		dst[off++] = '0';
+		return off;
+	    }
+	} else if ((e > 0) && (e < 8) && ((f << e) < 10000000)) {
+	    off = Long.getChars(f << e, dst, off);
+	    dst[off++] = '.';
+	    dst[off++] = '0';
+	    return off;
+	}
+
+	// The value is r/s, and the neighbouring values are halfway
+	// to r/s - mMinus/s and r/s + mPlus/s.
+	boolean even = (f & 1) == 0;
+	boolean boundary = (f == (1L << (p - 1))) && (e > minE);
+	FDBigInt r = new FDBigInt(4);
+	FDBigInt s = new FDBigInt(4);
+	FDBigInt mPlus = new FDBigInt(4);
+	FDBigInt mMinus = mPlus;
+	if (e >= 0) {
+	    r.setLong(f);
+	    r.shiftLeft(e + (boundary ? 2 : 1));
+	    s.setLong(boundary ? 4 : 2);
+	    mPlus.setLong(1);
+	    mPlus.shiftLeft(e + (boundary ? 1 : 0));
+	    if (boundary) {
+		mMinus = new FDBigInt(4);
+		mMinus.setLong(1);
+		mMinus.shiftLeft(e);
+	    }
+	} else {
+	    r.setLong(f);
+	    r.shiftLeft(boundary ? 2 : 1);
+	    s.setLong(1);
+	    s.shiftLeft(-e + (boundary ? 2 : 1));
+	    mPlus.setLong(boundary ? 2 : 1);
+	    if (boundary) {
+		mMinus = new FDBigInt(4);
+		mMinus.setLong(1);
+	    }
+	}
+
+	// Estimate the decimal exponent k so that the value is just
+	// below 10^k, then correct the estimate, which may be one low.
+	int k = (int)Math.ceil((bitLength(f) + e - 1) * 0.30102999566398114 - 1e-10);
+	if (k >= 0) {
+	    s.mulPow5(k);
+	    s.shiftLeft(k);
+	} else {
+	    r.mulPow5(-k);
+	    r.shiftLeft(-k);
+	    mPlus.mulPow5(-k);
+	    mPlus.shiftLeft(-k);
+	    if (mMinus != mPlus) {
+		mMinus.mulPow5(-k);
+		mMinus.shiftLeft(-k);
+	    }
+	}
+	FDBigInt tmp = new FDBigInt(s.nWords + 1);
+	for (;;) {
+	    tmp.set(r);
+	    tmp.add(mPlus);
+	    int c = tmp.cmp(s);
+	    if (even ? (c < 0) : (c <= 0)) {
+		break;
+	    }
+	    s.mulAdd(10, 0);
+	    k++;
+	}
+
+	// Lay out the digits: plain notation for values from 10^-3
+	// up to 10^7, computerized scientific notation otherwise.
+	boolean sci = (k < -2) || (k > 7);
+	int start;
+	if (sci) {
+	    start = off + 1;
+	} else if (k <= 0) {
+	    dst[off++] = '0';
+	    dst[off++] = '.';
+	    for (int i = -k ; i-- > 0 ;) {
+		dst[off++] = '0';
+	    }
+	    start = off;
+	} else {
+	    start = off;
+	}
+
+	int pos = start;
+	for (;;) {
+	    r.mulAdd(10, 0);
+	    mPlus.mulAdd(10, 0);
+	    if (mMinus != mPlus) {
+		mMinus.mulAdd(10, 0);
+	    }
+	    int digit = 0;
+	    while (r.cmp(s) >= 0) {
+		r.sub(s);
+		digit++;
+	    }
+	    int c = r.cmp(mMinus);
+	    boolean low = even ? (c <= 0) : (c < 0);
+	    tmp.set(r);
+	    tmp.add(mPlus);
+	    c = tmp.cmp(s);
+	    boolean high = even ? (c >= 0) : (c > 0);
+	    if (low && high) {
+		// Both digits are close enough; take the nearer one,
+		// or the even one if the value is exactly halfway.
+		r.shiftLeft(1);
+		c = r.cmp(s);
+		if ((c > 0) || ((c == 0) && ((digit & 1) != 0))) {
+		    digit++;
+		}
+	    } else if (high) {
+		digit++;
+	    }
+	    dst[pos++] = (char)('0' + digit);
+	    if (low || high) {
+		break;
+	    }
+	}
+	int n = pos - start;
+
+	if (sci) {
+	    dst[off] = dst[off + 1];
+	    dst[off + 1] = '.';
+	    if (n == 1) {
+		dst[pos++] = '0';
+	    }
+	    dst[pos++] = 'E';
+	    return Integer.getChars(k - 1, dst, pos);
+	}
+	if (k <= 0) {
+	    return pos;
+	}
+	if (n <= k) {
+	    while (n++ < k) {
+		dst[pos++] = '0';
+	    }
+	    dst[pos++] = '.';
+	    dst[pos++] = '0';
+	    return pos;
+	}
+	System.arraycopy(dst, start + k, dst, start + k + 1, n - k);
+	dst[start + k] = '.';
+	return pos + 1;
+    }
+}
+
+/**
+ * A non-negative integer of any size, used by FloatingDecimal. The
+ * words are stored least significant first; all operations modify
+ * the number in place.
+ */
+final
+class FDBigInt {
+    /**
+     * The powers of five that fit in an unsigned int.
+     */
+    private static final int pow5[] = {
+	1, 5, 25, 125, 625, 3125, 15625, 78125, 390625, 1953125,
+	9765625, 48828125, 244140625, 1220703125
+    };
+
+    int data[];
+    int nWords;
+
+    FDBigInt(int capacity) {
+	data = new int[(capacity > 0) ? capacity : 1];
+    }
+
+    void setLong(long v) {
+	ensure(2);
+	data[0] = (int)v;
+	data[1] = (int)(v >>> 32);
+	nWords = 2;
+	normalize();
+    }
+
+    void set(FDBigInt b) {
+	ensure(b.nWords);
+	System.arraycopy(b.data, 0, data, 0, b.nWords);
+	nWords = b.nWords;
+    }
+
+    boolean isZero() {
+	return nWords == 0;
+    }
+
+    private void ensure(int n) {
+	if (n > data.length) {
+	    int newData[] = new int[(n > data.length * 2) ? n : data.length * 2];
+	    System.arraycopy(data, 0, newData, 0, nWords);
+	    data = newData;
+	}
+    }
+
+    private void normalize() {
+	while ((nWords > 0) && (data[nWords - 1] == 0)) {
+	    nWords--;
+	}
+    }
+
+    int bitLength() {
+	if (nWords == 0) {
+	    return 0;
+	}
+	return (nWords - 1) * 32 + FloatingDecimal.bitLength(data[nWords - 1]);
+    }
+
+    /**
+     * Sets this number to this * mul + add, both treated as unsigned.
+     */
+    void mulAdd(int mul, int add) {
+	long m = mul & 0xffffffffL;
+	long carry = add & 0xffffffffL;
+	int d[] = data;
+	int n = nWords;
+	for (int i = 0 ; i < n ; i++) {
+	    long prod = (d[i] & 0xffffffffL) * m + carry;
+	    d[i] = (int)prod;
+	    carry = prod >>> 32;
+	}
+	if (carry != 0) {
+	    ensure(n + 1);
+	    data[nWords++] = (int)carry;
+	}
+    }
+
+    /**
+     * Multiplies this number by 5^e.
+     */
+    void mulPow5(int e) {
+	while (e >= 13) {
+	    mulAdd(pow5[13], 0);
+	    e -= 13;
+	}
+	if (e > 0) {
+	    mulAdd(pow5[e], 0);
+	}
+    }
+
+    void shiftLeft(int n) {
+	if ((nWords == 0) || (n == 0)) {
+	    return;
+	}
+	int ws = n >>> 5;
+	int bs = n & 31;
+	ensure(nWords + ws + 1);
+	int d[] = data;
+	if (bs == 0) {
+	    for (int i = nWords ; i-- > 0 ;) {
+		d[i + ws] = d[i];
+	    }
+	} else {
+	    d[nWords + ws] = d[nWords - 1] >>> (32 - bs);
+	    for (int i = nWords - 1 ; i > 0 ; i--) {
+		d[i + ws] = (d[i] << bs) | (d[i - 1] >>> (32 - bs));
+	    }
+	    d[ws] = d[0] << bs;
+	}
+	for (int i = ws ; i-- > 0 ;) {
+	    d[i] = 0;
+	}
+	nWords += ws + ((bs == 0) ? 0 : 1);
+	normalize();
+    }
+
+    void shiftRight1() {
+	int d[] = data;
+	int n = nWords;
+	for (int i = 0 ; i < n - 1 ; i++) {
+	    d[i] = (d[i] >>> 1) | (d[i + 1] << 31);
+	}
+	if (n > 0) {
+	    d[n - 1] >>>= 1;
+	}
+	normalize();
+    }
+
+    /**
+     * Returns the 64 bits of this number starting at bit shift.
+     */
+    long longAt(int shift) {
+	int w = shift >>> 5;
+	int b = shift & 31;
+	long v = (word(w + 1) << 32) | word(w);
+	if (b != 0) {
+	    v = (v >>> b) | (word(w + 2) << (64 - b));
+	}
+	return v;
+    }
+
+    private long word(int i) {
+	return (i < nWords) ? (data[i] & 0xffffffffL) : 0;
+    }
+
+    /**
+     * Returns true if any of the lowest n bits are set.
+     */
+    boolean lowBitsNonZero(int n) {
+	int w = n >>> 5;
+	for (int i = 0 ; (i < w) && (i < nWords) ; i++) {
+	    if (data[i] != 0) {
+		return true;
+	    }
+	}
+	int b = n & 31;
+	return (b != 0) && (w < nWords) && ((data[w] & ((1 << b) - 1)) != 0);
+    }
+
+    int cmp(FDBigInt b) {
+	if (nWords != b.nWords) {
+	    return (nWords > b.nWords) ? 1 : -1;
+	}
+	for (int i = nWords ; i-- > 0 ;) {
+	    int x = data[i] ^ 0x80000000;
+	    int y = b.data[i] ^ 0x80000000;
+	    if (x != y) {
+		return (x > y) ? 1 : -1;
+	    }
+	}
+	return 0;
+    }
+
+    void add(FDBigInt b) {
+	int n = (nWords > b.nWords) ? nWords : b.nWords;
+	ensure(n + 1);
+	int d[] = data;
+	long carry = 0;
+	for (int i = 0 ; i < n ; i++) {
+	    long sum = word(i) + b.word(i) + carry;
+	    d[i] = (int)sum;
+	    carry = sum >>> 32;
+	}
+	nWords = n;
+	if (carry != 0) {
+	    d[nWords++] = (int)carry;
+	}
+    }
+
+    /**
+     * Subtracts b, which must not be greater than this number.
+     */
+    void sub(FDBigInt b) {
+	int d[] = data;
+	long borrow = 0;
+	for (int i = 0 ; i < nWords ; i++) {
+	    long diff = (d[i] & 0xffffffffL) - b.word(i) - borrow;
+	    d[i] = (int)diff;
+	    borrow = (diff >>> 63);
+	}
+	normalize();
+    }
+}
@@ -53,7 +53,7 @@ class Long extends Number {
     public static String toString(long i, int radix) {
         if (radix < Character.MIN_RADIX || radix > Character.MAX_RADIX)
 	    radix = 10;
-	StringBuffer buf = new StringBuffer(radix >= 8 ? 23 : 65);
+	StringBuilder buf = new StringBuilder(radix >= 8 ? 23 : 65);
 	boolean negative = (i < 0);
         if (!negative)
 	    i = -i;
@@ -95,7 +95,7 @@ class Long extends Number {
      * Convert the integer to an unsigned number.
      */
     private static String toUnsignedString(long i, int shift) {
-	StringBuffer buf = new StringBuffer(shift >= 3 ? 22 : 64);
+	StringBuilder buf = new StringBuilder(shift >= 3 ? 22 : 64);
 	int radix = 1 << shift;
 	long mask = radix - 1;
 	do {
@@ -112,7 +112,86 @@ class Long extends Number {
      * @param i	the long to be converted
      */
     public static String toString(long i) {
-	return toString(i, 10);
+	char buf[] = new char[stringSize(i)];
+	getChars(i, buf, 0);
+	return new String(buf);
+    }
+
+    /**
+     * Returns the number of characters in the decimal representation
+     * of the specified long, including the minus sign.
+     * @param i	the long
+     */
+    public static int stringSize(long i) {
+	int n = 1;
+	if (i < 0) {
+	    n++;
+	} else {
+	    i = -i;
+	}
+	while (i <= -10) {
+	    i /= 10;
+	    n++;
+	}
+	return n;
+    }
+
+    /**
+     * Writes the decimal representation of the specified long into
+     * a character array, without creating a String. The array must have
+     * room for stringSize(i) characters at the offset.
+     * @param i		the long to be converted
+     * @param dst	the destination array
+     * @param off	where to start in the destination array
+     * @return		the offset just past the last character written.
+     * @exception ArrayIndexOutOfBoundsException If there is not enough
+     * room in the array.
+     */
+    public static int getChars(long i, char dst[], int off) {
+	int end = off + stringSize(i);
+	int pos = end;
+	boolean negative = (i < 0);
+	if (!negative) {
+	    i = -i;
+	}
+	do {
+	    long q = i / 10;
+	    dst[--pos] = (char)('0' + (int)(q * 10 - i));
+	    i = q;
+	} while (i != 0);
+	if (negative) {
+	    dst[--pos] = '-';
+	}
+	return end;
+    }
+
+    /**
+     * Writes the decimal representation of the specified long into
+     * a byte array as ASCII characters, without creating a String. The
+     * array must have room for stringSize(i) bytes at the offset.
+     * @param i		the long to be converted
+     * @param dst	the destination array
+     * @param off	where to start in the destination array
+     * @return		the offset just past the last byte written.
+     * @exception ArrayIndexOutOfBoundsException If there is not enough
+     * room in the array.
+     */
+    public static int getBytes(long i, byte dst[], int off) {
+	int end = off + stringSize(i);
+	int pos = end;
+	boolean negative = (i < 0);
+	if (!negative) {
+	    i = -i;
+	}
+	do {
+	    long q = i / 10;
+	    dst[--pos] = (byte)('0' + (int)(q * 10 - i));
+	    i = q;
+	} while (i != 0);
+	if (negative) {
+	    dst[--pos] = (byte)'-';
+	}
+	return end;
     }
 
 
@@ -19,7 +19,7 @@
 
 package java.lang;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * The standard Math library.  For the methods in this Class, error handling 
@@ -173,20 +173,18 @@ class Math {
     }
 
 
-    private static Random randomNumberGenerator;
-
     /**
      * Generates a random number between 0.0 and 1.0. <p>
      *
      * Random number generators are often referred to as pseudorandom number 
      * generators because the numbers produced tend to repeat themselves after
-     * a period of time.  
+     * a period of time. Every thread has a generator of its own, so threads
+     * calling this method do not wait for each other.
      * @return a pseudorandom double between 0.0 and 1.0.
+     * @see java.util.SplittableRandom#current
      */
-    public static synchronized double random() {
-        if (randomNumberGenerator == null)
-            randomNumberGenerator = new Random();
-        return randomNumberGenerator.nextDouble();
+    public static double random() {
+        return SplittableRandom.current().nextDouble();
     }
 
     /**
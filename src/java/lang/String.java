@@ -19,8 +19,6 @@
 
 package java.lang;
 
-import java.util.Hashtable;
-
 /**
  * A general class of objects to represent character Strings.
  * Strings are constant, their values cannot be changed after creation.
@@ -44,6 +42,7 @@ import java.util.Hashtable;
  *	String d = cde.substring(1, 2);
  * </pre>
  * @see		StringBuffer
+ * @see		StringBuilder
  * @version 	1.60, 28 Mar 1996
  * @author 	Lee Boynton
  * @author	Arthur van Hoff
@@ -59,6 +58,9 @@ class String {
     /** The count is the number of characters in the String. */
     private int count;
 
+    /** The full-content hash code, or 0 if it has not been computed. */
+    private int hash;
+
     /**
      * Constructs a new empty String.
      */
@@ -175,6 +177,19 @@ class String {
 	    this.count = buffer.length();
 	}
     }
+
+    /**
+     * Construct a new string whose value is the current contents of the
+     * given string builder. The builder's storage is shared; it is
+     * copied if the builder is changed afterwards.
+     * @param builder     the string builder to be converted
+     */
+    public String (StringBuilder builder) { 
+	builder.setShared();
+	this.value = builder.getValue();
+	this.offset = 0;
+	this.count = builder.length();
+    }
     
 
     // Private constructor which shares value array for speed.
@@ -452,6 +467,27 @@ class String {
 	return h;
     }
 
+    /**
+     * Returns a hashcode for this String that is computed from every
+     * character. Unlike hashCode(), which only samples some characters
+     * of long Strings, it tells apart long Strings that share a prefix
+     * and a suffix. The value is computed once and then cached.
+     * @see String#hashCode
+     * @see java.util.Hashtable#setFullStringHashing
+     */
+    public int fullHashCode() {
+	int h = hash;
+	if (h == 0) {
+	    int off = offset;
+	    char val[] = value;
+	    for (int i = count ; i > 0; i--) {
+		h = (h * 31) + val[off++];
+	    }
+	    hash = h;
+	}
+	return h;
+    }
+
     /**
      * Returns the index within this String of the first occurrence of the specified 
      * character.  This method returns -1 if the index is not found.
@@ -850,7 +886,7 @@ class String {
      * @param i	the integer
      */
     public static String valueOf(int i) {
-        return Integer.toString(i, 10);
+        return Integer.toString(i);
     }
 
     /**
@@ -858,7 +894,7 @@ class String {
      * @param l	the long
      */
     public static String valueOf(long l) {
-        return Long.toString(l, 10);
+        return Long.toString(l);
     }
 
     /**
@@ -878,26 +914,14 @@ class String {
     }
 
 
-    /**
-     * The set of internalized Strings.
-     */
-    private static Hashtable InternSet;
-
     /**
      * Returns a String that is equal to this String
      * but which is guaranteed to be from the unique String pool.  For example:
      * <pre>s1.intern() == s2.intern() <=> s1.equals(s2).</pre>
+     * @see StringInternPool#shared
      */
     public String intern() {
-	if (InternSet == null) {
-	    InternSet = new Hashtable();
-	}
-	String s = (String) InternSet.get(this);
-	if (s != null) {
-	    return s;
-	}
-	InternSet.put(this, this);
-	return this;
+	return StringInternPool.shared().intern(this);
     }
 
     /**
@@ -35,6 +35,14 @@ package java.lang;
  * the buffer is marked as shared. Any further changes to the buffer will
  * cause a copy to be made. <p>
  *
+ * Once a buffer holds more than a few thousand characters, appending
+ * does not copy the characters already in the buffer: when the storage
+ * is full, it is kept as a chunk and a new chunk at least as big as the
+ * whole buffer is started. charAt() and getChars() read the chunks
+ * where they are. The chunks are copied into one array when the buffer
+ * is converted to a String or when an operation such as insert() needs
+ * the characters in one place. <p>
+ *
  * @see		String
  * @see		java.io.ByteArrayOutputStream
  * @version 	1.28, 14 Feb 1996
@@ -51,6 +59,24 @@ public final class StringBuffer {
     /** A flag indicating whether the buffer is shared */
     private boolean shared;
 
+    /**
+     * The chunks filled before value, oldest first. A chunk is never
+     * changed once it is in this list; it may be shared with a String.
+     */
+    private char chunks[][];
+
+    /** The number of characters used in each chunk. */
+    private int chunkLengths[];
+
+    /** The number of chunks in use. */
+    private int chunkCount;
+
+    /** The number of characters in the chunks; value holds the rest. */
+    private int chunkedLength;
+
+    /** The size above which the buffer grows by adding chunks. */
+    private static final int CHUNK_THRESHOLD = 4096;
+
     /**
      * Constructs an empty String buffer.
      */
@@ -89,7 +115,7 @@ public final class StringBuffer {
      * characters; beyond which an allocation will occur.
      */
     public int capacity() {
-	return value.length;
+	return chunkedLength + value.length;
     }
 
     /**
@@ -104,12 +130,73 @@ public final class StringBuffer {
 	}
     }
 
+    /**
+     * Copies the chunks and the current storage into one array of
+     * at least the specified capacity, so that value holds all the
+     * characters of the buffer.
+     */
+    private final void flatten(int minimumCapacity) {
+	if (chunkCount > 0) {
+	    char newValue[] = new char[(minimumCapacity > count) ? minimumCapacity : count];
+	    int pos = 0;
+	    for (int i = 0 ; i < chunkCount ; i++) {
+		System.arraycopy(chunks[i], 0, newValue, pos, chunkLengths[i]);
+		pos += chunkLengths[i];
+		chunks[i] = null;
+	    }
+	    System.arraycopy(value, 0, newValue, pos, count - pos);
+	    value = newValue;
+	    chunkCount = 0;
+	    chunkedLength = 0;
+	    shared = false;
+	}
+    }
+
+    /**
+     * Makes room for len more characters at the end of the buffer and
+     * returns the index in value where they are to be stored. A large
+     * buffer that is full or shared keeps its storage as a chunk and
+     * starts a new one instead of copying its characters.
+     */
+    private final int reserve(int len) {
+	int pos = count - chunkedLength;
+	if (!shared && (pos + len <= value.length)) {
+	    return pos;
+	}
+	if ((chunkCount == 0) && (count + len <= CHUNK_THRESHOLD)) {
+	    ensureCapacity(count + len);
+	    copyWhenShared();
+	    return count;
+	}
+
+	if (pos > 0) {
+	    if (chunks == null) {
+		chunks = new char[8][];
+		chunkLengths = new int[8];
+	    } else if (chunkCount == chunks.length) {
+		char newChunks[][] = new char[chunkCount * 2][];
+		int newLengths[] = new int[chunkCount * 2];
+		System.arraycopy(chunks, 0, newChunks, 0, chunkCount);
+		System.arraycopy(chunkLengths, 0, newLengths, 0, chunkCount);
+		chunks = newChunks;
+		chunkLengths = newLengths;
+	    }
+	    chunks[chunkCount] = value;
+	    chunkLengths[chunkCount++] = pos;
+	    chunkedLength = count;
+	}
+	value = new char[(len > count) ? len : count];
+	shared = false;
+	return 0;
+    }
+
     /**
      * Ensures that the capacity of the buffer is at least equal to the
      * specified minimum.
      * @param minimumCapacity	the minimum desired capacity
      */
     public synchronized void ensureCapacity(int minimumCapacity) {
+	flatten(minimumCapacity);
 	int maxCapacity = value.length;
 
 	if (minimumCapacity > maxCapacity) {
@@ -157,7 +244,15 @@ public final class StringBuffer {
 	if ((index < 0) || (index >= count)) {
 	    throw new StringIndexOutOfBoundsException(index);
 	}
-	return value[index];
+	if (index >= chunkedLength) {
+	    return value[index - chunkedLength];
+	}
+	for (int i = 0 ; ; i++) {
+	    if (index < chunkLengths[i]) {
+		return chunks[i][index];
+	    }
+	    index -= chunkLengths[i];
+	}
     }
 
     /**
@@ -178,8 +273,20 @@ public final class StringBuffer {
 	if ((srcEnd < 0) || (srcEnd > count)) {
 	    throw new StringIndexOutOfBoundsException(srcEnd);
 	}
+	// Copy from the chunks where they are, then from value
+	int start = 0;
+	for (int i = 0 ; (i < chunkCount) && (srcBegin < srcEnd) ; i++) {
+	    int end = start + chunkLengths[i];
+	    if (srcBegin < end) {
+		int n = ((srcEnd < end) ? srcEnd : end) - srcBegin;
+		System.arraycopy(chunks[i], srcBegin - start, dst, dstBegin, n);
+		srcBegin += n;
+		dstBegin += n;
+	    }
+	    start = end;
+	}
 	if (srcBegin < srcEnd) {
-	    System.arraycopy(value, srcBegin, dst, dstBegin, srcEnd - srcBegin);
+	    System.arraycopy(value, srcBegin - chunkedLength, dst, dstBegin, srcEnd - srcBegin);
 	}
     }
 
@@ -193,8 +300,13 @@ public final class StringBuffer {
 	if ((index < 0) || (index >= count)) {
 	    throw new StringIndexOutOfBoundsException(index);
 	}
+	if (index < chunkedLength) {
+	    // The chunks are never changed. Join them with room to
+	    // spare, so that the next append does not start a chunk.
+	    flatten((count + 1) * 2);
+	}
 	copyWhenShared();
-	value[index] = ch;
+	value[index - chunkedLength] = ch;
     }
 
     /**
@@ -217,9 +329,8 @@ public final class StringBuffer {
 	}
 
 	int len = str.length();
-	ensureCapacity(count + len);
-	copyWhenShared();
-	str.getChars(0, len, value, count);
+	int pos = reserve(len);
+	str.getChars(0, len, value, pos);
 	count += len;
 	return this;
     }
@@ -231,9 +342,8 @@ public final class StringBuffer {
      */
     public synchronized StringBuffer append(char str[]) {
 	int len = str.length;
-	ensureCapacity(count + len);
-	copyWhenShared();
-	System.arraycopy(str, 0, value, count, len);
+	int pos = reserve(len);
+	System.arraycopy(str, 0, value, pos, len);
 	count += len;
 	return this;
     }
@@ -246,9 +356,8 @@ public final class StringBuffer {
      * @return 	the StringBuffer itself, NOT a new one.
      */
     public synchronized StringBuffer append(char str[], int offset, int len) {
-	ensureCapacity(count + len);
-	copyWhenShared();
-	System.arraycopy(str, offset, value, count, len);
+	int pos = reserve(len);
+	System.arraycopy(str, offset, value, pos, len);
 	count += len;
 	return this;
     }
@@ -268,9 +377,9 @@ public final class StringBuffer {
      * @return 	the StringBuffer itself, NOT a new one.
      */
     public synchronized StringBuffer append(char c) {
-	ensureCapacity(count + 1);
-	copyWhenShared();
-	value[count++] = c;
+	int pos = reserve(1);
+	value[pos] = c;
+	count++;
 	return this;
     }
 
@@ -279,8 +388,12 @@ public final class StringBuffer {
      * @param i	the integer to be appended
      * @return 	the StringBuffer itself, NOT a new one.
      */
-    public StringBuffer append(int i) {
-	return append(String.valueOf(i));
+    public synchronized StringBuffer append(int i) {
+	int len = Integer.stringSize(i);
+	int pos = reserve(len);
+	Integer.getChars(i, value, pos);
+	count += len;
+	return this;
     }
 
     /**
@@ -288,8 +401,12 @@ public final class StringBuffer {
      * @param l	the long to be appended
      * @return 	the StringBuffer itself, NOT a new one.
      */
-    public StringBuffer append(long l) {
-	return append(String.valueOf(l));
+    public synchronized StringBuffer append(long l) {
+	int len = Long.stringSize(l);
+	int pos = reserve(len);
+	Long.getChars(l, value, pos);
+	count += len;
+	return this;
     }
 
     /**
@@ -297,8 +414,10 @@ public final class StringBuffer {
      * @param f	the float to be appended
      * @return 	the StringBuffer itself, NOT a new one.
      */
-    public StringBuffer append(float f) {
-	return append(String.valueOf(f));
+    public synchronized StringBuffer append(float f) {
+	int pos = reserve(FloatingDecimal.MAX_CHARS);
+	count += Float.getChars(f, value, pos) - pos;
+	return this;
     }
 
     /**
@@ -306,8 +425,10 @@ public final class StringBuffer {
      * @param d	the double to be appended
      * @return 	the StringBuffer itself, NOT a new one.
      */
-    public StringBuffer append(double d) {
-	return append(String.valueOf(d));
+    public synchronized StringBuffer append(double d) {
+	int pos = reserve(FloatingDecimal.MAX_CHARS);
+	count += Double.getChars(d, value, pos) - pos;
+	return this;
     }
 
     /**
@@ -436,6 +557,7 @@ public final class StringBuffer {
      * Reverse the order of the characters in the String buffer.
      */
     public synchronized StringBuffer reverse() {
+	flatten(0);
 	copyWhenShared();
 	int n = count - 1;
 	for (int j = (n-1) >> 1; j >= 0; --j) {
@@ -459,6 +581,6 @@ public final class StringBuffer {
     // The following two methods are needed by String to efficiently
     // convert a StringBuffer into a String.  They are not public.
     // They shouldn't be called by anyone but String.
-    final void setShared() { shared = true; } 
+    final void setShared() { flatten(0); shared = true; } 
     final char[] getValue() { return value; }
 }
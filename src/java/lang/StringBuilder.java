@@ -0,0 +1,576 @@
+/*
+ * @(#)StringBuilder.java	1.2 96/05/14
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.lang;
+
+/**
+ * This Class is a growable buffer for characters, like StringBuffer,
+ * but none of its methods are synchronized. It is meant for building
+ * Strings in a single thread, for example in a method that creates
+ * a buffer, fills it and converts it with toString(); that is the way
+ * almost all buffers are used, and there it avoids the cost of
+ * acquiring the monitor on every call. A StringBuilder must not be
+ * used by several threads at once; use StringBuffer for that.<p>
+ *
+ * Like StringBuffer, the method toString() does not create a copy of
+ * the internal buffer. Instead the buffer is marked as shared. Any
+ * further changes to the buffer will cause a copy to be made. Large
+ * builders grow by adding chunks rather than by copying, the same
+ * way StringBuffer does. <p>
+ *
+ * @see		String
+ * @see		StringBuffer
+ * @version 	1.2, 14 May 1996
+ */
+ 
+public final class StringBuilder {
+    /** The value is used for character storage. */
+    private char value[];
+
+    /** The count is the number of characters in the buffer. */
+    private int count;
+
+    /** A flag indicating whether the buffer is shared */
+    private boolean shared;
+
+    /**
+     * The chunks filled before value, oldest first. A chunk is never
+     * changed once it is in this list; it may be shared with a String.
+     */
+    private char chunks[][];
+
+    /** The number of characters used in each chunk. */
+    private int chunkLengths[];
+
+    /** The number of chunks in use. */
+    private int chunkCount;
+
+    /** The number of characters in the chunks; value holds the rest. */
+    private int chunkedLength;
+
+    /** The size above which the buffer grows by adding chunks. */
+    private static final int CHUNK_THRESHOLD = 4096;
+
+    /**
+     * Constructs an empty String builder.
+     */
+    public StringBuilder() {
+	this(16);
+    }
+
+    /**
+     * Constructs an empty String builder with the specified initial length.
+     * @param length	the initial length
+     */
+    public StringBuilder(int length) {
+	value = new char[length];
+	shared = false;
+    }
+
+    /**
+     * Constructs a String builder with the specified initial value.
+     * @param str	the initial value of the buffer
+     */
+    public StringBuilder(String str) {
+	this(str.length() + 16);
+	append(str);
+    }
+
+    /**
+     * Returns the length (character count) of the buffer.
+     */
+    public int length() {
+	return count;
+    }
+
+    /**
+     * Returns the current capacity of the String buffer. The capacity
+     * is the amount of storage available for newly inserted
+     * characters; beyond which an allocation will occur.
+     */
+    public int capacity() {
+	return chunkedLength + value.length;
+    }
+
+    /**
+     * Copies the buffer value if it is shared.
+     */
+    private final void copyWhenShared() {
+	if (shared) {
+	    char newValue[] = new char[value.length];
+	    System.arraycopy(value, 0, newValue, 0, count);
+	    value = newValue;
+	    shared = false;
+	}
+    }
+
+    /**
+     * Copies the chunks and the current storage into one array of
+     * at least the specified capacity, so that value holds all the
+     * characters of the buffer.
+     */
+    private final void flatten(int minimumCapacity) {
+	if (chunkCount > 0) {
+	    char newValue[] = new char[(minimumCapacity > count) ? minimumCapacity : count];
+	    int pos = 0;
+	    for (int i = 0 ; i < chunkCount ; i++) {
+		System.arraycopy(chunks[i], 0, newValue, pos, chunkLengths[i]);
+		pos += chunkLengths[i];
+		chunks[i] = null;
+	    }
+	    System.arraycopy(value, 0, newValue, pos, count - pos);
+	    value = newValue;
+	    chunkCount = 0;
+	    chunkedLength = 0;
+	    shared = false;
+	}
+    }
+
+    /**
+     * Makes room for len more characters at the end of the buffer and
+     * returns the index in value where they are to be stored. A large
+     * buffer that is full or shared keeps its storage as a chunk and
+     * starts a new one instead of copying its characters.
+     */
+    private final int reserve(int len) {
+	int pos = count - chunkedLength;
+	if (!shared && (pos + len <= value.length)) {
+	    return pos;
+	}
+	if ((chunkCount == 0) && (count + len <= CHUNK_THRESHOLD)) {
+	    ensureCapacity(count + len);
+	    copyWhenShared();
+	    return count;
+	}
+
+	if (pos > 0) {
+	    if (chunks == null) {
+		chunks = new char[8][];
+		chunkLengths = new int[8];
+	    } else if (chunkCount == chunks.length) {
+		char newChunks[][] = new char[chunkCount * 2][];
+		int newLengths[] = new int[chunkCount * 2];
+		System.arraycopy(chunks, 0, newChunks, 0, chunkCount);
+		System.arraycopy(chunkLengths, 0, newLengths, 0, chunkCount);
+		chunks = newChunks;
+		chunkLengths = newLengths;
+	    }
+	    chunks[chunkCount] = value;
+	    chunkLengths[chunkCount++] = pos;
+	    chunkedLength = count;
+	}
+	value = new char[(len > count) ? len : count];
+	shared = false;
+	return 0;
+    }
+
+    /**
+     * Ensures that the capacity of the buffer is at least equal to the
+     * specified minimum.
+     * @param minimumCapacity	the minimum desired capacity
+     */
+    public void ensureCapacity(int minimumCapacity) {
+	flatten(minimumCapacity);
+	int maxCapacity = value.length;
+
+	if (minimumCapacity > maxCapacity) {
+	    int newCapacity = (maxCapacity + 1) * 2;
+	    if (minimumCapacity > newCapacity) {
+		newCapacity = minimumCapacity;
+	    }
+
+	    char newValue[] = new char[newCapacity];
+	    System.arraycopy(value, 0, newValue, 0, count);
+	    value = newValue;
+	    shared = false;
+	}
+    }
+
+    /**
+     * Sets the length of the String. If the length is reduced, characters
+     * are lost. If the length is extended, the values of the new characters
+     * are set to 0.
+     * @param newLength	the new length of the buffer
+     * @exception StringIndexOutOfBoundsException  If the length is invalid.
+     */
+    public void setLength(int newLength) {
+	if (newLength < 0) {
+	    throw new StringIndexOutOfBoundsException(newLength);
+	}
+	ensureCapacity(newLength);
+
+	if (count < newLength) {
+	    copyWhenShared();
+	    for (; count < newLength; count++) {
+		value[count] = '\0';
+	    }
+	}
+	count = newLength;
+    }
+
+    /**
+     * Returns the character at the specified index. An index ranges
+     * from 0..length()-1.
+     * @param index	the index of the desired character
+     * @exception StringIndexOutOfBoundsException If the index is invalid.
+     */
+    public char charAt(int index) {
+	if ((index < 0) || (index >= count)) {
+	    throw new StringIndexOutOfBoundsException(index);
+	}
+	if (index >= chunkedLength) {
+	    return value[index - chunkedLength];
+	}
+	for (int i = 0 ; ; i++) {
+	    if (index < chunkLengths[i]) {
+		return chunks[i][index];
+	    }
+	    index -= chunkLengths[i];
+	}
+    }
+
+    /**
+     * Copies the characters of the specified substring (determined by
+     * srcBegin and srcEnd) into the character array, starting at the
+     * array's dstBegin location. Both srcBegin and srcEnd must be legal
+     * indexes into the buffer.
+     * @param srcBegin	begin copy at this offset in the String
+     * @param srcEnd	stop copying at this offset in the String
+     * @param dst		the array to copy the data into
+     * @param dstBegin	offset into dst
+     * @exception StringIndexOutOfBoundsException If there is an invalid index into the buffer.
+     */
+    public void getChars(int srcBegin, int srcEnd, char dst[], int dstBegin) {
+	if ((srcBegin < 0) || (srcBegin >= count)) {
+	    throw new StringIndexOutOfBoundsException(srcBegin);
+	}
+	if ((srcEnd < 0) || (srcEnd > count)) {
+	    throw new StringIndexOutOfBoundsException(srcEnd);
+	}
+	// Copy from the chunks where they are, then from value
+	int start = 0;
+	for (int i = 0 ; (i < chunkCount) && (srcBegin < srcEnd) ; i++) {
+	    int end = start + chunkLengths[i];
+	    if (srcBegin < end) {
+		int n = ((srcEnd < end) ? srcEnd : end) - srcBegin;
+		System.arraycopy(chunks[i], srcBegin - start, dst, dstBegin, n);
+		srcBegin += n;
+		dstBegin += n;
+	    }
+	    start = end;
+	}
+	if (srcBegin < srcEnd) {
+	    System.arraycopy(value, srcBegin - chunkedLength, dst, dstBegin, srcEnd - srcBegin);
+	}
+    }
+
+    /**
+     * Changes the character at the specified index to be ch.
+     * @param index	the index of the character
+     * @param ch		the new character
+     * @exception	StringIndexOutOfBoundsException If the index is invalid.
+     */
+    public void setCharAt(int index, char ch) {
+	if ((index < 0) || (index >= count)) {
+	    throw new StringIndexOutOfBoundsException(index);
+	}
+	if (index < chunkedLength) {
+	    // The chunks are never changed. Join them with room to
+	    // spare, so that the next append does not start a chunk.
+	    flatten((count + 1) * 2);
+	}
+	copyWhenShared();
+	value[index - chunkedLength] = ch;
+    }
+
+    /**
+     * Appends an object to the end of this buffer.
+     * @param obj	the object to be appended
+     * @return 	the StringBuilder itself, NOT a new one.
+     */
+    public StringBuilder append(Object obj) {
+	return append(String.valueOf(obj));
+    }
+
+    /**
+     * Appends a String to the end of this buffer.
+     * @param str	the String to be appended
+     * @return 	the StringBuilder itself, NOT a new one.
+     */
+    public StringBuilder append(String str) {
+	if (str == null) {
+	    str = String.valueOf(str);
+	}
+
+	int len = str.length();
+	int pos = reserve(len);
+	str.getChars(0, len, value, pos);
+	count += len;
+	return this;
+    }
+
+    /**
+     * Appends an array of characters to the end of this buffer.
+     * @param str	the characters to be appended
+     * @return 	the StringBuilder itself, NOT a new one.
+     */
+    public StringBuilder append(char str[]) {
+	int len = str.length;
+	int pos = reserve(len);
+	System.arraycopy(str, 0, value, pos, len);
+	count += len;
+	return this;
+    }
+
+    /**
+     * Appends a part of an array of characters to the end of this buffer.
+     * @param str	the characters to be appended
+     * @param offset	where to start
+     * @param len	the number of characters to add
+     * @return 	the StringBuilder itself, NOT a new one.
+     */
+    public StringBuilder append(char str[], int offset, int len) {
+	int pos = reserve(len);
+	System.arraycopy(str, offset, value, pos, len);
+	count += len;
+	return this;
+    }
+
+    /**
+     * Appends a boolean to the end of this buffer.
+     * @param b	the boolean to be appended
+     * @return 	the StringBuilder itself, NOT a new one.
+     */
+    public StringBuilder append(boolean b) {
+	return append(String.valueOf(b));
+    }
+
+    /**
+     * Appends a character to the end of this buffer.
+     * @param ch	the character to be appended
+     * @return 	the StringBuilder itself, NOT a new one.
+     */
+    public StringBuilder append(char c) {
+	int pos = reserve(1);
+	value[pos] = c;
+	count++;
+	return this;
+    }
+
+    /**
+     * Appends an integer to the end of this buffer.
+     * @param i	the integer to be appended
+     * @return 	the StringBuilder itself, NOT a new one.
+     */
+    public StringBuilder append(int i) {
+	int len = Integer.stringSize(i);
+	int pos = reserve(len);
+	Integer.getChars(i, value, pos);
+	count += len;
+	return this;
+    }
+
+    /**
+     * Appends a long to the end of this buffer.
+     * @param l	the long to be appended
+     * @return 	the StringBuilder itself, NOT a new one.
+     */
+    public StringBuilder append(long l) {
+	int len = Long.stringSize(l);
+	int pos = reserve(len);
+	Long.getChars(l, value, pos);
+	count += len;
+	return this;
+    }
+
+    /**
+     * Appends a float to the end of this buffer.
+     * @param f	the float to be appended
+     * @return 	the StringBuilder itself, NOT a new one.
+     */
+    public StringBuilder append(float f) {
+	int pos = reserve(FloatingDecimal.MAX_CHARS);
+	count += Float.getChars(f, value, pos) - pos;
+	return this;
+    }
+
+    /**
+     * Appends a double to the end of this buffer.
+     * @param d	the double to be appended
+     * @return 	the StringBuilder itself, NOT a new one.
+     */
+    public StringBuilder append(double d) {
+	int pos = reserve(FloatingDecimal.MAX_CHARS);
+	count += Double.getChars(d, value, pos) - pos;
+	return this;
+    }
+
+    /**
+     * Inserts an object into the String buffer.
+     * @param offset	the offset at which to insert
+     * @param obj		the object to insert
+     * @return 		the StringBuilder itself, NOT a new one.
+     * @exception	StringIndexOutOfBoundsException If the offset is invalid.
+     */
+    public StringBuilder insert(int offset, Object obj) {
+	return insert(offset, String.valueOf(obj));
+    }
+
+    /**
+     * Inserts a String into the String buffer.
+     * @param offset	the offset at which to insert
+     * @param str		the String to insert
+     * @return 		the StringBuilder itself, NOT a new one.
+     * @exception	StringIndexOutOfBoundsException If the offset is invalid.
+     */
+    public StringBuilder insert(int offset, String str) {
+	if ((offset < 0) || (offset > count)) {
+	    throw new StringIndexOutOfBoundsException();
+	}
+	int len = str.length();
+	ensureCapacity(count + len);
+	copyWhenShared();
+	System.arraycopy(value, offset, value, offset + len, count - offset);
+	str.getChars(0, len, value, offset);
+	count += len;
+	return this;
+    }
+
+    /**
+     * Inserts an array of characters into the String buffer.
+     * @param offset	the offset at which to insert
+     * @param str		the characters to insert
+     * @return 		the StringBuilder itself, NOT a new one.
+     * @exception	StringIndexOutOfBoundsException If the offset is invalid.
+     */
+    public StringBuilder insert(int offset, char str[]) {
+	if ((offset < 0) || (offset > count)) {
+	    throw new StringIndexOutOfBoundsException();
+	}
+	int len = str.length;
+	ensureCapacity(count + len);
+	copyWhenShared();
+	System.arraycopy(value, offset, value, offset + len, count - offset);
+	System.arraycopy(str, 0, value, offset, len);
+	count += len;
+	return this;
+    }
+
+    /**
+     * Inserts a boolean into the String buffer.
+     * @param offset	the offset at which to insert
+     * @param b		the boolean to insert
+     * @return 		the StringBuilder itself, NOT a new one.
+     * @exception	StringIndexOutOfBoundsException If the offset is invalid.
+     */
+    public StringBuilder insert(int offset, boolean b) {
+	return insert(offset, String.valueOf(b));
+    }
+
+    /**
+     * Inserts a character into the String buffer.
+     * @param offset	the offset at which to insert
+     * @param ch		the character to insert
+     * @return 		the StringBuilder itself, NOT a new one.
+     * @exception	StringIndexOutOfBoundsException If the offset invalid.
+     */
+    public StringBuilder insert(int offset, char c) {
+	ensureCapacity(count + 1);
+	copyWhenShared();
+	System.arraycopy(value, offset, value, offset + 1, count - offset);
+	value[offset] = c;
+	count += 1;
+	return this;
+    }
+
+    /**
+     * Inserts an integer into the String buffer.
+     * @param offset	the offset at which to insert
+     * @param i		the integer to insert
+     * @return 		the StringBuilder itself, NOT a new one.
+     * @exception	StringIndexOutOfBoundsException If the offset is invalid.
+     */
+    public StringBuilder insert(int offset, int i) {
+	return insert(offset, String.valueOf(i));
+    }
+
+    /**
+     * Inserts a long into the String buffer.
+     * @param offset	the offset at which to insert
+     * @param l		the long to insert
+     * @return 		the StringBuilder itself, NOT a new one.
+     * @exception	StringIndexOutOfBoundsException If the offset is invalid.
+     */
+    public StringBuilder insert(int offset, long l) {
+	return insert(offset, String.valueOf(l));
+    }
+
+    /**
+     * Inserts a float into the String buffer.
+     * @param offset	the offset at which to insert
+     * @param f		the float to insert
+     * @return 		the StringBuilder itself, NOT a new one.
+     * @exception	StringIndexOutOfBoundsException If the offset is invalid.
+     */
+    public StringBuilder insert(int offset, float f) {
+	return insert(offset, String.valueOf(f));
+    }
+
+    /**
+     * Inserts a double into the String buffer.
+     * @param offset	the offset at which to insert
+     * @param d		the double to insert
+     * @return 		the StringBuilder itself, NOT a new one.
+     * @exception	StringIndexOutOfBoundsException If the offset is invalid.
+     */
+    public StringBuilder insert(int offset, double d) {
+	return insert(offset, String.valueOf(d));
+    }
+
+    /**
+     * Reverse the order of the characters in the String buffer.
+     */
+    public StringBuilder reverse() {
+	flatten(0);
+	copyWhenShared();
+	int n = count - 1;
+	for (int j = (n-1) >> 1; j >= 0; --j) {
+	    char temp = value[j];
+	    value[j] = value[n - j];
+	    value[n - j] = temp;
+	}
+	return this;
+    }
+
+
+    /**
+     * Converts to a String representing the data in the buffer.
+     */
+    public String toString() {
+	return new String(this);
+    }
+
+
+    //
+    // The following two methods are needed by String to efficiently
+    // convert a StringBuilder into a String.  They are not public.
+    // They shouldn't be called by anyone but String.
+    final void setShared() { flatten(0); shared = true; } 
+    final char[] getValue() { return value; }
+}
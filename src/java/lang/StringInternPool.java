@@ -0,0 +1,163 @@
+/*
+ * @(#)StringInternPool.java	1.1 96/04/30
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.lang;
+
+import java.util.ConcurrentHashtable;
+
+/**
+ * A pool of unique Strings. For any two equal Strings s1 and s2,
+ * pool.intern(s1) == pool.intern(s2). Lookups of Strings that are
+ * already in the pool do not lock; adding a String locks only one
+ * segment of the pool, and two threads interning equal Strings at the
+ * same time always get the same instance back.<p>
+ *
+ * String.intern() uses the pool returned by shared(). That pool lives
+ * as long as the runtime. A parser that interns many tokens of its own
+ * can use a private pool instead; all of its Strings can be reclaimed
+ * when the pool is cleared or dropped.<p>
+ *
+ * The hit and miss counters are updated without locking and are
+ * therefore approximate when several threads use the pool.
+ *
+ * @see String#intern
+ * @see java.util.ConcurrentHashtable
+ * @version 	1.1, 30 Apr 1996
+ */
+public
+class StringInternPool {
+    /**
+     * The pool used by String.intern(). It is created when this class
+     * is initialized, which the runtime does exactly once.
+     */
+    private static StringInternPool sharedPool = new StringInternPool(1024, 16);
+
+    /**
+     * The Strings in the pool, each mapped to itself.
+     */
+    private ConcurrentHashtable strings;
+
+    /**
+     * The number of intern() calls that found their String in the pool.
+     */
+    private long hits;
+
+    /**
+     * The number of intern() calls that added their String to the pool.
+     */
+    private long misses;
+
+    /**
+     * Constructs an empty pool.
+     * @param initialCapacity the initial number of buckets
+     * @param concurrencyLevel the estimated number of threads that
+     *		add Strings to the pool at the same time
+     */
+    public StringInternPool(int initialCapacity, int concurrencyLevel) {
+	strings = new ConcurrentHashtable(initialCapacity, 0.75f, concurrencyLevel);
+    }
+
+    /**
+     * Constructs an empty pool with a default capacity and concurrency
+     * level.
+     */
+    public StringInternPool() {
+	this(101, 16);
+    }
+
+    /**
+     * Returns the pool used by String.intern().
+     */
+    public static StringInternPool shared() {
+	return sharedPool;
+    }
+
+    /**
+     * Returns the String in the pool that is equal to the specified
+     * String, adding it to the pool if there is none.
+     * @param str the String to intern
+     * @exception NullPointerException If str is null.
+     */
+    public String intern(String str) {
+	String s = (String)strings.get(str);
+	if (s != null) {
+	    hits++;
+	    return s;
+	}
+	misses++;
+	s = (String)strings.putIfAbsent(str, str);
+	return (s != null) ? s : str;
+    }
+
+    /**
+     * Returns true if a String equal to the specified String is in the pool.
+     * @param str the String to look for
+     */
+    public boolean contains(String str) {
+	return strings.containsKey(str);
+    }
+
+    /**
+     * Returns the number of Strings in the pool.
+     */
+    public int size() {
+	return strings.size();
+    }
+
+    /**
+     * Returns the number of intern() calls that found their String
+     * in the pool.
+     */
+    public long hits() {
+	return hits;
+    }
+
+    /**
+     * Returns the number of intern() calls that did not find their
+     * String in the pool.
+     */
+    public long misses() {
+	return misses;
+    }
+
+    /**
+     * Resets the hit and miss counters to zero.
+     */
+    public void resetCounters() {
+	hits = 0;
+	misses = 0;
+    }
+
+    /**
+     * Removes all Strings from the pool so that they can be garbage
+     * collected. Strings interned afterwards are no longer identical
+     * to equal Strings interned before.
+     */
+    public void clear() {
+	strings.clear();
+    }
+
+    /**
+     * Returns a String describing the pool and its counters.
+     */
+    public String toString() {
+	return getClass().getName() + "[size=" + size() + ",hits=" + hits
+	    + ",misses=" + misses + "]";
+    }
+}
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Hashtable;
+import java.util.CacheDictionary;
 import java.util.Date;
 import java.util.StringTokenizer;
 
@@ -352,7 +353,12 @@ abstract public class URLConnection {
 	factory = fac;
     }
 
-    private static Hashtable handlers = new Hashtable();
+    /*
+     * Content handlers by content type. The types come from the
+     * servers, so the table is bounded; a handler that is evicted is
+     * simply looked up again.
+     */
+    private static CacheDictionary handlers = new CacheDictionary(64, CacheDictionary.CLOCK, 0);
     private static ContentHandler UnknownContentHandlerP = new UnknownContentHandler();
 
     /**
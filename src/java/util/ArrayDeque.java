@@ -0,0 +1,459 @@
+/*
+ * @(#)ArrayDeque.java	1.1 96/06/25
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * ArrayDeque class. A double-ended queue of objects that can be added
+ * and removed at both ends in constant time. The elements are kept in
+ * a circular array, so unlike a Vector used as a queue, removing the
+ * first element does not shift the others.<p>
+ *
+ * The methods are not synchronized; an ArrayDeque must only be used
+ * by one thread at a time. Use a Deque when the queue is shared, or a
+ * BlockingDeque when consumers should wait for producers.<p>
+ *
+ * An ArrayDeque is used as a FIFO queue with addLast() and
+ * removeFirst(), and as a stack with push() and pop():
+ * <pre>
+ *	ArrayDeque jobs = new ArrayDeque();
+ *	jobs.addLast(job);
+ *	...
+ *	while (!jobs.isEmpty()) {
+ *	    ((Runnable)jobs.removeFirst()).run();
+ *	}
+ * </pre>
+ * Null elements are not allowed.
+ *
+ * @see Deque
+ * @see BlockingDeque
+ * @see Stack
+ * @version 	1.1, 25 Jun 1996
+ */
+public
+class ArrayDeque implements Cloneable {
+    /**
+     * The buffer where elements are stored. Its length is always a
+     * power of two and at least one slot is always empty.
+     */
+    protected Object elementData[];
+
+    /**
+     * The index of the first element.
+     */
+    protected int head;
+
+    /**
+     * The index after the last element.
+     */
+    protected int tail;
+
+    /**
+     * The number of times the deque has been changed. Enumerations
+     * fail if it changes while they are in use.
+     */
+    int modCount;
+
+    /**
+     * Constructs an empty deque with room for the specified number of
+     * elements.
+     * @param initialCapacity the initial capacity
+     * @exception IllegalArgumentException If the capacity is negative.
+     */
+    public ArrayDeque(int initialCapacity) {
+	if (initialCapacity < 0) {
+	    throw new IllegalArgumentException();
+	}
+	int capacity = 8;
+	while ((capacity <= initialCapacity) && (capacity < (1 << 30))) {
+	    capacity <<= 1;
+	}
+	elementData = new Object[capacity];
+    }
+
+    /**
+     * Constructs an empty deque.
+     */
+    public ArrayDeque() {
+	this(15);
+    }
+
+    /**
+     * Doubles the buffer, moving the elements to its start. Called
+     * when the last empty slot has just been filled.
+     */
+    private void doubleCapacity() {
+	Object oldData[] = elementData;
+	int n = oldData.length;
+	int r = n - head;
+	Object newData[] = new Object[n * 2];
+	System.arraycopy(oldData, head, newData, 0, r);
+	System.arraycopy(oldData, 0, newData, r, head);
+	elementData = newData;
+	head = 0;
+	tail = n;
+    }
+
+    /**
+     * Returns the number of elements in the deque.
+     */
+    public int size() {
+	return (tail - head) & (elementData.length - 1);
+    }
+
+    /**
+     * Returns true if the deque contains no elements.
+     */
+    public boolean isEmpty() {
+	return head == tail;
+    }
+
+    /**
+     * Inserts an element at the front of the deque.
+     * @param obj the element to be added
+     * @exception NullPointerException If the element is null.
+     */
+    public void addFirst(Object obj) {
+	if (obj == null) {
+	    throw new NullPointerException();
+	}
+	modCount++;
+	Object data[] = elementData;
+	data[head = (head - 1) & (data.length - 1)] = obj;
+	if (head == tail) {
+	    doubleCapacity();
+	}
+    }
+
+    /**
+     * Appends an element at the end of the deque.
+     * @param obj the element to be added
+     * @exception NullPointerException If the element is null.
+     */
+    public void addLast(Object obj) {
+	if (obj == null) {
+	    throw new NullPointerException();
+	}
+	modCount++;
+	Object data[] = elementData;
+	data[tail] = obj;
+	if ((tail = (tail + 1) & (data.length - 1)) == head) {
+	    doubleCapacity();
+	}
+    }
+
+    /**
+     * Inserts an element at the front of the deque if there is room.
+     * An ArrayDeque always has room; a bounded deque may not.
+     * @param obj the element to be added
+     * @return true if the element was added.
+     * @exception NullPointerException If the element is null.
+     */
+    public boolean offerFirst(Object obj) {
+	addFirst(obj);
+	return true;
+    }
+
+    /**
+     * Appends an element at the end of the deque if there is room.
+     * An ArrayDeque always has room; a bounded deque may not.
+     * @param obj the element to be added
+     * @return true if the element was added.
+     * @exception NullPointerException If the element is null.
+     */
+    public boolean offerLast(Object obj) {
+	addLast(obj);
+	return true;
+    }
+
+    /**
+     * Removes and returns the first element of the deque.
+     * @exception NoSuchElementException If the deque is empty.
+     */
+    public Object removeFirst() {
+	Object obj = pollFirst();
+	if (obj == null) {
+	    throw new NoSuchElementException();
+	}
+	return obj;
+    }
+
+    /**
+     * Removes and returns the last element of the deque.
+     * @exception NoSuchElementException If the deque is empty.
+     */
+    public Object removeLast() {
+	Object obj = pollLast();
+	if (obj == null) {
+	    throw new NoSuchElementException();
+	}
+	return obj;
+    }
+
+    /**
+     * Removes and returns the first element of the deque, or returns
+     * null if the deque is empty.
+     */
+    public Object pollFirst() {
+	Object data[] = elementData;
+	int h = head;
+	Object obj = data[h];
+	if (obj != null) {
+	    modCount++;
+	    data[h] = null;
+	    head = (h + 1) & (data.length - 1);
+	}
+	return obj;
+    }
+
+    /**
+     * Removes and returns the last element of the deque, or returns
+     * null if the deque is empty.
+     */
+    public Object pollLast() {
+	Object data[] = elementData;
+	int t = (tail - 1) & (data.length - 1);
+	Object obj = data[t];
+	if (obj != null) {
+	    modCount++;
+	    data[t] = null;
+	    tail = t;
+	}
+	return obj;
+    }
+
+    /**
+     * Returns the first element of the deque without removing it.
+     * @exception NoSuchElementException If the deque is empty.
+     */
+    public Object firstElement() {
+	Object obj = peekFirst();
+	if (obj == null) {
+	    throw new NoSuchElementException();
+	}
+	return obj;
+    }
+
+    /**
+     * Returns the last element of the deque without removing it.
+     * @exception NoSuchElementException If the deque is empty.
+     */
+    public Object lastElement() {
+	Object obj = peekLast();
+	if (obj == null) {
+	    throw new NoSuchElementException();
+	}
+	return obj;
+    }
+
+    /**
+     * Returns the first element of the deque, or null if it is empty.
+     */
+    public Object peekFirst() {
+	return elementData[head];
+    }
+
+    /**
+     * Returns the last element of the deque, or null if it is empty.
+     */
+    public Object peekLast() {
+	Object data[] = elementData;
+	return data[(tail - 1) & (data.length - 1)];
+    }
+
+    /**
+     * Pushes an element onto the front of the deque, used as a stack.
+     * The same as addFirst().
+     * @param item the item to be pushed on.
+     * @return the item.
+     */
+    public Object push(Object item) {
+	addFirst(item);
+	return item;
+    }
+
+    /**
+     * Pops an element off the front of the deque, used as a stack.
+     * The same as removeFirst() except for the exception thrown.
+     * @exception EmptyStackException If the deque is empty.
+     */
+    public Object pop() {
+	Object obj = pollFirst();
+	if (obj == null) {
+	    throw new EmptyStackException();
+	}
+	return obj;
+    }
+
+    /**
+     * Returns the front element of the deque, used as a stack, without
+     * removing it.
+     * @exception EmptyStackException If the deque is empty.
+     */
+    public Object peek() {
+	Object obj = peekFirst();
+	if (obj == null) {
+	    throw new EmptyStackException();
+	}
+	return obj;
+    }
+
+    /**
+     * Returns the element at the specified position, counting from the
+     * front of the deque.
+     * @param index the index of the element
+     * @exception ArrayIndexOutOfBoundsException If an invalid index
+     * was given.
+     */
+    public Object elementAt(int index) {
+	if ((index < 0) || (index >= size())) {
+	    throw new ArrayIndexOutOfBoundsException(index + " >= " + size());
+	}
+	Object data[] = elementData;
+	return data[(head + index) & (data.length - 1)];
+    }
+
+    /**
+     * Returns true if the specified object is an element of the deque.
+     * @param elem the desired element
+     */
+    public boolean contains(Object elem) {
+	if (elem == null) {
+	    return false;
+	}
+	Object data[] = elementData;
+	int mask = data.length - 1;
+	for (int i = head ; i != tail ; i = (i + 1) & mask) {
+	    if (elem.equals(data[i])) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * Removes all elements of the deque.
+     */
+    public void clear() {
+	modCount++;
+	Object data[] = elementData;
+	int mask = data.length - 1;
+	for (int i = head ; i != tail ; i = (i + 1) & mask) {
+	    data[i] = null;
+	}
+	head = tail = 0;
+    }
+
+    /**
+     * Returns an enumeration of the elements, from first to last. The
+     * enumeration fails if the deque is changed while it is in use.
+     * @see Enumeration
+     * @see ConcurrentModificationException
+     */
+    public Enumeration elements() {
+	return new DequeEnumerator(this);
+    }
+
+    /**
+     * Copies the elements of the deque, from first to last, into the
+     * specified array. The array must be big enough to hold them.
+     * @param anArray the array where elements get copied into
+     */
+    public void copyInto(Object anArray[]) {
+	Object data[] = elementData;
+	if (head <= tail) {
+	    System.arraycopy(data, head, anArray, 0, tail - head);
+	} else {
+	    int r = data.length - head;
+	    System.arraycopy(data, head, anArray, 0, r);
+	    System.arraycopy(data, 0, anArray, r, tail);
+	}
+    }
+
+    /**
+     * Clones the deque. The elements themselves are not cloned.
+     */
+    public Object clone() {
+	try {
+	    ArrayDeque d = (ArrayDeque)super.clone();
+	    d.elementData = new Object[elementData.length];
+	    System.arraycopy(elementData, 0, d.elementData, 0, elementData.length);
+	    d.modCount = 0;
+	    return d;
+	} catch (CloneNotSupportedException e) {
+	    // this shouldn't happen, since we are Cloneable
+	    throw new InternalError();
+	}
+    }
+
+    /**
+     * Converts the deque to a string, listing the elements from first
+     * to last.
+     */
+    public String toString() {
+	Object data[] = elementData;
+	int mask = data.length - 1;
+	StringBuilder buf = new StringBuilder();
+	buf.append("[");
+	for (int i = head ; i != tail ; i = (i + 1) & mask) {
+	    if (i != head) {
+		buf.append(", ");
+	    }
+	    buf.append(data[i].toString());
+	}
+	buf.append("]");
+	return buf.toString();
+    }
+}
+
+/**
+ * A deque enumerator class. This class should remain opaque to the
+ * client. It will use the Enumeration interface.
+ */
+final
+class DequeEnumerator implements Enumeration {
+    ArrayDeque deque;
+    int index;
+    int expectedModCount;
+
+    DequeEnumerator(ArrayDeque d) {
+	deque = d;
+	index = d.head;
+	expectedModCount = d.modCount;
+    }
+
+    public boolean hasMoreElements() {
+	return index != deque.tail;
+    }
+
+    public Object nextElement() {
+	synchronized (deque) {
+	    if (deque.modCount != expectedModCount) {
+		throw new ConcurrentModificationException("DequeEnumerator");
+	    }
+	    if (index != deque.tail) {
+		Object data[] = deque.elementData;
+		Object obj = data[index];
+		index = (index + 1) & (data.length - 1);
+		return obj;
+	    }
+	}
+	throw new NoSuchElementException("DequeEnumerator");
+    }
+}
@@ -21,8 +21,10 @@ package java.util;
 
 /**
  * A set of bits. The set automatically grows as more bits are
- * needed. 
+ * needed. Searching, counting and range operations work on 64 bits
+ * at a time.
  *
+ * @see BitSetIterator
  * @version 	1.12, 01 Dec 1995
  * @author Arthur van Hoff
  */
@@ -63,7 +65,7 @@ public final class BitSet implements Cloneable {
     public void set(int bit) {
 	int n = bit>>BITS;
 	if (n >= bits.length) {
-	    grow(bit);
+	    grow(bit + 1);
 	}
 	bits[n] |= (1L << (bit & MASK));
     }
@@ -75,7 +77,7 @@ public final class BitSet implements Cloneable {
     public void clear(int bit) {
 	int n = bit>>BITS;
 	if (n >= bits.length) {
-	    grow(bit);
+	    grow(bit + 1);
 	}
 	bits[n] &= ~(1L << (bit & MASK));
     }
@@ -89,6 +91,181 @@ public final class BitSet implements Cloneable {
 	return (n < bits.length) ? ((bits[n] & (1L << (bit & MASK))) != 0) : false;
     }
 
+    /**
+     * Sets the bits from fromIndex (inclusive) to toIndex (exclusive).
+     * @param fromIndex the first bit to be set
+     * @param toIndex the bit after the last bit to be set
+     * @exception IndexOutOfBoundsException If fromIndex is negative or
+     * greater than toIndex.
+     */
+    public void set(int fromIndex, int toIndex) {
+	checkRange(fromIndex, toIndex);
+	if (fromIndex == toIndex) {
+	    return;
+	}
+	int last = (toIndex - 1)>>BITS;
+	if (last >= bits.length) {
+	    grow(toIndex);
+	}
+	int first = fromIndex>>BITS;
+	long firstMask = -1L << (fromIndex & MASK);
+	long lastMask = -1L >>> (MASK - ((toIndex - 1) & MASK));
+	if (first == last) {
+	    bits[first] |= firstMask & lastMask;
+	    return;
+	}
+	bits[first] |= firstMask;
+	for (int i = first + 1 ; i < last ; i++) {
+	    bits[i] = -1L;
+	}
+	bits[last] |= lastMask;
+    }
+
+    /**
+     * Clears the bits from fromIndex (inclusive) to toIndex (exclusive).
+     * @param fromIndex the first bit to be cleared
+     * @param toIndex the bit after the last bit to be cleared
+     * @exception IndexOutOfBoundsException If fromIndex is negative or
+     * greater than toIndex.
+     */
+    public void clear(int fromIndex, int toIndex) {
+	checkRange(fromIndex, toIndex);
+	int first = fromIndex>>BITS;
+	if ((fromIndex == toIndex) || (first >= bits.length)) {
+	    return;
+	}
+	int last = (toIndex - 1)>>BITS;
+	long firstMask = -1L << (fromIndex & MASK);
+	long lastMask = -1L >>> (MASK - ((toIndex - 1) & MASK));
+	if (last >= bits.length) {
+	    last = bits.length - 1;
+	    lastMask = -1L;
+	}
+	if (first == last) {
+	    bits[first] &= ~(firstMask & lastMask);
+	    return;
+	}
+	bits[first] &= ~firstMask;
+	for (int i = first + 1 ; i < last ; i++) {
+	    bits[i] = 0;
+	}
+	bits[last] &= ~lastMask;
+    }
+
+    private static void checkRange(int fromIndex, int toIndex) {
+	if ((fromIndex < 0) || (fromIndex > toIndex)) {
+	    throw new IndexOutOfBoundsException(fromIndex + " > " + toIndex);
+	}
+    }
+
+    /**
+     * Returns the index of the first bit that is set at or after
+     * fromIndex, or -1 if there is none. The set bits can be visited
+     * with:
+     * <pre>
+     *	for (int i = set.nextSetBit(0) ; i >= 0 ; i = set.nextSetBit(i + 1)) {
+     *	    ...
+     *	}
+     * </pre>
+     * @param fromIndex the bit to start looking from
+     * @exception IndexOutOfBoundsException If fromIndex is negative.
+     * @see BitSetIterator
+     */
+    public int nextSetBit(int fromIndex) {
+	if (fromIndex < 0) {
+	    throw new IndexOutOfBoundsException(fromIndex + " < 0");
+	}
+	long b[] = bits;
+	int n = fromIndex>>BITS;
+	if (n >= b.length) {
+	    return -1;
+	}
+	long word = b[n] & (-1L << (fromIndex & MASK));
+	while (word == 0) {
+	    if (++n == b.length) {
+		return -1;
+	    }
+	    word = b[n];
+	}
+	return (n<<BITS) + trailingZeros(word);
+    }
+
+    /**
+     * Returns the index of the first bit that is clear at or after
+     * fromIndex. All bits beyond the size of the set are clear.
+     * @param fromIndex the bit to start looking from
+     * @exception IndexOutOfBoundsException If fromIndex is negative.
+     */
+    public int nextClearBit(int fromIndex) {
+	if (fromIndex < 0) {
+	    throw new IndexOutOfBoundsException(fromIndex + " < 0");
+	}
+	long b[] = bits;
+	int n = fromIndex>>BITS;
+	if (n >= b.length) {
+	    return fromIndex;
+	}
+	long word = ~b[n] & (-1L << (fromIndex & MASK));
+	while (word == 0) {
+	    if (++n == b.length) {
+		return n<<BITS;
+	    }
+	    word = ~b[n];
+	}
+	return (n<<BITS) + trailingZeros(word);
+    }
+
+    /**
+     * Returns the number of bits that are set.
+     */
+    public int cardinality() {
+	int count = 0;
+	for (int i = bits.length ; i-- > 0 ;) {
+	    count += bitCount(bits[i]);
+	}
+	return count;
+    }
+
+    /**
+     * Returns the number of zero bits below the lowest set bit of a
+     * word that is not zero.
+     */
+    static int trailingZeros(long word) {
+	int n = 0;
+	int w = (int)word;
+	if (w == 0) {
+	    w = (int)(word >>> 32);
+	    n = 32;
+	}
+	if ((w & 0xffff) == 0) {
+	    w >>>= 16;
+	    n += 16;
+	}
+	if ((w & 0xff) == 0) {
+	    w >>>= 8;
+	    n += 8;
+	}
+	if ((w & 0xf) == 0) {
+	    w >>>= 4;
+	    n += 4;
+	}
+	if ((w & 0x3) == 0) {
+	    w >>>= 2;
+	    n += 2;
+	}
+	return n + ((~w) & 1);
+    }
+
+    /**
+     * Returns the number of set bits in a word.
+     */
+    static int bitCount(long word) {
+	word = word - ((word >>> 1) & 0x5555555555555555L);
+	word = (word & 0x3333333333333333L) + ((word >>> 2) & 0x3333333333333333L);
+	word = (word + (word >>> 4)) & 0x0f0f0f0f0f0f0f0fL;
+	return (int)((word * 0x0101010101010101L) >>> 56);
+    }
+
     /**
      * Logically ANDs this bit set with the specified set of bits.
      * @param set the bit set to be ANDed with
@@ -123,6 +300,17 @@ public final class BitSet implements Cloneable {
 	}
     }
 
+    /**
+     * Clears all of the bits in this set whose corresponding bit is
+     * set in the specified set of bits.
+     * @param set the bit set whose bits are to be cleared
+     */
+    public void andNot(BitSet set) {
+	for (int i = Math.min(bits.length, set.bits.length) ; i-- > 0 ;) {
+	    bits[i] &= ~set.bits[i];
+	}
+    }
+
     /**
      * Gets the hashcode.
      */
@@ -193,15 +381,15 @@ public final class BitSet implements Cloneable {
      * Converts the BitSet to a String.
      */
     public String toString() {
-	String str = "";
-	for (int i = 0 ; i < (bits.length << BITS) ; i++) {
-	    if (get(i)) {
-		if (str.length() > 0) {
-		    str += ", ";
-		}
-		str = str + i;
+	StringBuilder buf = new StringBuilder();
+	buf.append('{');
+	for (int i = nextSetBit(0) ; i >= 0 ; i = nextSetBit(i + 1)) {
+	    if (buf.length() > 1) {
+		buf.append(", ");
 	    }
+	    buf.append(i);
 	}
-	return "{" + str + "}";
+	buf.append('}');
+	return buf.toString();
     }
 }
@@ -0,0 +1,93 @@
+/*
+ * @(#)BitSetIterator.java	1.1 96/06/04
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * Visits the set bits of a BitSet in increasing order. The iterator
+ * keeps the word it is working on, so each bit costs a few shifts and
+ * a word is read only once; returning a bit allocates nothing. An
+ * iterator can be reset and used again, on the same or another set.
+ * <pre>
+ *	BitSetIterator it = new BitSetIterator(set);
+ *	while (it.hasMoreBits()) {
+ *	    int bit = it.nextBit();
+ *	    ...
+ *	}
+ * </pre>
+ * Bits that are set or cleared in the word being visited after the
+ * iterator has read it are not seen by the iterator.
+ *
+ * @see BitSet#nextSetBit
+ * @version 	1.1, 04 Jun 1996
+ */
+public final
+class BitSetIterator {
+    private BitSet set;
+    private int wordIndex;
+    private long word;
+
+    /**
+     * Constructs an iterator over the set bits of a BitSet.
+     * @param set the set to visit
+     */
+    public BitSetIterator(BitSet set) {
+	reset(set);
+    }
+
+    /**
+     * Starts visiting the set bits of a BitSet from the beginning.
+     * @param set the set to visit
+     */
+    public void reset(BitSet set) {
+	this.set = set;
+	wordIndex = 0;
+	word = (set.bits.length > 0) ? set.bits[0] : 0;
+    }
+
+    /**
+     * Returns true if there are more set bits.
+     */
+    public boolean hasMoreBits() {
+	if (word != 0) {
+	    return true;
+	}
+	long b[] = set.bits;
+	while (++wordIndex < b.length) {
+	    if ((word = b[wordIndex]) != 0) {
+		return true;
+	    }
+	}
+	wordIndex = b.length;
+	return false;
+    }
+
+    /**
+     * Returns the index of the next set bit.
+     * @exception NoSuchElementException If there are no more set bits.
+     */
+    public int nextBit() {
+	if (!hasMoreBits()) {
+	    throw new NoSuchElementException("BitSetIterator");
+	}
+	long w = word;
+	word = w & (w - 1);
+	return (wordIndex<<BitSet.BITS) + BitSet.trailingZeros(w);
+    }
+}
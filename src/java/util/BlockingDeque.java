@@ -0,0 +1,367 @@
+/*
+ * @(#)BlockingDeque.java	1.1 96/06/25
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * BlockingDeque class. A synchronized deque that holds at most a fixed
+ * number of elements, and on which threads can wait: putFirst() and
+ * putLast() wait while the deque is full, takeFirst() and takeLast()
+ * wait while it is empty. It is used to hand work from producer
+ * threads to consumer threads without letting the producers run
+ * arbitrarily far ahead:
+ * <pre>
+ *	BlockingDeque queue = new BlockingDeque(1000);
+ *
+ *	// in the producers
+ *	queue.putLast(job);
+ *
+ *	// in the consumers
+ *	for (;;) {
+ *	    ((Runnable)queue.takeFirst()).run();
+ *	}
+ * </pre>
+ * The methods inherited from Deque do not wait. addFirst() and
+ * addLast() throw an exception when the deque is full, offerFirst()
+ * and offerLast() return false.
+ *
+ * @see Deque
+ * @see ArrayDeque
+ * @version 	1.1, 25 Jun 1996
+ */
+public
+class BlockingDeque extends Deque {
+    /**
+     * The maximum number of elements.
+     */
+    private int capacity;
+
+    /**
+     * The number of threads waiting in put, take, offer or poll.
+     */
+    private int waiters;
+
+    /**
+     * Constructs an empty deque that holds at most the specified number
+     * of elements.
+     * @param capacity the maximum number of elements
+     * @exception IllegalArgumentException If the capacity is less than
+     * or equal to zero.
+     */
+    public BlockingDeque(int capacity) {
+	super(capacity);
+	if (capacity <= 0) {
+	    throw new IllegalArgumentException();
+	}
+	this.capacity = capacity;
+    }
+
+    /**
+     * Returns the maximum number of elements the deque can hold.
+     */
+    public int capacity() {
+	return capacity;
+    }
+
+    /**
+     * Returns the number of elements that can be added before the
+     * deque is full.
+     */
+    public synchronized int remainingCapacity() {
+	return capacity - size();
+    }
+
+    /**
+     * Wakes up the threads waiting for the deque to change.
+     */
+    private void signal() {
+	if (waiters > 0) {
+	    notifyAll();
+	}
+    }
+
+    /**
+     * Waits until the deque changes or the specified time, if not
+     * zero, has passed.
+     */
+    private void await(long millis) throws InterruptedException {
+	waiters++;
+	try {
+	    wait(millis);
+	} finally {
+	    waiters--;
+	}
+    }
+
+    /**
+     * Inserts an element at the front of the deque.
+     * @param obj the element to be added
+     * @exception IllegalStateException If the deque is full.
+     * @exception NullPointerException If the element is null.
+     */
+    public synchronized void addFirst(Object obj) {
+	if (!offerFirst(obj)) {
+	    throw new IllegalStateException("deque full");
+	}
+    }
+
+    /**
+     * Appends an element at the end of the deque.
+     * @param obj the element to be added
+     * @exception IllegalStateException If the deque is full.
+     * @exception NullPointerException If the element is null.
+     */
+    public synchronized void addLast(Object obj) {
+	if (!offerLast(obj)) {
+	    throw new IllegalStateException("deque full");
+	}
+    }
+
+    /**
+     * Inserts an element at the front of the deque if it is not full.
+     * @param obj the element to be added
+     * @return true if the element was added, false if the deque is full.
+     * @exception NullPointerException If the element is null.
+     */
+    public synchronized boolean offerFirst(Object obj) {
+	if (size() >= capacity) {
+	    return false;
+	}
+	super.addFirst(obj);
+	signal();
+	return true;
+    }
+
+    /**
+     * Appends an element at the end of the deque if it is not full.
+     * @param obj the element to be added
+     * @return true if the element was added, false if the deque is full.
+     * @exception NullPointerException If the element is null.
+     */
+    public synchronized boolean offerLast(Object obj) {
+	if (size() >= capacity) {
+	    return false;
+	}
+	super.addLast(obj);
+	signal();
+	return true;
+    }
+
+    /**
+     * Removes and returns the first element, or returns null if the deque
+     * is empty. Wakes the threads waiting for room.
+     */
+    public synchronized Object pollFirst() {
+	Object obj = super.pollFirst();
+	if (obj != null) {
+	    signal();
+	}
+	return obj;
+    }
+
+    /**
+     * Removes and returns the last element, or returns null if the deque
+     * is empty. Wakes the threads waiting for room.
+     */
+    public synchronized Object pollLast() {
+	Object obj = super.pollLast();
+	if (obj != null) {
+	    signal();
+	}
+	return obj;
+    }
+
+    /**
+     * Removes all elements. Wakes the threads waiting for room.
+     */
+    public synchronized void clear() {
+	super.clear();
+	signal();
+    }
+
+    /**
+     * Inserts an element at the front of the deque, waiting for room
+     * if the deque is full.
+     * @param obj the element to be added
+     * @exception InterruptedException If another thread has interrupted
+     * this thread.
+     * @exception NullPointerException If the element is null.
+     */
+    public synchronized void putFirst(Object obj) throws InterruptedException {
+	if (obj == null) {
+	    throw new NullPointerException();
+	}
+	while (!offerFirst(obj)) {
+	    await(0);
+	}
+    }
+
+    /**
+     * Appends an element at the end of the deque, waiting for room
+     * if the deque is full.
+     * @param obj the element to be added
+     * @exception InterruptedException If another thread has interrupted
+     * this thread.
+     * @exception NullPointerException If the element is null.
+     */
+    public synchronized void putLast(Object obj) throws InterruptedException {
+	if (obj == null) {
+	    throw new NullPointerException();
+	}
+	while (!offerLast(obj)) {
+	    await(0);
+	}
+    }
+
+    /**
+     * Inserts an element at the front of the deque, waiting at most
+     * the specified time for room if the deque is full.
+     * @param obj the element to be added
+     * @param millis the maximum time to wait in milliseconds
+     * @return true if the element was added, false if the deque was
+     * still full when the time had passed.
+     * @exception InterruptedException If another thread has interrupted
+     * this thread.
+     * @exception NullPointerException If the element is null.
+     */
+    public synchronized boolean offerFirst(Object obj, long millis)
+	throws InterruptedException {
+	if (obj == null) {
+	    throw new NullPointerException();
+	}
+	long deadline = System.currentTimeMillis() + millis;
+	while (!offerFirst(obj)) {
+	    long delay = deadline - System.currentTimeMillis();
+	    if (delay <= 0) {
+		return false;
+	    }
+	    await(delay);
+	}
+	return true;
+    }
+
+    /**
+     * Appends an element at the end of the deque, waiting at most
+     * the specified time for room if the deque is full.
+     * @param obj the element to be added
+     * @param millis the maximum time to wait in milliseconds
+     * @return true if the element was added, false if the deque was
+     * still full when the time had passed.
+     * @exception InterruptedException If another thread has interrupted
+     * this thread.
+     * @exception NullPointerException If the element is null.
+     */
+    public synchronized boolean offerLast(Object obj, long millis)
+	throws InterruptedException {
+	if (obj == null) {
+	    throw new NullPointerException();
+	}
+	long deadline = System.currentTimeMillis() + millis;
+	while (!offerLast(obj)) {
+	    long delay = deadline - System.currentTimeMillis();
+	    if (delay <= 0) {
+		return false;
+	    }
+	    await(delay);
+	}
+	return true;
+    }
+
+    /**
+     * Removes and returns the first element of the deque, waiting for
+     * one if the deque is empty.
+     * @exception InterruptedException If another thread has interrupted
+     * this thread.
+     */
+    public synchronized Object takeFirst() throws InterruptedException {
+	Object obj;
+	while ((obj = pollFirst()) == null) {
+	    await(0);
+	}
+	return obj;
+    }
+
+    /**
+     * Removes and returns the last element of the deque, waiting for
+     * one if the deque is empty.
+     * @exception InterruptedException If another thread has interrupted
+     * this thread.
+     */
+    public synchronized Object takeLast() throws InterruptedException {
+	Object obj;
+	while ((obj = pollLast()) == null) {
+	    await(0);
+	}
+	return obj;
+    }
+
+    /**
+     * Removes and returns the first element of the deque, waiting at
+     * most the specified time for one if the deque is empty.
+     * @param millis the maximum time to wait in milliseconds
+     * @return the element, or null if the deque was still empty when
+     * the time had passed.
+     * @exception InterruptedException If another thread has interrupted
+     * this thread.
+     */
+    public synchronized Object pollFirst(long millis) throws InterruptedException {
+	long deadline = System.currentTimeMillis() + millis;
+	Object obj;
+	while ((obj = pollFirst()) == null) {
+	    long delay = deadline - System.currentTimeMillis();
+	    if (delay <= 0) {
+		return null;
+	    }
+	    await(delay);
+	}
+	return obj;
+    }
+
+    /**
+     * Removes and returns the last element of the deque, waiting at
+     * most the specified time for one if the deque is empty.
+     * @param millis the maximum time to wait in milliseconds
+     * @return the element, or null if the deque was still empty when
+     * the time had passed.
+     * @exception InterruptedException If another thread has interrupted
+     * this thread.
+     */
+    public synchronized Object pollLast(long millis) throws InterruptedException {
+	long deadline = System.currentTimeMillis() + millis;
+	Object obj;
+	while ((obj = pollLast()) == null) {
+	    long delay = deadline - System.currentTimeMillis();
+	    if (delay <= 0) {
+		return null;
+	    }
+	    await(delay);
+	}
+	return obj;
+    }
+
+    /**
+     * Clones the deque. The clone has the same capacity and no waiting
+     * threads. The elements themselves are not cloned.
+     */
+    public synchronized Object clone() {
+	BlockingDeque d = (BlockingDeque)super.clone();
+	d.waiters = 0;
+	return d;
+    }
+}
@@ -0,0 +1,572 @@
+/*
+ * @(#)CacheDictionary.java	1.1 96/07/09
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * A CacheDictionary entry. Entries are linked in a circular list with
+ * the most recently added or used entry first. An entry is never
+ * changed once it has been put in the table, except for its links and
+ * its referenced bit; putting a key again replaces the entry.
+ */
+final
+class CacheEntry {
+    Object key;
+    Object value;
+    long expires;
+    volatile boolean referenced;
+    boolean removed;
+    boolean expiredWhenDropped;
+    CacheEntry prev;
+    CacheEntry next;
+    CacheEntry nextEvicted;
+
+    CacheEntry(Object key, Object value, long expires) {
+	this.key = key;
+	this.value = value;
+	this.expires = expires;
+    }
+
+    final boolean expired(long now) {
+	return (expires != 0) && (now >= expires);
+    }
+}
+
+/**
+ * Hit and miss counts of the lookups of some of the threads using a
+ * CacheDictionary. Each thread counts in one of several of these, so
+ * that threads looking up at the same time rarely wait for each other.
+ */
+final
+class CacheCounters {
+    long hits;
+    long misses;
+}
+
+/**
+ * CacheDictionary class. Maps keys to values like a Hashtable, but
+ * holds at most a fixed number of entries. When it is full, putting a
+ * new key evicts an entry that has not been used recently. An entry
+ * may also be given a time to live, after which it is dropped.<p>
+ *
+ * Two eviction policies are supported. LRU evicts the least recently
+ * used entry, and moves an entry to the front of its list on every
+ * get(), which takes the dictionary's lock. CLOCK evicts the oldest
+ * entry that has not been used since the eviction hand last passed
+ * it; get() only sets a bit in the entry, so with CLOCK lookups never
+ * wait for each other or for puts.<p>
+ *
+ * The dictionary counts its hits, misses, evictions and expirations.
+ * A subclass can override entryEvicted() to release the resources of
+ * evicted entries:
+ * <pre>
+ *	class ConnectionCache extends CacheDictionary {
+ *	    ConnectionCache() {
+ *		super(100, CacheDictionary.CLOCK, 60 * 1000);
+ *	    }
+ *	    protected void entryEvicted(Object key, Object value, boolean expired) {
+ *		((Connection)value).close();
+ *	    }
+ *	}
+ * </pre>
+ * Like Hashtable, neither keys nor elements can be null.
+ *
+ * @see Hashtable
+ * @see ConcurrentHashtable
+ * @version 	1.1, 09 Jul 1996
+ */
+public
+class CacheDictionary extends Dictionary {
+    /**
+     * Evict the least recently used entry.
+     */
+    public static final int LRU = 0;
+
+    /**
+     * Evict an entry not used since the clock hand last passed it.
+     */
+    public static final int CLOCK = 1;
+
+    /**
+     * The entries by key. Only changed while holding the lock of the
+     * dictionary; looked up without it.
+     */
+    private ConcurrentHashtable table;
+
+    /**
+     * The head of the circular list of entries, most recent first.
+     */
+    private CacheEntry header;
+
+    private int count;
+    private int capacity;
+    private int policy;
+    private long timeToLive;
+
+    private CacheCounters counters[];
+    private long evictions;
+    private long expirations;
+
+    /**
+     * Constructs an empty cache.
+     * @param capacity the maximum number of entries
+     * @param policy LRU or CLOCK
+     * @param timeToLive the default time to live of an entry in
+     *		milliseconds, or 0 if entries do not expire
+     * @exception IllegalArgumentException If the capacity is less than
+     * or equal to zero, the policy is unknown or the time to live
+     * is negative.
+     */
+    public CacheDictionary(int capacity, int policy, long timeToLive) {
+	if ((capacity <= 0) || ((policy != LRU) && (policy != CLOCK)) || (timeToLive < 0)) {
+	    throw new IllegalArgumentException();
+	}
+	this.capacity = capacity;
+	this.policy = policy;
+	this.timeToLive = timeToLive;
+	table = new ConcurrentHashtable((capacity < 16) ? 16 : capacity + capacity / 3);
+	header = new CacheEntry(null, null, 0);
+	header.prev = header.next = header;
+	counters = new CacheCounters[8];
+	for (int i = counters.length ; i-- > 0 ;) {
+	    counters[i] = new CacheCounters();
+	}
+    }
+
+    /**
+     * Constructs an empty LRU cache whose entries do not expire.
+     * @param capacity the maximum number of entries
+     * @exception IllegalArgumentException If the capacity is less than
+     * or equal to zero.
+     */
+    public CacheDictionary(int capacity) {
+	this(capacity, LRU, 0);
+    }
+
+    /**
+     * Returns the maximum number of entries.
+     */
+    public int capacity() {
+	return capacity;
+    }
+
+    /**
+     * Changes the maximum number of entries, evicting entries if there
+     * are more.
+     * @param capacity the maximum number of entries
+     * @exception IllegalArgumentException If the capacity is less than
+     * or equal to zero.
+     */
+    public void setCapacity(int capacity) {
+	if (capacity <= 0) {
+	    throw new IllegalArgumentException();
+	}
+	CacheEntry evicted;
+	synchronized (this) {
+	    this.capacity = capacity;
+	    evicted = evict(System.currentTimeMillis());
+	}
+	notifyEvicted(evicted);
+    }
+
+    /**
+     * Returns the eviction policy, LRU or CLOCK.
+     */
+    public int policy() {
+	return policy;
+    }
+
+    /**
+     * Returns the number of entries in the cache. Entries that have
+     * expired but not yet been dropped are counted.
+     */
+    public synchronized int size() {
+	return count;
+    }
+
+    /**
+     * Returns true if the cache contains no entries.
+     */
+    public synchronized boolean isEmpty() {
+	return count == 0;
+    }
+
+    /**
+     * Returns an enumeration of the keys. The keys of expired entries
+     * that have not yet been dropped may be included.
+     * @see CacheDictionary#elements
+     * @see Enumeration
+     */
+    public Enumeration keys() {
+	return table.keys();
+    }
+
+    /**
+     * Returns an enumeration of the elements. The elements of expired
+     * entries that have not yet been dropped may be included.
+     * @see CacheDictionary#keys
+     * @see Enumeration
+     */
+    public Enumeration elements() {
+	return new CacheEnumerator(table.elements());
+    }
+
+    /**
+     * Returns true if the cache contains an unexpired entry for the
+     * key. The entry is not marked as used and no hit or miss is
+     * counted.
+     * @param key the key that we are looking for
+     */
+    public boolean containsKey(Object key) {
+	CacheEntry e = (CacheEntry)table.get(key);
+	return (e != null) && !e.expired(System.currentTimeMillis());
+    }
+
+    /**
+     * Gets the object associated with the specified key, and marks the
+     * entry as used. An entry that has expired is dropped.
+     * @param key the specified key
+     * @returns the element for the key or null if the key
+     * 		is not in the cache.
+     * @see CacheDictionary#put
+     */
+    public Object get(Object key) {
+	CacheEntry e = (CacheEntry)table.get(key);
+	CacheCounters c = counters[Thread.currentThread().hashCode() & (counters.length - 1)];
+	if ((e != null) && (e.expires != 0) && e.expired(System.currentTimeMillis())) {
+	    if (expire(e)) {
+		entryEvicted(e.key, e.value, true);
+	    }
+	    e = null;
+	}
+	if (e == null) {
+	    synchronized (c) {
+		c.misses++;
+	    }
+	    return null;
+	}
+	synchronized (c) {
+	    c.hits++;
+	}
+	if (policy == CLOCK) {
+	    e.referenced = true;
+	} else if (header.next != e) {
+	    synchronized (this) {
+		if (!e.removed) {
+		    unlink(e);
+		    linkFirst(e);
+		}
+	    }
+	}
+	return e.value;
+    }
+
+    /**
+     * Puts the specified element into the cache, using the specified
+     * key, with the default time to live. If the cache is full an
+     * entry is evicted.
+     * @param key the specified key
+     * @param value the specified element
+     * @exception NullPointerException If the key or the element
+     * is equal to null.
+     * @see CacheDictionary#get
+     * @return the old value of the key, or null if it did not have one.
+     */
+    public Object put(Object key, Object value) {
+	return put(key, value, timeToLive);
+    }
+
+    /**
+     * Puts the specified element into the cache, using the specified
+     * key and time to live. If the cache is full an entry is evicted.
+     * @param key the specified key
+     * @param value the specified element
+     * @param timeToLive the time in milliseconds after which the entry
+     *		expires, or 0 if it does not expire
+     * @exception NullPointerException If the key or the element
+     * is equal to null.
+     * @exception IllegalArgumentException If the time to live is
+     * negative.
+     * @return the old value of the key, or null if it did not have one.
+     */
+    public Object put(Object key, Object value, long timeToLive) {
+	if ((key == null) || (value == null)) {
+	    throw new NullPointerException();
+	}
+	if (timeToLive < 0) {
+	    throw new IllegalArgumentException();
+	}
+	long now = System.currentTimeMillis();
+	Object old = null;
+	CacheEntry evicted;
+	synchronized (this) {
+	    CacheEntry e = new CacheEntry(key, value, (timeToLive > 0) ? now + timeToLive : 0);
+	    CacheEntry prev = (CacheEntry)table.put(key, e);
+	    if (prev != null) {
+		unlink(prev);
+		prev.removed = true;
+		count--;
+		if (!prev.expired(now)) {
+		    old = prev.value;
+		}
+	    }
+	    linkFirst(e);
+	    count++;
+	    evicted = evict(now);
+	}
+	notifyEvicted(evicted);
+	return old;
+    }
+
+    /**
+     * Removes the entry for the key. Does nothing if the key is not
+     * present. entryEvicted() is not called.
+     * @param key the key that needs to be removed
+     * @return the value of key, or null if the key was not found or
+     * had expired.
+     */
+    public synchronized Object remove(Object key) {
+	CacheEntry e = (CacheEntry)table.remove(key);
+	if (e == null) {
+	    return null;
+	}
+	unlink(e);
+	e.removed = true;
+	count--;
+	return e.expired(System.currentTimeMillis()) ? null : e.value;
+    }
+
+    /**
+     * Removes all entries. entryEvicted() is not called.
+     */
+    public synchronized void clear() {
+	for (CacheEntry e = header.next ; e != header ; e = e.next) {
+	    e.removed = true;
+	}
+	header.prev = header.next = header;
+	table.clear();
+	count = 0;
+    }
+
+    /**
+     * Drops all entries that have expired.
+     */
+    public void removeExpired() {
+	long now = System.currentTimeMillis();
+	CacheEntry expired = null;
+	synchronized (this) {
+	    for (CacheEntry e = header.prev ; e != header ;) {
+		CacheEntry prev = e.prev;
+		if (e.expired(now)) {
+		    drop(e);
+		    expirations++;
+		    e.expiredWhenDropped = true;
+		    e.nextEvicted = expired;
+		    expired = e;
+		}
+		e = prev;
+	    }
+	}
+	notifyEvicted(expired);
+    }
+
+    /**
+     * Returns the number of lookups that found an entry.
+     */
+    public long hitCount() {
+	long n = 0;
+	for (int i = counters.length ; i-- > 0 ;) {
+	    CacheCounters c = counters[i];
+	    synchronized (c) {
+		n += c.hits;
+	    }
+	}
+	return n;
+    }
+
+    /**
+     * Returns the number of lookups that did not find an entry,
+     * including those that found an expired one.
+     */
+    public long missCount() {
+	long n = 0;
+	for (int i = counters.length ; i-- > 0 ;) {
+	    CacheCounters c = counters[i];
+	    synchronized (c) {
+		n += c.misses;
+	    }
+	}
+	return n;
+    }
+
+    /**
+     * Returns the number of entries evicted to make room for others.
+     */
+    public synchronized long evictionCount() {
+	return evictions;
+    }
+
+    /**
+     * Returns the number of entries dropped because they had expired.
+     */
+    public synchronized long expirationCount() {
+	return expirations;
+    }
+
+    /**
+     * Sets all counters to zero.
+     */
+    public void resetCounters() {
+	for (int i = counters.length ; i-- > 0 ;) {
+	    CacheCounters c = counters[i];
+	    synchronized (c) {
+		c.hits = c.misses = 0;
+	    }
+	}
+	synchronized (this) {
+	    evictions = expirations = 0;
+	}
+    }
+
+    /**
+     * Called after an entry has been evicted or has expired. It is
+     * called without holding the lock of the dictionary, by the thread
+     * whose put() or get() caused the eviction. The default does
+     * nothing.
+     * @param key the key of the entry
+     * @param value the element of the entry
+     * @param expired true if the entry was dropped because it had
+     *		expired, false if it was evicted to make room
+     */
+    protected void entryEvicted(Object key, Object value, boolean expired) {
+    }
+
+    /**
+     * Converts to a rather lengthy String, most recent entry first.
+     */
+    public synchronized String toString() {
+	StringBuilder buf = new StringBuilder();
+	buf.append("{");
+	for (CacheEntry e = header.next ; e != header ; e = e.next) {
+	    if (e != header.next) {
+		buf.append(", ");
+	    }
+	    buf.append(e.key.toString());
+	    buf.append('=');
+	    buf.append(e.value.toString());
+	}
+	buf.append("}");
+	return buf.toString();
+    }
+
+    private void linkFirst(CacheEntry e) {
+	e.prev = header;
+	e.next = header.next;
+	header.next.prev = e;
+	header.next = e;
+    }
+
+    private void unlink(CacheEntry e) {
+	e.prev.next = e.next;
+	e.next.prev = e.prev;
+    }
+
+    /**
+     * Removes an entry from the list and the table. Called while
+     * holding the lock.
+     */
+    private void drop(CacheEntry e) {
+	unlink(e);
+	table.remove(e.key);
+	e.removed = true;
+	count--;
+    }
+
+    /**
+     * Drops an entry that a lookup found expired, unless another
+     * thread has already removed or replaced it.
+     * @return true if the entry was dropped by this call.
+     */
+    private synchronized boolean expire(CacheEntry e) {
+	if (e.removed) {
+	    return false;
+	}
+	drop(e);
+	expirations++;
+	return true;
+    }
+
+    /**
+     * Evicts entries until there are no more than the capacity. Called
+     * while holding the lock.
+     * @return the evicted entries, linked through nextEvicted.
+     */
+    private CacheEntry evict(long now) {
+	CacheEntry evicted = null;
+	while (count > capacity) {
+	    CacheEntry e = header.prev;
+	    if (e.expired(now)) {
+		expirations++;
+		e.expiredWhenDropped = true;
+	    } else if ((policy == CLOCK) && e.referenced) {
+		// Second chance: clear the bit and move the hand past it.
+		e.referenced = false;
+		unlink(e);
+		linkFirst(e);
+		continue;
+	    } else {
+		evictions++;
+	    }
+	    drop(e);
+	    e.nextEvicted = evicted;
+	    evicted = e;
+	}
+	return evicted;
+    }
+
+    /**
+     * Calls entryEvicted() for a list of dropped entries.
+     */
+    private void notifyEvicted(CacheEntry e) {
+	for (; e != null ; e = e.nextEvicted) {
+	    entryEvicted(e.key, e.value, e.expiredWhenDropped);
+	}
+    }
+}
+
+/**
+ * A cache enumerator class. It returns the elements of the entries
+ * returned by the enumeration of the table.
+ */
+final
+class CacheEnumerator implements Enumeration {
+    Enumeration entries;
+
+    CacheEnumerator(Enumeration entries) {
+	this.entries = entries;
+    }
+
+    public boolean hasMoreElements() {
+	return entries.hasMoreElements();
+    }
+
+    public Object nextElement() {
+	return ((CacheEntry)entries.nextElement()).value;
+    }
+}
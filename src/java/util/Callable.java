@@ -0,0 +1,40 @@
+/*
+ * @(#)Callable.java	1.1 96/08/13
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * A task that computes a result. It is like a Runnable, but its
+ * call() method returns an object and may throw an exception.
+ * A Callable is usually run by a ThreadPool, which returns a Future
+ * from which the result is taken.
+ *
+ * @see Future
+ * @see ThreadPool#submit
+ * @version 	1.1, 13 Aug 1996
+ */
+public
+interface Callable {
+    /**
+     * Computes the result of the task.
+     * @return the result, which may be null.
+     * @exception Exception If the result could not be computed.
+     */
+    Object call() throws Exception;
+}
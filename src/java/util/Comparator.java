@@ -0,0 +1,53 @@
+/*
+ * @(#)Comparator.java	1.1 96/07/02
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * The Comparator interface orders objects. It is given to a
+ * TreeDictionary to order its keys, or to a PriorityQueue to order
+ * its elements. For example, to order Strings ignoring case:
+ * <pre>
+ *	class IgnoreCase implements Comparator {
+ *	    public int compare(Object a, Object b) {
+ *		return ((String)a).toLowerCase().compareTo(((String)b).toLowerCase());
+ *	    }
+ *	}
+ * </pre>
+ * The ordering must be consistent: if a is less than b and b less than
+ * c, a must be less than c.<p>
+ *
+ * Without a Comparator, these classes use the natural ordering of
+ * Strings, Characters and Numbers.
+ *
+ * @see TreeDictionary
+ * @see PriorityQueue
+ * @version 	1.1, 02 Jul 1996
+ */
+public interface Comparator {
+    /**
+     * Compares two objects. Returns an integer that is less than,
+     * equal to, or greater than zero if the first object is less than,
+     * equal to, or greater than the second.
+     * @param a the first object
+     * @param b the second object
+     * @exception ClassCastException If the objects cannot be compared.
+     */
+    int compare(Object a, Object b);
+}
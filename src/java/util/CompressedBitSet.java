@@ -0,0 +1,849 @@
+/*
+ * @(#)CompressedBitSet.java	1.1 96/06/11
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * A set of bits that is stored in compressed form. The bits are split
+ * into chunks of 65536; chunks without any set bits take no space at
+ * all. A chunk with few set bits, or with its bits in long stretches,
+ * is stored as a sorted list of runs, each taking 4 bytes. Any other
+ * chunk is stored as a plain bitmap of 8 Kbytes. A set with a handful
+ * of bits near 10^9 takes a few dozen bytes, where a BitSet would
+ * take over 100 Mbytes.<p>
+ *
+ * The logical operations work directly on the compressed form: two
+ * run lists are merged run by run, and chunks that exist in only one
+ * of the sets are skipped or copied whole. Each chunk is kept in
+ * whichever form is smaller.
+ *
+ * @see BitSet
+ * @version 	1.1, 11 Jun 1996
+ */
+public final
+class CompressedBitSet implements Cloneable {
+    /**
+     * The chunk numbers, in increasing order.
+     */
+    private int keys[];
+
+    /**
+     * The chunks, in the same order as their numbers.
+     */
+    private BitmapChunk chunks[];
+
+    /**
+     * The number of chunks in use.
+     */
+    private int nChunks;
+
+    /**
+     * Creates an empty set.
+     */
+    public CompressedBitSet() {
+	keys = new int[4];
+	chunks = new BitmapChunk[4];
+    }
+
+    /**
+     * Returns the index of a chunk, or -(insertion point + 1) if
+     * there is no chunk with that number.
+     */
+    private int find(int key) {
+	int lo = 0;
+	int hi = nChunks - 1;
+	while (lo <= hi) {
+	    int mid = (lo + hi) >> 1;
+	    int k = keys[mid];
+	    if (k < key) {
+		lo = mid + 1;
+	    } else if (k > key) {
+		hi = mid - 1;
+	    } else {
+		return mid;
+	    }
+	}
+	return -(lo + 1);
+    }
+
+    /**
+     * Inserts a chunk at an index.
+     */
+    private void insert(int index, int key, BitmapChunk chunk) {
+	if (nChunks == keys.length) {
+	    int newKeys[] = new int[nChunks * 2];
+	    BitmapChunk newChunks[] = new BitmapChunk[nChunks * 2];
+	    System.arraycopy(keys, 0, newKeys, 0, nChunks);
+	    System.arraycopy(chunks, 0, newChunks, 0, nChunks);
+	    keys = newKeys;
+	    chunks = newChunks;
+	}
+	System.arraycopy(keys, index, keys, index + 1, nChunks - index);
+	System.arraycopy(chunks, index, chunks, index + 1, nChunks - index);
+	keys[index] = key;
+	chunks[index] = chunk;
+	nChunks++;
+    }
+
+    /**
+     * Removes the chunk at an index.
+     */
+    private void remove(int index) {
+	nChunks--;
+	System.arraycopy(keys, index + 1, keys, index, nChunks - index);
+	System.arraycopy(chunks, index + 1, chunks, index, nChunks - index);
+	chunks[nChunks] = null;
+    }
+
+    private static void checkBit(int bit) {
+	if (bit < 0) {
+	    throw new IndexOutOfBoundsException(bit + " < 0");
+	}
+    }
+
+    /**
+     * Sets a bit.
+     * @param bit the bit to be set
+     * @exception IndexOutOfBoundsException If bit is negative.
+     */
+    public void set(int bit) {
+	checkBit(bit);
+	int i = find(bit >>> 16);
+	if (i < 0) {
+	    i = -(i + 1);
+	    insert(i, bit >>> 16, new BitmapChunk());
+	}
+	chunks[i].set(bit & 0xffff);
+    }
+
+    /**
+     * Clears a bit.
+     * @param bit the bit to be cleared
+     * @exception IndexOutOfBoundsException If bit is negative.
+     */
+    public void clear(int bit) {
+	checkBit(bit);
+	int i = find(bit >>> 16);
+	if (i >= 0) {
+	    BitmapChunk c = chunks[i];
+	    c.clear(bit & 0xffff);
+	    if (c.cardinality == 0) {
+		remove(i);
+	    }
+	}
+    }
+
+    /**
+     * Gets a bit.
+     * @param bit the bit to be gotten
+     * @exception IndexOutOfBoundsException If bit is negative.
+     */
+    public boolean get(int bit) {
+	checkBit(bit);
+	int i = find(bit >>> 16);
+	return (i >= 0) && chunks[i].get(bit & 0xffff);
+    }
+
+    /**
+     * Sets the bits from fromIndex (inclusive) to toIndex (exclusive).
+     * A range of set bits is stored as a single run.
+     * @param fromIndex the first bit to be set
+     * @param toIndex the bit after the last bit to be set
+     * @exception IndexOutOfBoundsException If fromIndex is negative or
+     * greater than toIndex.
+     */
+    public void set(int fromIndex, int toIndex) {
+	range(fromIndex, toIndex, true);
+    }
+
+    /**
+     * Clears the bits from fromIndex (inclusive) to toIndex (exclusive).
+     * @param fromIndex the first bit to be cleared
+     * @param toIndex the bit after the last bit to be cleared
+     * @exception IndexOutOfBoundsException If fromIndex is negative or
+     * greater than toIndex.
+     */
+    public void clear(int fromIndex, int toIndex) {
+	range(fromIndex, toIndex, false);
+    }
+
+    private void range(int fromIndex, int toIndex, boolean set) {
+	if ((fromIndex < 0) || (fromIndex > toIndex)) {
+	    throw new IndexOutOfBoundsException(fromIndex + " > " + toIndex);
+	}
+	if (fromIndex == toIndex) {
+	    return;
+	}
+	int firstKey = fromIndex >>> 16;
+	int lastKey = (toIndex - 1) >>> 16;
+	for (int key = firstKey ; key <= lastKey ; key++) {
+	    int lo = (key == firstKey) ? (fromIndex & 0xffff) : 0;
+	    int hi = (key == lastKey) ? ((toIndex - 1) & 0xffff) : 0xffff;
+	    BitmapChunk r = BitmapChunk.run(lo, hi);
+	    int i = find(key);
+	    if (i < 0) {
+		if (set) {
+		    insert(-(i + 1), key, r);
+		}
+	    } else {
+		BitmapChunk c = BitmapChunk.combine(chunks[i], r,
+						    set ? BitmapChunk.OR : BitmapChunk.ANDNOT);
+		if (c != null) {
+		    chunks[i] = c;
+		} else {
+		    remove(i);
+		}
+	    }
+	}
+    }
+
+    /**
+     * Returns the index of the first bit that is set at or after
+     * fromIndex, or -1 if there is none.
+     * @param fromIndex the bit to start looking from
+     * @exception IndexOutOfBoundsException If fromIndex is negative.
+     */
+    public int nextSetBit(int fromIndex) {
+	checkBit(fromIndex);
+	int i = find(fromIndex >>> 16);
+	if (i >= 0) {
+	    int low = chunks[i].nextSet(fromIndex & 0xffff);
+	    if (low >= 0) {
+		return (keys[i] << 16) | low;
+	    }
+	    i++;
+	} else {
+	    i = -(i + 1);
+	}
+	// Chunks are never empty, so the next one has a set bit.
+	return (i < nChunks) ? (keys[i] << 16) | chunks[i].nextSet(0) : -1;
+    }
+
+    /**
+     * Returns the number of bits that are set.
+     */
+    public int cardinality() {
+	int count = 0;
+	for (int i = nChunks ; i-- > 0 ;) {
+	    count += chunks[i].cardinality;
+	}
+	return count;
+    }
+
+    /**
+     * Returns true if no bits are set.
+     */
+    public boolean isEmpty() {
+	return nChunks == 0;
+    }
+
+    /**
+     * Logically ANDs this bit set with the specified set of bits.
+     * @param set the bit set to be ANDed with
+     */
+    public void and(CompressedBitSet set) {
+	combine(set, BitmapChunk.AND);
+    }
+
+    /**
+     * Logically ORs this bit set with the specified set of bits.
+     * @param set the bit set to be ORed with
+     */
+    public void or(CompressedBitSet set) {
+	combine(set, BitmapChunk.OR);
+    }
+
+    /**
+     * Logically XORs this bit set with the specified set of bits.
+     * @param set the bit set to be XORed with
+     */
+    public void xor(CompressedBitSet set) {
+	combine(set, BitmapChunk.XOR);
+    }
+
+    /**
+     * Clears all of the bits in this set whose corresponding bit is
+     * set in the specified set of bits.
+     * @param set the bit set whose bits are to be cleared
+     */
+    public void andNot(CompressedBitSet set) {
+	combine(set, BitmapChunk.ANDNOT);
+    }
+
+    /**
+     * Combines the chunks of both sets. Chunks that are only in this
+     * set are kept as they are; chunks that are only in the other set
+     * are copied when the operation keeps them.
+     */
+    private void combine(CompressedBitSet set, int op) {
+	int ak[] = keys;
+	int bk[] = set.keys;
+	BitmapChunk ac[] = chunks;
+	BitmapChunk bc[] = set.chunks;
+	int na = nChunks;
+	int nb = set.nChunks;
+	boolean keepB = (op == BitmapChunk.OR) || (op == BitmapChunk.XOR);
+	int capacity = keepB ? na + nb : na;
+
+	int newKeys[] = new int[(capacity > 4) ? capacity : 4];
+	BitmapChunk newChunks[] = new BitmapChunk[newKeys.length];
+	int n = 0;
+	int i = 0;
+	int j = 0;
+	while ((i < na) || (keepB && (j < nb))) {
+	    int ka = (i < na) ? ak[i] : Integer.MAX_VALUE;
+	    int kb = (j < nb) ? bk[j] : Integer.MAX_VALUE;
+	    int key;
+	    BitmapChunk c;
+	    if (ka < kb) {
+		key = ka;
+		c = (op == BitmapChunk.AND) ? null : ac[i];
+		i++;
+	    } else if (kb < ka) {
+		key = kb;
+		c = keepB ? bc[j].copy() : null;
+		j++;
+	    } else {
+		key = ka;
+		c = BitmapChunk.combine(ac[i], bc[j], op);
+		i++;
+		j++;
+	    }
+	    if (c != null) {
+		newKeys[n] = key;
+		newChunks[n++] = c;
+	    }
+	}
+	keys = newKeys;
+	chunks = newChunks;
+	nChunks = n;
+    }
+
+    /**
+     * Gets the hashcode. Equal sets have the same hashcode, whatever
+     * form their chunks are stored in.
+     */
+    public int hashCode() {
+	int h = 1234;
+	for (int i = 0 ; i < nChunks ; i++) {
+	    BitmapChunk c = chunks[i];
+	    h = h * 31 + keys[i];
+	    for (int s = c.nextSet(0) ; s >= 0 ; s = c.nextSet(s)) {
+		int e = c.nextClear(s);
+		h = (h * 31 + s) * 31 + e;
+		s = e;
+	    }
+	}
+	return h;
+    }
+
+    /**
+     * Compares this object against the specified object.
+     * @param obj the object to compare with
+     * @return true if the objects are the same; false otherwise.
+     */
+    public boolean equals(Object obj) {
+	if ((obj == null) || !(obj instanceof CompressedBitSet)) {
+	    return false;
+	}
+	CompressedBitSet set = (CompressedBitSet)obj;
+	if (nChunks != set.nChunks) {
+	    return false;
+	}
+	for (int i = nChunks ; i-- > 0 ;) {
+	    if ((keys[i] != set.keys[i]) || !chunks[i].sameBits(set.chunks[i])) {
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    /**
+     * Clones the set.
+     */
+    public Object clone() {
+	try {
+	    CompressedBitSet set = (CompressedBitSet)super.clone();
+	    set.keys = new int[keys.length];
+	    set.chunks = new BitmapChunk[keys.length];
+	    System.arraycopy(keys, 0, set.keys, 0, nChunks);
+	    for (int i = nChunks ; i-- > 0 ;) {
+		set.chunks[i] = chunks[i].copy();
+	    }
+	    return set;
+	} catch (CloneNotSupportedException e) {
+	    // this shouldn't happen, since we are Cloneable
+	    throw new InternalError();
+	}
+    }
+
+    /**
+     * Converts the set to a String.
+     */
+    public String toString() {
+	StringBuilder buf = new StringBuilder();
+	buf.append('{');
+	for (int i = nextSetBit(0) ; i >= 0 ; i = nextSetBit(i + 1)) {
+	    if (buf.length() > 1) {
+		buf.append(", ");
+	    }
+	    buf.append(i);
+	}
+	buf.append('}');
+	return buf.toString();
+    }
+}
+
+/**
+ * 65536 bits of a CompressedBitSet, stored either as runs of set bits
+ * or as a bitmap. Only one of runs and words is in use.
+ */
+final
+class BitmapChunk {
+    static final int AND = 0;
+    static final int OR = 1;
+    static final int XOR = 2;
+    static final int ANDNOT = 3;
+
+    /**
+     * The number of words in a bitmap.
+     */
+    static final int WORDS = 1 << 10;
+
+    /**
+     * A chunk with more runs than this is smaller as a bitmap.
+     */
+    static final int MAX_RUNS = 2048;
+
+    /**
+     * The first and last bit of each run, in increasing order. Runs
+     * are never adjacent: there is a clear bit between any two of them.
+     */
+    char runs[];
+    int nRuns;
+
+    /**
+     * The bitmap, or null.
+     */
+    long words[];
+
+    /**
+     * The number of set bits.
+     */
+    int cardinality;
+
+    BitmapChunk() {
+	runs = new char[4];
+    }
+
+    /**
+     * Returns a chunk with the bits from first to last set.
+     */
+    static BitmapChunk run(int first, int last) {
+	BitmapChunk c = new BitmapChunk();
+	c.runs[0] = (char)first;
+	c.runs[1] = (char)last;
+	c.nRuns = 1;
+	c.cardinality = last - first + 1;
+	return c;
+    }
+
+    BitmapChunk copy() {
+	BitmapChunk c = new BitmapChunk();
+	if (words != null) {
+	    c.runs = null;
+	    c.words = new long[WORDS];
+	    System.arraycopy(words, 0, c.words, 0, WORDS);
+	} else {
+	    c.runs = new char[(nRuns > 2) ? nRuns * 2 : 4];
+	    System.arraycopy(runs, 0, c.runs, 0, nRuns * 2);
+	    c.nRuns = nRuns;
+	}
+	c.cardinality = cardinality;
+	return c;
+    }
+
+    /**
+     * Returns the index of the last run that starts at or before
+     * low, or -1 if there is none.
+     */
+    private int findRun(int low) {
+	int lo = 0;
+	int hi = nRuns - 1;
+	while (lo <= hi) {
+	    int mid = (lo + hi) >> 1;
+	    if (runs[mid * 2] <= low) {
+		lo = mid + 1;
+	    } else {
+		hi = mid - 1;
+	    }
+	}
+	return lo - 1;
+    }
+
+    private void insertRun(int index, int first, int last) {
+	if (nRuns * 2 == runs.length) {
+	    char newRuns[] = new char[runs.length * 2];
+	    System.arraycopy(runs, 0, newRuns, 0, nRuns * 2);
+	    runs = newRuns;
+	}
+	System.arraycopy(runs, index * 2, runs, index * 2 + 2, (nRuns - index) * 2);
+	runs[index * 2] = (char)first;
+	runs[index * 2 + 1] = (char)last;
+	nRuns++;
+    }
+
+    private void removeRun(int index) {
+	nRuns--;
+	System.arraycopy(runs, index * 2 + 2, runs, index * 2, (nRuns - index) * 2);
+    }
+
+    boolean get(int low) {
+	if (words != null) {
+	    return (words[low >> 6] & (1L << (low & 63))) != 0;
+	}
+	int i = findRun(low);
+	return (i >= 0) && (low <= runs[i * 2 + 1]);
+    }
+
+    void set(int low) {
+	if (words != null) {
+	    long bit = 1L << (low & 63);
+	    if ((words[low >> 6] & bit) == 0) {
+		words[low >> 6] |= bit;
+		cardinality++;
+	    }
+	    return;
+	}
+	int i = findRun(low);
+	if ((i >= 0) && (low <= runs[i * 2 + 1])) {
+	    return;
+	}
+	boolean joinPrev = (i >= 0) && (runs[i * 2 + 1] + 1 == low);
+	boolean joinNext = (i + 1 < nRuns) && (runs[i * 2 + 2] == low + 1);
+	if (joinPrev && joinNext) {
+	    runs[i * 2 + 1] = runs[i * 2 + 3];
+	    removeRun(i + 1);
+	} else if (joinPrev) {
+	    runs[i * 2 + 1] = (char)low;
+	} else if (joinNext) {
+	    runs[i * 2 + 2] = (char)low;
+	} else {
+	    insertRun(i + 1, low, low);
+	}
+	cardinality++;
+	if (nRuns > MAX_RUNS) {
+	    toWords();
+	}
+    }
+
+    void clear(int low) {
+	if (words != null) {
+	    long bit = 1L << (low & 63);
+	    if ((words[low >> 6] & bit) != 0) {
+		words[low >> 6] &= ~bit;
+		if (--cardinality <= MAX_RUNS / 2) {
+		    // There cannot be more runs than bits.
+		    toRuns();
+		}
+	    }
+	    return;
+	}
+	int i = findRun(low);
+	if ((i < 0) || (low > runs[i * 2 + 1])) {
+	    return;
+	}
+	int first = runs[i * 2];
+	int last = runs[i * 2 + 1];
+	if (first == last) {
+	    removeRun(i);
+	} else if (low == first) {
+	    runs[i * 2] = (char)(low + 1);
+	} else if (low == last) {
+	    runs[i * 2 + 1] = (char)(low - 1);
+	} else {
+	    runs[i * 2 + 1] = (char)(low - 1);
+	    insertRun(i + 1, low + 1, last);
+	}
+	cardinality--;
+	if (nRuns > MAX_RUNS) {
+	    toWords();
+	}
+    }
+
+    /**
+     * Returns the first set bit at or after from, or -1.
+     */
+    int nextSet(int from) {
+	if (from >= (WORDS << 6)) {
+	    return -1;
+	}
+	if (words == null) {
+	    int i = findRun(from);
+	    if ((i >= 0) && (from <= runs[i * 2 + 1])) {
+		return from;
+	    }
+	    return (i + 1 < nRuns) ? runs[i * 2 + 2] : -1;
+	}
+	int n = from >> 6;
+	long word = words[n] & (-1L << (from & 63));
+	while (word == 0) {
+	    if (++n == WORDS) {
+		return -1;
+	    }
+	    word = words[n];
+	}
+	return (n << 6) + BitSet.trailingZeros(word);
+    }
+
+    /**
+     * Returns the first clear bit at or after from, or 65536 if all
+     * of them are set.
+     */
+    int nextClear(int from) {
+	if (from >= (WORDS << 6)) {
+	    return from;
+	}
+	if (words == null) {
+	    int i = findRun(from);
+	    if ((i >= 0) && (from <= runs[i * 2 + 1])) {
+		return runs[i * 2 + 1] + 1;
+	    }
+	    return from;
+	}
+	int n = from >> 6;
+	long word = ~words[n] & (-1L << (from & 63));
+	while (word == 0) {
+	    if (++n == WORDS) {
+		return WORDS << 6;
+	    }
+	    word = ~words[n];
+	}
+	return (n << 6) + BitSet.trailingZeros(word);
+    }
+
+    /**
+     * Sets the bits from first to last in a bitmap.
+     */
+    private static void setRange(long w[], int first, int last) {
+	int fw = first >> 6;
+	int lw = last >> 6;
+	long firstMask = -1L << (first & 63);
+	long lastMask = -1L >>> (63 - (last & 63));
+	if (fw == lw) {
+	    w[fw] |= firstMask & lastMask;
+	    return;
+	}
+	w[fw] |= firstMask;
+	for (int i = fw + 1 ; i < lw ; i++) {
+	    w[i] = -1L;
+	}
+	w[lw] |= lastMask;
+    }
+
+    /**
+     * Returns the bits as a bitmap that the caller may modify.
+     */
+    private long[] wordsCopy() {
+	long w[] = new long[WORDS];
+	if (words != null) {
+	    System.arraycopy(words, 0, w, 0, WORDS);
+	} else {
+	    for (int i = 0 ; i < nRuns ; i++) {
+		setRange(w, runs[i * 2], runs[i * 2 + 1]);
+	    }
+	}
+	return w;
+    }
+
+    private void toWords() {
+	words = wordsCopy();
+	runs = null;
+	nRuns = 0;
+    }
+
+    /**
+     * Counts the runs in the bitmap: every set bit whose lower
+     * neighbour is clear starts a run.
+     */
+    private int countRuns() {
+	long w[] = words;
+	int n = 0;
+	long carry = 0;
+	for (int i = 0 ; i < WORDS ; i++) {
+	    long x = w[i];
+	    n += BitSet.bitCount(x & ~((x << 1) | carry));
+	    carry = x >>> 63;
+	}
+	return n;
+    }
+
+    private void toRuns() {
+	char r[] = new char[Math.max(countRuns() * 2, 4)];
+	int n = 0;
+	for (int s = nextSet(0) ; s >= 0 ; ) {
+	    int e = nextClear(s);
+	    r[n++] = (char)s;
+	    r[n++] = (char)(e - 1);
+	    s = nextSet(e);
+	}
+	runs = r;
+	nRuns = n / 2;
+	words = null;
+    }
+
+    /**
+     * Returns true if both chunks have the same bits set.
+     */
+    boolean sameBits(BitmapChunk c) {
+	if (cardinality != c.cardinality) {
+	    return false;
+	}
+	if ((words != null) && (c.words != null)) {
+	    for (int i = WORDS ; i-- > 0 ;) {
+		if (words[i] != c.words[i]) {
+		    return false;
+		}
+	    }
+	    return true;
+	}
+	for (int s = nextSet(0) ; s >= 0 ; ) {
+	    int e = nextClear(s);
+	    if ((c.nextSet(s) != s) || (c.nextClear(s) != e)) {
+		return false;
+	    }
+	    s = nextSet(e);
+	}
+	return true;
+    }
+
+    /**
+     * Returns the chunk holding the result of an operation, or null
+     * if no bits are set in it. Neither operand is modified.
+     */
+    static BitmapChunk combine(BitmapChunk a, BitmapChunk b, int op) {
+	if ((a.words == null) && (b.words == null)) {
+	    return combineRuns(a, b, op);
+	}
+
+	long x[] = a.wordsCopy();
+	long y[] = (b.words != null) ? b.words : b.wordsCopy();
+	int count = 0;
+	for (int i = WORDS ; i-- > 0 ;) {
+	    long w;
+	    switch (op) {
+	      case AND:
+		w = x[i] & y[i];
+		break;
+	      case OR:
+		w = x[i] | y[i];
+		break;
+	      case XOR:
+		w = x[i] ^ y[i];
+		break;
+	      default:
+		w = x[i] & ~y[i];
+		break;
+	    }
+	    x[i] = w;
+	    count += BitSet.bitCount(w);
+	}
+	if (count == 0) {
+	    return null;
+	}
+	BitmapChunk c = new BitmapChunk();
+	c.runs = null;
+	c.words = x;
+	c.cardinality = count;
+	if ((count <= MAX_RUNS) || (c.countRuns() < MAX_RUNS)) {
+	    c.toRuns();
+	}
+	return c;
+    }
+
+    /**
+     * Combines two run lists in one pass over the points where runs
+     * start and end.
+     */
+    private static BitmapChunk combineRuns(BitmapChunk a, BitmapChunk b, int op) {
+	char ar[] = a.runs;
+	char br[] = b.runs;
+	int na = a.nRuns * 2;
+	int nb = b.nRuns * 2;
+	char out[] = new char[Math.max(na + nb, 4)];
+	int n = 0;
+	int count = 0;
+	boolean inA = false;
+	boolean inB = false;
+	boolean in = false;
+	int start = 0;
+	int i = 0;
+	int j = 0;
+	while ((i < na) || (j < nb)) {
+	    // A run covers [runs[k], runs[k + 1] + 1).
+	    int pa = (i < na) ? ar[i] + (i & 1) : Integer.MAX_VALUE;
+	    int pb = (j < nb) ? br[j] + (j & 1) : Integer.MAX_VALUE;
+	    int p = (pa < pb) ? pa : pb;
+	    if (pa == p) {
+		inA = !inA;
+		i++;
+	    }
+	    if (pb == p) {
+		inB = !inB;
+		j++;
+	    }
+	    boolean now;
+	    switch (op) {
+	      case AND:
+		now = inA && inB;
+		break;
+	      case OR:
+		now = inA || inB;
+		break;
+	      case XOR:
+		now = inA != inB;
+		break;
+	      default:
+		now = inA && !inB;
+		break;
+	    }
+	    if (now != in) {
+		if (now) {
+		    start = p;
+		} else {
+		    out[n++] = (char)start;
+		    out[n++] = (char)(p - 1);
+		    count += p - start;
+		}
+		in = now;
+	    }
+	}
+	if (n == 0) {
+	    return null;
+	}
+	BitmapChunk c = new BitmapChunk();
+	c.runs = out;
+	c.nRuns = n / 2;
+	c.cardinality = count;
+	if (c.nRuns > MAX_RUNS) {
+	    c.toWords();
+	}
+	return c;
+    }
+}
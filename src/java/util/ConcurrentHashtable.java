@@ -0,0 +1,532 @@
+/*
+ * @(#)ConcurrentHashtable.java	1.1 96/04/02
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * One independently locked part of a ConcurrentHashtable. Each segment
+ * is a small hashtable of its own; all updates synchronize on the
+ * segment, lookups do not synchronize at all.<p>
+ *
+ * Lookups may run while an update is in progress, so the chains
+ * reachable from a published table are never relinked: a rehash
+ * copies the entries into the new table instead of moving them.
+ */
+final
+class HashtableSegment {
+    /**
+     * The hash table data of this segment.
+     */
+    volatile ConcurrentHashtableEntry table[];
+
+    /**
+     * The number of entries in this segment. Written last by every
+     * update so that readers see a consistent table.
+     */
+    volatile int count;
+
+    /**
+     * Rehashes the segment when count exceeds this threshold.
+     */
+    int threshold;
+
+    /**
+     * The load factor for the segment.
+     */
+    float loadFactor;
+
+    HashtableSegment(int initialCapacity, float loadFactor) {
+	this.loadFactor = loadFactor;
+	table = new ConcurrentHashtableEntry[initialCapacity];
+	threshold = (int)(initialCapacity * loadFactor);
+    }
+
+    /**
+     * Finds the entry for the key without locking.
+     */
+    ConcurrentHashtableEntry find(Object key, int hash) {
+	if (count != 0) {
+	    ConcurrentHashtableEntry tab[] = table;
+	    int index = (hash & 0x7FFFFFFF) % tab.length;
+	    for (ConcurrentHashtableEntry e = tab[index] ; e != null ; e = e.next) {
+		if ((e.hash == hash) && key.equals(e.key)) {
+		    return e;
+		}
+	    }
+	}
+	return null;
+    }
+
+    Object get(Object key, int hash) {
+	ConcurrentHashtableEntry e = find(key, hash);
+	if (e == null) {
+	    return null;
+	}
+	Object value = e.value;
+	if (value == null) {
+	    // The entry was seen before its fields were; values
+	    // are never null, so read it again under the lock.
+	    synchronized (this) {
+		value = e.value;
+	    }
+	}
+	return value;
+    }
+
+    synchronized Object put(Object key, int hash, Object value, boolean onlyIfAbsent) {
+	ConcurrentHashtableEntry tab[] = table;
+	int index = (hash & 0x7FFFFFFF) % tab.length;
+	for (ConcurrentHashtableEntry e = tab[index] ; e != null ; e = e.next) {
+	    if ((e.hash == hash) && e.key.equals(key)) {
+		Object old = e.value;
+		if (!onlyIfAbsent) {
+		    e.value = value;
+		}
+		return old;
+	    }
+	}
+
+	int c = count;
+	if (c >= threshold) {
+	    rehash();
+	    tab = table;
+	    index = (hash & 0x7FFFFFFF) % tab.length;
+	}
+
+	ConcurrentHashtableEntry e = new ConcurrentHashtableEntry();
+	e.hash = hash;
+	e.key = key;
+	e.value = value;
+	e.next = tab[index];
+	tab[index] = e;
+	count = c + 1;
+	return null;
+    }
+
+    /**
+     * Copies the entries into a table twice the size. The old table
+     * and its chains are left untouched for concurrent readers.
+     */
+    void rehash() {
+	ConcurrentHashtableEntry oldTable[] = table;
+	int oldCapacity = oldTable.length;
+
+	int newCapacity = oldCapacity * 2 + 1;
+	ConcurrentHashtableEntry newTable[] = new ConcurrentHashtableEntry[newCapacity];
+
+	for (int i = oldCapacity ; i-- > 0 ;) {
+	    for (ConcurrentHashtableEntry old = oldTable[i] ; old != null ; old = old.next) {
+		ConcurrentHashtableEntry e = new ConcurrentHashtableEntry();
+		int index = (old.hash & 0x7FFFFFFF) % newCapacity;
+		e.hash = old.hash;
+		e.key = old.key;
+		e.value = old.value;
+		e.next = newTable[index];
+		newTable[index] = e;
+	    }
+	}
+	threshold = (int)(newCapacity * loadFactor);
+	table = newTable;
+    }
+
+    synchronized Object remove(Object key, int hash) {
+	ConcurrentHashtableEntry tab[] = table;
+	int index = (hash & 0x7FFFFFFF) % tab.length;
+	for (ConcurrentHashtableEntry e = tab[index], prev = null ;
+	     e != null ; prev = e, e = e.next) {
+	    if ((e.hash == hash) && e.key.equals(key)) {
+		// Unlinking leaves e.next intact, so a reader that
+		// is positioned on e can still walk the rest of the chain.
+		if (prev != null) {
+		    prev.next = e.next;
+		} else {
+		    tab[index] = e.next;
+		}
+		count = count - 1;
+		return e.value;
+	    }
+	}
+	return null;
+    }
+
+    synchronized void clear() {
+	if (count != 0) {
+	    table = new ConcurrentHashtableEntry[table.length];
+	    count = 0;
+	}
+    }
+}
+
+/**
+ * A hashtable that supports full concurrency of lookups and a
+ * configurable number of concurrent updates. The table is split into
+ * segments, each of which is a Hashtable-like chained table with its
+ * own lock; the segment is chosen from the high bits of the key's
+ * hash code. The get() and containsKey() methods do not lock at
+ * all.<p>
+ *
+ * Like Hashtable, neither keys nor elements can be null. The
+ * enumerations returned by keys() and elements() never throw an
+ * exception because of concurrent updates; they reflect the state of
+ * the table at some point at or since their creation. Likewise size()
+ * is only a snapshot when other threads are updating the table.<p>
+ *
+ * This example creates a table that allows up to 16 threads to
+ * update it at the same time:
+ * <pre>
+ *	ConcurrentHashtable cache = new ConcurrentHashtable(1000, 0.75f, 16);
+ *	cache.put("one", new Integer(1));
+ * </pre>
+ *
+ * @see java.util.Hashtable
+ * @see java.lang.Object#hashCode
+ * @see java.lang.Object#equals
+ * @version 	1.1, 02 Apr 1996
+ */
+public
+class ConcurrentHashtable extends Dictionary {
+    /**
+     * The largest number of segments a table is split into.
+     */
+    static final int MAX_SEGMENTS = 1 << 16;
+
+    /**
+     * The segments, each of which is a hashtable of its own.
+     */
+    private HashtableSegment segments[];
+
+    /**
+     * Shift and mask used to pick a segment from a hash code.
+     */
+    private int segmentShift;
+    private int segmentMask;
+
+    /**
+     * Constructs a new, empty table with the specified initial
+     * capacity, load factor and concurrency level.
+     * @param initialCapacity the initial number of buckets, summed
+     *		over all segments
+     * @param loadFactor a number between 0.0 and 1.0, it defines
+     *		the threshold for rehashing a segment into a bigger one.
+     * @param concurrencyLevel the estimated number of threads that
+     *		update the table at the same time
+     * @exception IllegalArgumentException If any of the arguments
+     * is less than or equal to zero.
+     */
+    public ConcurrentHashtable(int initialCapacity, float loadFactor,
+			       int concurrencyLevel) {
+	if ((initialCapacity <= 0) || (loadFactor <= 0.0) || (concurrencyLevel <= 0)) {
+	    throw new IllegalArgumentException();
+	}
+	if (concurrencyLevel > MAX_SEGMENTS) {
+	    concurrencyLevel = MAX_SEGMENTS;
+	}
+
+	int shift = 0;
+	int nsegments = 1;
+	while (nsegments < concurrencyLevel) {
+	    shift++;
+	    nsegments <<= 1;
+	}
+	segmentShift = 32 - shift;
+	segmentMask = nsegments - 1;
+
+	int capacity = initialCapacity / nsegments;
+	if (capacity * nsegments < initialCapacity) {
+	    capacity++;
+	}
+	// Odd capacities spread better with the modulo index.
+	capacity |= 1;
+
+	segments = new HashtableSegment[nsegments];
+	for (int i = 0 ; i < nsegments ; i++) {
+	    segments[i] = new HashtableSegment(capacity, loadFactor);
+	}
+    }
+
+    /**
+     * Constructs a new, empty table with the specified initial
+     * capacity. The default load factor and concurrency level are used.
+     * @param initialCapacity the initial number of buckets
+     */
+    public ConcurrentHashtable(int initialCapacity) {
+	this(initialCapacity, 0.75f, 16);
+    }
+
+    /**
+     * Constructs a new, empty table. A default capacity, load factor
+     * and concurrency level is used. Note that the table will
+     * automatically grow when it gets full.
+     */
+    public ConcurrentHashtable() {
+	this(101, 0.75f, 16);
+    }
+
+    /**
+     * Mixes the bits of a hash code so that both the segment, which
+     * is picked from the high bits, and the bucket within the segment
+     * depend on all bits of the original hash.
+     */
+    static int spread(int h) {
+	h += (h <<  15) ^ 0xffffcd7d;
+	h ^= (h >>> 10);
+	h += (h <<   3);
+	h ^= (h >>>  6);
+	h += (h <<   2) + (h << 14);
+	return h ^ (h >>> 16);
+    }
+
+    private final HashtableSegment segmentFor(int hash) {
+	return segments[(hash >>> segmentShift) & segmentMask];
+    }
+
+    /**
+     * Returns the number of elements contained in the table. If the
+     * table is being updated the result is only an estimate.
+     */
+    public int size() {
+	HashtableSegment segs[] = segments;
+	int n = 0;
+	for (int i = segs.length ; i-- > 0 ;) {
+	    n += segs[i].count;
+	}
+	return n;
+    }
+
+    /**
+     * Returns true if the table contains no elements.
+     */
+    public boolean isEmpty() {
+	HashtableSegment segs[] = segments;
+	for (int i = segs.length ; i-- > 0 ;) {
+	    if (segs[i].count != 0) {
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    /**
+     * Returns an enumeration of the table's keys.
+     * @see ConcurrentHashtable#elements
+     * @see Enumeration
+     */
+    public Enumeration keys() {
+	return new ConcurrentHashtableEnumerator(segments, true);
+    }
+
+    /**
+     * Returns an enumeration of the elements. Use the Enumeration methods
+     * on the returned object to fetch the elements sequentially.
+     * @see ConcurrentHashtable#keys
+     * @see Enumeration
+     */
+    public Enumeration elements() {
+	return new ConcurrentHashtableEnumerator(segments, false);
+    }
+
+    /**
+     * Returns true if the specified object is an element of the table.
+     * This operation is more expensive than the containsKey() method.
+     * @param value the value that we are looking for
+     * @exception NullPointerException If the value being searched
+     * for is equal to null.
+     * @see ConcurrentHashtable#containsKey
+     */
+    public boolean contains(Object value) {
+	if (value == null) {
+	    throw new NullPointerException();
+	}
+
+	HashtableSegment segs[] = segments;
+	for (int s = segs.length ; s-- > 0 ;) {
+	    ConcurrentHashtableEntry tab[] = segs[s].table;
+	    for (int i = tab.length ; i-- > 0 ;) {
+		for (ConcurrentHashtableEntry e = tab[i] ; e != null ; e = e.next) {
+		    Object v = e.value;
+		    if ((v != null) && v.equals(value)) {
+			return true;
+		    }
+		}
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * Returns true if the table contains an element for the key.
+     * @param key the key that we are looking for
+     * @see ConcurrentHashtable#contains
+     */
+    public boolean containsKey(Object key) {
+	int hash = spread(key.hashCode());
+	return segmentFor(hash).find(key, hash) != null;
+    }
+
+    /**
+     * Gets the object associated with the specified key in the
+     * table.
+     * @param key the specified key
+     * @returns the element for the key or null if the key
+     * 		is not defined in the table.
+     * @see ConcurrentHashtable#put
+     */
+    public Object get(Object key) {
+	int hash = spread(key.hashCode());
+	return segmentFor(hash).get(key, hash);
+    }
+
+    /**
+     * Puts the specified element into the table, using the specified
+     * key.  The element may be retrieved by doing a get() with the same key.
+     * The key and the element cannot be null.
+     * @param key the specified key in the table
+     * @param value the specified element
+     * @exception NullPointerException If the value of the element
+     * is equal to null.
+     * @see ConcurrentHashtable#get
+     * @return the old value of the key, or null if it did not have one.
+     */
+    public Object put(Object key, Object value) {
+	if (value == null) {
+	    throw new NullPointerException();
+	}
+	int hash = spread(key.hashCode());
+	return segmentFor(hash).put(key, hash, value, false);
+    }
+
+    /**
+     * Puts the specified element into the table unless the key already
+     * has an element. The test and the put are done atomically, so of
+     * several threads putting the same key only one succeeds and the
+     * others get its element back.
+     * @param key the specified key in the table
+     * @param value the specified element
+     * @exception NullPointerException If the value of the element
+     * is equal to null.
+     * @return the element already in the table for the key, or null
+     * if the specified element was put.
+     */
+    public Object putIfAbsent(Object key, Object value) {
+	if (value == null) {
+	    throw new NullPointerException();
+	}
+	int hash = spread(key.hashCode());
+	return segmentFor(hash).put(key, hash, value, true);
+    }
+
+    /**
+     * Removes the element corresponding to the key. Does nothing if the
+     * key is not present.
+     * @param key the key that needs to be removed
+     * @return the value of key, or null if the key was not found.
+     */
+    public Object remove(Object key) {
+	int hash = spread(key.hashCode());
+	return segmentFor(hash).remove(key, hash);
+    }
+
+    /**
+     * Clears the table so that it has no more elements in it.
+     */
+    public void clear() {
+	HashtableSegment segs[] = segments;
+	for (int i = segs.length ; i-- > 0 ;) {
+	    segs[i].clear();
+	}
+    }
+
+    /**
+     * Converts to a rather lengthy String.
+     */
+    public String toString() {
+	StringBuilder buf = new StringBuilder();
+	Enumeration e = new ConcurrentHashtableEnumerator(segments, true);
+	buf.append("{");
+	while (e.hasMoreElements()) {
+	    Object key = e.nextElement();
+	    buf.append(key.toString());
+	    buf.append("=");
+	    buf.append(String.valueOf(get(key)));
+	    if (e.hasMoreElements()) {
+		buf.append(", ");
+	    }
+	}
+	buf.append("}");
+	return buf.toString();
+    }
+}
+
+/**
+ * A concurrent hashtable enumerator class. It walks the segments one
+ * after the other, using whatever table each segment had when the
+ * enumerator reached it.
+ */
+class ConcurrentHashtableEnumerator implements Enumeration {
+    boolean keys;
+    HashtableSegment segments[];
+    int segmentIndex;
+    int index;
+    ConcurrentHashtableEntry table[];
+    ConcurrentHashtableEntry entry;
+
+    ConcurrentHashtableEnumerator(HashtableSegment segments[], boolean keys) {
+	this.segments = segments;
+	this.keys = keys;
+	this.segmentIndex = segments.length;
+	this.index = 0;
+    }
+
+    /**
+     * Advances to the next entry that holds a value.
+     */
+    private final boolean advance() {
+	for (;;) {
+	    if (entry != null) {
+		if (entry.value != null) {
+		    return true;
+		}
+		entry = entry.next;
+		continue;
+	    }
+	    if (index > 0) {
+		entry = table[--index];
+		continue;
+	    }
+	    if (segmentIndex <= 0) {
+		return false;
+	    }
+	    table = segments[--segmentIndex].table;
+	    index = table.length;
+	}
+    }
+
+    public boolean hasMoreElements() {
+	return advance();
+    }
+
+    public Object nextElement() {
+	if (advance()) {
+	    ConcurrentHashtableEntry e = entry;
+	    entry = e.next;
+	    return keys ? e.key : e.value;
+	}
+	throw new NoSuchElementException("ConcurrentHashtableEnumerator");
+    }
+}
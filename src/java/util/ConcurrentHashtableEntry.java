@@ -0,0 +1,35 @@
+/*
+ * @(#)ConcurrentHashtableEntry.java	1.1 96/04/02
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * ConcurrentHashtable collision list. Only the value of an entry
+ * changes once the entry is in a table.
+ *
+ * @see ConcurrentHashtable
+ * @version 	1.1, 02 Apr 1996
+ */
+final
+class ConcurrentHashtableEntry {
+    int hash;
+    Object key;
+    volatile Object value;
+    ConcurrentHashtableEntry next;
+}
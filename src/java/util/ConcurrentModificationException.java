@@ -0,0 +1,47 @@
+/*
+ * @(#)ConcurrentModificationException.java	1.1 96/06/18
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * Signals that a Vector or Hashtable was changed while it was being
+ * enumerated, other than through the enumeration. The enumeration
+ * fails at the next element rather than skip or repeat elements.
+ * @see	Vector#elements
+ * @see	Hashtable#elements
+ * @version 	1.1, 18 Jun 1996
+ */
+public
+class ConcurrentModificationException extends RuntimeException {
+    /**
+     * Constructs a new ConcurrentModificationException with no detail
+     * message. A detail message is a String that describes the exception.
+     */
+    public ConcurrentModificationException() {
+    }
+
+    /**
+     * Constructs a new ConcurrentModificationException with the specified
+     * detail message.
+     * @param s the detail message
+     */
+    public ConcurrentModificationException(String s) {
+	super(s);
+    }
+}
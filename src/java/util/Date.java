@@ -222,8 +222,17 @@ class Date {
      * (4 hours, 30 minutes west of the Greenwich meridian).
      * If no time zone is specified, the local time zone is assumed.
      * GMT and UTC are considered equivalent.
+     * @see DateFormatter#parseRFC1123
      */
     public static long parse(String s) {
+	// Most dates come from HTTP headers, in the exact form of RFC 1123.
+	// Dates before the epoch are left to the general parser, which
+	// places some of them a day off.
+	long time = DateFormatter.parseRFC1123(s, 0);
+	if (time >= 0) {
+	    return time;
+	}
+
 	int year = -1;
 	int mon = -1;
 	int mday = -1;
@@ -587,6 +596,7 @@ syntax:
 
     /**
      * Converts a date to a String, using the Internet GMT conventions.
+     * @see DateFormatter#formatRFC1123
      */
     public native String toGMTString();
 
@@ -0,0 +1,514 @@
+/*
+ * @(#)DateFormatter.java	1.1 96/08/06
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * The DateFormatter class formats and parses times in the two forms
+ * used by Internet protocols and logs:<p>
+ *
+ * <dl>
+ * <dt>RFC 1123, as in HTTP headers:<dd><CODE>Tue, 06 Aug 1996 16:09:43 GMT</CODE>
+ * <dt>ISO 8601, in UTC, with milliseconds:<dd><CODE>1996-08-06T16:09:43.250Z</CODE>
+ * </dl><p>
+ *
+ * Times are given, as in Date, in milliseconds since the epoch. The
+ * format methods can write the characters into an array supplied by
+ * the caller, so that a server can put a header or a log line
+ * together without creating any objects:
+ * <pre>
+ *	char line[] = new char[80];
+ *	int len = DateFormatter.formatISO8601(System.currentTimeMillis(), line, 0);
+ *	line[len++] = ' ';
+ *	...
+ * </pre>
+ *
+ * Formatting does not depend on the local time zone. The fields of
+ * the last day formatted are kept, so that formatting a run of times
+ * that fall on the same day does no calendar arithmetic.
+ *
+ * @see Date
+ * @version 	1.1, 06 Aug 1996
+ */
+public final
+class DateFormatter {
+    /**
+     * The number of characters in a time formatted by formatRFC1123().
+     */
+    public static final int RFC1123_LENGTH = 29;
+
+    /**
+     * The number of characters in a time formatted by formatISO8601().
+     */
+    public static final int ISO8601_LENGTH = 24;
+
+    /**
+     * The number of milliseconds in a day.
+     */
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+
+    /**
+     * The days since the epoch of 1 January of year 0 and of
+     * 1 January of year 10000, the range of times that can be
+     * formatted.
+     */
+    private static final long MIN_DAY = -719528;
+    private static final long MAX_DAY = 2932897;
+
+    static final String dayNames[] = {
+	"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"
+    };
+
+    static final String monthNames[] = {
+	"Jan", "Feb", "Mar", "Apr", "May", "Jun",
+	"Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+    };
+
+    /**
+     * The day last formatted. The fields of a day never change, so
+     * threads can share it without locking.
+     */
+    private static volatile DateFields lastDay = new DateFields(0);
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private DateFormatter() {
+    }
+
+    /**
+     * Returns the fields of the day that contains the specified time.
+     * @exception IllegalArgumentException If the time is not between
+     * the years 0 and 9999.
+     */
+    static DateFields fields(long time) {
+	long day = time / MILLIS_PER_DAY;
+	if ((time % MILLIS_PER_DAY) < 0) {
+	    day--;
+	}
+	DateFields f = lastDay;
+	if (f.day != day) {
+	    if ((day < MIN_DAY) || (day >= MAX_DAY)) {
+		throw new IllegalArgumentException("year out of range");
+	    }
+	    lastDay = f = new DateFields(day);
+	}
+	return f;
+    }
+
+    /**
+     * Returns the days since the epoch of a date in the proleptic
+     * Gregorian calendar.
+     * @param year the year
+     * @param month the month between 1 and 12
+     * @param mday the day of the month
+     */
+    static long daysFromCivil(int year, int month, int mday) {
+	if (month <= 2) {
+	    year--;
+	}
+	int era = ((year >= 0) ? year : year - 399) / 400;
+	int yoe = year - era * 400;
+	int doy = (153 * ((month > 2) ? month - 3 : month + 9) + 2) / 5 + mday - 1;
+	int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+	return era * 146097L + doe - 719468;
+    }
+
+    /**
+     * Returns the number of days in a month.
+     * @param month the month between 1 and 12
+     */
+    static int monthLength(int year, int month) {
+	if (month == 2) {
+	    boolean leap = ((year % 4) == 0) && (((year % 100) != 0) || ((year % 400) == 0));
+	    return leap ? 29 : 28;
+	}
+	return ((month == 4) || (month == 6) || (month == 9) || (month == 11)) ? 30 : 31;
+    }
+
+    /**
+     * Writes a time in the form of RFC 1123 into a character array.
+     * RFC1123_LENGTH characters are written.
+     * @param time the time in milliseconds since the epoch
+     * @param buf the array to write into
+     * @param off the index of the first character to write
+     * @return the index after the last character written.
+     * @exception ArrayIndexOutOfBoundsException If the characters do
+     * not fit into the array.
+     * @exception IllegalArgumentException If the time is not between
+     * the years 0 and 9999.
+     */
+    public static int formatRFC1123(long time, char buf[], int off) {
+	if ((off < 0) || (off + RFC1123_LENGTH > buf.length)) {
+	    throw new ArrayIndexOutOfBoundsException(off + RFC1123_LENGTH);
+	}
+	DateFields f = fields(time);
+	System.arraycopy(f.rfc1123, 0, buf, off, 17);
+	off = formatClock(time, f, buf, off + 17);
+	buf[off++] = ' ';
+	buf[off++] = 'G';
+	buf[off++] = 'M';
+	buf[off++] = 'T';
+	return off;
+    }
+
+    /**
+     * Returns a time in the form of RFC 1123.
+     * @param time the time in milliseconds since the epoch
+     * @exception IllegalArgumentException If the time is not between
+     * the years 0 and 9999.
+     */
+    public static String formatRFC1123(long time) {
+	char buf[] = new char[RFC1123_LENGTH];
+	formatRFC1123(time, buf, 0);
+	return new String(buf);
+    }
+
+    /**
+     * Writes a time in the form of ISO 8601 into a character array.
+     * ISO8601_LENGTH characters are written.
+     * @param time the time in milliseconds since the epoch
+     * @param buf the array to write into
+     * @param off the index of the first character to write
+     * @return the index after the last character written.
+     * @exception ArrayIndexOutOfBoundsException If the characters do
+     * not fit into the array.
+     * @exception IllegalArgumentException If the time is not between
+     * the years 0 and 9999.
+     */
+    public static int formatISO8601(long time, char buf[], int off) {
+	if ((off < 0) || (off + ISO8601_LENGTH > buf.length)) {
+	    throw new ArrayIndexOutOfBoundsException(off + ISO8601_LENGTH);
+	}
+	DateFields f = fields(time);
+	System.arraycopy(f.iso8601, 0, buf, off, 11);
+	off = formatClock(time, f, buf, off + 11);
+	int millis = (int)(time - f.day * MILLIS_PER_DAY) % 1000;
+	buf[off++] = '.';
+	buf[off++] = (char)('0' + millis / 100);
+	buf[off++] = (char)('0' + millis / 10 % 10);
+	buf[off++] = (char)('0' + millis % 10);
+	buf[off++] = 'Z';
+	return off;
+    }
+
+    /**
+     * Returns a time in the form of ISO 8601.
+     * @param time the time in milliseconds since the epoch
+     * @exception IllegalArgumentException If the time is not between
+     * the years 0 and 9999.
+     */
+    public static String formatISO8601(long time) {
+	char buf[] = new char[ISO8601_LENGTH];
+	formatISO8601(time, buf, 0);
+	return new String(buf);
+    }
+
+    /**
+     * Writes the hours, minutes and seconds of a time as HH:MM:SS.
+     */
+    private static int formatClock(long time, DateFields f, char buf[], int off) {
+	int secs = (int)((time - f.day * MILLIS_PER_DAY) / 1000);
+	int hour = secs / 3600;
+	int min = secs / 60 % 60;
+	int sec = secs % 60;
+	buf[off++] = (char)('0' + hour / 10);
+	buf[off++] = (char)('0' + hour % 10);
+	buf[off++] = ':';
+	buf[off++] = (char)('0' + min / 10);
+	buf[off++] = (char)('0' + min % 10);
+	buf[off++] = ':';
+	buf[off++] = (char)('0' + sec / 10);
+	buf[off++] = (char)('0' + sec % 10);
+	return off;
+    }
+
+    /**
+     * Parses a time in the form of RFC 1123, such as
+     * "Tue, 06 Aug 1996 16:09:43 GMT". The name of the day is not
+     * checked against the date.
+     * @param s the string to parse
+     * @return the time in milliseconds since the epoch.
+     * @exception IllegalArgumentException If the string is not in
+     * this form, or a field is out of range.
+     * @see Date#parse
+     */
+    public static long parseRFC1123(String s) {
+	long time = parseRFC1123(s, 0);
+	if (time == Long.MIN_VALUE) {
+	    throw new IllegalArgumentException(s);
+	}
+	return time;
+    }
+
+    /**
+     * Parses a time in the form of RFC 1123 at an index of a string,
+     * which must be followed by nothing else.
+     * @return the time, or Long.MIN_VALUE if the string is not in
+     * this form.
+     */
+    static long parseRFC1123(String s, int i) {
+	if ((s == null) || (s.length() - i != RFC1123_LENGTH) ||
+	    (s.charAt(i + 3) != ',') || (s.charAt(i + 4) != ' ') ||
+	    (s.charAt(i + 7) != ' ') || (s.charAt(i + 11) != ' ') ||
+	    (s.charAt(i + 16) != ' ') || !s.regionMatches(i + 25, " GMT", 0, 4) ||
+	    (find(dayNames, s, i) < 0)) {
+	    return Long.MIN_VALUE;
+	}
+	int mday = digits(s, i + 5, 2);
+	int month = find(monthNames, s, i + 8) + 1;
+	int year = digits(s, i + 12, 4);
+	if ((month <= 0) || (year < 0) || (mday < 1) ||
+	    (mday > monthLength(year, month))) {
+	    return Long.MIN_VALUE;
+	}
+	int clock = parseClock(s, i + 17);
+	if (clock < 0) {
+	    return Long.MIN_VALUE;
+	}
+	return daysFromCivil(year, month, mday) * MILLIS_PER_DAY + clock * 1000L;
+    }
+
+    /**
+     * Parses a time in the form of ISO 8601. The date must be given
+     * as YYYY-MM-DD, and may be followed by a 'T' and the time as
+     * HH:MM, HH:MM:SS or HH:MM:SS with a fraction of a second.
+     * Digits of the fraction after the milliseconds are ignored.
+     * The time zone is given as 'Z' for UTC, or as an offset from
+     * UTC of the form +HH:MM, +HHMM or +HH. If no time zone is given,
+     * the local time zone is assumed, as in Date.parse().
+     * @param s the string to parse
+     * @return the time in milliseconds since the epoch.
+     * @exception IllegalArgumentException If the string is not in
+     * this form, or a field is out of range.
+     * @see Date#parse
+     */
+    public static long parseISO8601(String s) {
+	int len = s.length();
+	int year, month, mday;
+	int hour = 0, min = 0, sec = 0, millis = 0;
+	int i = 10;
+
+	if ((len < 10) || (s.charAt(4) != '-') || (s.charAt(7) != '-') ||
+	    ((year = digits(s, 0, 4)) < 0) || ((month = digits(s, 5, 2)) < 1) ||
+	    (month > 12) || ((mday = digits(s, 8, 2)) < 1) ||
+	    (mday > monthLength(year, month))) {
+	    throw new IllegalArgumentException(s);
+	}
+	if ((i < len) && (s.charAt(i) == 'T')) {
+	    if ((i + 6 > len) || (s.charAt(i + 3) != ':') ||
+		((hour = digits(s, i + 1, 2)) < 0) || (hour > 23) ||
+		((min = digits(s, i + 4, 2)) < 0) || (min > 59)) {
+		throw new IllegalArgumentException(s);
+	    }
+	    i += 6;
+	    if ((i < len) && (s.charAt(i) == ':')) {
+		if ((i + 3 > len) || ((sec = digits(s, i + 1, 2)) < 0) || (sec > 60)) {
+		    throw new IllegalArgumentException(s);
+		}
+		i += 3;
+		if ((i < len) && (s.charAt(i) == '.')) {
+		    int start = ++i;
+		    int scale = 100;
+		    for (int c ; (i < len) && ((c = s.charAt(i) - '0') >= 0) && (c <= 9) ; i++) {
+			millis += c * scale;
+			scale /= 10;
+		    }
+		    if (i == start) {
+			throw new IllegalArgumentException(s);
+		    }
+		}
+	    }
+	}
+
+	long time;
+	if (i == len) {
+	    // no time zone specified, have to use local
+	    time = new Date(year - 1900, month - 1, mday, hour, min, sec).getTime();
+	} else {
+	    time = daysFromCivil(year, month, mday) * MILLIS_PER_DAY +
+		((hour * 60 + min) * 60 + sec) * 1000L;
+	    char c = s.charAt(i);
+	    if ((c == 'Z') && (i + 1 == len)) {
+		// UTC
+	    } else if ((c == '+') || (c == '-')) {
+		int offset = parseOffset(s, i + 1);
+		if (offset < 0) {
+		    throw new IllegalArgumentException(s);
+		}
+		// plus means east of GMT
+		time += (c == '+') ? -offset : offset;
+	    } else {
+		throw new IllegalArgumentException(s);
+	    }
+	}
+	return time + millis;
+    }
+
+    /**
+     * Parses a time zone offset of the form HH:MM, HHMM or HH, which
+     * must end the string.
+     * @return the offset in milliseconds, or -1 if it is malformed.
+     */
+    private static int parseOffset(String s, int i) {
+	int len = s.length() - i;
+	int hours = digits(s, i, 2);
+	int minutes;
+	if (len == 2) {
+	    minutes = 0;
+	} else if (len == 4) {
+	    minutes = digits(s, i + 2, 2);
+	} else if ((len == 5) && (s.charAt(i + 2) == ':')) {
+	    minutes = digits(s, i + 3, 2);
+	} else {
+	    return -1;
+	}
+	if ((hours < 0) || (hours > 23) || (minutes < 0) || (minutes > 59)) {
+	    return -1;
+	}
+	return (hours * 60 + minutes) * 60 * 1000;
+    }
+
+    /**
+     * Parses HH:MM:SS.
+     * @return the seconds since midnight, or -1 if malformed.
+     */
+    private static int parseClock(String s, int i) {
+	if ((s.charAt(i + 2) != ':') || (s.charAt(i + 5) != ':')) {
+	    return -1;
+	}
+	int hour = digits(s, i, 2);
+	int min = digits(s, i + 3, 2);
+	int sec = digits(s, i + 6, 2);
+	if ((hour < 0) || (hour > 23) || (min < 0) || (min > 59) ||
+	    (sec < 0) || (sec > 60)) {
+	    return -1;
+	}
+	return (hour * 60 + min) * 60 + sec;
+    }
+
+    /**
+     * Returns the value of n decimal digits, or -1 if there are
+     * fewer than n.
+     */
+    private static int digits(String s, int i, int n) {
+	if (i + n > s.length()) {
+	    return -1;
+	}
+	int v = 0;
+	for (int end = i + n ; i < end ; i++) {
+	    int c = s.charAt(i) - '0';
+	    if ((c < 0) || (c > 9)) {
+		return -1;
+	    }
+	    v = v * 10 + c;
+	}
+	return v;
+    }
+
+    /**
+     * Returns the index of the three letter name that is at the
+     * index of the string, or -1 if there is none.
+     */
+    private static int find(String names[], String s, int i) {
+	for (int k = names.length ; k-- > 0 ;) {
+	    if (s.regionMatches(i, names[k], 0, 3)) {
+		return k;
+	    }
+	}
+	return -1;
+    }
+
+    /**
+     * Writes the last n decimal digits of a number.
+     */
+    static void putDigits(char buf[], int off, int v, int n) {
+	for (int i = off + n ; i-- > off ;) {
+	    buf[i] = (char)('0' + v % 10);
+	    v /= 10;
+	}
+    }
+}
+
+/**
+ * The calendar fields of a day, and the text of its date in the forms
+ * written by DateFormatter. A DateFields object is never changed once
+ * it has been made.
+ */
+final
+class DateFields {
+    /**
+     * The days since 1 January 1970.
+     */
+    final long day;
+
+    final int year;	/* the year, such as 1996 */
+    final int month;	/* months since January - [0, 11] */
+    final int mday;	/* day of the month - [1, 31] */
+    final int wday;	/* days since Sunday - [0, 6] */
+
+    /**
+     * "Tue, 06 Aug 1996 "
+     */
+    final char rfc1123[];
+
+    /**
+     * "1996-08-06T"
+     */
+    final char iso8601[];
+
+    DateFields(long day) {
+	this.day = day;
+
+	// See Hinnant, "chrono-Compatible Low-Level Date Algorithms".
+	long z = day + 719468;
+	long era = ((z >= 0) ? z : z - 146096) / 146097;
+	int doe = (int)(z - era * 146097);
+	int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+	int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+	int mp = (5 * doy + 2) / 153;
+	int m = (mp < 10) ? mp + 3 : mp - 9;
+	year = (int)(yoe + era * 400) + ((m <= 2) ? 1 : 0);
+	month = m - 1;
+	mday = doy - (153 * mp + 2) / 5 + 1;
+	int w = (int)((day + 4) % 7);
+	wday = (w < 0) ? w + 7 : w;
+
+	char buf[] = new char[17];
+	DateFormatter.dayNames[wday].getChars(0, 3, buf, 0);
+	buf[3] = ',';
+	buf[4] = ' ';
+	DateFormatter.putDigits(buf, 5, mday, 2);
+	buf[7] = ' ';
+	DateFormatter.monthNames[month].getChars(0, 3, buf, 8);
+	buf[11] = ' ';
+	DateFormatter.putDigits(buf, 12, year, 4);
+	buf[16] = ' ';
+	rfc1123 = buf;
+
+	buf = new char[11];
+	DateFormatter.putDigits(buf, 0, year, 4);
+	buf[4] = '-';
+	DateFormatter.putDigits(buf, 5, month + 1, 2);
+	buf[7] = '-';
+	DateFormatter.putDigits(buf, 8, mday, 2);
+	buf[10] = 'T';
+	iso8601 = buf;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * @(#)Deque.java	1.1 96/06/25
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * Deque class. A double-ended queue that can be shared by several
+ * threads. It is the same as an ArrayDeque except that all methods
+ * are synchronized.<p>
+ *
+ * A Deque replaces a Vector used as a FIFO queue: removeFirst() takes
+ * constant time, however many elements are queued, where
+ * Vector.removeElementAt(0) shifts all of them. It also replaces a
+ * Stack, using push(), pop() and peek().
+ *
+ * @see ArrayDeque
+ * @see BlockingDeque
+ * @version 	1.1, 25 Jun 1996
+ */
+public
+class Deque extends ArrayDeque {
+    /**
+     * Constructs an empty deque with room for the specified number of
+     * elements.
+     * @param initialCapacity the initial capacity
+     * @exception IllegalArgumentException If the capacity is negative.
+     */
+    public Deque(int initialCapacity) {
+	super(initialCapacity);
+    }
+
+    /**
+     * Constructs an empty deque.
+     */
+    public Deque() {
+	super();
+    }
+
+    /**
+     * Same as ArrayDeque.size(), but synchronized.
+     */
+    public synchronized int size() {
+	return super.size();
+    }
+
+    /**
+     * Same as ArrayDeque.isEmpty(), but synchronized.
+     */
+    public synchronized boolean isEmpty() {
+	return super.isEmpty();
+    }
+
+    /**
+     * Same as ArrayDeque.addFirst(), but synchronized.
+     */
+    public synchronized void addFirst(Object obj) {
+	super.addFirst(obj);
+    }
+
+    /**
+     * Same as ArrayDeque.addLast(), but synchronized.
+     */
+    public synchronized void addLast(Object obj) {
+	super.addLast(obj);
+    }
+
+    /**
+     * Same as ArrayDeque.offerFirst(), but synchronized.
+     */
+    public synchronized boolean offerFirst(Object obj) {
+	return super.offerFirst(obj);
+    }
+
+    /**
+     * Same as ArrayDeque.offerLast(), but synchronized.
+     */
+    public synchronized boolean offerLast(Object obj) {
+	return super.offerLast(obj);
+    }
+
+    /**
+     * Same as ArrayDeque.removeFirst(), but synchronized.
+     */
+    public synchronized Object removeFirst() {
+	return super.removeFirst();
+    }
+
+    /**
+     * Same as ArrayDeque.removeLast(), but synchronized.
+     */
+    public synchronized Object removeLast() {
+	return super.removeLast();
+    }
+
+    /**
+     * Same as ArrayDeque.pollFirst(), but synchronized.
+     */
+    public synchronized Object pollFirst() {
+	return super.pollFirst();
+    }
+
+    /**
+     * Same as ArrayDeque.pollLast(), but synchronized.
+     */
+    public synchronized Object pollLast() {
+	return super.pollLast();
+    }
+
+    /**
+     * Same as ArrayDeque.firstElement(), but synchronized.
+     */
+    public synchronized Object firstElement() {
+	return super.firstElement();
+    }
+
+    /**
+     * Same as ArrayDeque.lastElement(), but synchronized.
+     */
+    public synchronized Object lastElement() {
+	return super.lastElement();
+    }
+
+    /**
+     * Same as ArrayDeque.peekFirst(), but synchronized.
+     */
+    public synchronized Object peekFirst() {
+	return super.peekFirst();
+    }
+
+    /**
+     * Same as ArrayDeque.peekLast(), but synchronized.
+     */
+    public synchronized Object peekLast() {
+	return super.peekLast();
+    }
+
+    /**
+     * Same as ArrayDeque.push(), but synchronized.
+     */
+    public synchronized Object push(Object item) {
+	return super.push(item);
+    }
+
+    /**
+     * Same as ArrayDeque.pop(), but synchronized.
+     */
+    public synchronized Object pop() {
+	return super.pop();
+    }
+
+    /**
+     * Same as ArrayDeque.peek(), but synchronized.
+     */
+    public synchronized Object peek() {
+	return super.peek();
+    }
+
+    /**
+     * Same as ArrayDeque.elementAt(), but synchronized.
+     */
+    public synchronized Object elementAt(int index) {
+	return super.elementAt(index);
+    }
+
+    /**
+     * Same as ArrayDeque.contains(), but synchronized.
+     */
+    public synchronized boolean contains(Object elem) {
+	return super.contains(elem);
+    }
+
+    /**
+     * Same as ArrayDeque.clear(), but synchronized.
+     */
+    public synchronized void clear() {
+	super.clear();
+    }
+
+    /**
+     * Same as ArrayDeque.elements(), but synchronized.
+     */
+    public synchronized Enumeration elements() {
+	return super.elements();
+    }
+
+    /**
+     * Same as ArrayDeque.copyInto(), but synchronized.
+     */
+    public synchronized void copyInto(Object anArray[]) {
+	super.copyInto(anArray);
+    }
+
+    /**
+     * Same as ArrayDeque.clone(), but synchronized.
+     */
+    public synchronized Object clone() {
+	return super.clone();
+    }
+
+    /**
+     * Same as ArrayDeque.toString(), but synchronized.
+     */
+    public synchronized String toString() {
+	return super.toString();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * @(#)ExecutionException.java	1.1 96/08/13
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * Signals that the task of a Future failed. The exception the task
+ * threw is returned by getTargetException().
+ * @see Future#get
+ * @version 	1.1, 13 Aug 1996
+ */
+public
+class ExecutionException extends Exception {
+    private Throwable target;
+
+    /**
+     * Constructs a new ExecutionException for the exception that
+     * a task threw.
+     * @param target the exception thrown by the task
+     */
+    public ExecutionException(Throwable target) {
+	super(target.toString());
+	this.target = target;
+    }
+
+    /**
+     * Returns the exception that the task threw.
+     */
+    public Throwable getTargetException() {
+	return target;
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * @(#)ForkJoinPool.java	1.1 96/08/20
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * A ForkJoinPool runs ForkJoinTasks with a fixed number of worker
+ * threads. Each worker keeps the tasks it forks in a deque of its own
+ * and takes the most recently forked one first. A worker that has
+ * nothing to do steals the oldest task of another worker, which is
+ * usually the largest piece of work left.<p>
+ *
+ * The virtual machine does not tell how many processors it runs on,
+ * so the number of workers of a pool created without one is taken
+ * from the "java.util.parallelism" system property, or is 4 if it is
+ * not set. The common pool, which runs the tasks forked outside any
+ * pool, has that many workers too.<p>
+ *
+ * The workers are daemon threads, started when the first task is
+ * given to the pool.
+ *
+ * @see ForkJoinTask
+ * @version 	1.1, 20 Aug 1996
+ */
+public
+class ForkJoinPool {
+    private static ForkJoinPool commonPool;
+
+    private ForkJoinWorker workers[];
+
+    /**
+     * The tasks given to the pool by threads that are not its workers.
+     */
+    private Deque submissions = new Deque();
+
+    private ThreadGroup group;
+    private int parallelism;
+    private boolean started;
+    private boolean shutdown;
+
+    /**
+     * The number of workers waiting for a task.
+     */
+    private volatile int idleWorkers;
+
+    /**
+     * Creates a pool with the specified number of workers.
+     * @param parallelism the number of workers
+     * @exception IllegalArgumentException If parallelism is less than 1.
+     */
+    public ForkJoinPool(int parallelism) {
+	if (parallelism < 1) {
+	    throw new IllegalArgumentException();
+	}
+	this.parallelism = parallelism;
+    }
+
+    /**
+     * Creates a pool with the default number of workers.
+     * @see ForkJoinPool#getDefaultParallelism
+     */
+    public ForkJoinPool() {
+	this(getDefaultParallelism());
+    }
+
+    /**
+     * Returns the number of workers of pools created without one: the
+     * value of the "java.util.parallelism" system property, or 4.
+     */
+    public static int getDefaultParallelism() {
+	try {
+	    String s = System.getProperty("java.util.parallelism");
+	    if (s != null) {
+		int n = Integer.parseInt(s);
+		if (n > 0) {
+		    return n;
+		}
+	    }
+	} catch (SecurityException e) {
+	} catch (NumberFormatException e) {
+	}
+	return 4;
+    }
+
+    /**
+     * Returns the pool shared by the whole program, creating it the
+     * first time.
+     */
+    public static synchronized ForkJoinPool getCommonPool() {
+	if (commonPool == null) {
+	    commonPool = new ForkJoinPool();
+	}
+	return commonPool;
+    }
+
+    /**
+     * Returns the number of workers.
+     */
+    public int getParallelism() {
+	return parallelism;
+    }
+
+    /**
+     * Arranges for a task to be run by a worker.
+     * @param task the task
+     * @exception IllegalStateException If the pool has been shut down.
+     */
+    public void execute(ForkJoinTask task) {
+	if (!tryExecute(task)) {
+	    throw new IllegalStateException("pool shut down");
+	}
+    }
+
+    /**
+     * Arranges for a task to be run by a worker.
+     * @return false if the pool has been shut down.
+     */
+    final boolean tryExecute(ForkJoinTask task) {
+	synchronized (this) {
+	    if (shutdown) {
+		return false;
+	    }
+	    if (!started) {
+		start();
+	    }
+	    // queued under the lock, so that no worker stops without it
+	    submissions.addLast(task);
+	}
+	signalWork();
+	return true;
+    }
+
+    /**
+     * Runs a task in the pool and waits until it is done.
+     * @param task the task
+     * @exception RuntimeException If the task threw it.
+     * @exception Error If the task threw it.
+     * @exception IllegalStateException If the pool has been shut down.
+     */
+    public void invoke(ForkJoinTask task) {
+	Thread t = Thread.currentThread();
+	if ((t instanceof ForkJoinWorker) && (((ForkJoinWorker)t).pool == this)) {
+	    task.invoke();
+	} else {
+	    execute(task);
+	    task.join();
+	}
+    }
+
+    /**
+     * Lets the workers stop once there are no tasks left. Tasks
+     * cannot be given to the pool afterwards.
+     */
+    public synchronized void shutdown() {
+	shutdown = true;
+	notifyAll();
+    }
+
+    /**
+     * Returns true if the pool has been shut down.
+     */
+    public synchronized boolean isShutdown() {
+	return shutdown;
+    }
+
+    /**
+     * Returns the number of tasks that workers took from other
+     * workers.
+     */
+    public long getStealCount() {
+	long n = 0;
+	ForkJoinWorker w[] = workers;
+	if (w != null) {
+	    for (int i = w.length ; i-- > 0 ;) {
+		n += w[i].steals;
+	    }
+	}
+	return n;
+    }
+
+    /**
+     * Returns a String representation of the pool.
+     */
+    public String toString() {
+	return getClass().getName() + "[parallelism=" + parallelism +
+	    ",steals=" + getStealCount() + "]";
+    }
+
+    private void start() {
+	group = new ThreadGroup("ForkJoinPool");
+	ForkJoinWorker w[] = new ForkJoinWorker[parallelism];
+	for (int i = 0 ; i < w.length ; i++) {
+	    w[i] = new ForkJoinWorker(this, group, i);
+	}
+	workers = w;
+	started = true;
+	for (int i = 0 ; i < w.length ; i++) {
+	    w[i].start();
+	}
+    }
+
+    /**
+     * Wakes up a worker if one is waiting for a task.
+     */
+    final void signalWork() {
+	if (idleWorkers > 0) {
+	    synchronized (this) {
+		notify();
+	    }
+	}
+    }
+
+    /**
+     * Returns a task given to the pool, or one stolen from a worker
+     * other than w, or null if there is none.
+     */
+    final ForkJoinTask scan(ForkJoinWorker w) {
+	ForkJoinTask t = (ForkJoinTask)submissions.pollFirst();
+	if (t != null) {
+	    return t;
+	}
+	ForkJoinWorker v[] = workers;
+	int n = v.length;
+	int k = w.nextVictim(n);
+	for (int i = n ; i-- > 0 ; k = (k + 1 == n) ? 0 : k + 1) {
+	    if (v[k] != w) {
+		t = (ForkJoinTask)v[k].queue.pollFirst();
+		if (t != null) {
+		    w.steals++;
+		    return t;
+		}
+	    }
+	}
+	return null;
+    }
+
+    /**
+     * Returns true if a task is waiting in the pool or in a worker.
+     */
+    private boolean hasQueuedTasks() {
+	if (!submissions.isEmpty()) {
+	    return true;
+	}
+	ForkJoinWorker v[] = workers;
+	for (int i = v.length ; i-- > 0 ;) {
+	    if (!v[i].queue.isEmpty()) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * Waits until there may be a task to run.
+     * @return false if the worker should stop.
+     */
+    final synchronized boolean awaitWork() {
+	// A task queued after the idle count is raised is found by the
+	// check below; one queued before it calls notify().
+	idleWorkers++;
+	try {
+	    while (!hasQueuedTasks()) {
+		if (shutdown) {
+		    return false;
+		}
+		try {
+		    wait();
+		} catch (InterruptedException e) {
+		}
+	    }
+	} finally {
+	    idleWorkers--;
+	}
+	return true;
+    }
+}
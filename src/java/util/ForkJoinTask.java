@@ -0,0 +1,234 @@
+/*
+ * @(#)ForkJoinTask.java	1.1 96/08/20
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * A ForkJoinTask is a piece of a divide-and-conquer computation that
+ * runs in a ForkJoinPool. Its compute() method either does the work
+ * itself, when there is little of it, or splits it into smaller tasks,
+ * forks them so that other threads can take them, and joins them to
+ * wait for their results:
+ * <pre>
+ *	class Sum extends ForkJoinTask {
+ *	    int a[], from, to;
+ *	    long sum;
+ *
+ *	    Sum(int a[], int from, int to) {
+ *		this.a = a; this.from = from; this.to = to;
+ *	    }
+ *
+ *	    protected void compute() {
+ *		if (to - from < 10000) {
+ *		    for (int i = from ; i < to ; i++) {
+ *			sum += a[i];
+ *		    }
+ *		} else {
+ *		    int mid = (from + to) >>> 1;
+ *		    Sum left = new Sum(a, from, mid);
+ *		    Sum right = new Sum(a, mid, to);
+ *		    invokeAll(left, right);
+ *		    sum = left.sum + right.sum;
+ *		}
+ *	    }
+ *	}
+ *	...
+ *	Sum s = new Sum(a, 0, a.length);
+ *	ForkJoinPool.getCommonPool().invoke(s);
+ * </pre>
+ *
+ * A task runs once. Its results are kept in fields of the subclass.
+ * An exception thrown by compute() is thrown again by join() and
+ * invoke().
+ *
+ * @see ForkJoinPool
+ * @version 	1.1, 20 Aug 1996
+ */
+public abstract
+class ForkJoinTask implements Runnable {
+    private static final int DONE = 1;
+    private static final int FAILED = 2;
+
+    /**
+     * 0 until the task has run.
+     */
+    private volatile int status;
+
+    /**
+     * True once a thread waits for the task to finish.
+     */
+    private volatile boolean waiting;
+
+    private Throwable failure;
+
+    /**
+     * Does the work of the task.
+     */
+    protected abstract void compute();
+
+    /**
+     * Arranges for the task to be run by the pool of the calling worker
+     * thread, or by the common pool when it is called by another thread.
+     * The task is run by the calling thread when it joins the task,
+     * unless another worker has taken it before.
+     * @return this task.
+     * @see ForkJoinPool#getCommonPool
+     */
+    public final ForkJoinTask fork() {
+	Thread t = Thread.currentThread();
+	if (t instanceof ForkJoinWorker) {
+	    ((ForkJoinWorker)t).push(this);
+	} else {
+	    ForkJoinPool.getCommonPool().execute(this);
+	}
+	return this;
+    }
+
+    /**
+     * Waits until the task has run. A worker thread runs other tasks
+     * while it waits.
+     * @exception RuntimeException If compute() threw it.
+     * @exception Error If compute() threw it.
+     */
+    public final void join() {
+	if (status == 0) {
+	    Thread t = Thread.currentThread();
+	    if (t instanceof ForkJoinWorker) {
+		((ForkJoinWorker)t).helpJoin(this);
+	    } else {
+		awaitDone();
+	    }
+	}
+	reportFailure();
+    }
+
+    /**
+     * Runs the task in the calling thread.
+     * @exception RuntimeException If compute() threw it.
+     * @exception Error If compute() threw it.
+     */
+    public final void invoke() {
+	exec();
+	reportFailure();
+    }
+
+    /**
+     * Runs two tasks, forking the second and running the first in the
+     * calling thread.
+     * @param a the first task
+     * @param b the second task
+     */
+    public static void invokeAll(ForkJoinTask a, ForkJoinTask b) {
+	b.fork();
+	a.invoke();
+	b.join();
+    }
+
+    /**
+     * Runs tasks, forking all but the first and running the first in
+     * the calling thread.
+     * @param tasks the tasks
+     */
+    public static void invokeAll(ForkJoinTask tasks[]) {
+	for (int i = tasks.length ; --i > 0 ;) {
+	    tasks[i].fork();
+	}
+	if (tasks.length > 0) {
+	    tasks[0].invoke();
+	}
+	for (int i = 1 ; i < tasks.length ; i++) {
+	    tasks[i].join();
+	}
+    }
+
+    /**
+     * Returns true if the task has run.
+     */
+    public final boolean isDone() {
+	return status != 0;
+    }
+
+    /**
+     * Returns the exception thrown by compute(), or null if there was
+     * none or the task has not run.
+     */
+    public final Throwable getException() {
+	return (status == FAILED) ? failure : null;
+    }
+
+    /**
+     * Runs the task. This lets a ForkJoinTask be used as a Runnable.
+     */
+    public final void run() {
+	exec();
+    }
+
+    /**
+     * Runs compute() unless the task has already run, and records its
+     * outcome.
+     */
+    final void exec() {
+	if (status != 0) {
+	    return;
+	}
+	Throwable thrown = null;
+	try {
+	    compute();
+	} catch (Throwable e) {
+	    thrown = e;
+	}
+	failure = thrown;
+	status = (thrown == null) ? DONE : FAILED;
+	if (waiting) {
+	    synchronized (this) {
+		notifyAll();
+	    }
+	}
+	if (thrown instanceof ThreadDeath) {
+	    throw (ThreadDeath)thrown;
+	}
+    }
+
+    /**
+     * Waits, without helping, until another thread has run the task.
+     */
+    final synchronized void awaitDone() {
+	waiting = true;
+	while (status == 0) {
+	    try {
+		wait();
+	    } catch (InterruptedException e) {
+		// the task is still running; keep waiting
+	    }
+	}
+    }
+
+    private void reportFailure() {
+	if (status == FAILED) {
+	    Throwable e = failure;
+	    if (e instanceof RuntimeException) {
+		throw (RuntimeException)e;
+	    }
+	    if (e instanceof Error) {
+		throw (Error)e;
+	    }
+	    throw new RuntimeException(e.toString());
+	}
+    }
+}
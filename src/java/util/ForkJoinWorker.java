@@ -0,0 +1,113 @@
+/*
+ * @(#)ForkJoinWorker.java	1.1 96/08/20
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * A worker thread of a ForkJoinPool, and its deque of tasks. The
+ * worker adds and takes tasks at the end of the deque; other workers
+ * steal them from the front.
+ *
+ * @see ForkJoinPool
+ * @version 	1.1, 20 Aug 1996
+ */
+final
+class ForkJoinWorker extends Thread {
+    ForkJoinPool pool;
+    Deque queue = new Deque();
+
+    /**
+     * The number of tasks this worker stole.
+     */
+    int steals;
+
+    /**
+     * The state of the generator that picks the first worker to
+     * steal from.
+     */
+    private int seed;
+
+    ForkJoinWorker(ForkJoinPool pool, ThreadGroup group, int index) {
+	super(group, "ForkJoinPool worker-" + index);
+	this.pool = pool;
+	seed = index * 0x9E3779B9 + 1;
+	setDaemon(true);
+    }
+
+    int nextVictim(int n) {
+	int x = seed;
+	x ^= x << 13;
+	x ^= x >>> 17;
+	x ^= x << 5;
+	seed = x;
+	return (x >>> 1) % n;
+    }
+
+    void push(ForkJoinTask t) {
+	queue.addLast(t);
+	pool.signalWork();
+    }
+
+    /**
+     * Takes the task off the end of the deque if it is still there.
+     */
+    private boolean tryUnpush(ForkJoinTask t) {
+	synchronized (queue) {
+	    if (queue.peekLast() == t) {
+		queue.pollLast();
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * Runs tasks until the joined task is done: the task itself if it
+     * has not been taken, else the tasks of this worker, else tasks
+     * stolen from other workers.
+     */
+    void helpJoin(ForkJoinTask task) {
+	while (!task.isDone()) {
+	    if (tryUnpush(task)) {
+		task.exec();
+		return;
+	    }
+	    ForkJoinTask t = (ForkJoinTask)queue.pollLast();
+	    if (t == null) {
+		t = pool.scan(this);
+	    }
+	    if (t != null) {
+		t.exec();
+	    } else {
+		task.awaitDone();
+	    }
+	}
+    }
+
+    public void run() {
+	do {
+	    ForkJoinTask t;
+	    while ((t = (ForkJoinTask)queue.pollLast()) != null ||
+		   (t = pool.scan(this)) != null) {
+		// exec() keeps a failure in the task
+		t.exec();
+	    }
+	} while (pool.awaitWork());
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * @(#)Future.java	1.1 96/08/13
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * A Future holds the result of a task that runs in another thread.
+ * The thread that waits for the result calls get(), which returns
+ * the result once the task is done, or throws an ExecutionException
+ * if the task failed:
+ * <pre>
+ *	Future f = pool.submit(new PageFetcher(url));
+ *	...
+ *	try {
+ *	    page = (String)f.get();
+ *	} catch (ExecutionException e) {
+ *	    page = "Could not fetch " + url + ": " + e.getTargetException();
+ *	}
+ * </pre>
+ * A Future is a Runnable, so it can be run by any thread. It runs its
+ * task at most once.
+ *
+ * @see ThreadPool#submit
+ * @see Callable
+ * @version 	1.1, 13 Aug 1996
+ */
+public
+class Future implements Runnable {
+    private static final int NEW = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+    private static final int FAILED = 3;
+    private static final int CANCELLED = 4;
+
+    private Callable callable;
+    private Runnable runnable;
+    private int state;
+    private Object result;
+    private Throwable failure;
+
+    /**
+     * Creates a Future for the result of a Callable.
+     * @param task the task
+     */
+    public Future(Callable task) {
+	if (task == null) {
+	    throw new NullPointerException();
+	}
+	callable = task;
+    }
+
+    /**
+     * Creates a Future for a Runnable. Its result is null.
+     * @param task the task
+     */
+    public Future(Runnable task) {
+	if (task == null) {
+	    throw new NullPointerException();
+	}
+	runnable = task;
+    }
+
+    /**
+     * Runs the task, unless it has already been run or cancelled.
+     */
+    public void run() {
+	synchronized (this) {
+	    if (state != NEW) {
+		return;
+	    }
+	    state = RUNNING;
+	}
+	Object value = null;
+	Throwable thrown = null;
+	try {
+	    if (callable != null) {
+		value = callable.call();
+	    } else {
+		runnable.run();
+	    }
+	} catch (Throwable e) {
+	    thrown = e;
+	}
+	synchronized (this) {
+	    result = value;
+	    failure = thrown;
+	    state = (thrown == null) ? DONE : FAILED;
+	    callable = null;
+	    runnable = null;
+	    notifyAll();
+	}
+	if (thrown instanceof ThreadDeath) {
+	    throw (ThreadDeath)thrown;
+	}
+    }
+
+    /**
+     * Cancels the task if it has not started yet.
+     * @return true if the task was cancelled, false if it has
+     * already started.
+     */
+    public synchronized boolean cancel() {
+	if (state != NEW) {
+	    return false;
+	}
+	state = CANCELLED;
+	callable = null;
+	runnable = null;
+	notifyAll();
+	return true;
+    }
+
+    /**
+     * Returns true if the task was cancelled.
+     */
+    public synchronized boolean isCancelled() {
+	return state == CANCELLED;
+    }
+
+    /**
+     * Returns true if the task is done, failed or was cancelled.
+     */
+    public synchronized boolean isDone() {
+	return state >= DONE;
+    }
+
+    /**
+     * Waits until the task is done, failed or was cancelled.
+     * @param millis the longest time to wait in milliseconds, or 0
+     * to wait as long as it takes
+     * @return true if the task is done, failed or was cancelled,
+     * false if the time ran out.
+     * @exception InterruptedException If the thread was interrupted.
+     */
+    public synchronized boolean waitFor(long millis) throws InterruptedException {
+	if (millis <= 0) {
+	    while (state < DONE) {
+		wait();
+	    }
+	    return true;
+	}
+	long deadline = System.currentTimeMillis() + millis;
+	while (state < DONE) {
+	    long remaining = deadline - System.currentTimeMillis();
+	    if (remaining <= 0) {
+		return false;
+	    }
+	    wait(remaining);
+	}
+	return true;
+    }
+
+    /**
+     * Waits until the task is done and returns its result.
+     * @return the result of the task.
+     * @exception ExecutionException If the task threw an exception.
+     * @exception InterruptedException If the thread was interrupted.
+     * @exception IllegalStateException If the task was cancelled.
+     */
+    public synchronized Object get() throws InterruptedException, ExecutionException {
+	waitFor(0);
+	if (state == FAILED) {
+	    throw new ExecutionException(failure);
+	}
+	if (state == CANCELLED) {
+	    throw new IllegalStateException("task cancelled");
+	}
+	return result;
+    }
+}
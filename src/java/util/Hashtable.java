@@ -91,6 +91,48 @@ class Hashtable extends Dictionary implements Cloneable {
      */
     private float loadFactor;
 
+    /**
+     * True if the capacity is always a power of two and buckets are
+     * selected by masking a mixed hash code instead of by division.
+     */
+    private boolean powerOfTwo;
+
+    /**
+     * True if String keys are hashed with String.fullHashCode().
+     */
+    private boolean fullStringHashing;
+
+    /**
+     * The number of old buckets moved into the new table by each
+     * call to get() or put() while an incremental rehash is in progress.
+     */
+    private static final int MIGRATE_STEP = 4;
+
+    /**
+     * True if the table is resized a few buckets at a time.
+     */
+    private boolean incremental;
+
+    /**
+     * The table being emptied by an incremental rehash, or null.
+     * Buckets below migrateIndex have not been moved yet; the entries
+     * whose old bucket is among them are all in oldTable, never in
+     * table. Enumerations rely on this.
+     */
+    HashtableEntry oldTable[];
+
+    /**
+     * The number of buckets of oldTable still to be moved.
+     */
+    int migrateIndex;
+
+    /**
+     * The number of times entries were added or removed, or the table
+     * was reorganized. Enumerations compare it with the value it had
+     * when they were created.
+     */
+    int modCount;
+
     /**
      * Constructs a new, empty hashtable with the specified initial 
      * capacity and the specified load factor.
@@ -104,9 +146,40 @@ class Hashtable extends Dictionary implements Cloneable {
      * less than or equal to zero.
      */
     public Hashtable(int initialCapacity, float loadFactor) {
+	this(initialCapacity, loadFactor, false);
+    }
+
+    /**
+     * Constructs a new, empty hashtable with the specified initial 
+     * capacity and load factor, optionally using power-of-two
+     * capacities. In that mode the initial capacity is rounded up to a
+     * power of two, the table doubles when it grows, and the bucket of
+     * a key is found by masking rather than by the more expensive
+     * integer division. The bits of each hash code are mixed first so
+     * that keys whose hashCode() differs only in the high bits still
+     * spread over the whole table.
+     * @param initialCapacity the initial number of buckets
+     * @param loadFactor a number between 0.0 and 1.0, it defines
+     *		the threshold for rehashing the hashtable into
+     *		a bigger one.
+     * @param powerOfTwo true to use power-of-two capacities
+     * @exception IllegalArgumentException If the initial capacity
+     * is less than or equal to zero.
+     * @exception IllegalArgumentException If the load factor is
+     * less than or equal to zero.
+     */
+    public Hashtable(int initialCapacity, float loadFactor, boolean powerOfTwo) {
 	if ((initialCapacity <= 0) || (loadFactor <= 0.0)) {
 	    throw new IllegalArgumentException();
 	}
+	if (powerOfTwo) {
+	    int capacity = 1;
+	    while ((capacity < initialCapacity) && (capacity < (1 << 30))) {
+		capacity <<= 1;
+	    }
+	    initialCapacity = capacity;
+	}
+	this.powerOfTwo = powerOfTwo;
 	this.loadFactor = loadFactor;
 	table = new HashtableEntry[initialCapacity];
 	threshold = (int)(initialCapacity * loadFactor);
@@ -130,6 +203,79 @@ class Hashtable extends Dictionary implements Cloneable {
 	this(101, 0.75f);
     }
 
+    /**
+     * Turns incremental rehashing on or off. When it is on, growing
+     * the table only allocates the bigger table; the entries are then
+     * moved over a few buckets at a time by subsequent calls to get()
+     * and put(), so no single call pays for the whole rehash. Turning
+     * it off completes any rehash that is in progress.
+     * @param on true to rehash incrementally
+     * @see Hashtable#rehash
+     */
+    public synchronized void setIncrementalRehash(boolean on) {
+	if (!on) {
+	    finishMigration();
+	}
+	incremental = on;
+    }
+
+    /**
+     * Returns true if the table is rehashed incrementally.
+     * @see Hashtable#setIncrementalRehash
+     */
+    public boolean isIncrementalRehash() {
+	return incremental;
+    }
+
+    /**
+     * Turns full-content hashing of String keys on or off. When it is
+     * on, String keys are hashed with String.fullHashCode(), which looks
+     * at every character, instead of with hashCode(), which only samples
+     * some characters of Strings of 16 characters or more. This avoids
+     * long collision chains for keys such as URLs or file names that
+     * share long prefixes and suffixes. The entries that are already in
+     * the table are rehashed.
+     * @param on true to hash String keys by their full content
+     * @see java.lang.String#fullHashCode
+     */
+    public synchronized void setFullStringHashing(boolean on) {
+	if (on == fullStringHashing) {
+	    return;
+	}
+	finishMigration();
+	fullStringHashing = on;
+	modCount++;
+
+	HashtableEntry tab[] = table;
+	HashtableEntry list = null;
+	for (int i = tab.length ; i-- > 0 ;) {
+	    for (HashtableEntry old = tab[i] ; old != null ; ) {
+		HashtableEntry e = old;
+		old = old.next;
+		e.next = list;
+		list = e;
+	    }
+	    tab[i] = null;
+	}
+	while (list != null) {
+	    HashtableEntry e = list;
+	    list = list.next;
+
+	    e.hash = hash(e.key);
+	    int index = index(e.hash, tab.length);
+	    e.next = tab[index];
+	    tab[index] = e;
+	}
+    }
+
+    /**
+     * Returns true if String keys are hashed by their full content.
+     * @see Hashtable#setFullStringHashing
+     */
+    public boolean isFullStringHashing() {
+	return fullStringHashing;
+    }
+
     /**
      * Returns the number of elements contained in the hashtable. 
      */
@@ -145,22 +291,27 @@ class Hashtable extends Dictionary implements Cloneable {
     }
 
     /**
-     * Returns an enumeration of the hashtable's keys.
+     * Returns an enumeration of the hashtable's keys. The enumeration
+     * sees every entry exactly once, also while an incremental rehash
+     * moves entries under it. If entries are added to or removed from
+     * the hashtable while the enumeration is in use, its next
+     * nextElement() call throws ConcurrentModificationException.
      * @see Hashtable#elements
      * @see Enumeration
      */
     public synchronized Enumeration keys() {
-	return new HashtableEnumerator(table, true);
+	return new HashtableEnumerator(this, table, oldTable, true);
     }
 
     /**
      * Returns an enumeration of the elements. Use the Enumeration methods 
-     * on the returned object to fetch the elements sequentially.
+     * on the returned object to fetch the elements sequentially. Like
+     * keys(), the enumeration fails fast if entries are added or removed.
      * @see Hashtable#keys
      * @see Enumeration
      */
     public synchronized Enumeration elements() {
-	return new HashtableEnumerator(table, false);
+	return new HashtableEnumerator(this, table, oldTable, false);
     }
 
     /**
@@ -184,6 +335,14 @@ class Hashtable extends Dictionary implements Cloneable {
 		}
 	    }
 	}
+	tab = oldTable;
+	for (int i = migrateIndex ; i-- > 0 ;) {
+	    for (HashtableEntry e = tab[i] ; e != null ; e = e.next) {
+		if (e.value.equals(value)) {
+		    return true;
+		}
+	    }
+	}
 	return false;
     }
 
@@ -193,9 +352,15 @@ class Hashtable extends Dictionary implements Cloneable {
      * @see Hashtable#contains
      */
     public synchronized boolean containsKey(Object key) {
+	int hash = hash(key);
+	if (oldTable != null) {
+	    migrate(MIGRATE_STEP);
+	    if (findOld(key, hash) != null) {
+		return true;
+	    }
+	}
 	HashtableEntry tab[] = table;
-	int hash = key.hashCode();
-	int index = (hash & 0x7FFFFFFF) % tab.length;
+	int index = index(hash, tab.length);
 	for (HashtableEntry e = tab[index] ; e != null ; e = e.next) {
 	    if ((e.hash == hash) && e.key.equals(key)) {
 		return true;
@@ -213,9 +378,16 @@ class Hashtable extends Dictionary implements Cloneable {
      * @see Hashtable#put
      */
     public synchronized Object get(Object key) {
+	int hash = hash(key);
+	if (oldTable != null) {
+	    migrate(MIGRATE_STEP);
+	    HashtableEntry e = findOld(key, hash);
+	    if (e != null) {
+		return e.value;
+	    }
+	}
 	HashtableEntry tab[] = table;
-	int hash = key.hashCode();
-	int index = (hash & 0x7FFFFFFF) % tab.length;
+	int index = index(hash, tab.length);
 	for (HashtableEntry e = tab[index] ; e != null ; e = e.next) {
 	    if ((e.hash == hash) && e.key.equals(key)) {
 		return e.value;
@@ -224,21 +396,113 @@ class Hashtable extends Dictionary implements Cloneable {
 	return null;
     }
 
+    /**
+     * Returns the hash code of the key as it is stored in the table.
+     * In power-of-two mode the bits are mixed so that the low bits,
+     * which select the bucket, depend on all bits of hashCode().
+     */
+    private final int hash(Object key) {
+	int h = (fullStringHashing && (key instanceof String))
+	    ? ((String)key).fullHashCode() : key.hashCode();
+	if (powerOfTwo) {
+	    h ^= (h >>> 20) ^ (h >>> 12);
+	    h ^= (h >>> 7) ^ (h >>> 4);
+	}
+	return h;
+    }
+
+    /**
+     * Returns the bucket for a hash code in a table of the specified
+     * length.
+     */
+    final int index(int hash, int length) {
+	return powerOfTwo ? (hash & (length - 1)) : ((hash & 0x7FFFFFFF) % length);
+    }
+
+    /**
+     * Finds the entry for the key among the buckets of the old table
+     * that have not been moved yet. Returns null if there is none.
+     */
+    private HashtableEntry findOld(Object key, int hash) {
+	HashtableEntry tab[] = oldTable;
+	if (tab != null) {
+	    int index = index(hash, tab.length);
+	    if (index < migrateIndex) {
+		for (HashtableEntry e = tab[index] ; e != null ; e = e.next) {
+		    if ((e.hash == hash) && e.key.equals(key)) {
+			return e;
+		    }
+		}
+	    }
+	}
+	return null;
+    }
+
+    /**
+     * Moves up to the specified number of buckets from the old table
+     * into the current one. The old table is dropped once it is empty.
+     * The entries are copied rather than relinked, so that an
+     * enumeration walking an old bucket can finish it.
+     */
+    private void migrate(int buckets) {
+	HashtableEntry oldTab[] = oldTable;
+	HashtableEntry tab[] = table;
+	int newCapacity = tab.length;
+
+	while ((buckets-- > 0) && (migrateIndex > 0)) {
+	    int i = --migrateIndex;
+	    for (HashtableEntry old = oldTab[i] ; old != null ; old = old.next) {
+		HashtableEntry e = new HashtableEntry();
+		int index = index(old.hash, newCapacity);
+		e.hash = old.hash;
+		e.key = old.key;
+		e.value = old.value;
+		e.next = tab[index];
+		tab[index] = e;
+	    }
+	    oldTab[i] = null;
+	}
+	if (migrateIndex == 0) {
+	    oldTable = null;
+	}
+    }
+
+    /**
+     * Completes an incremental rehash that is in progress.
+     */
+    private void finishMigration() {
+	if (oldTable != null) {
+	    migrate(migrateIndex);
+	}
+    }
+
     /**
      * Rehashes the content of the table into a bigger table.
      * This method is called automatically when the hashtable's
-     * size exceeds the threshold.
+     * size exceeds the threshold. If incremental rehashing is on,
+     * only the bigger table is allocated here; the entries are moved
+     * later by get() and put().
+     * @see Hashtable#setIncrementalRehash
      */
     protected void rehash() {
+	finishMigration();
+	modCount++;
+
 	int oldCapacity = table.length;
 	HashtableEntry oldTable[] = table;
 
-	int newCapacity = oldCapacity * 2 + 1;
+	int newCapacity = powerOfTwo ? (oldCapacity * 2) : (oldCapacity * 2 + 1);
 	HashtableEntry newTable[] = new HashtableEntry[newCapacity];
 
 	threshold = (int)(newCapacity * loadFactor);
 	table = newTable;
 
+	if (incremental) {
+	    this.oldTable = oldTable;
+	    migrateIndex = oldCapacity;
+	    return;
+	}
+
 	//System.out.println("rehash old=" + oldCapacity + ", new=" + newCapacity + ", thresh=" + threshold + ", count=" + count);
 
 	for (int i = oldCapacity ; i-- > 0 ;) {
@@ -246,7 +510,7 @@ class Hashtable extends Dictionary implements Cloneable {
 		HashtableEntry e = old;
 		old = old.next;
 
-		int index = (e.hash & 0x7FFFFFFF) % newCapacity;
+		int index = index(e.hash, newCapacity);
 		e.next = newTable[index];
 		newTable[index] = e;
 	    }
@@ -271,9 +535,18 @@ class Hashtable extends Dictionary implements Cloneable {
 	}
 
 	// Makes sure the key is not already in the hashtable.
+	int hash = hash(key);
+	if (oldTable != null) {
+	    migrate(MIGRATE_STEP);
+	    HashtableEntry e = findOld(key, hash);
+	    if (e != null) {
+		Object old = e.value;
+		e.value = value;
+		return old;
+	    }
+	}
 	HashtableEntry tab[] = table;
-	int hash = key.hashCode();
-	int index = (hash & 0x7FFFFFFF) % tab.length;
+	int index = index(hash, tab.length);
 	for (HashtableEntry e = tab[index] ; e != null ; e = e.next) {
 	    if ((e.hash == hash) && e.key.equals(key)) {
 		Object old = e.value;
@@ -288,6 +561,15 @@ class Hashtable extends Dictionary implements Cloneable {
 	    return put(key, value);
 	} 
 
+	// A key whose old bucket has not been moved yet goes there.
+	if (oldTable != null) {
+	    int oldIndex = index(hash, oldTable.length);
+	    if (oldIndex < migrateIndex) {
+		tab = oldTable;
+		index = oldIndex;
+	    }
+	}
+
 	// Creates the new entry.
 	HashtableEntry e = new HashtableEntry();
 	e.hash = hash;
@@ -296,6 +578,7 @@ class Hashtable extends Dictionary implements Cloneable {
 	e.next = tab[index];
 	tab[index] = e;
 	count++;
+	modCount++;
 	return null;
     }
 
@@ -306,9 +589,25 @@ class Hashtable extends Dictionary implements Cloneable {
      * @return the value of key, or null if the key was not found.
      */
     public synchronized Object remove(Object key) {
-	HashtableEntry tab[] = table;
-	int hash = key.hashCode();
-	int index = (hash & 0x7FFFFFFF) % tab.length;
+	int hash = hash(key);
+	HashtableEntry tab[] = oldTable;
+	if (tab != null) {
+	    int index = index(hash, tab.length);
+	    if (index < migrateIndex) {
+		Object value = remove(tab, index, key, hash);
+		if (value != null) {
+		    return value;
+		}
+	    }
+	}
+	tab = table;
+	return remove(tab, index(hash, tab.length), key, hash);
+    }
+
+    /**
+     * Removes the entry for the key from the specified bucket.
+     */
+    private Object remove(HashtableEntry tab[], int index, Object key, int hash) {
 	for (HashtableEntry e = tab[index], prev = null ; e != null ; prev = e, e = e.next) {
 	    if ((e.hash == hash) && e.key.equals(key)) {
 		if (prev != null) {
@@ -317,6 +616,7 @@ class Hashtable extends Dictionary implements Cloneable {
 		    tab[index] = e.next;
 		}
 		count--;
+		modCount++;
 		return e.value;
 	    }
 	}
@@ -330,7 +630,10 @@ class Hashtable extends Dictionary implements Cloneable {
 	HashtableEntry tab[] = table;
 	for (int index = tab.length; --index >= 0; )
 	    tab[index] = null;
+	oldTable = null;
+	migrateIndex = 0;
 	count = 0;
+	modCount++;
     }
 
     /**
@@ -341,10 +644,9 @@ class Hashtable extends Dictionary implements Cloneable {
     public synchronized Object clone() {
 	try { 
 	    Hashtable t = (Hashtable)super.clone();
-	    t.table = new HashtableEntry[table.length];
-	    for (int i = table.length ; i-- > 0 ; ) {
-		t.table[i] = (table[i] != null) 
-		    ? (HashtableEntry)table[i].clone() : null;
+	    t.table = cloneBuckets(table, table.length);
+	    if (oldTable != null) {
+		t.oldTable = cloneBuckets(oldTable, migrateIndex);
 	    }
 	    return t;
 	} catch (CloneNotSupportedException e) { 
@@ -353,12 +655,25 @@ class Hashtable extends Dictionary implements Cloneable {
 	}
     }
 
+    /**
+     * Returns a table of the same length as tab, holding copies of the
+     * chains in the first n buckets.
+     */
+    private static HashtableEntry cloneBuckets(HashtableEntry tab[], int n)[] {
+	HashtableEntry newTab[] = new HashtableEntry[tab.length];
+	for (int i = n ; i-- > 0 ; ) {
+	    newTab[i] = (tab[i] != null) 
+		? (HashtableEntry)tab[i].clone() : null;
+	}
+	return newTab;
+    }
+
     /**
      * Converts to a rather lengthy String.
      */
     public synchronized String toString() {
 	int max = size() - 1;
-	StringBuffer buf = new StringBuffer();
+	StringBuilder buf = new StringBuilder();
 	Enumeration k = keys();
 	Enumeration e = elements();
 	buf.append("{");
@@ -366,7 +681,9 @@ class Hashtable extends Dictionary implements Cloneable {
 	for (int i = 0; i <= max; i++) {
 	    String s1 = k.nextElement().toString();
 	    String s2 = e.nextElement().toString();
-	    buf.append(s1 + "=" + s2);
+	    buf.append(s1);
+	    buf.append('=');
+	    buf.append(s2);
 	    if (i < max) {
 		buf.append(", ");
 	    }
@@ -379,36 +696,98 @@ class Hashtable extends Dictionary implements Cloneable {
 /**
  * A hashtable enumerator class.  This class should remain opaque 
  * to the client. It will use the Enumeration interface. 
+ * While an incremental rehash is in progress, the buckets of the old
+ * table that have not been moved are walked first, from the lowest
+ * up, and the current table after them. The rehash moves buckets from
+ * the highest down, so the buckets still ahead of the enumeration are
+ * the ones that move; the entries of those already walked are skipped
+ * when they turn up in the current table.
  */
 class HashtableEnumerator implements Enumeration {
     boolean keys;
     int index;
     HashtableEntry table[];
     HashtableEntry entry;
+    Hashtable hashtable;
+    int expectedModCount;
 
-    HashtableEnumerator(HashtableEntry table[], boolean keys) {
+    /**
+     * The old table of the rehash that was in progress when the
+     * enumeration was created, or null.
+     */
+    HashtableEntry oldTable[];
+
+    /**
+     * The number of buckets of oldTable walked.
+     */
+    int oldIndex;
+
+    /**
+     * True while the enumeration is walking oldTable.
+     */
+    boolean inOldTable;
+
+    HashtableEnumerator(Hashtable hashtable, HashtableEntry table[],
+			HashtableEntry oldTable[], boolean keys) {
+	this.hashtable = hashtable;
+	this.expectedModCount = hashtable.modCount;
 	this.table = table;
+	this.oldTable = oldTable;
+	this.inOldTable = (oldTable != null);
 	this.keys = keys;
 	this.index = table.length;
     }
-	
-    public boolean hasMoreElements() {
-	if (entry != null) {
-	    return true;
+
+    /**
+     * Returns true if the entry was in an old bucket already walked.
+     */
+    private boolean walked(HashtableEntry e) {
+	return (oldTable != null) &&
+	    (hashtable.index(e.hash, oldTable.length) < oldIndex);
+    }
+
+    /**
+     * Makes entry the next entry to return. Returns false if there
+     * is none.
+     */
+    private boolean advance() {
+	if (inOldTable) {
+	    if (entry != null) {
+		return true;
+	    }
+	    while (inOldTable) {
+		if ((hashtable.oldTable != oldTable) ||
+		    (oldIndex >= hashtable.migrateIndex)) {
+		    // The remaining old buckets have been moved
+		    inOldTable = false;
+		} else if ((entry = oldTable[oldIndex++]) != null) {
+		    return true;
+		}
+	    }
 	}
-	while (index-- > 0) {
-	    if ((entry = table[index]) != null) {
+	for (;;) {
+	    while ((entry != null) && walked(entry)) {
+		entry = entry.next;
+	    }
+	    if (entry != null) {
 		return true;
 	    }
+	    if (index <= 0) {
+		return false;
+	    }
+	    entry = table[--index];
 	}
-	return false;
+    }
+	
+    public boolean hasMoreElements() {
+	return advance();
     }
 
     public Object nextElement() {
-	if (entry == null) {
-	    while ((index-- > 0) && ((entry = table[index]) == null));
+	if (hashtable.modCount != expectedModCount) {
+	    throw new ConcurrentModificationException("HashtableEnumerator");
 	}
-	if (entry != null) {
+	if (advance()) {
 	    HashtableEntry e = entry;
 	    entry = e.next;
 	    return keys ? e.key : e.value;
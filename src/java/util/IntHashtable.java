@@ -0,0 +1,421 @@
+/*
+ * @(#)IntHashtable.java	1.1 96/04/16
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * IntHashtable class. Maps int keys to values. Any object can be used
+ * as a value.<p>
+ *
+ * Unlike Hashtable, the keys are not objects and there are no
+ * collision lists: the keys are kept in an int array and the values in
+ * a parallel Object array, and collisions are resolved by probing the
+ * following slots. Neither get() nor put() allocates anything unless
+ * the table has to grow, and a table with many entries takes a fraction
+ * of the memory of a Hashtable with Integer keys.<p>
+ *
+ * This example maps ids to names:
+ * <pre>
+ *	IntHashtable names = new IntHashtable();
+ *	names.put(17, "seventeen");
+ *	String s = (String)names.get(17);
+ * </pre>
+ *
+ * @see java.util.Hashtable
+ * @version 	1.1, 16 Apr 1996
+ */
+public
+class IntHashtable implements Cloneable {
+    /**
+     * The keys. A slot is in use if its value is not null.
+     */
+    private int keys[];
+
+    /**
+     * The values, in the same slots as their keys.
+     */
+    private Object values[];
+
+    /**
+     * The total number of entries in the table.
+     */
+    private int count;
+
+    /**
+     * Rehashes the table when count exceeds this threshold.
+     */
+    private int threshold;
+
+    /**
+     * The load factor for the table.
+     */
+    private float loadFactor;
+
+    /**
+     * Constructs a new, empty table with the specified initial
+     * capacity and the specified load factor. The capacity is rounded
+     * up to a power of two.
+     * @param initialCapacity the initial number of slots
+     * @param loadFactor a number between 0.0 and 1.0, it defines
+     *		the threshold for rehashing the table into
+     *		a bigger one.
+     * @exception IllegalArgumentException If the initial capacity
+     * is less than or equal to zero.
+     * @exception IllegalArgumentException If the load factor is
+     * less than or equal to zero or greater than or equal to one.
+     */
+    public IntHashtable(int initialCapacity, float loadFactor) {
+	if ((initialCapacity <= 0) || (loadFactor <= 0.0) || (loadFactor >= 1.0)) {
+	    throw new IllegalArgumentException();
+	}
+	int capacity = 2;
+	while ((capacity < initialCapacity) && (capacity < (1 << 30))) {
+	    capacity <<= 1;
+	}
+	this.loadFactor = loadFactor;
+	keys = new int[capacity];
+	values = new Object[capacity];
+	threshold = threshold(capacity);
+    }
+
+    /**
+     * Constructs a new, empty table with the specified initial
+     * capacity.
+     * @param initialCapacity the initial number of slots
+     */
+    public IntHashtable(int initialCapacity) {
+	this(initialCapacity, 0.75f);
+    }
+
+    /**
+     * Constructs a new, empty table. A default capacity and load factor
+     * is used. Note that the table will automatically grow when it gets
+     * full.
+     */
+    public IntHashtable() {
+	this(64, 0.75f);
+    }
+
+    /**
+     * Returns the number of entries allowed in a table with the
+     * specified capacity. At least one slot is always left empty
+     * so that probing terminates.
+     */
+    private int threshold(int capacity) {
+	int t = (int)(capacity * loadFactor);
+	return (t < capacity) ? t : capacity - 1;
+    }
+
+    /**
+     * Returns the first slot to probe for the key. The bits of the
+     * key are mixed so that consecutive and strided ids spread well.
+     */
+    private static int slot(int key, int mask) {
+	int h = key * 0x9E3779B9;
+	return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the slot holding the key, or -1 if it is not present.
+     */
+    private final int find(int key) {
+	int k[] = keys;
+	Object v[] = values;
+	int mask = k.length - 1;
+	for (int i = slot(key, mask) ; v[i] != null ; i = (i + 1) & mask) {
+	    if (k[i] == key) {
+		return i;
+	    }
+	}
+	return -1;
+    }
+
+    /**
+     * Returns the number of elements contained in the table.
+     */
+    public int size() {
+	return count;
+    }
+
+    /**
+     * Returns true if the table contains no elements.
+     */
+    public boolean isEmpty() {
+	return count == 0;
+    }
+
+    /**
+     * Returns an enumeration of the table's keys. The keys are
+     * returned as Integer objects.
+     * @see IntHashtable#elements
+     * @see Enumeration
+     */
+    public synchronized Enumeration keys() {
+	return new IntHashtableEnumerator(keys, values, true);
+    }
+
+    /**
+     * Returns an enumeration of the elements. Use the Enumeration methods
+     * on the returned object to fetch the elements sequentially.
+     * @see IntHashtable#keys
+     * @see Enumeration
+     */
+    public synchronized Enumeration elements() {
+	return new IntHashtableEnumerator(keys, values, false);
+    }
+
+    /**
+     * Returns true if the specified object is an element of the table.
+     * This operation is more expensive than the containsKey() method.
+     * @param value the value that we are looking for
+     * @exception NullPointerException If the value being searched
+     * for is equal to null.
+     * @see IntHashtable#containsKey
+     */
+    public synchronized boolean contains(Object value) {
+	if (value == null) {
+	    throw new NullPointerException();
+	}
+
+	Object v[] = values;
+	for (int i = v.length ; i-- > 0 ;) {
+	    if ((v[i] != null) && v[i].equals(value)) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * Returns true if the table contains an element for the key.
+     * @param key the key that we are looking for
+     * @see IntHashtable#contains
+     */
+    public synchronized boolean containsKey(int key) {
+	return find(key) >= 0;
+    }
+
+    /**
+     * Gets the object associated with the specified key in the
+     * table.
+     * @param key the specified key
+     * @returns the element for the key or null if the key
+     * 		is not defined in the table.
+     * @see IntHashtable#put
+     */
+    public synchronized Object get(int key) {
+	int i = find(key);
+	return (i >= 0) ? values[i] : null;
+    }
+
+    /**
+     * Rehashes the content of the table into a table twice the size.
+     * This method is called automatically when the table's
+     * size exceeds the threshold.
+     */
+    protected void rehash() {
+	int oldKeys[] = keys;
+	Object oldValues[] = values;
+	int oldCapacity = oldKeys.length;
+
+	int newCapacity = oldCapacity * 2;
+	int newKeys[] = new int[newCapacity];
+	Object newValues[] = new Object[newCapacity];
+	int mask = newCapacity - 1;
+
+	for (int i = oldCapacity ; i-- > 0 ;) {
+	    if (oldValues[i] != null) {
+		int j = slot(oldKeys[i], mask);
+		while (newValues[j] != null) {
+		    j = (j + 1) & mask;
+		}
+		newKeys[j] = oldKeys[i];
+		newValues[j] = oldValues[i];
+	    }
+	}
+
+	keys = newKeys;
+	values = newValues;
+	threshold = threshold(newCapacity);
+    }
+
+    /**
+     * Puts the specified element into the table, using the specified
+     * key.  The element may be retrieved by doing a get() with the same key.
+     * The element cannot be null.
+     * @param key the specified key in the table
+     * @param value the specified element
+     * @exception NullPointerException If the value of the element
+     * is equal to null.
+     * @see IntHashtable#get
+     * @return the old value of the key, or null if it did not have one.
+     */
+    public synchronized Object put(int key, Object value) {
+	// Make sure the value is not null
+	if (value == null) {
+	    throw new NullPointerException();
+	}
+
+	int k[] = keys;
+	Object v[] = values;
+	int mask = k.length - 1;
+	int i = slot(key, mask);
+	for (; v[i] != null ; i = (i + 1) & mask) {
+	    if (k[i] == key) {
+		Object old = v[i];
+		v[i] = value;
+		return old;
+	    }
+	}
+
+	if (count >= threshold) {
+	    // Rehash the table if the threshold is exceeded
+	    rehash();
+	    return put(key, value);
+	}
+
+	k[i] = key;
+	v[i] = value;
+	count++;
+	return null;
+    }
+
+    /**
+     * Removes the element corresponding to the key. Does nothing if the
+     * key is not present.
+     * @param key the key that needs to be removed
+     * @return the value of key, or null if the key was not found.
+     */
+    public synchronized Object remove(int key) {
+	int i = find(key);
+	if (i < 0) {
+	    return null;
+	}
+
+	int k[] = keys;
+	Object v[] = values;
+	int mask = k.length - 1;
+	Object old = v[i];
+
+	// Shift back the entries that follow in the same run so that
+	// no lookup stops early at the slot being emptied.
+	int j = i;
+	for (;;) {
+	    j = (j + 1) & mask;
+	    if (v[j] == null) {
+		break;
+	    }
+	    int home = slot(k[j], mask);
+	    if (((j - home) & mask) >= ((j - i) & mask)) {
+		k[i] = k[j];
+		v[i] = v[j];
+		i = j;
+	    }
+	}
+	v[i] = null;
+	count--;
+	return old;
+    }
+
+    /**
+     * Clears the table so that it has no more elements in it.
+     */
+    public synchronized void clear() {
+	Object v[] = values;
+	for (int i = v.length; --i >= 0; )
+	    v[i] = null;
+	count = 0;
+    }
+
+    /**
+     * Creates a clone of the table. The elements themselves are NOT
+     * cloned.
+     */
+    public synchronized Object clone() {
+	try {
+	    IntHashtable t = (IntHashtable)super.clone();
+	    t.keys = new int[keys.length];
+	    t.values = new Object[values.length];
+	    System.arraycopy(keys, 0, t.keys, 0, keys.length);
+	    System.arraycopy(values, 0, t.values, 0, values.length);
+	    return t;
+	} catch (CloneNotSupportedException e) {
+	    // this shouldn't happen, since we are Cloneable
+	    throw new InternalError();
+	}
+    }
+
+    /**
+     * Converts to a rather lengthy String.
+     */
+    public synchronized String toString() {
+	int k[] = keys;
+	Object v[] = values;
+	StringBuilder buf = new StringBuilder();
+	buf.append("{");
+
+	boolean first = true;
+	for (int i = k.length ; i-- > 0 ;) {
+	    if (v[i] != null) {
+		if (!first) {
+		    buf.append(", ");
+		}
+		buf.append(k[i]);
+		buf.append("=");
+		buf.append(v[i].toString());
+		first = false;
+	    }
+	}
+	buf.append("}");
+	return buf.toString();
+    }
+}
+
+/**
+ * An int hashtable enumerator class.  This class should remain opaque
+ * to the client. It will use the Enumeration interface.
+ */
+class IntHashtableEnumerator implements Enumeration {
+    boolean keys;
+    int index;
+    int keyTable[];
+    Object valueTable[];
+
+    IntHashtableEnumerator(int keyTable[], Object valueTable[], boolean keys) {
+	this.keyTable = keyTable;
+	this.valueTable = valueTable;
+	this.keys = keys;
+	this.index = valueTable.length;
+    }
+
+    public boolean hasMoreElements() {
+	while ((index > 0) && (valueTable[index - 1] == null)) {
+	    index--;
+	}
+	return index > 0;
+    }
+
+    public Object nextElement() {
+	if (hasMoreElements()) {
+	    index--;
+	    return keys ? (Object)new Integer(keyTable[index]) : valueTable[index];
+	}
+	throw new NoSuchElementException("IntHashtableEnumerator");
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * @(#)NaturalOrder.java	1.1 96/07/02
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * The natural ordering: Strings in the order of String.compareTo(),
+ * Characters by their values, and Numbers by their values. Integer and
+ * Long values are compared exactly.
+ *
+ * @see Comparator
+ * @version 	1.1, 02 Jul 1996
+ */
+final
+class NaturalOrder implements Comparator {
+    public int compare(Object a, Object b) {
+	if (a instanceof String) {
+	    return ((String)a).compareTo((String)b);
+	}
+	if (a instanceof Character) {
+	    return ((Character)a).charValue() - ((Character)b).charValue();
+	}
+	if (((a instanceof Integer) || (a instanceof Long)) &&
+	    ((b instanceof Integer) || (b instanceof Long))) {
+	    long x = ((Number)a).longValue();
+	    long y = ((Number)b).longValue();
+	    return (x < y) ? -1 : ((x == y) ? 0 : 1);
+	}
+	double x = ((Number)a).doubleValue();
+	double y = ((Number)b).doubleValue();
+	return (x < y) ? -1 : ((x > y) ? 1 : 0);
+    }
+}
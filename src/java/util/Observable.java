@@ -21,24 +21,134 @@ package java.util;
 
 /*
  * This class is used to hold the set of observers of an observable
- * object whenever there is more than one observer.
+ * object. It is kept in copy-on-write mode, so that observers can be
+ * notified from a snapshot of the list without locking it. Observers
+ * are inserted at the front, so that the most recently added one is
+ * notified first.
  */
 class ObserverList extends Vector {
+    ObserverList() {
+	setCopyOnWrite(true);
+    }
+
+    /**
+     * Returns the entry of an observer, or null if it is not in the
+     * list.
+     */
+    synchronized ObserverEntry find(Observer o) {
+	for (int i = elementCount ; i-- > 0 ;) {
+	    ObserverEntry entry = (ObserverEntry)elementData[i];
+	    if (o.equals(entry.observer)) {
+		return entry;
+	    }
+	}
+	return null;
+    }
+
     /** 
-     * Notifies all the observers in the list.  This goes from
-     * back to front, so that it is OK to remove Observers from
-     * the list as a result of this call. 
+     * Notifies all the observers in the list. The list may be changed
+     * by the observers, or by other threads, while this is going on.
      * @param who the list of observers
      * @param arg what is being notified
+     * @param when the time at which the change was notified
      */
-    public void notifyObservers(Observable who, Object arg) {
-	int i = size();
+    void notifyObservers(Observable who, Object arg, long when) {
+	for (Enumeration e = elements() ; e.hasMoreElements() ;) {
+	    ObserverEntry entry = (ObserverEntry)e.nextElement();
+	    entry.observer.update(who, arg);
+	    entry.record(System.currentTimeMillis() - when);
+	}
+    }
+}
 
-	while (--i >= 0) {
-	    Observer o;
+/*
+ * An observer and the counters of the updates it was sent.
+ */
+final
+class ObserverEntry {
+    Observer observer;
+    volatile long updates;
+    volatile long totalLatency;
+    volatile long maxLatency;
+
+    ObserverEntry(Observer observer) {
+	this.observer = observer;
+    }
 
-	    o = (Observer) elementAt(i);
-	    o.update(who, arg);
+    synchronized void record(long latency) {
+	updates++;
+	totalLatency += latency;
+	if (latency > maxLatency) {
+	    maxLatency = latency;
+	}
+    }
+
+    synchronized void reset() {
+	updates = 0;
+	totalLatency = 0;
+	maxLatency = 0;
+    }
+}
+
+/*
+ * The thread that notifies the observers of asynchronous Observables.
+ * Each Observable is queued at most once at a time. When the queue is
+ * full, notifyObservers() waits until there is room, except in the
+ * dispatcher itself: an observer that notifies another asynchronous
+ * Observable cannot wait for a queue that only it empties, so the
+ * observers of that Observable are then notified at once instead.
+ */
+final
+class ObservableDispatcher extends Thread {
+    private static ObservableDispatcher dispatcher;
+
+    private BlockingDeque queue = new BlockingDeque(256);
+
+    private ObservableDispatcher() {
+	super("Observable dispatcher");
+	setDaemon(true);
+    }
+
+    /**
+     * Returns the dispatcher, starting it the first time.
+     */
+    static synchronized ObservableDispatcher getDispatcher() {
+	if (dispatcher == null) {
+	    dispatcher = new ObservableDispatcher();
+	    dispatcher.start();
+	}
+	return dispatcher;
+    }
+
+    /**
+     * Queues an Observable, waiting for room unless it is called by
+     * the dispatcher.
+     * @return false if the dispatcher found the queue full.
+     */
+    boolean enqueue(Observable o) throws InterruptedException {
+	if (Thread.currentThread() == this) {
+	    return queue.offerLast(o);
+	}
+	queue.putLast(o);
+	return true;
+    }
+
+    public void run() {
+	for (;;) {
+	    Observable o;
+	    try {
+		o = (Observable)queue.takeFirst();
+	    } catch (InterruptedException e) {
+		continue;
+	    }
+	    try {
+		o.dispatchPending();
+	    } catch (ThreadDeath e) {
+		throw e;
+	    } catch (Throwable e) {
+		// an observer failed; carry on with the others
+		e.printStackTrace();
+	    }
 	}
     }
 }
@@ -49,34 +159,51 @@ class ObserverList extends Vector {
  * in the Model-View paradigm.  An Observable object may have any
  * number of Observers.  Whenever the Observable instance changes, it
  * notifies all of its observers.  Notification is done by calling
- * the update() method on all observers.
+ * the update() method on all observers.<p>
+ *
+ * The observers are called without holding the lock of the
+ * Observable, so that a slow observer does not hold up the threads
+ * that change it, add observers or delete them. Each notification
+ * goes to the observers there were when it started.<p>
+ *
+ * An Observable can also be made asynchronous. Its observers are then
+ * called in a separate thread, shared by all asynchronous Observables,
+ * and notifyObservers() returns at once. If it is called again before
+ * the observers have been called, the notifications are merged into
+ * one, with the latest argument.<p>
+ *
+ * For each observer, the Observable counts the updates and the time
+ * in milliseconds from notifyObservers() until the update() of the
+ * observer returned.
  *
  * @version 	1.13, 15 Dec 1995
  * @author	Chris Warth
  */
 public class Observable {
     private boolean changed = false;
-    private Object obs;
+    private ObserverList obs = new ObserverList();
+
+    /**
+     * True if observers are notified in the dispatcher thread.
+     */
+    private boolean async;
+
+    /**
+     * True if the Observable is waiting in the dispatcher queue.
+     * The argument and time of the notification are kept until it
+     * is taken from the queue.
+     */
+    private boolean pending;
+    private Object pendingArg;
+    private long pendingTime;
 
     /**
      * Adds an observer to the observer list.
      * @param o the observer to be added
      */
     public synchronized void addObserver(Observer o) {
-	if (obs != null) {
-	    if (obs instanceof ObserverList) {
-		if (!((ObserverList) obs).contains(o)) {
-		    ((ObserverList) obs).addElement(o);
-		}
-	    } else if (obs != o) {
-		ObserverList tmp = new ObserverList();
-
-		tmp.addElement(obs);
-		tmp.addElement(o);
-		obs = tmp;
-	    }
-	} else {
-	    obs = o;
+	if (obs.find(o) == null) {
+	    obs.insertElementAt(new ObserverEntry(o), 0);
 	}
     }
 
@@ -85,11 +212,10 @@ public class Observable {
      * @param o the observer to be deleted
      */
     public synchronized void deleteObserver(Observer o) {
-	if (obs == o) {
-	    obs = null;
-	} else if (obs != null && obs instanceof ObserverList) {
-	    ((ObserverList) obs).removeElement(o);
-	} 
+	ObserverEntry entry = obs.find(o);
+	if (entry != null) {
+	    obs.removeElement(entry);
+	}
     }
 
     /**
@@ -101,27 +227,87 @@ public class Observable {
 
     /**
      * Notifies all observers of the specified observable change
-     * which occurred.
+     * which occurred. If the Observable is asynchronous, the
+     * observers are notified later in another thread.
      * @param arg what is being notified
+     * @see Observable#setAsynchronous
      */
-    public synchronized void notifyObservers(Object arg) {
-	if (hasChanged()) {
-	    if (obs != null) {
-		if (obs instanceof ObserverList) {
-		    ((ObserverList) obs).notifyObservers(this, arg);
-		} else {
-		    ((Observer) obs).update(this, arg);
-		}
+    public void notifyObservers(Object arg) {
+	long now;
+	boolean queue;
+	synchronized (this) {
+	    if (!hasChanged()) {
+		return;
 	    }
 	    clearChanged();
+	    now = System.currentTimeMillis();
+	    queue = async;
+	    if (queue) {
+		pendingArg = arg;
+		if (pending) {
+		    return;
+		}
+		pending = true;
+		pendingTime = now;
+	    }
+	}
+
+	if (!queue) {
+	    obs.notifyObservers(this, arg, now);
+	    return;
+	}
+	boolean queued;
+	try {
+	    queued = ObservableDispatcher.getDispatcher().enqueue(this);
+	} catch (InterruptedException e) {
+	    queued = false;
+	}
+	if (!queued) {
+	    // don't lose the notification
+	    dispatchPending();
 	}
     }
 
+    /**
+     * Notifies the observers of a pending asynchronous notification.
+     */
+    void dispatchPending() {
+	Object arg;
+	long when;
+	synchronized (this) {
+	    if (!pending) {
+		return;
+	    }
+	    arg = pendingArg;
+	    when = pendingTime;
+	    pending = false;
+	    pendingArg = null;
+	}
+	obs.notifyObservers(this, arg, when);
+    }
+
+    /**
+     * Makes the Observable notify its observers in a separate thread,
+     * or in the thread that calls notifyObservers().
+     * @param on true to notify in a separate thread
+     * @see Observable#notifyObservers
+     */
+    public synchronized void setAsynchronous(boolean on) {
+	async = on;
+    }
+
+    /**
+     * Returns true if the observers are notified in a separate thread.
+     */
+    public synchronized boolean isAsynchronous() {
+	return async;
+    }
+
     /**
      * Deletes observers from the observer list.
      */
     public synchronized void deleteObservers() {
-	obs = null;
+	obs.removeAllElements();
     }
 
     /**
@@ -148,14 +334,48 @@ public class Observable {
     /**
      * Counts the number of observers.
      */
-    public synchronized int countObservers() {
-	if (obs != null) {
-	    if (obs instanceof ObserverList) {
-		return ((ObserverList)obs).size();
-	    } else {
-		return 1;
-	    }
+    public int countObservers() {
+	return obs.size();
+    }
+
+    /**
+     * Returns the number of updates sent to an observer, or 0 if it
+     * is not an observer.
+     * @param o the observer
+     */
+    public long updateCount(Observer o) {
+	ObserverEntry entry = obs.find(o);
+	return (entry != null) ? entry.updates : 0;
+    }
+
+    /**
+     * Returns the total time, in milliseconds, from the notifications
+     * sent to an observer until it had been updated, or 0 if it is not
+     * an observer. Divide it by the updateCount() for the average.
+     * @param o the observer
+     */
+    public long updateLatency(Observer o) {
+	ObserverEntry entry = obs.find(o);
+	return (entry != null) ? entry.totalLatency : 0;
+    }
+
+    /**
+     * Returns the longest time, in milliseconds, from a notification
+     * sent to an observer until it had been updated, or 0 if it is not
+     * an observer.
+     * @param o the observer
+     */
+    public long maxUpdateLatency(Observer o) {
+	ObserverEntry entry = obs.find(o);
+	return (entry != null) ? entry.maxLatency : 0;
+    }
+
+    /**
+     * Sets the update counters of all observers to 0.
+     */
+    public void resetCounters() {
+	for (Enumeration e = obs.elements() ; e.hasMoreElements() ;) {
+	    ((ObserverEntry)e.nextElement()).reset();
 	}
-	return 0;
     }
 }
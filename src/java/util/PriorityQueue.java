@@ -0,0 +1,389 @@
+/*
+ * @(#)PriorityQueue.java	1.1 96/07/02
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * PriorityQueue class. A queue whose elements come out lowest first,
+ * in the order given by a Comparator, or if there is none, in the
+ * natural order of Strings, Characters or Numbers.<p>
+ *
+ * The elements are kept in an array as a binary heap: each element is
+ * no greater than the two elements at twice its position. Adding an
+ * element and removing the lowest take time proportional to the
+ * logarithm of the number of elements, where keeping a Vector sorted
+ * takes time proportional to the number of elements.<p>
+ *
+ * A scheduler keeps its jobs in the order in which they are due:
+ * <pre>
+ *	class ByTime implements Comparator {
+ *	    public int compare(Object a, Object b) {
+ *		long x = ((Job)a).when, y = ((Job)b).when;
+ *		return (x < y) ? -1 : ((x == y) ? 0 : 1);
+ *	    }
+ *	}
+ *
+ *	PriorityQueue jobs = new PriorityQueue(new ByTime());
+ *	jobs.add(job);
+ *	...
+ *	while (!jobs.isEmpty() && (((Job)jobs.peek()).when <= now)) {
+ *	    ((Job)jobs.poll()).run();
+ *	}
+ * </pre>
+ * Elements that compare equal come out in no particular order. Null
+ * elements are not allowed.
+ *
+ * @see Comparator
+ * @see TreeDictionary
+ * @version 	1.1, 02 Jul 1996
+ */
+public
+class PriorityQueue implements Cloneable {
+    /**
+     * The heap. The children of the element at index i are at indices
+     * 2i+1 and 2i+2.
+     */
+    private Object queue[];
+
+    /**
+     * The number of elements in the queue.
+     */
+    private int count;
+
+    /**
+     * The number of times the queue has been changed. Enumerations fail
+     * if it changes while they are in use.
+     */
+    int modCount;
+
+    /**
+     * The ordering of the elements.
+     */
+    private Comparator comparator;
+
+    /**
+     * Constructs an empty queue with the specified initial capacity,
+     * ordered by the specified Comparator.
+     * @param initialCapacity the initial capacity
+     * @param comparator the ordering of the elements
+     * @exception IllegalArgumentException If the capacity is negative.
+     * @exception NullPointerException If the comparator is null.
+     */
+    public PriorityQueue(int initialCapacity, Comparator comparator) {
+	if (initialCapacity < 0) {
+	    throw new IllegalArgumentException();
+	}
+	if (comparator == null) {
+	    throw new NullPointerException();
+	}
+	this.queue = new Object[initialCapacity];
+	this.comparator = comparator;
+    }
+
+    /**
+     * Constructs an empty queue ordered by the specified Comparator.
+     * @param comparator the ordering of the elements
+     * @exception NullPointerException If the comparator is null.
+     */
+    public PriorityQueue(Comparator comparator) {
+	this(11, comparator);
+    }
+
+    /**
+     * Constructs an empty queue for Strings, Characters or Numbers, in
+     * their natural order.
+     */
+    public PriorityQueue() {
+	this(11, new NaturalOrder());
+    }
+
+    /**
+     * Returns the Comparator that orders the elements.
+     */
+    public Comparator comparator() {
+	return comparator;
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     */
+    public int size() {
+	return count;
+    }
+
+    /**
+     * Returns true if the queue contains no elements.
+     */
+    public boolean isEmpty() {
+	return count == 0;
+    }
+
+    /**
+     * Adds an element to the queue.
+     * @param obj the element to be added
+     * @exception NullPointerException If the element is null.
+     * @exception ClassCastException If the element cannot be compared
+     * with the elements in the queue.
+     */
+    public synchronized void add(Object obj) {
+	if (obj == null) {
+	    throw new NullPointerException();
+	}
+	if (count == queue.length) {
+	    Object newQueue[] = new Object[(count < 64) ? count * 2 + 2 : count + (count >> 1)];
+	    System.arraycopy(queue, 0, newQueue, 0, count);
+	    queue = newQueue;
+	}
+	modCount++;
+	if (count == 0) {
+	    // compare the element with itself so that an element of the
+	    // wrong type is rejected even in an empty queue
+	    comparator.compare(obj, obj);
+	}
+	siftUp(count++, obj);
+    }
+
+    /**
+     * Returns the lowest element without removing it, or null if the
+     * queue is empty.
+     */
+    public synchronized Object peek() {
+	return (count > 0) ? queue[0] : null;
+    }
+
+    /**
+     * Removes and returns the lowest element, or returns null if the
+     * queue is empty.
+     */
+    public synchronized Object poll() {
+	if (count == 0) {
+	    return null;
+	}
+	modCount++;
+	Object q[] = queue;
+	Object result = q[0];
+	Object last = q[--count];
+	q[count] = null;
+	if (count > 0) {
+	    siftDown(0, last);
+	}
+	return result;
+    }
+
+    /**
+     * Removes and returns the lowest element.
+     * @exception NoSuchElementException If the queue is empty.
+     */
+    public synchronized Object remove() {
+	Object obj = poll();
+	if (obj == null) {
+	    throw new NoSuchElementException();
+	}
+	return obj;
+    }
+
+    /**
+     * Removes the first element found that is equal to the specified
+     * element. This takes time proportional to the number of elements.
+     * @param obj the element to be removed
+     * @return true if the element was found and removed.
+     */
+    public synchronized boolean removeElement(Object obj) {
+	int i = indexOf(obj);
+	if (i < 0) {
+	    return false;
+	}
+	modCount++;
+	Object q[] = queue;
+	Object last = q[--count];
+	q[count] = null;
+	if (i < count) {
+	    siftDown(i, last);
+	    if (q[i] == last) {
+		siftUp(i, last);
+	    }
+	}
+	return true;
+    }
+
+    /**
+     * Returns true if the specified object is an element of the queue.
+     * @param elem the desired element
+     */
+    public synchronized boolean contains(Object elem) {
+	return indexOf(elem) >= 0;
+    }
+
+    private int indexOf(Object elem) {
+	if (elem != null) {
+	    Object q[] = queue;
+	    for (int i = 0 ; i < count ; i++) {
+		if (elem.equals(q[i])) {
+		    return i;
+		}
+	    }
+	}
+	return -1;
+    }
+
+    /**
+     * Removes all elements of the queue.
+     */
+    public synchronized void clear() {
+	modCount++;
+	Object q[] = queue;
+	for (int i = count ; i-- > 0 ;) {
+	    q[i] = null;
+	}
+	count = 0;
+    }
+
+    /**
+     * Returns an enumeration of the elements. The elements are NOT
+     * enumerated in order. The enumeration fails if the queue is
+     * changed while it is in use.
+     * @see Enumeration
+     */
+    public synchronized Enumeration elements() {
+	return new PriorityQueueEnumerator(this);
+    }
+
+    /**
+     * Copies the elements of the queue into the specified array, in no
+     * particular order. The array must be big enough to hold them.
+     * @param anArray the array where elements get copied into
+     */
+    public synchronized void copyInto(Object anArray[]) {
+	System.arraycopy(queue, 0, anArray, 0, count);
+    }
+
+    /**
+     * Places an element at index k, or above it, moving the elements
+     * above it down until the element is no lower than its parent.
+     */
+    private void siftUp(int k, Object obj) {
+	Object q[] = queue;
+	Comparator cmp = comparator;
+	while (k > 0) {
+	    int parent = (k - 1) >>> 1;
+	    Object p = q[parent];
+	    if (cmp.compare(obj, p) >= 0) {
+		break;
+	    }
+	    q[k] = p;
+	    k = parent;
+	}
+	q[k] = obj;
+    }
+
+    /**
+     * Places an element at index k, or below it, moving the lower child
+     * up until the element is no greater than its children.
+     */
+    private void siftDown(int k, Object obj) {
+	Object q[] = queue;
+	Comparator cmp = comparator;
+	int n = count;
+	int half = n >>> 1;
+	while (k < half) {
+	    int child = 2 * k + 1;
+	    Object c = q[child];
+	    int right = child + 1;
+	    if ((right < n) && (cmp.compare(c, q[right]) > 0)) {
+		c = q[child = right];
+	    }
+	    if (cmp.compare(obj, c) <= 0) {
+		break;
+	    }
+	    q[k] = c;
+	    k = child;
+	}
+	q[k] = obj;
+    }
+
+    /**
+     * Clones the queue. The elements themselves are not cloned.
+     */
+    public synchronized Object clone() {
+	try {
+	    PriorityQueue pq = (PriorityQueue)super.clone();
+	    pq.queue = new Object[queue.length];
+	    System.arraycopy(queue, 0, pq.queue, 0, count);
+	    pq.modCount = 0;
+	    return pq;
+	} catch (CloneNotSupportedException e) {
+	    // this shouldn't happen, since we are Cloneable
+	    throw new InternalError();
+	}
+    }
+
+    /**
+     * Converts the queue to a string, listing the elements in no
+     * particular order.
+     */
+    public synchronized String toString() {
+	StringBuilder buf = new StringBuilder();
+	buf.append("[");
+	for (int i = 0 ; i < count ; i++) {
+	    if (i > 0) {
+		buf.append(", ");
+	    }
+	    buf.append(queue[i].toString());
+	}
+	buf.append("]");
+	return buf.toString();
+    }
+
+    /*
+     * Used by PriorityQueueEnumerator.
+     */
+    synchronized Object elementAt(int index, int expectedModCount) {
+	if (modCount != expectedModCount) {
+	    throw new ConcurrentModificationException("PriorityQueueEnumerator");
+	}
+	if (index >= count) {
+	    throw new NoSuchElementException("PriorityQueueEnumerator");
+	}
+	return queue[index];
+    }
+}
+
+/**
+ * A priority queue enumerator class. This class should remain opaque
+ * to the client. It will use the Enumeration interface.
+ */
+final
+class PriorityQueueEnumerator implements Enumeration {
+    PriorityQueue queue;
+    int index;
+    int expectedModCount;
+
+    PriorityQueueEnumerator(PriorityQueue q) {
+	queue = q;
+	expectedModCount = q.modCount;
+    }
+
+    public boolean hasMoreElements() {
+	return index < queue.size();
+    }
+
+    public Object nextElement() {
+	return queue.elementAt(index++, expectedModCount);
+    }
+}
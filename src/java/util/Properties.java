@@ -20,6 +20,7 @@
 package java.util;
 
 import java.io.IOException;
+import java.io.EOFException;
 import java.io.PrintStream;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -54,14 +55,15 @@ class Properties extends Hashtable {
     }
 
     /**
-     * Loads properties from an InputStream.
+     * Loads properties from an InputStream. The stream is read in
+     * blocks, so it need not be buffered.
      * @param in the input stream
      * @exception IOException Error when reading from input stream.
      */
     public synchronized void load(InputStream in) throws IOException {
-	in = Runtime.getRuntime().getLocalizedInputStream(in);
+	PropertiesReader r = new PropertiesReader(Runtime.getRuntime().getLocalizedInputStream(in));
 
-	int ch = in.read();
+	int ch = r.read();
 	while (true) {
 	    switch (ch) {
 	      case -1:
@@ -69,82 +71,28 @@ class Properties extends Hashtable {
 
 	      case '#':
 	      case '!':
-		do {
-		    ch = in.read();
-		} while ((ch >= 0) && (ch != '\n') && (ch != '\r'));
+		ch = r.skipLine();
 		continue;
 
 	      case '\n':
 	      case '\r':
 	      case ' ':
 	      case '\t':
-		ch = in.read();
+		ch = r.read();
 		continue;
 	    }
 
-	    // Read the key
-	    StringBuffer key = new StringBuffer();
-	    while ((ch >= 0) && (ch != '=') && (ch != ':') && 
-		   (ch != ' ') && (ch != '\t') && (ch != '\n') && (ch != '\r')) {
-		key.append((char)ch);
-		ch = in.read();
-	    }
-	    while ((ch == ' ') && (ch == '\t')) {
-		ch = in.read();
-	    }
+	    // Read the key. Blanks after the key are not skipped; they
+	    // are the start of the value.
+	    ch = r.readKey(ch);
+	    String key = r.take();
 	    if ((ch == '=') || (ch == ':')) {
-		ch = in.read();
-	    }
-	    while ((ch == ' ') && (ch == '\t')) {
-		ch = in.read();
+		ch = r.read();
 	    }
 
 	    // Read the value
-	    StringBuffer val = new StringBuffer();
-	    while ((ch >= 0) && (ch != '\n') && (ch != '\r')) {
-		if (ch == '\\') {
-		    switch (ch = in.read()) {
-		      case '\r':
-			if (((ch = in.read()) == '\n') ||
-			    (ch == ' ') || (ch == '\t')) {
-			  // fall thru to '\n' case
-			} else continue;
-		      case '\n': 
-			while (((ch = in.read()) == ' ') || (ch == '\t'));
-			continue;
-		      case 't': ch = '\t'; break;
-		      case 'n': ch = '\n'; break;
-		      case 'r': ch = '\r'; break;
-		      case 'u': {
-			while ((ch = in.read()) == 'u');
-			int d = 0;
-		      loop:
-			for (int i = 0 ; i < 4 ; i++, ch = in.read()) {
-			    switch (ch) {
-			      case '0': case '1': case '2': case '3': case '4':
-			      case '5': case '6': case '7': case '8': case '9':
-				d = (d << 4) + ch - '0';
-				break;
-			      case 'a': case 'b': case 'c': case 'd': case 'e': case 'f':
-				d = (d << 4) + 10 + ch - 'a';
-				break;
-			      case 'A': case 'B': case 'C': case 'D': case 'E': case 'F':
-				d = (d << 4) + 10 + ch - 'A';
-				break;
-			      default:
-				break loop;
-			    }	
-			}
-			ch = d;
-		      }
-		    }
-		}
-		val.append((char)ch);
-		ch = in.read();
-	    }
-
-	    //System.out.println(key + " = '" + val + "'");
-	    put(key.toString(), val.toString());
+	    ch = r.readValue(ch);
+	    put(key, r.take());
 	}
     }
 
@@ -204,6 +152,81 @@ class Properties extends Hashtable {
 	}
     }
 
+    /**
+     * Saves the properties and all their defaults to an OutputStream
+     * in a compact binary form, which loadSnapshot() reads back much
+     * faster than load() parses text. Each level of the defaults is
+     * saved separately, so the chain of defaults is restored as well.
+     * @param out the output stream
+     * @exception IOException Error when writing to the output stream.
+     * @see Properties#loadSnapshot
+     */
+    public synchronized void saveSnapshot(OutputStream out) throws IOException {
+	int levels = 0;
+	for (Properties p = this ; p != null ; p = p.defaults) {
+	    levels++;
+	}
+	PropertiesSnapshot w = new PropertiesSnapshot(out);
+	w.writeInt(PropertiesSnapshot.MAGIC);
+	w.writeInt(levels);
+	for (Properties p = this ; p != null ; p = p.defaults) {
+	    p.writeLevel(w);
+	}
+	w.flush();
+    }
+
+    private synchronized void writeLevel(PropertiesSnapshot w) throws IOException {
+	w.writeInt(size());
+	for (Enumeration e = keys() ; e.hasMoreElements() ;) {
+	    String key = (String)e.nextElement();
+	    w.writeString(key);
+	    w.writeString((String)get(key));
+	}
+    }
+
+    /**
+     * Loads properties saved by saveSnapshot(). The properties are
+     * added to this list, and the defaults of this list are replaced
+     * by the defaults that were saved, if any.
+     * @param in the input stream
+     * @exception IOException Error when reading from the input stream,
+     * or if the stream does not hold a snapshot.
+     * @see Properties#saveSnapshot
+     */
+    public synchronized void loadSnapshot(InputStream in) throws IOException {
+	PropertiesSnapshot r = new PropertiesSnapshot(in);
+	if (r.readInt() != PropertiesSnapshot.MAGIC) {
+	    throw new IOException("not a properties snapshot");
+	}
+	int levels = r.readInt();
+	if (levels <= 0) {
+	    throw new IOException("bad properties snapshot");
+	}
+	readLevel(r);
+	Properties last = null;
+	for (int i = 1 ; i < levels ; i++) {
+	    Properties p = new Properties();
+	    p.readLevel(r);
+	    if (last == null) {
+		defaults = p;
+	    } else {
+		last.defaults = p;
+	    }
+	    last = p;
+	}
+    }
+
+    private void readLevel(PropertiesSnapshot r) throws IOException {
+	int count = r.readInt();
+	if (count < 0) {
+	    throw new IOException("bad properties snapshot");
+	}
+	for (int i = 0 ; i < count ; i++) {
+	    String key = r.readString();
+	    put(key, r.readString());
+	}
+    }
+
     /**
      * Gets a property with the specified key. If the key is not 
      * found in this property list, tries the defaults. This method 
@@ -266,3 +289,363 @@ class Properties extends Hashtable {
 	}
     }
 }
+
+/**
+ * Reads the text of a property list in blocks. The characters are the
+ * bytes of the stream, as Properties.load() has always read them.
+ * The key or value being read is collected in a char array that is
+ * reused for every key and value.
+ */
+final
+class PropertiesReader {
+    private InputStream in;
+    private byte buf[] = new byte[8192];
+    private int pos;
+    private int limit;
+    private char chars[] = new char[256];
+    private int count;
+
+    PropertiesReader(InputStream in) {
+	this.in = in;
+    }
+
+    /**
+     * Returns the next byte, or -1 at the end of the stream.
+     */
+    int read() throws IOException {
+	if (pos < limit) {
+	    return buf[pos++] & 0xFF;
+	}
+	int n;
+	do {
+	    n = in.read(buf, 0, buf.length);
+	} while (n == 0);
+	if (n < 0) {
+	    pos = limit = 0;
+	    return -1;
+	}
+	pos = 1;
+	limit = n;
+	return buf[0] & 0xFF;
+    }
+
+    private void append(int ch) {
+	if (count == chars.length) {
+	    grow(count + 1);
+	}
+	chars[count++] = (char)ch;
+    }
+
+    private void grow(int minCapacity) {
+	int n = chars.length * 2;
+	char newChars[] = new char[(n < minCapacity) ? minCapacity : n];
+	System.arraycopy(chars, 0, newChars, 0, count);
+	chars = newChars;
+    }
+
+    /**
+     * Returns the characters collected so far as a String and starts
+     * collecting the next one.
+     */
+    String take() {
+	String s = new String(chars, 0, count);
+	count = 0;
+	return s;
+    }
+
+    /**
+     * Skips a comment up to the end of the line.
+     * @return the end of line character, or -1.
+     */
+    int skipLine() throws IOException {
+	int ch;
+	do {
+	    while (pos < limit) {
+		ch = buf[pos] & 0xFF;
+		if ((ch == '\n') || (ch == '\r')) {
+		    pos++;
+		    return ch;
+		}
+		pos++;
+	    }
+	    ch = read();
+	} while ((ch >= 0) && (ch != '\n') && (ch != '\r'));
+	return ch;
+    }
+
+    /**
+     * Collects a key starting with ch.
+     * @return the character that ends the key, or -1.
+     */
+    int readKey(int ch) throws IOException {
+	while ((ch >= 0) && (ch != '=') && (ch != ':') &&
+	       (ch != ' ') && (ch != '\t') && (ch != '\n') && (ch != '\r')) {
+	    append(ch);
+	    // copy the ordinary characters that follow straight from the buffer
+	    int p = pos;
+	    if (count + (limit - p) > chars.length) {
+		grow(count + (limit - p));
+	    }
+	    for (; p < limit ; p++) {
+		int c = buf[p] & 0xFF;
+		if ((c == '=') || (c == ':') || (c == ' ') || (c == '\t') ||
+		    (c == '\n') || (c == '\r')) {
+		    break;
+		}
+		chars[count++] = (char)c;
+	    }
+	    pos = p;
+	    ch = read();
+	}
+	return ch;
+    }
+
+    /**
+     * Collects a value starting with ch, replacing escapes.
+     * @return the character that ends the value, or -1.
+     */
+    int readValue(int ch) throws IOException {
+	while ((ch >= 0) && (ch != '\n') && (ch != '\r')) {
+	    if (ch == '\\') {
+		switch (ch = read()) {
+		  case '\r':
+		    if (((ch = read()) == '\n') ||
+			(ch == ' ') || (ch == '\t')) {
+		      // fall thru to '\n' case
+		    } else continue;
+		  case '\n':
+		    while (((ch = read()) == ' ') || (ch == '\t'));
+		    continue;
+		  case 't': ch = '\t'; break;
+		  case 'n': ch = '\n'; break;
+		  case 'r': ch = '\r'; break;
+		  case 'u': {
+		    while ((ch = read()) == 'u');
+		    int d = 0;
+		  loop:
+		    for (int i = 0 ; i < 4 ; i++, ch = read()) {
+			switch (ch) {
+			  case '0': case '1': case '2': case '3': case '4':
+			  case '5': case '6': case '7': case '8': case '9':
+			    d = (d << 4) + ch - '0';
+			    break;
+			  case 'a': case 'b': case 'c': case 'd': case 'e': case 'f':
+			    d = (d << 4) + 10 + ch - 'a';
+			    break;
+			  case 'A': case 'B': case 'C': case 'D': case 'E': case 'F':
+			    d = (d << 4) + 10 + ch - 'A';
+			    break;
+			  default:
+			    break loop;
+			}
+		    }
+		    ch = d;
+		  }
+		}
+		append(ch);
+		ch = read();
+		continue;
+	    }
+	    append(ch);
+	    // copy the ordinary characters that follow straight from the buffer
+	    int p = pos;
+	    if (count + (limit - p) > chars.length) {
+		grow(count + (limit - p));
+	    }
+	    for (; p < limit ; p++) {
+		int c = buf[p] & 0xFF;
+		if ((c == '\\') || (c == '\n') || (c == '\r')) {
+		    break;
+		}
+		chars[count++] = (char)c;
+	    }
+	    pos = p;
+	    ch = read();
+	}
+	return ch;
+    }
+}
+
+/**
+ * Writes and reads the binary form of a property list. A snapshot is
+ * the magic number, the number of levels (the list itself and each of
+ * its defaults), and for each level the number of properties followed
+ * by their keys and values. Numbers are 4 bytes, high byte first. A
+ * string is its length in characters, in 7-bit groups with the high
+ * bit set on all but the last, followed by its characters encoded in
+ * 1 to 3 bytes as in UTF-8.
+ */
+final
+class PropertiesSnapshot {
+    static final int MAGIC = 0x50524f50;
+
+    private InputStream in;
+    private OutputStream out;
+    private byte buf[] = new byte[8192];
+    private int pos;
+    private int limit;
+    private char chars[] = new char[256];
+
+    PropertiesSnapshot(OutputStream out) {
+	this.out = out;
+    }
+
+    PropertiesSnapshot(InputStream in) {
+	this.in = in;
+    }
+
+    private void reserve(int n) throws IOException {
+	if (pos + n > buf.length) {
+	    flushBuffer();
+	    if (n > buf.length) {
+		buf = new byte[n];
+	    }
+	}
+    }
+
+    private void flushBuffer() throws IOException {
+	out.write(buf, 0, pos);
+	pos = 0;
+    }
+
+    void flush() throws IOException {
+	flushBuffer();
+	out.flush();
+    }
+
+    void writeInt(int v) throws IOException {
+	reserve(4);
+	byte b[] = buf;
+	b[pos++] = (byte)(v >>> 24);
+	b[pos++] = (byte)(v >>> 16);
+	b[pos++] = (byte)(v >>> 8);
+	b[pos++] = (byte)v;
+    }
+
+    void writeString(String s) throws IOException {
+	int len = s.length();
+	if (chars.length < len) {
+	    chars = new char[len];
+	}
+	char c[] = chars;
+	s.getChars(0, len, c, 0);
+	reserve(5 + len * 3);
+	byte b[] = buf;
+	int p = pos;
+	int n = len;
+	while (n >= 0x80) {
+	    b[p++] = (byte)(n | 0x80);
+	    n >>>= 7;
+	}
+	b[p++] = (byte)n;
+	for (int i = 0 ; i < len ; i++) {
+	    int ch = c[i];
+	    if (ch < 0x80) {
+		b[p++] = (byte)ch;
+	    } else if (ch < 0x800) {
+		b[p++] = (byte)(0xC0 | (ch >> 6));
+		b[p++] = (byte)(0x80 | (ch & 0x3F));
+	    } else {
+		b[p++] = (byte)(0xE0 | (ch >> 12));
+		b[p++] = (byte)(0x80 | ((ch >> 6) & 0x3F));
+		b[p++] = (byte)(0x80 | (ch & 0x3F));
+	    }
+	}
+	pos = p;
+    }
+
+    /**
+     * Makes sure that at least n bytes are in the buffer.
+     */
+    private void fill(int n) throws IOException {
+	if (limit - pos >= n) {
+	    return;
+	}
+	if (n > buf.length) {
+	    byte newBuf[] = new byte[n];
+	    System.arraycopy(buf, pos, newBuf, 0, limit - pos);
+	    buf = newBuf;
+	} else {
+	    System.arraycopy(buf, pos, buf, 0, limit - pos);
+	}
+	limit -= pos;
+	pos = 0;
+	while (limit < n) {
+	    int count = in.read(buf, limit, buf.length - limit);
+	    if (count < 0) {
+		throw new EOFException();
+	    }
+	    limit += count;
+	}
+    }
+
+    int readInt() throws IOException {
+	fill(4);
+	byte b[] = buf;
+	int p = pos;
+	pos = p + 4;
+	return ((b[p] & 0xFF) << 24) | ((b[p + 1] & 0xFF) << 16) |
+	    ((b[p + 2] & 0xFF) << 8) | (b[p + 3] & 0xFF);
+    }
+
+    String readString() throws IOException {
+	int len = 0;
+	for (int shift = 0 ; ; shift += 7) {
+	    fill(1);
+	    int b = buf[pos++];
+	    len |= (b & 0x7F) << shift;
+	    if (b >= 0) {
+		break;
+	    }
+	    if (shift >= 28) {
+		throw new IOException("bad properties snapshot");
+	    }
+	}
+	if (len < 0) {
+	    throw new IOException("bad properties snapshot");
+	}
+	if (chars.length < len) {
+	    chars = new char[len];
+	}
+	char c[] = chars;
+	int i = 0;
+	while (i < len) {
+	    // Decode the characters whose bytes are surely in the buffer;
+	    // a character takes at most 3 bytes.
+	    byte b[] = buf;
+	    int p = pos;
+	    int end = limit - 2;
+	    for (; (i < len) && (p < end) ; i++) {
+		int ch = b[p++];
+		if (ch >= 0) {
+		    c[i] = (char)ch;
+		} else if ((ch & 0xE0) == 0xC0) {
+		    c[i] = (char)(((ch & 0x1F) << 6) | (b[p++] & 0x3F));
+		} else {
+		    c[i] = (char)(((ch & 0x0F) << 12) | ((b[p] & 0x3F) << 6) | (b[p + 1] & 0x3F));
+		    p += 2;
+		}
+	    }
+	    pos = p;
+	    if (i < len) {
+		// The next character may continue in the next block.
+		fill(1);
+		int ch = buf[pos];
+		fill((ch >= 0) ? 1 : (((ch & 0xE0) == 0xC0) ? 2 : 3));
+		b = buf;
+		p = pos;
+		ch = b[p++];
+		if (ch >= 0) {
+		    c[i++] = (char)ch;
+		} else if ((ch & 0xE0) == 0xC0) {
+		    c[i++] = (char)(((ch & 0x1F) << 6) | (b[p++] & 0x3F));
+		} else {
+		    c[i++] = (char)(((ch & 0x0F) << 12) | ((b[p] & 0x3F) << 6) | (b[p + 1] & 0x3F));
+		    p += 2;
+		}
+		pos = p;
+	    }
+	}
+	return new String(c, 0, len);
+    }
+}
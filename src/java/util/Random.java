@@ -50,7 +50,12 @@ package java.util;
  *    nextGaussian()
  * </pre>
  *
+ * A Random can be shared by several threads, which take turns using it.
+ * Threads that each need many numbers should use a SplittableRandom
+ * of their own instead.
+ *
  * @see Math#random
+ * @see SplittableRandom
  * @version 	1.1, 27 Jul 1995
  * @author	Frank Yellin
 
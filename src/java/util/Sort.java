@@ -0,0 +1,964 @@
+/*
+ * @(#)Sort.java	1.1 96/07/23
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * The Sort class sorts arrays and Vectors. Arrays of ints, longs and
+ * doubles are sorted with the dual-pivot quick sort of Yaroslavskiy,
+ * which makes fewer swaps than the classic quick sort. Arrays of
+ * objects are sorted with a merge sort, which is stable: elements
+ * that compare equal keep their order. The merge sort takes time
+ * proportional to the number of elements when they are already
+ * sorted.<p>
+ *
+ * The parallelSort() methods split large arrays into halves, and the
+ * halves into halves, down to pieces of at least 8192 elements. The
+ * workers of a ForkJoinPool sort the pieces and merge them back
+ * together. This only makes sorting faster when the virtual machine
+ * runs threads on several processors at once. Arrays with fewer than
+ * 16384 elements are sorted in the calling thread.<p>
+ *
+ * This example sorts names ignoring case:
+ * <pre>
+ *	String names[] = ...;
+ *	Sort.sort(names, new IgnoreCase());
+ * </pre>
+ *
+ * @see Comparator
+ * @see ForkJoinPool
+ * @see Vector#sort
+ * @version 	1.1, 23 Jul 1996
+ */
+public final
+class Sort {
+    /**
+     * Ranges shorter than this are sorted by insertion.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /**
+     * Object ranges shorter than this are sorted by insertion.
+     */
+    private static final int MERGE_SORT_THRESHOLD = 7;
+
+    /**
+     * The smallest piece a parallel sort gives to a thread.
+     */
+    static final int PARALLEL_GRAIN = 8192;
+
+    /**
+     * The number of threads a parallel sort uses.
+     */
+    private static int parallelism = ForkJoinPool.getDefaultParallelism();
+
+    /**
+     * The pool of the parallel sorts, created when it is first needed.
+     */
+    private static ForkJoinPool pool;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private Sort() {
+    }
+
+    /**
+     * Sets the number of threads a parallel sort uses. The default is
+     * that of ForkJoinPool.getDefaultParallelism(). Sorts that are
+     * already running finish with the old number of threads.
+     * @param n the number of threads
+     * @exception IllegalArgumentException If n is less than 1.
+     * @see ForkJoinPool#getDefaultParallelism
+     */
+    public static synchronized void setParallelism(int n) {
+	if (n < 1) {
+	    throw new IllegalArgumentException();
+	}
+	if (n != parallelism) {
+	    parallelism = n;
+	    if (pool != null) {
+		pool.shutdown();
+		pool = null;
+	    }
+	}
+    }
+
+    /**
+     * Returns the number of threads a parallel sort uses.
+     */
+    public static synchronized int getParallelism() {
+	return parallelism;
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+	if (pool == null) {
+	    pool = new ForkJoinPool(parallelism);
+	}
+	return pool;
+    }
+
+    private static void checkRange(int length, int from, int to) {
+	if (from > to) {
+	    throw new IllegalArgumentException(from + " > " + to);
+	}
+	if (from < 0) {
+	    throw new ArrayIndexOutOfBoundsException(from);
+	}
+	if (to > length) {
+	    throw new ArrayIndexOutOfBoundsException(to);
+	}
+    }
+
+    /**
+     * Sorts an array of ints in ascending order.
+     * @param a the array
+     */
+    public static void sort(int a[]) {
+	quickSort(a, 0, a.length - 1);
+    }
+
+    /**
+     * Sorts the elements from index from, inclusive, to index to,
+     * exclusive, of an array of ints in ascending order.
+     * @param a the array
+     * @param from the index of the first element
+     * @param to the index after the last element
+     * @exception ArrayIndexOutOfBoundsException If the range is not
+     * inside the array.
+     * @exception IllegalArgumentException If from is greater than to.
+     */
+    public static void sort(int a[], int from, int to) {
+	checkRange(a.length, from, to);
+	quickSort(a, from, to - 1);
+    }
+
+    /**
+     * Sorts an array of longs in ascending order.
+     * @param a the array
+     */
+    public static void sort(long a[]) {
+	quickSort(a, 0, a.length - 1);
+    }
+
+    /**
+     * Sorts the elements from index from, inclusive, to index to,
+     * exclusive, of an array of longs in ascending order.
+     * @param a the array
+     * @param from the index of the first element
+     * @param to the index after the last element
+     * @exception ArrayIndexOutOfBoundsException If the range is not
+     * inside the array.
+     * @exception IllegalArgumentException If from is greater than to.
+     */
+    public static void sort(long a[], int from, int to) {
+	checkRange(a.length, from, to);
+	quickSort(a, from, to - 1);
+    }
+
+    /**
+     * Sorts an array of doubles in ascending order. -0.0 is placed
+     * before 0.0, and NaN values after all other values.
+     * @param a the array
+     */
+    public static void sort(double a[]) {
+	sort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts the elements from index from, inclusive, to index to,
+     * exclusive, of an array of doubles in ascending order. -0.0 is
+     * placed before 0.0, and NaN values after all other values.
+     * @param a the array
+     * @param from the index of the first element
+     * @param to the index after the last element
+     * @exception ArrayIndexOutOfBoundsException If the range is not
+     * inside the array.
+     * @exception IllegalArgumentException If from is greater than to.
+     */
+    public static void sort(double a[], int from, int to) {
+	checkRange(a.length, from, to);
+	int end = moveNaNs(a, from, to);
+	quickSort(a, from, end - 1);
+	orderZeros(a, from, end);
+    }
+
+    /**
+     * Sorts an array of Strings, Characters or Numbers in their natural
+     * order. The sort is stable.
+     * @param a the array
+     * @exception ClassCastException If the elements cannot be compared.
+     */
+    public static void sort(Object a[]) {
+	sort(a, 0, a.length, new NaturalOrder());
+    }
+
+    /**
+     * Sorts an array of objects in the order given by a Comparator.
+     * The sort is stable.
+     * @param a the array
+     * @param c the ordering of the elements
+     */
+    public static void sort(Object a[], Comparator c) {
+	sort(a, 0, a.length, c);
+    }
+
+    /**
+     * Sorts the elements from index from, inclusive, to index to,
+     * exclusive, of an array of objects in the order given by a
+     * Comparator. The sort is stable.
+     * @param a the array
+     * @param from the index of the first element
+     * @param to the index after the last element
+     * @param c the ordering of the elements
+     * @exception ArrayIndexOutOfBoundsException If the range is not
+     * inside the array.
+     * @exception IllegalArgumentException If from is greater than to.
+     */
+    public static void sort(Object a[], int from, int to, Comparator c) {
+	checkRange(a.length, from, to);
+	if (to - from < MERGE_SORT_THRESHOLD) {
+	    insertionSort(a, from, to, c);
+	    return;
+	}
+	Object aux[] = new Object[to - from];
+	System.arraycopy(a, from, aux, 0, to - from);
+	mergeSort(aux, a, from, to, -from, c);
+    }
+
+    /**
+     * Sorts an array of ints in ascending order, using several threads
+     * if it is large.
+     * @param a the array
+     */
+    public static void parallelSort(int a[]) {
+	parallelSort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts a range of an array of ints in ascending order, using
+     * several threads if it is large.
+     * @param a the array
+     * @param from the index of the first element
+     * @param to the index after the last element
+     * @exception ArrayIndexOutOfBoundsException If the range is not
+     * inside the array.
+     * @exception IllegalArgumentException If from is greater than to.
+     */
+    public static void parallelSort(int a[], int from, int to) {
+	checkRange(a.length, from, to);
+	parallel(SortTask.INT, a, from, to, null);
+    }
+
+    /**
+     * Sorts an array of longs in ascending order, using several threads
+     * if it is large.
+     * @param a the array
+     */
+    public static void parallelSort(long a[]) {
+	parallelSort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts a range of an array of longs in ascending order, using
+     * several threads if it is large.
+     * @param a the array
+     * @param from the index of the first element
+     * @param to the index after the last element
+     * @exception ArrayIndexOutOfBoundsException If the range is not
+     * inside the array.
+     * @exception IllegalArgumentException If from is greater than to.
+     */
+    public static void parallelSort(long a[], int from, int to) {
+	checkRange(a.length, from, to);
+	parallel(SortTask.LONG, a, from, to, null);
+    }
+
+    /**
+     * Sorts an array of doubles in ascending order, using several
+     * threads if it is large. -0.0 is placed before 0.0, and NaN values
+     * after all other values.
+     * @param a the array
+     */
+    public static void parallelSort(double a[]) {
+	parallelSort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts a range of an array of doubles in ascending order, using
+     * several threads if it is large. -0.0 is placed before 0.0, and
+     * NaN values after all other values.
+     * @param a the array
+     * @param from the index of the first element
+     * @param to the index after the last element
+     * @exception ArrayIndexOutOfBoundsException If the range is not
+     * inside the array.
+     * @exception IllegalArgumentException If from is greater than to.
+     */
+    public static void parallelSort(double a[], int from, int to) {
+	checkRange(a.length, from, to);
+	int end = moveNaNs(a, from, to);
+	parallel(SortTask.DOUBLE, a, from, end, null);
+	orderZeros(a, from, end);
+    }
+
+    /**
+     * Sorts an array of objects in the order given by a Comparator,
+     * using several threads if it is large. The sort is stable. The
+     * Comparator is called by several threads at once.
+     * @param a the array
+     * @param c the ordering of the elements
+     */
+    public static void parallelSort(Object a[], Comparator c) {
+	parallelSort(a, 0, a.length, c);
+    }
+
+    /**
+     * Sorts a range of an array of objects in the order given by a
+     * Comparator, using several threads if it is large. The sort is
+     * stable. The Comparator is called by several threads at once.
+     * @param a the array
+     * @param from the index of the first element
+     * @param to the index after the last element
+     * @param c the ordering of the elements
+     * @exception ArrayIndexOutOfBoundsException If the range is not
+     * inside the array.
+     * @exception IllegalArgumentException If from is greater than to.
+     */
+    public static void parallelSort(Object a[], int from, int to, Comparator c) {
+	checkRange(a.length, from, to);
+	parallel(SortTask.OBJECT, a, from, to, c);
+    }
+
+    /**
+     * Sorts a range of an array of the specified type in the calling
+     * thread. Doubles must not include NaN.
+     */
+    static void sortRange(int type, Object a, int from, int to, Comparator c) {
+	switch (type) {
+	  case SortTask.INT:
+	    quickSort((int[])a, from, to - 1);
+	    break;
+	  case SortTask.LONG:
+	    quickSort((long[])a, from, to - 1);
+	    break;
+	  case SortTask.DOUBLE:
+	    quickSort((double[])a, from, to - 1);
+	    break;
+	  default:
+	    sort((Object[])a, from, to, c);
+	    break;
+	}
+    }
+
+    /**
+     * Merges two sorted ranges of an array of the specified type.
+     */
+    static void mergeRange(int type, Object src, int srcOff, Object dst, int dstOff,
+			   int lo, int mid, int hi, Comparator c) {
+	switch (type) {
+	  case SortTask.INT:
+	    merge((int[])src, srcOff, (int[])dst, dstOff, lo, mid, hi);
+	    break;
+	  case SortTask.LONG:
+	    merge((long[])src, srcOff, (long[])dst, dstOff, lo, mid, hi);
+	    break;
+	  case SortTask.DOUBLE:
+	    merge((double[])src, srcOff, (double[])dst, dstOff, lo, mid, hi);
+	    break;
+	  default:
+	    merge((Object[])src, srcOff, (Object[])dst, dstOff, lo, mid, hi, c);
+	    break;
+	}
+    }
+
+    /**
+     * Sorts a range with the workers of the pool. The range is split
+     * into about four pieces per thread, so that a thread that
+     * finishes early can take work from the others.
+     */
+    private static void parallel(int type, Object a, int from, int to, Comparator c) {
+	int n = to - from;
+	Object buf = null;
+	for (;;) {
+	    ForkJoinPool p = getPool();
+	    int threads = p.getParallelism();
+	    if ((threads < 2) || (n < 2 * PARALLEL_GRAIN)) {
+		sortRange(type, a, from, to, c);
+		return;
+	    }
+
+	    if (buf == null) {
+		switch (type) {
+		  case SortTask.INT:	buf = new int[n]; break;
+		  case SortTask.LONG:	buf = new long[n]; break;
+		  case SortTask.DOUBLE:	buf = new double[n]; break;
+		  default:		buf = new Object[n]; break;
+		}
+	    }
+	    int grain = Math.max(PARALLEL_GRAIN, n / (4 * threads));
+	    SortTask task = new SortTask(type, a, buf, from, from, to, grain, false, c);
+	    // setParallelism() may have shut the pool down since getPool();
+	    // then try again with the new one
+	    if (p.tryExecute(task)) {
+		task.join();
+		return;
+	    }
+	}
+    }
+
+    /**
+     * Moves the NaN values of a range to its end.
+     * @return the index after the last value that is not NaN.
+     */
+    private static int moveNaNs(double a[], int from, int to) {
+	int end = to;
+	for (int k = to ; k-- > from ;) {
+	    double ak = a[k];
+	    if (ak != ak) {
+		a[k] = a[--end];
+		a[end] = ak;
+	    }
+	}
+	return end;
+    }
+
+    /**
+     * Places -0.0 before 0.0 in a sorted range; the sort itself
+     * treats them as equal.
+     */
+    private static void orderZeros(double a[], int from, int to) {
+	int lo = from;
+	int hi = to;
+	while (lo < hi) {
+	    int mid = (lo + hi) >>> 1;
+	    if (a[mid] < 0.0) {
+		lo = mid + 1;
+	    } else {
+		hi = mid;
+	    }
+	}
+	int negative = 0;
+	int end = lo;
+	for (; (end < to) && (a[end] == 0.0) ; end++) {
+	    if (Double.doubleToLongBits(a[end]) < 0) {
+		negative++;
+	    }
+	}
+	for (int k = lo ; k < end ; k++) {
+	    a[k] = (k < lo + negative) ? -0.0 : 0.0;
+	}
+    }
+
+    /**
+     * Sorts a range of an array with the dual-pivot quick sort. The
+     * range is from left to right, both inclusive.
+     */
+    private static void quickSort(int a[], int left, int right) {
+	while (right - left >= INSERTION_SORT_THRESHOLD) {
+	    // Sort five evenly spaced elements and take the second and
+	    // fourth as the pivots.
+	    int sixth = (right - left + 1) / 6;
+	    int e1 = left + sixth;
+	    int e2 = e1 + sixth;
+	    int e3 = e2 + sixth;
+	    int e4 = e3 + sixth;
+	    int e5 = e4 + sixth;
+	    sort5(a, e1, e2, e3, e4, e5);
+
+	    if (a[e2] == a[e4]) {
+		// Many equal elements: partition into less than, equal to
+		// and greater than the middle element.
+		int p = a[e3];
+		int lt = left;
+		int gt = right;
+		for (int k = left ; k <= gt ;) {
+		    int ak = a[k];
+		    if (ak < p) {
+			a[k++] = a[lt];
+			a[lt++] = ak;
+		    } else if (ak > p) {
+			a[k] = a[gt];
+			a[gt--] = ak;
+		    } else {
+			k++;
+		    }
+		}
+		quickSort(a, left, lt - 1);
+		left = gt + 1;
+		continue;
+	    }
+
+	    // Move the pivots to the ends, then partition into elements
+	    // less than pivot1, between the pivots and greater than pivot2.
+	    int t = a[e2]; a[e2] = a[left]; a[left] = t;
+	    t = a[e4]; a[e4] = a[right]; a[right] = t;
+	    int pivot1 = a[left];
+	    int pivot2 = a[right];
+	    int less = left + 1;
+	    int great = right - 1;
+	    for (int k = less ; k <= great ; k++) {
+		int ak = a[k];
+		if (ak < pivot1) {
+		    a[k] = a[less];
+		    a[less++] = ak;
+		} else if (ak > pivot2) {
+		    while ((k < great) && (a[great] > pivot2)) {
+			great--;
+		    }
+		    a[k] = a[great];
+		    a[great--] = ak;
+		    ak = a[k];
+		    if (ak < pivot1) {
+			a[k] = a[less];
+			a[less++] = ak;
+		    }
+		}
+	    }
+	    less--;
+	    great++;
+	    a[left] = a[less];
+	    a[less] = pivot1;
+	    a[right] = a[great];
+	    a[great] = pivot2;
+
+	    quickSort(a, left, less - 1);
+	    quickSort(a, less + 1, great - 1);
+	    left = great + 1;
+	}
+	insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(int a[], int left, int right) {
+	for (int i = left + 1 ; i <= right ; i++) {
+	    int ai = a[i];
+	    int j = i - 1;
+	    for (; (j >= left) && (a[j] > ai) ; j--) {
+		a[j + 1] = a[j];
+	    }
+	    a[j + 1] = ai;
+	}
+    }
+
+    /**
+     * Sorts five elements with a sorting network.
+     */
+    private static void sort5(int a[], int e1, int e2, int e3, int e4, int e5) {
+	int t;
+	if (a[e1] > a[e2]) { t = a[e1]; a[e1] = a[e2]; a[e2] = t; }
+	if (a[e4] > a[e5]) { t = a[e4]; a[e4] = a[e5]; a[e5] = t; }
+	if (a[e3] > a[e5]) { t = a[e3]; a[e3] = a[e5]; a[e5] = t; }
+	if (a[e3] > a[e4]) { t = a[e3]; a[e3] = a[e4]; a[e4] = t; }
+	if (a[e1] > a[e4]) { t = a[e1]; a[e1] = a[e4]; a[e4] = t; }
+	if (a[e1] > a[e3]) { t = a[e1]; a[e1] = a[e3]; a[e3] = t; }
+	if (a[e2] > a[e5]) { t = a[e2]; a[e2] = a[e5]; a[e5] = t; }
+	if (a[e2] > a[e4]) { t = a[e2]; a[e2] = a[e4]; a[e4] = t; }
+	if (a[e2] > a[e3]) { t = a[e2]; a[e2] = a[e3]; a[e3] = t; }
+    }
+
+    /**
+     * Merges the sorted ranges lo..mid-1 and mid..hi-1 of src into dst.
+     * An index i of the ranges is at i - srcOff in src and at i - dstOff
+     * in dst.
+     */
+    static void merge(int src[], int srcOff, int dst[], int dstOff, int lo, int mid, int hi) {
+	int p = lo - srcOff;
+	int pEnd = mid - srcOff;
+	int q = pEnd;
+	int qEnd = hi - srcOff;
+	int d = lo - dstOff;
+	while ((p < pEnd) && (q < qEnd)) {
+	    dst[d++] = (src[q] < src[p]) ? src[q++] : src[p++];
+	}
+	System.arraycopy(src, p, dst, d, pEnd - p);
+	System.arraycopy(src, q, dst, d + pEnd - p, qEnd - q);
+    }
+
+    /**
+     * Sorts a range of an array with the dual-pivot quick sort. The
+     * range is from left to right, both inclusive.
+     */
+    private static void quickSort(long a[], int left, int right) {
+	while (right - left >= INSERTION_SORT_THRESHOLD) {
+	    // Sort five evenly spaced elements and take the second and
+	    // fourth as the pivots.
+	    int sixth = (right - left + 1) / 6;
+	    int e1 = left + sixth;
+	    int e2 = e1 + sixth;
+	    int e3 = e2 + sixth;
+	    int e4 = e3 + sixth;
+	    int e5 = e4 + sixth;
+	    sort5(a, e1, e2, e3, e4, e5);
+
+	    if (a[e2] == a[e4]) {
+		// Many equal elements: partition into less than, equal to
+		// and greater than the middle element.
+		long p = a[e3];
+		int lt = left;
+		int gt = right;
+		for (int k = left ; k <= gt ;) {
+		    long ak = a[k];
+		    if (ak < p) {
+			a[k++] = a[lt];
+			a[lt++] = ak;
+		    } else if (ak > p) {
+			a[k] = a[gt];
+			a[gt--] = ak;
+		    } else {
+			k++;
+		    }
+		}
+		quickSort(a, left, lt - 1);
+		left = gt + 1;
+		continue;
+	    }
+
+	    // Move the pivots to the ends, then partition into elements
+	    // less than pivot1, between the pivots and greater than pivot2.
+	    long t = a[e2]; a[e2] = a[left]; a[left] = t;
+	    t = a[e4]; a[e4] = a[right]; a[right] = t;
+	    long pivot1 = a[left];
+	    long pivot2 = a[right];
+	    int less = left + 1;
+	    int great = right - 1;
+	    for (int k = less ; k <= great ; k++) {
+		long ak = a[k];
+		if (ak < pivot1) {
+		    a[k] = a[less];
+		    a[less++] = ak;
+		} else if (ak > pivot2) {
+		    while ((k < great) && (a[great] > pivot2)) {
+			great--;
+		    }
+		    a[k] = a[great];
+		    a[great--] = ak;
+		    ak = a[k];
+		    if (ak < pivot1) {
+			a[k] = a[less];
+			a[less++] = ak;
+		    }
+		}
+	    }
+	    less--;
+	    great++;
+	    a[left] = a[less];
+	    a[less] = pivot1;
+	    a[right] = a[great];
+	    a[great] = pivot2;
+
+	    quickSort(a, left, less - 1);
+	    quickSort(a, less + 1, great - 1);
+	    left = great + 1;
+	}
+	insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(long a[], int left, int right) {
+	for (int i = left + 1 ; i <= right ; i++) {
+	    long ai = a[i];
+	    int j = i - 1;
+	    for (; (j >= left) && (a[j] > ai) ; j--) {
+		a[j + 1] = a[j];
+	    }
+	    a[j + 1] = ai;
+	}
+    }
+
+    /**
+     * Sorts five elements with a sorting network.
+     */
+    private static void sort5(long a[], int e1, int e2, int e3, int e4, int e5) {
+	long t;
+	if (a[e1] > a[e2]) { t = a[e1]; a[e1] = a[e2]; a[e2] = t; }
+	if (a[e4] > a[e5]) { t = a[e4]; a[e4] = a[e5]; a[e5] = t; }
+	if (a[e3] > a[e5]) { t = a[e3]; a[e3] = a[e5]; a[e5] = t; }
+	if (a[e3] > a[e4]) { t = a[e3]; a[e3] = a[e4]; a[e4] = t; }
+	if (a[e1] > a[e4]) { t = a[e1]; a[e1] = a[e4]; a[e4] = t; }
+	if (a[e1] > a[e3]) { t = a[e1]; a[e1] = a[e3]; a[e3] = t; }
+	if (a[e2] > a[e5]) { t = a[e2]; a[e2] = a[e5]; a[e5] = t; }
+	if (a[e2] > a[e4]) { t = a[e2]; a[e2] = a[e4]; a[e4] = t; }
+	if (a[e2] > a[e3]) { t = a[e2]; a[e2] = a[e3]; a[e3] = t; }
+    }
+
+    /**
+     * Merges the sorted ranges lo..mid-1 and mid..hi-1 of src into dst.
+     * An index i of the ranges is at i - srcOff in src and at i - dstOff
+     * in dst.
+     */
+    static void merge(long src[], int srcOff, long dst[], int dstOff, int lo, int mid, int hi) {
+	int p = lo - srcOff;
+	int pEnd = mid - srcOff;
+	int q = pEnd;
+	int qEnd = hi - srcOff;
+	int d = lo - dstOff;
+	while ((p < pEnd) && (q < qEnd)) {
+	    dst[d++] = (src[q] < src[p]) ? src[q++] : src[p++];
+	}
+	System.arraycopy(src, p, dst, d, pEnd - p);
+	System.arraycopy(src, q, dst, d + pEnd - p, qEnd - q);
+    }
+
+    /**
+     * Sorts a range of an array with the dual-pivot quick sort. The
+     * range is from left to right, both inclusive.
+     */
+    private static void quickSort(double a[], int left, int right) {
+	while (right - left >= INSERTION_SORT_THRESHOLD) {
+	    // Sort five evenly spaced elements and take the second and
+	    // fourth as the pivots.
+	    int sixth = (right - left + 1) / 6;
+	    int e1 = left + sixth;
+	    int e2 = e1 + sixth;
+	    int e3 = e2 + sixth;
+	    int e4 = e3 + sixth;
+	    int e5 = e4 + sixth;
+	    sort5(a, e1, e2, e3, e4, e5);
+
+	    if (a[e2] == a[e4]) {
+		// Many equal elements: partition into less than, equal to
+		// and greater than the middle element.
+		double p = a[e3];
+		int lt = left;
+		int gt = right;
+		for (int k = left ; k <= gt ;) {
+		    double ak = a[k];
+		    if (ak < p) {
+			a[k++] = a[lt];
+			a[lt++] = ak;
+		    } else if (ak > p) {
+			a[k] = a[gt];
+			a[gt--] = ak;
+		    } else {
+			k++;
+		    }
+		}
+		quickSort(a, left, lt - 1);
+		left = gt + 1;
+		continue;
+	    }
+
+	    // Move the pivots to the ends, then partition into elements
+	    // less than pivot1, between the pivots and greater than pivot2.
+	    double t = a[e2]; a[e2] = a[left]; a[left] = t;
+	    t = a[e4]; a[e4] = a[right]; a[right] = t;
+	    double pivot1 = a[left];
+	    double pivot2 = a[right];
+	    int less = left + 1;
+	    int great = right - 1;
+	    for (int k = less ; k <= great ; k++) {
+		double ak = a[k];
+		if (ak < pivot1) {
+		    a[k] = a[less];
+		    a[less++] = ak;
+		} else if (ak > pivot2) {
+		    while ((k < great) && (a[great] > pivot2)) {
+			great--;
+		    }
+		    a[k] = a[great];
+		    a[great--] = ak;
+		    ak = a[k];
+		    if (ak < pivot1) {
+			a[k] = a[less];
+			a[less++] = ak;
+		    }
+		}
+	    }
+	    less--;
+	    great++;
+	    a[left] = a[less];
+	    a[less] = pivot1;
+	    a[right] = a[great];
+	    a[great] = pivot2;
+
+	    quickSort(a, left, less - 1);
+	    quickSort(a, less + 1, great - 1);
+	    left = great + 1;
+	}
+	insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(double a[], int left, int right) {
+	for (int i = left + 1 ; i <= right ; i++) {
+	    double ai = a[i];
+	    int j = i - 1;
+	    for (; (j >= left) && (a[j] > ai) ; j--) {
+		a[j + 1] = a[j];
+	    }
+	    a[j + 1] = ai;
+	}
+    }
+
+    /**
+     * Sorts five elements with a sorting network.
+     */
+    private static void sort5(double a[], int e1, int e2, int e3, int e4, int e5) {
+	double t;
+	if (a[e1] > a[e2]) { t = a[e1]; a[e1] = a[e2]; a[e2] = t; }
+	if (a[e4] > a[e5]) { t = a[e4]; a[e4] = a[e5]; a[e5] = t; }
+	if (a[e3] > a[e5]) { t = a[e3]; a[e3] = a[e5]; a[e5] = t; }
+	if (a[e3] > a[e4]) { t = a[e3]; a[e3] = a[e4]; a[e4] = t; }
+	if (a[e1] > a[e4]) { t = a[e1]; a[e1] = a[e4]; a[e4] = t; }
+	if (a[e1] > a[e3]) { t = a[e1]; a[e1] = a[e3]; a[e3] = t; }
+	if (a[e2] > a[e5]) { t = a[e2]; a[e2] = a[e5]; a[e5] = t; }
+	if (a[e2] > a[e4]) { t = a[e2]; a[e2] = a[e4]; a[e4] = t; }
+	if (a[e2] > a[e3]) { t = a[e2]; a[e2] = a[e3]; a[e3] = t; }
+    }
+
+    /**
+     * Merges the sorted ranges lo..mid-1 and mid..hi-1 of src into dst.
+     * An index i of the ranges is at i - srcOff in src and at i - dstOff
+     * in dst.
+     */
+    static void merge(double src[], int srcOff, double dst[], int dstOff, int lo, int mid, int hi) {
+	int p = lo - srcOff;
+	int pEnd = mid - srcOff;
+	int q = pEnd;
+	int qEnd = hi - srcOff;
+	int d = lo - dstOff;
+	while ((p < pEnd) && (q < qEnd)) {
+	    dst[d++] = (src[q] < src[p]) ? src[q++] : src[p++];
+	}
+	System.arraycopy(src, p, dst, d, pEnd - p);
+	System.arraycopy(src, q, dst, d + pEnd - p, qEnd - q);
+    }
+
+    private static void insertionSort(Object a[], int from, int to, Comparator c) {
+	for (int i = from + 1 ; i < to ; i++) {
+	    Object ai = a[i];
+	    int j = i - 1;
+	    for (; (j >= from) && (c.compare(a[j], ai) > 0) ; j--) {
+		a[j + 1] = a[j];
+	    }
+	    a[j + 1] = ai;
+	}
+    }
+
+    /**
+     * Sorts the range low..high-1 of dest, which holds the same elements
+     * as src at low + off..high + off - 1. The halves are sorted into
+     * src, from dest, and merged back into dest.
+     */
+    private static void mergeSort(Object src[], Object dest[], int low, int high,
+				  int off, Comparator c) {
+	int length = high - low;
+	if (length < MERGE_SORT_THRESHOLD) {
+	    insertionSort(dest, low, high, c);
+	    return;
+	}
+
+	int destLow = low;
+	low += off;
+	high += off;
+	int mid = (low + high) >>> 1;
+	mergeSort(dest, src, low, mid, -off, c);
+	mergeSort(dest, src, mid, high, -off, c);
+
+	// The halves are already in order: just copy them.
+	if (c.compare(src[mid - 1], src[mid]) <= 0) {
+	    System.arraycopy(src, low, dest, destLow, length);
+	    return;
+	}
+	for (int i = destLow, p = low, q = mid ; i < destLow + length ; i++) {
+	    if ((q >= high) || ((p < mid) && (c.compare(src[p], src[q]) <= 0))) {
+		dest[i] = src[p++];
+	    } else {
+		dest[i] = src[q++];
+	    }
+	}
+    }
+
+    /**
+     * Merges the sorted ranges lo..mid-1 and mid..hi-1 of src into dst,
+     * taking the element of the first range when two compare equal.
+     * An index i of the ranges is at i - srcOff in src and at i - dstOff
+     * in dst.
+     */
+    static void merge(Object src[], int srcOff, Object dst[], int dstOff,
+		      int lo, int mid, int hi, Comparator c) {
+	int p = lo - srcOff;
+	int pEnd = mid - srcOff;
+	int q = pEnd;
+	int qEnd = hi - srcOff;
+	int d = lo - dstOff;
+	while ((p < pEnd) && (q < qEnd)) {
+	    dst[d++] = (c.compare(src[q], src[p]) < 0) ? src[q++] : src[p++];
+	}
+	System.arraycopy(src, p, dst, d, pEnd - p);
+	System.arraycopy(src, q, dst, d + pEnd - p, qEnd - q);
+    }
+}
+
+/**
+ * A piece of a parallel sort. A small piece is sorted; a larger one
+ * is split into halves that are sorted by two tasks and then merged.
+ * The sorted piece is left in the array or in the buffer, and the
+ * halves in the other one, so that merging never copies back.
+ */
+final
+class SortTask extends ForkJoinTask {
+    static final int INT = 0;
+    static final int LONG = 1;
+    static final int DOUBLE = 2;
+    static final int OBJECT = 3;
+
+    int type;
+    Object a;
+    Object buf;
+    int bufOff;
+    int lo;
+    int hi;
+    int grain;
+    boolean intoBuffer;
+    Comparator c;
+
+    /**
+     * Creates a task that sorts a range of a, leaving the result in
+     * a, or at index - bufOff of buf if intoBuffer is true.
+     */
+    SortTask(int type, Object a, Object buf, int bufOff, int lo, int hi,
+	     int grain, boolean intoBuffer, Comparator c) {
+	this.type = type;
+	this.a = a;
+	this.buf = buf;
+	this.bufOff = bufOff;
+	this.lo = lo;
+	this.hi = hi;
+	this.grain = grain;
+	this.intoBuffer = intoBuffer;
+	this.c = c;
+    }
+
+    protected void compute() {
+	if (hi - lo <= grain) {
+	    Sort.sortRange(type, a, lo, hi, c);
+	    if (intoBuffer) {
+		System.arraycopy(a, lo, buf, lo - bufOff, hi - lo);
+	    }
+	    return;
+	}
+	int mid = (lo + hi) >>> 1;
+	invokeAll(new SortTask(type, a, buf, bufOff, lo, mid, grain, !intoBuffer, c),
+		  new SortTask(type, a, buf, bufOff, mid, hi, grain, !intoBuffer, c));
+	if (intoBuffer) {
+	    Sort.mergeRange(type, a, 0, buf, bufOff, lo, mid, hi, c);
+	} else {
+	    Sort.mergeRange(type, buf, bufOff, a, 0, lo, mid, hi, c);
+	}
+    }
+}
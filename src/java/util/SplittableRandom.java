@@ -0,0 +1,334 @@
+/*
+ * @(#)SplittableRandom.java	1.1 96/05/28
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * A SplittableRandom generates a stream of pseudo-random numbers without
+ * any locking. An instance must only be used by one thread at a time;
+ * threads that need random numbers each use their own instance, either
+ * the one returned by current() or one handed to them by split().<p>
+ *
+ * A worker pool typically creates one generator with a fixed seed and
+ * splits off a generator for every worker:
+ * <pre>
+ *	SplittableRandom root = new SplittableRandom(42);
+ *	for (int i = 0 ; i < workers.length ; i++) {
+ *	    workers[i] = new Worker(root.split());
+ *	}
+ * </pre>
+ * The numbers generated from a given seed, and by the generators split
+ * from it, are always the same, whatever the order in which the
+ * workers run.<p>
+ *
+ * The generator adds a constant, the gamma, to a 64-bit seed for every
+ * number and scrambles the result with a mixing function. A split
+ * generator gets its seed and an odd gamma from two numbers of its
+ * parent. See Steele, Lea and Flood, <CITE>Fast Splittable Pseudorandom
+ * Number Generators</CITE>, OOPSLA 2014.
+ *
+ * @see Random
+ * @see Math#random
+ * @version 	1.1, 28 May 1996
+ */
+public final
+class SplittableRandom {
+    /**
+     * The gamma of generators created from a seed; the odd integer
+     * closest to 2^64 divided by the golden ratio.
+     */
+    private final static long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * The seed of the next generator created without a seed.
+     */
+    private static long defaultSeed = mix64(System.currentTimeMillis());
+
+    /**
+     * The generator of each thread that has called current().
+     */
+    private static ConcurrentHashtable threadGenerators = new ConcurrentHashtable(64, 0.75f, 16);
+
+    /**
+     * Threads that have died are removed from threadGenerators when it
+     * grows beyond this size.
+     */
+    private static int sweepSize = 64;
+
+    private long seed;
+    private long gamma;
+
+    private double nextNextGaussian;
+    private boolean haveNextNextGaussian = false;
+
+    private SplittableRandom(long seed, long gamma) {
+	this.seed = seed;
+	this.gamma = gamma;
+    }
+
+    /**
+     * Creates a new generator with the specified seed. Generators
+     * created with the same seed generate the same numbers.
+     * @param seed the initial seed
+     */
+    public SplittableRandom(long seed) {
+	this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Creates a new generator. Its seed and gamma are initialized from
+     * the current time, and differ for every generator created this way.
+     */
+    public SplittableRandom() {
+	long s = nextDefaultSeed();
+	seed = mix64(s);
+	gamma = mixGamma(s + GOLDEN_GAMMA);
+    }
+
+    private static synchronized long nextDefaultSeed() {
+	long s = defaultSeed;
+	defaultSeed = s + 2 * GOLDEN_GAMMA;
+	return s;
+    }
+
+    /**
+     * Returns the generator of the calling thread, creating it the first
+     * time a thread asks for it. Finding the generator does not lock.
+     */
+    public static SplittableRandom current() {
+	Thread t = Thread.currentThread();
+	SplittableRandom r = (SplittableRandom)threadGenerators.get(t);
+	if (r == null) {
+	    r = new SplittableRandom();
+	    threadGenerators.put(t, r);
+	    if (threadGenerators.size() > sweepSize) {
+		sweep();
+	    }
+	}
+	return r;
+    }
+
+    /**
+     * Drops the generators of threads that have died.
+     */
+    private static synchronized void sweep() {
+	Enumeration e = threadGenerators.keys();
+	while (e.hasMoreElements()) {
+	    Thread t = (Thread)e.nextElement();
+	    if (!t.isAlive()) {
+		threadGenerators.remove(t);
+	    }
+	}
+	int size = threadGenerators.size();
+	sweepSize = (size < 32) ? 64 : size * 2;
+    }
+
+    /**
+     * Returns a new generator that shares no state with this one. The
+     * numbers of both generators are statistically independent. This
+     * generator advances as if two numbers had been taken from it.
+     */
+    public SplittableRandom split() {
+	return new SplittableRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    private long nextSeed() {
+	return seed += gamma;
+    }
+
+    /**
+     * The 64-bit finalizer of MurmurHash3, variant 13.
+     */
+    private static long mix64(long z) {
+	z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+	z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+	return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+	z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+	return (int)(((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    /**
+     * Returns an odd gamma with enough bit transitions that its
+     * generator does not look regular.
+     */
+    private static long mixGamma(long z) {
+	z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+	z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+	z = (z ^ (z >>> 33)) | 1L;
+	return (bitCount(z ^ (z >>> 1)) < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+
+    private static int bitCount(long x) {
+	int n = 0;
+	while (x != 0) {
+	    x &= x - 1;
+	    n++;
+	}
+	return n;
+    }
+
+    /**
+     * Generates a pseudorandom uniformly distributed
+     * <CODE>int</CODE> value.
+     * @return an integer value.
+     */
+    public int nextInt() {
+	return mix32(nextSeed());
+    }
+
+    /**
+     * Generates a pseudorandom uniformly distributed <CODE>int</CODE>
+     * value between 0 (inclusive) and n (exclusive).
+     * @param n the bound
+     * @exception IllegalArgumentException If n is not positive.
+     */
+    public int nextInt(int n) {
+	if (n <= 0) {
+	    throw new IllegalArgumentException();
+	}
+	int r = mix32(nextSeed()) >>> 1;
+	if ((n & (n - 1)) == 0) {
+	    return (int)(((long)n * r) >> 31);
+	}
+	// Reject the values in the incomplete last interval.
+	for (int u = r ; u - (r = u % n) + (n - 1) < 0 ; u = mix32(nextSeed()) >>> 1)
+	    ;
+	return r;
+    }
+
+    /**
+     * Generates a pseudorandom uniformly distributed <CODE>long</CODE> value.
+     * @return a long integer value.
+     */
+    public long nextLong() {
+	return mix64(nextSeed());
+    }
+
+    /**
+     * Generates a pseudorandom uniformly distributed
+     * <CODE>float</CODE> value between 0.0 and 1.0.
+     * @return a <CODE>float</CODE> between 0.0 (inclusive) and 1.0 (exclusive).
+     */
+    public float nextFloat() {
+	return (mix32(nextSeed()) >>> 8) * (1.0f / (1 << 24));
+    }
+
+    /**
+     * Generates a pseudorandom uniformly distributed
+     * <CODE>double</CODE> value between 0.0 and 1.0.
+     * @return a <CODE>double</CODE> between 0.0 (inclusive) and 1.0 (exclusive).
+     */
+    public double nextDouble() {
+	return (mix64(nextSeed()) >>> 11) * (1.0 / (1L << 53));
+    }
+
+    /**
+     * Generates a pseudorandom <CODE>boolean</CODE> value.
+     */
+    public boolean nextBoolean() {
+	return mix32(nextSeed()) < 0;
+    }
+
+    /**
+     * Generates a pseudorandom Gaussian distributed
+     * <CODE>double</CODE> value with mean 0.0 and standard
+     * deviation 1.0.
+     * @return a Gaussian distributed <CODE>double</CODE>.
+     */
+    public double nextGaussian() {
+	// See Knuth, ACP, Section 3.4.1 Algorithm C.
+	if (haveNextNextGaussian) {
+	    haveNextNextGaussian = false;
+	    return nextNextGaussian;
+	}
+	double v1, v2, s;
+	do {
+	    v1 = 2 * nextDouble() - 1; // between -1 and 1
+	    v2 = 2 * nextDouble() - 1; // between -1 and 1
+	    s = v1 * v1 + v2 * v2;
+	} while ((s >= 1) || (s == 0));
+	double multiplier = Math.sqrt(-2 * Math.log(s) / s);
+	nextNextGaussian = v2 * multiplier;
+	haveNextNextGaussian = true;
+	return v1 * multiplier;
+    }
+
+    /**
+     * Fills a range of an array with pseudorandom <CODE>int</CODE> values.
+     * The values are the same as those of len calls to nextInt().
+     * @param dst the array to fill
+     * @param off the index of the first element to fill
+     * @param len the number of elements to fill
+     * @exception ArrayIndexOutOfBoundsException If the range is not
+     * inside the array.
+     */
+    public void nextInts(int dst[], int off, int len) {
+	if ((off < 0) || (len < 0) || (off + len > dst.length)) {
+	    throw new ArrayIndexOutOfBoundsException(off + len);
+	}
+	long s = seed;
+	long g = gamma;
+	for (int end = off + len ; off < end ; off++) {
+	    dst[off] = mix32(s += g);
+	}
+	seed = s;
+    }
+
+    /**
+     * Fills an array with pseudorandom <CODE>int</CODE> values.
+     * @param dst the array to fill
+     */
+    public void nextInts(int dst[]) {
+	nextInts(dst, 0, dst.length);
+    }
+
+    /**
+     * Fills a range of an array with pseudorandom <CODE>double</CODE>
+     * values between 0.0 and 1.0. The values are the same as those of
+     * len calls to nextDouble().
+     * @param dst the array to fill
+     * @param off the index of the first element to fill
+     * @param len the number of elements to fill
+     * @exception ArrayIndexOutOfBoundsException If the range is not
+     * inside the array.
+     */
+    public void nextDoubles(double dst[], int off, int len) {
+	if ((off < 0) || (len < 0) || (off + len > dst.length)) {
+	    throw new ArrayIndexOutOfBoundsException(off + len);
+	}
+	long s = seed;
+	long g = gamma;
+	for (int end = off + len ; off < end ; off++) {
+	    dst[off] = (mix64(s += g) >>> 11) * (1.0 / (1L << 53));
+	}
+	seed = s;
+    }
+
+    /**
+     * Fills an array with pseudorandom <CODE>double</CODE> values
+     * between 0.0 and 1.0.
+     * @param dst the array to fill
+     */
+    public void nextDoubles(double dst[]) {
+	nextDoubles(dst, 0, dst.length);
+    }
+}
@@ -20,8 +20,11 @@
 package java.util;
 
 /**
- * A Last-In-First-Out(LIFO) stack of objects.
+ * A Last-In-First-Out(LIFO) stack of objects. Every operation locks
+ * the stack; an ArrayDeque used with push(), pop() and peek() does
+ * not, and also grows and shrinks at the other end.
  *
+ * @see ArrayDeque
  * @version 	1.12, 11 Aug 1995
  * @author 	Jonathan Payne
  */
@@ -52,6 +52,22 @@ class StringTokenizer implements Enumeration {
     private String delimiters;
     private boolean retTokens;
 
+    /**
+     * The delimiters below 256, one bit for each character.
+     */
+    private long delimiterBits[];
+
+    /**
+     * The delimiters of 256 and above, or null if there are none.
+     */
+    private String otherDelimiters;
+
+    /**
+     * The span of the token found by the last call to nextTokenSpan().
+     */
+    private int tokenStart;
+    private int tokenEnd;
+
     /**
      * Constructs a StringTokenizer on the specified String, using the
      * specified delimiter set.
@@ -63,7 +79,7 @@ class StringTokenizer implements Enumeration {
 	currentPosition = 0;
 	this.str = str;
 	maxPosition = str.length();
-	delimiters = delim;
+	setDelimiters(delim);
 	retTokens = returnTokens;
     }
 
@@ -86,15 +102,75 @@ class StringTokenizer implements Enumeration {
 	this(str, " \t\n\r", false);
     }
 
+    /**
+     * Builds the lookup table of a delimiter set.
+     */
+    private void setDelimiters(String delim) {
+	delimiters = delim;
+	if (delim == null) {
+	    // fail when a delimiter is first looked up, as before
+	    delimiterBits = null;
+	    otherDelimiters = null;
+	    return;
+	}
+	long bits[] = new long[4];
+	StringBuilder other = null;
+	for (int i = delim.length() ; i-- > 0 ;) {
+	    char c = delim.charAt(i);
+	    if (c < 256) {
+		bits[c >> 6] |= 1L << c;
+	    } else {
+		if (other == null) {
+		    other = new StringBuilder();
+		}
+		other.append(c);
+	    }
+	}
+	delimiterBits = bits;
+	otherDelimiters = (other != null) ? other.toString() : null;
+    }
+
+    /**
+     * Returns true if the character is a delimiter.
+     */
+    private final boolean isDelimiter(char c) {
+	if (c < 256) {
+	    return (delimiterBits[c >> 6] & (1L << c)) != 0;
+	}
+	return (otherDelimiters != null) && (otherDelimiters.indexOf(c) >= 0);
+    }
+
     /**
      * Skips delimiters.
      */
     private void skipDelimiters() {
-	while (!retTokens &&
-	       (currentPosition < maxPosition) &&
-	       (delimiters.indexOf(str.charAt(currentPosition)) >= 0)) {
-	    currentPosition++;
+	if (retTokens) {
+	    return;
+	}
+	int pos = currentPosition;
+	int max = maxPosition;
+	while ((pos < max) && isDelimiter(str.charAt(pos))) {
+	    pos++;
 	}
+	currentPosition = pos;
+    }
+
+    /**
+     * Returns the position after the token that starts at the
+     * specified position, which is not at the end of the String.
+     */
+    private int scanToken(int start) {
+	String s = str;
+	int pos = start;
+	int max = maxPosition;
+	while ((pos < max) && !isDelimiter(s.charAt(pos))) {
+	    pos++;
+	}
+	if (retTokens && (pos == start)) {
+	    // the token is a single delimiter
+	    pos++;
+	}
+	return pos;
     }
 
     /**
@@ -118,14 +194,7 @@ class StringTokenizer implements Enumeration {
 	}
 
 	int start = currentPosition;
-	while ((currentPosition < maxPosition) && 
-	       (delimiters.indexOf(str.charAt(currentPosition)) < 0)) {
-	    currentPosition++;
-	}
-	if (retTokens && (start == currentPosition) &&
-	    (delimiters.indexOf(str.charAt(currentPosition)) >= 0)) {
-	    currentPosition++;
-	}
+	currentPosition = scanToken(start);
 	return str.substring(start, currentPosition);
     }
 
@@ -135,10 +204,56 @@ class StringTokenizer implements Enumeration {
      * @param delim the new delimiters
      */
     public String nextToken(String delim) {
-	delimiters = delim;
+	setDelimiters(delim);
 	return nextToken();
     }
 
+    /**
+     * Finds the next token of the String without creating a String
+     * for it. Its position is then returned by tokenStart() and
+     * tokenEnd(). For example, to look for a keyword:
+     * <pre>
+     *	while (st.nextTokenSpan()) {
+     *	    int start = st.tokenStart();
+     *	    int len = st.tokenEnd() - start;
+     *	    if ((len == 5) && line.regionMatches(start, "ERROR", 0, 5)) {
+     *		errors++;
+     *	    }
+     *	}
+     * </pre>
+     * @return true if a token was found, false if there are no more
+     * tokens in the String.
+     * @see StringTokenizer#tokenStart
+     * @see StringTokenizer#tokenEnd
+     */
+    public boolean nextTokenSpan() {
+	skipDelimiters();
+
+	if (currentPosition >= maxPosition) {
+	    return false;
+	}
+
+	tokenStart = currentPosition;
+	tokenEnd = currentPosition = scanToken(currentPosition);
+	return true;
+    }
+
+    /**
+     * Returns the index in the String of the first character of the
+     * token found by the last call to nextTokenSpan().
+     */
+    public int tokenStart() {
+	return tokenStart;
+    }
+
+    /**
+     * Returns the index in the String after the last character of the
+     * token found by the last call to nextTokenSpan().
+     */
+    public int tokenEnd() {
+	return tokenEnd;
+    }
+
     /**
      * Returns true if the Enumeration has more elements.
      */
@@ -164,38 +279,38 @@ class StringTokenizer implements Enumeration {
      * are not constructed and returned for each token.
      */
     public int countTokens() {
+	String s = str;
+	int max = maxPosition;
+	int pos = currentPosition;
 	int count = 0;
-	int currpos = currentPosition;
-
-	while (currpos < maxPosition) {
-	    /*
-	     * This is just skipDelimiters(); but it does not affect
-	     * currentPosition.
-	     */
-	    while (!retTokens &&
-		   (currpos < maxPosition) &&
-		   (delimiters.indexOf(str.charAt(currpos)) >= 0)) {
-		currpos++;
-	    }
 
-	    if (currpos >= maxPosition) {
-		break;
+	if (retTokens) {
+	    // Every delimiter is a token, and so is every run of other
+	    // characters.
+	    boolean inToken = false;
+	    for (; pos < max ; pos++) {
+		if (isDelimiter(s.charAt(pos))) {
+		    count++;
+		    inToken = false;
+		} else if (!inToken) {
+		    count++;
+		    inToken = true;
+		}
 	    }
+	    return count;
+	}
 
-	    int start = currpos;
-	    while ((currpos < maxPosition) && 
-		   (delimiters.indexOf(str.charAt(currpos)) < 0)) {
-		currpos++;
-	    }
-	    if (retTokens && (start == currpos) &&
-		(delimiters.indexOf(str.charAt(currpos)) >= 0)) {
-		currpos++;
+	// Count the token starts: the characters that are not delimiters
+	// and come first or after a delimiter.
+	boolean inToken = false;
+	for (; pos < max ; pos++) {
+	    if (isDelimiter(s.charAt(pos))) {
+		inToken = false;
+	    } else if (!inToken) {
+		count++;
+		inToken = true;
 	    }
-	    count++;
-
 	}
 	return count;
     }
 }
-
-
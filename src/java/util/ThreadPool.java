@@ -0,0 +1,471 @@
+/*
+ * @(#)ThreadPool.java	1.1 96/08/13
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * A ThreadPool runs tasks in a set of worker threads, so that a
+ * thread need not be created for every task and the number of threads
+ * stays bounded however many tasks there are.<p>
+ *
+ * A fixed pool has a set number of threads. An elastic pool keeps a
+ * number of core threads and starts more, up to a maximum, when tasks
+ * are waiting and no thread is idle; the extra threads stop when they
+ * have been idle for a while. Threads are started as tasks arrive.<p>
+ *
+ * Tasks wait for a thread in a queue of bounded capacity. When the
+ * queue is full, execute() and submit() run the task in the calling
+ * thread, which slows down the callers until the workers catch up.<p>
+ *
+ * The workers belong to a ThreadGroup of their own. A task started
+ * with execute() that throws an exception is reported by the
+ * uncaughtException() method of that group, and the worker goes on
+ * with the next task. The exception of a task started with submit()
+ * is kept in its Future instead.<p>
+ *
+ * The workers are daemon threads: they do not keep the program
+ * running. shutdown() lets the pool finish the tasks it has and
+ * then stops the workers:
+ * <pre>
+ *	ThreadPool pool = new ThreadPool("fetchers", 4);
+ *	Future page = pool.submit(new PageFetcher(url));
+ *	...
+ *	pool.shutdown();
+ *	pool.awaitTermination(0);
+ * </pre>
+ *
+ * @see Future
+ * @see Callable
+ * @version 	1.1, 13 Aug 1996
+ */
+public
+class ThreadPool {
+    private String name;
+    private int coreThreads;
+    private int maxThreads;
+    private int capacity;
+    private long keepAlive;
+
+    /**
+     * The tasks waiting for a worker.
+     */
+    private ArrayDeque queue = new ArrayDeque();
+
+    /**
+     * The group of the workers.
+     */
+    private ThreadGroup group;
+
+    /**
+     * The worker threads.
+     */
+    private Vector workers = new Vector();
+
+    private int idleThreads;
+    private int startingThreads;
+    private int terminationWaiters;
+    private int threadNumber;
+    private boolean shutdown;
+
+    private long completedTasks;
+    private long failedTasks;
+
+    /**
+     * Creates an elastic pool.
+     * @param name the name of the pool, which is also the name of the
+     *		ThreadGroup of its workers
+     * @param coreThreads the number of threads kept when they are idle
+     * @param maxThreads the largest number of threads
+     * @param capacity the largest number of tasks waiting for a thread
+     * @param keepAlive the time in milliseconds after which an idle
+     *		thread beyond the core threads stops
+     * @exception IllegalArgumentException If coreThreads is negative,
+     * maxThreads is less than 1 or less than coreThreads, capacity is
+     * negative, or keepAlive is not positive.
+     */
+    public ThreadPool(String name, int coreThreads, int maxThreads,
+		      int capacity, long keepAlive) {
+	if ((coreThreads < 0) || (maxThreads < 1) || (maxThreads < coreThreads) ||
+	    (capacity < 0) || (keepAlive <= 0)) {
+	    throw new IllegalArgumentException();
+	}
+	this.name = name;
+	this.coreThreads = coreThreads;
+	this.maxThreads = maxThreads;
+	this.capacity = capacity;
+	this.keepAlive = keepAlive;
+	group = new PoolThreadGroup(this, name);
+    }
+
+    /**
+     * Creates a fixed pool whose queue holds up to 64 tasks for
+     * each thread.
+     * @param name the name of the pool
+     * @param threads the number of threads
+     * @exception IllegalArgumentException If threads is less than 1.
+     */
+    public ThreadPool(String name, int threads) {
+	this(name, threads, threads, threads * 64, 60 * 1000);
+    }
+
+    /**
+     * Runs a task in a worker thread, or in the calling thread if the
+     * queue is full.
+     * @param task the task
+     * @exception IllegalStateException If the pool has been shut down.
+     */
+    public void execute(Runnable task) {
+	if (task == null) {
+	    throw new NullPointerException();
+	}
+	if (!enqueue(task)) {
+	    runTask(Thread.currentThread(), task);
+	}
+    }
+
+    /**
+     * Runs a task in a worker thread, or in the calling thread if the
+     * queue is full, and returns the Future of its result, which is
+     * null.
+     * @param task the task
+     * @exception IllegalStateException If the pool has been shut down.
+     */
+    public Future submit(Runnable task) {
+	Future f = new Future(task);
+	if (!enqueue(f)) {
+	    runTask(Thread.currentThread(), f);
+	}
+	return f;
+    }
+
+    /**
+     * Runs a task in a worker thread, or in the calling thread if the
+     * queue is full, and returns the Future of its result.
+     * @param task the task
+     * @exception IllegalStateException If the pool has been shut down.
+     */
+    public Future submit(Callable task) {
+	Future f = new Future(task);
+	if (!enqueue(f)) {
+	    runTask(Thread.currentThread(), f);
+	}
+	return f;
+    }
+
+    /**
+     * Queues a task, starting a worker if there are fewer than
+     * coreThreads, or if no worker is idle and there are fewer than
+     * maxThreads.
+     * @return false if the queue is full.
+     */
+    private synchronized boolean enqueue(Runnable task) {
+	if (shutdown) {
+	    throw new IllegalStateException("pool shut down");
+	}
+	int size = workers.size();
+	int queued = queue.size();
+	// workers that have not asked for a task yet will take one
+	int idle = idleThreads + startingThreads;
+	if ((size < coreThreads) || ((queued >= idle) && (size < maxThreads))) {
+	    // no idle worker will take the task
+	    queue.addLast(task);
+	    startWorker();
+	    return true;
+	}
+	if (queued - idle >= capacity) {
+	    return false;
+	}
+	queue.addLast(task);
+	if (terminationWaiters > 0) {
+	    notifyAll();
+	} else {
+	    notify();
+	}
+	return true;
+    }
+
+    private void startWorker() {
+	PoolWorker w = new PoolWorker(this, group, name + "-" + ++threadNumber);
+	workers.addElement(w);
+	startingThreads++;
+	w.start();
+    }
+
+    /**
+     * Returns the next task for a worker, waiting for one if there is
+     * none. Returns null when the worker should stop.
+     */
+    synchronized Runnable getTask(PoolWorker w) {
+	if (!w.started) {
+	    w.started = true;
+	    startingThreads--;
+	}
+	long idleSince = 0;
+	for (;;) {
+	    if (!queue.isEmpty()) {
+		return (Runnable)queue.removeFirst();
+	    }
+	    if (shutdown) {
+		return null;
+	    }
+	    boolean extra = workers.size() > coreThreads;
+	    if (extra && (idleSince != 0) &&
+		(System.currentTimeMillis() - idleSince >= keepAlive)) {
+		workers.removeElement(w);
+		return null;
+	    }
+	    if (idleSince == 0) {
+		idleSince = System.currentTimeMillis();
+	    }
+	    idleThreads++;
+	    try {
+		if (extra) {
+		    wait(keepAlive);
+		} else {
+		    wait();
+		}
+	    } catch (InterruptedException e) {
+		// wait() does not throw this in this runtime, and
+		// shutdownNow() only notifies; look at the queue again
+	    } finally {
+		idleThreads--;
+	    }
+	}
+    }
+
+    /**
+     * Runs a task started with execute() or submit(). A failure is
+     * reported by the group of the workers.
+     */
+    void runTask(Thread t, Runnable task) {
+	try {
+	    task.run();
+	} catch (ThreadDeath e) {
+	    throw e;
+	} catch (Throwable e) {
+	    group.uncaughtException(t, e);
+	}
+	synchronized (this) {
+	    completedTasks++;
+	}
+    }
+
+    /**
+     * Called when a task failed.
+     */
+    synchronized void taskFailed() {
+	failedTasks++;
+    }
+
+    /**
+     * Called by a worker that stops.
+     */
+    synchronized void workerExited(PoolWorker w) {
+	if (!w.started) {
+	    startingThreads--;
+	}
+	workers.removeElement(w);
+	if (!shutdown && !queue.isEmpty() && (idleThreads == 0)) {
+	    // the worker died while there is still work to do
+	    startWorker();
+	}
+	notifyAll();
+    }
+
+    /**
+     * Stops accepting tasks. The tasks that are queued are still run,
+     * after which the workers stop.
+     * @see ThreadPool#awaitTermination
+     */
+    public synchronized void shutdown() {
+	shutdown = true;
+	notifyAll();
+    }
+
+    /**
+     * Stops accepting tasks and cancels the tasks that are queued.
+     * Tasks that are running are not stopped: the interrupt flag of
+     * each worker is set, which a task can test with
+     * Thread.interrupted(), but wait() and sleep() do not throw
+     * InterruptedException. The workers stop once their tasks return.
+     * @return the tasks that were queued.
+     * @see Thread#interrupted
+     */
+    public synchronized Vector shutdownNow() {
+	shutdown = true;
+	Vector tasks = new Vector(queue.size());
+	while (!queue.isEmpty()) {
+	    Runnable task = (Runnable)queue.removeFirst();
+	    if (task instanceof Future) {
+		((Future)task).cancel();
+	    }
+	    tasks.addElement(task);
+	}
+	for (int i = workers.size() ; i-- > 0 ;) {
+	    ((Thread)workers.elementAt(i)).interrupt();
+	}
+	notifyAll();
+	return tasks;
+    }
+
+    /**
+     * Returns true if the pool has been shut down.
+     */
+    public synchronized boolean isShutdown() {
+	return shutdown;
+    }
+
+    /**
+     * Returns true if the pool has been shut down and all its workers
+     * have stopped.
+     */
+    public synchronized boolean isTerminated() {
+	return shutdown && workers.isEmpty();
+    }
+
+    /**
+     * Waits until all the workers have stopped after shutdown().
+     * @param millis the longest time to wait in milliseconds, or 0
+     * to wait as long as it takes
+     * @return true if the workers have stopped, false if the time
+     * ran out.
+     * @exception InterruptedException If the thread was interrupted.
+     */
+    public synchronized boolean awaitTermination(long millis) throws InterruptedException {
+	long deadline = System.currentTimeMillis() + millis;
+	terminationWaiters++;
+	try {
+	    while (!isTerminated()) {
+		if (millis <= 0) {
+		    wait();
+		} else {
+		    long remaining = deadline - System.currentTimeMillis();
+		    if (remaining <= 0) {
+			return false;
+		    }
+		    wait(remaining);
+		}
+	    }
+	} finally {
+	    terminationWaiters--;
+	}
+	return true;
+    }
+
+    /**
+     * Returns the number of worker threads.
+     */
+    public synchronized int getPoolSize() {
+	return workers.size();
+    }
+
+    /**
+     * Returns the number of worker threads that are running a task.
+     */
+    public synchronized int getActiveCount() {
+	return workers.size() - idleThreads;
+    }
+
+    /**
+     * Returns the number of tasks waiting for a worker.
+     */
+    public synchronized int getQueueSize() {
+	return queue.size();
+    }
+
+    /**
+     * Returns the number of tasks that have been run.
+     */
+    public synchronized long getCompletedTaskCount() {
+	return completedTasks;
+    }
+
+    /**
+     * Returns the number of tasks started with execute() that threw
+     * an exception.
+     */
+    public synchronized long getFailedTaskCount() {
+	return failedTasks;
+    }
+
+    /**
+     * Returns the name of the pool.
+     */
+    public String getName() {
+	return name;
+    }
+
+    /**
+     * Returns a String representation of the pool.
+     */
+    public String toString() {
+	return getClass().getName() + "[name=" + name + ",threads=" + getPoolSize() +
+	    ",queued=" + getQueueSize() + "]";
+    }
+}
+
+/**
+ * The ThreadGroup of the workers of a ThreadPool. It counts the tasks
+ * that fail and reports them.
+ */
+class PoolThreadGroup extends ThreadGroup {
+    ThreadPool pool;
+
+    PoolThreadGroup(ThreadPool pool, String name) {
+	super(name);
+	this.pool = pool;
+    }
+
+    public void uncaughtException(Thread t, Throwable e) {
+	if (!(e instanceof ThreadDeath)) {
+	    pool.taskFailed();
+	    System.err.println("Task failed in thread \"" + t.getName() + "\" of " + pool);
+	    e.printStackTrace(System.err);
+	}
+    }
+}
+
+/**
+ * A worker thread of a ThreadPool.
+ */
+class PoolWorker extends Thread {
+    ThreadPool pool;
+
+    /**
+     * True once the worker has asked the pool for a task.
+     */
+    boolean started;
+
+    PoolWorker(ThreadPool pool, ThreadGroup group, String name) {
+	super(group, name);
+	this.pool = pool;
+	setDaemon(true);
+    }
+
+    public void run() {
+	try {
+	    Runnable task;
+	    while ((task = pool.getTask(this)) != null) {
+		pool.runTask(this, task);
+	    }
+	} finally {
+	    pool.workerExited(this);
+	}
+    }
+}
@@ -0,0 +1,732 @@
+/*
+ * @(#)TreeDictionary.java	1.1 96/07/02
+ *
+ * Copyright (c) 1994 Sun Microsystems, Inc. All Rights Reserved.
+ *
+ * Permission to use, copy, modify, and distribute this software
+ * and its documentation for NON-COMMERCIAL purposes and without
+ * fee is hereby granted provided that this copyright notice
+ * appears in all copies. Please refer to the file "copyright.html"
+ * for further important copyright and licensing information.
+ *
+ * SUN MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE, OR NON-INFRINGEMENT. SUN SHALL NOT BE LIABLE FOR
+ * ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR
+ * DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package java.util;
+
+/**
+ * TreeDictionary node. The tree is a red-black tree: every path from
+ * the root to a leaf has the same number of black nodes, and a red
+ * node has no red children, so no path is more than twice as long as
+ * any other.
+ */
+final
+class TreeEntry {
+    Object key;
+    Object value;
+    TreeEntry left;
+    TreeEntry right;
+    TreeEntry parent;
+    boolean red;
+
+    TreeEntry(Object key, Object value, TreeEntry parent) {
+	this.key = key;
+	this.value = value;
+	this.parent = parent;
+	this.red = true;
+    }
+
+    /**
+     * Copies the subtree rooted at this node.
+     */
+    TreeEntry copy(TreeEntry parent) {
+	TreeEntry e = new TreeEntry(key, value, parent);
+	e.red = red;
+	e.left = (left != null) ? left.copy(e) : null;
+	e.right = (right != null) ? right.copy(e) : null;
+	return e;
+    }
+
+    /**
+     * Returns the node that follows this one in key order.
+     */
+    TreeEntry successor() {
+	TreeEntry e = right;
+	if (e != null) {
+	    while (e.left != null) {
+		e = e.left;
+	    }
+	    return e;
+	}
+	TreeEntry child = this;
+	for (e = parent ; (e != null) && (child == e.right) ; e = e.parent) {
+	    child = e;
+	}
+	return e;
+    }
+}
+
+/**
+ * TreeDictionary class. Maps keys to values and keeps the keys in
+ * order. Any object can be used as a value; the keys must be ordered
+ * by the Comparator given to the dictionary, or if there is none,
+ * must be Strings, Characters or Numbers.<p>
+ *
+ * The keys are kept in a balanced binary tree, so get(), put() and
+ * remove() take time proportional to the logarithm of the number of
+ * keys, and keys() and elements() return them in order without any
+ * sorting. keys(from, to) and elements(from, to) return a range.<p>
+ *
+ * This example keeps timers in the order in which they expire:
+ * <pre>
+ *	TreeDictionary timers = new TreeDictionary();
+ *	timers.put(new Long(when), timer);
+ *	...
+ *	long now = System.currentTimeMillis();
+ *	Enumeration e = timers.elements(null, new Long(now + 1));
+ *	while (e.hasMoreElements()) {
+ *	    ((Timer)e.nextElement()).expire();
+ *	}
+ * </pre>
+ * Two keys that compare equal are the same key, even if they are not
+ * equal().
+ *
+ * @see Comparator
+ * @see Hashtable
+ * @see PriorityQueue
+ * @version 	1.1, 02 Jul 1996
+ */
+public
+class TreeDictionary extends Dictionary implements Cloneable {
+    /**
+     * The root of the tree.
+     */
+    private TreeEntry root;
+
+    /**
+     * The number of keys in the tree.
+     */
+    private int count;
+
+    /**
+     * The number of times the tree has been changed. Enumerations fail
+     * if it changes while they are in use.
+     */
+    int modCount;
+
+    /**
+     * The ordering of the keys.
+     */
+    private Comparator comparator;
+
+    /**
+     * Constructs a new, empty dictionary ordered by the specified
+     * Comparator.
+     * @param comparator the ordering of the keys
+     * @exception NullPointerException If the comparator is null.
+     */
+    public TreeDictionary(Comparator comparator) {
+	if (comparator == null) {
+	    throw new NullPointerException();
+	}
+	this.comparator = comparator;
+    }
+
+    /**
+     * Constructs a new, empty dictionary for String, Character or
+     * Number keys, in their natural order.
+     */
+    public TreeDictionary() {
+	this(new NaturalOrder());
+    }
+
+    /**
+     * Returns the Comparator that orders the keys.
+     */
+    public Comparator comparator() {
+	return comparator;
+    }
+
+    final int compare(Object a, Object b) {
+	return comparator.compare(a, b);
+    }
+
+    /**
+     * Returns the number of keys in the dictionary.
+     */
+    public int size() {
+	return count;
+    }
+
+    /**
+     * Returns true if the dictionary contains no keys.
+     */
+    public boolean isEmpty() {
+	return count == 0;
+    }
+
+    /**
+     * Returns an enumeration of the keys, in order.
+     * @see TreeDictionary#elements
+     * @see Enumeration
+     */
+    public synchronized Enumeration keys() {
+	return new TreeEnumerator(this, first(), null, true);
+    }
+
+    /**
+     * Returns an enumeration of the elements, in the order of their
+     * keys.
+     * @see TreeDictionary#keys
+     * @see Enumeration
+     */
+    public synchronized Enumeration elements() {
+	return new TreeEnumerator(this, first(), null, false);
+    }
+
+    /**
+     * Returns an enumeration of the keys from fromKey, inclusive, to
+     * toKey, exclusive, in order.
+     * @param fromKey the lowest key, or null to start at the first key
+     * @param toKey the key to stop at, or null to end at the last key
+     * @see Enumeration
+     */
+    public synchronized Enumeration keys(Object fromKey, Object toKey) {
+	return new TreeEnumerator(this, ceiling(fromKey), toKey, true);
+    }
+
+    /**
+     * Returns an enumeration of the elements whose keys are between
+     * fromKey, inclusive, and toKey, exclusive, in the order of their
+     * keys.
+     * @param fromKey the lowest key, or null to start at the first key
+     * @param toKey the key to stop at, or null to end at the last key
+     * @see Enumeration
+     */
+    public synchronized Enumeration elements(Object fromKey, Object toKey) {
+	return new TreeEnumerator(this, ceiling(fromKey), toKey, false);
+    }
+
+    /**
+     * Returns true if the specified object is an element of the
+     * dictionary. This operation is more expensive than containsKey().
+     * @param value the value that we are looking for
+     * @exception NullPointerException If the value being searched
+     * for is equal to null.
+     * @see TreeDictionary#containsKey
+     */
+    public synchronized boolean contains(Object value) {
+	if (value == null) {
+	    throw new NullPointerException();
+	}
+	for (TreeEntry e = first() ; e != null ; e = e.successor()) {
+	    if (e.value.equals(value)) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * Returns true if the dictionary contains the specified key.
+     * @param key the key that we are looking for
+     * @see TreeDictionary#contains
+     */
+    public synchronized boolean containsKey(Object key) {
+	return find(key) != null;
+    }
+
+    /**
+     * Gets the object associated with the specified key.
+     * @param key the specified key
+     * @returns the element for the key or null if the key
+     * 		is not defined in the dictionary.
+     * @see TreeDictionary#put
+     */
+    public synchronized Object get(Object key) {
+	TreeEntry e = find(key);
+	return (e != null) ? e.value : null;
+    }
+
+    /**
+     * Returns the lowest key.
+     * @exception NoSuchElementException If the dictionary is empty.
+     */
+    public synchronized Object firstKey() {
+	TreeEntry e = first();
+	if (e == null) {
+	    throw new NoSuchElementException();
+	}
+	return e.key;
+    }
+
+    /**
+     * Returns the highest key.
+     * @exception NoSuchElementException If the dictionary is empty.
+     */
+    public synchronized Object lastKey() {
+	TreeEntry e = root;
+	if (e == null) {
+	    throw new NoSuchElementException();
+	}
+	while (e.right != null) {
+	    e = e.right;
+	}
+	return e.key;
+    }
+
+    /**
+     * Returns the lowest key greater than or equal to the specified
+     * key, or null if there is none.
+     * @param key the key to look for
+     */
+    public synchronized Object ceilingKey(Object key) {
+	TreeEntry e = ceiling(key);
+	return (e != null) ? e.key : null;
+    }
+
+    /**
+     * Returns the highest key less than or equal to the specified
+     * key, or null if there is none.
+     * @param key the key to look for
+     */
+    public synchronized Object floorKey(Object key) {
+	TreeEntry found = null;
+	for (TreeEntry e = root ; e != null ;) {
+	    int c = compare(key, e.key);
+	    if (c == 0) {
+		return e.key;
+	    }
+	    if (c > 0) {
+		found = e;
+		e = e.right;
+	    } else {
+		e = e.left;
+	    }
+	}
+	return (found != null) ? found.key : null;
+    }
+
+    /**
+     * Returns the node of the lowest key.
+     */
+    private TreeEntry first() {
+	TreeEntry e = root;
+	if (e != null) {
+	    while (e.left != null) {
+		e = e.left;
+	    }
+	}
+	return e;
+    }
+
+    /**
+     * Returns the node of the key, or null.
+     */
+    private TreeEntry find(Object key) {
+	if (key == null) {
+	    return null;
+	}
+	for (TreeEntry e = root ; e != null ;) {
+	    int c = compare(key, e.key);
+	    if (c == 0) {
+		return e;
+	    }
+	    e = (c < 0) ? e.left : e.right;
+	}
+	return null;
+    }
+
+    /**
+     * Returns the node of the lowest key greater than or equal to the
+     * specified key, or the first node if the key is null.
+     */
+    private TreeEntry ceiling(Object key) {
+	if (key == null) {
+	    return first();
+	}
+	TreeEntry found = null;
+	for (TreeEntry e = root ; e != null ;) {
+	    int c = compare(key, e.key);
+	    if (c == 0) {
+		return e;
+	    }
+	    if (c < 0) {
+		found = e;
+		e = e.left;
+	    } else {
+		e = e.right;
+	    }
+	}
+	return found;
+    }
+
+    /**
+     * Puts the specified element into the dictionary, using the
+     * specified key. The element may be retrieved by doing a get()
+     * with the same key. The key and the element cannot be null.
+     * @param key the specified key
+     * @param value the specified element
+     * @exception NullPointerException If the key or the element
+     * is equal to null.
+     * @exception ClassCastException If the key cannot be compared
+     * with the keys in the dictionary.
+     * @see TreeDictionary#get
+     * @return the old value of the key, or null if it did not have one.
+     */
+    public synchronized Object put(Object key, Object value) {
+	if ((key == null) || (value == null)) {
+	    throw new NullPointerException();
+	}
+	TreeEntry parent = null;
+	int c = 0;
+	for (TreeEntry e = root ; e != null ;) {
+	    c = compare(key, e.key);
+	    if (c == 0) {
+		Object old = e.value;
+		e.value = value;
+		return old;
+	    }
+	    parent = e;
+	    e = (c < 0) ? e.left : e.right;
+	}
+
+	TreeEntry e = new TreeEntry(key, value, parent);
+	if (parent == null) {
+	    // compare the key with itself so that a key of the wrong
+	    // type is rejected even in an empty dictionary
+	    compare(key, key);
+	    root = e;
+	} else if (c < 0) {
+	    parent.left = e;
+	} else {
+	    parent.right = e;
+	}
+	fixAfterInsertion(e);
+	count++;
+	modCount++;
+	return null;
+    }
+
+    /**
+     * Removes the element corresponding to the key. Does nothing if the
+     * key is not present.
+     * @param key the key that needs to be removed
+     * @return the value of key, or null if the key was not found.
+     */
+    public synchronized Object remove(Object key) {
+	TreeEntry e = find(key);
+	if (e == null) {
+	    return null;
+	}
+	Object old = e.value;
+	delete(e);
+	return old;
+    }
+
+    /**
+     * Clears the dictionary so that it has no more keys in it.
+     */
+    public synchronized void clear() {
+	root = null;
+	count = 0;
+	modCount++;
+    }
+
+    /**
+     * Creates a clone of the dictionary, with the same Comparator.
+     * The keys and elements themselves are NOT cloned.
+     */
+    public synchronized Object clone() {
+	try {
+	    TreeDictionary t = (TreeDictionary)super.clone();
+	    t.root = (root != null) ? root.copy(null) : null;
+	    t.modCount = 0;
+	    return t;
+	} catch (CloneNotSupportedException e) {
+	    // this shouldn't happen, since we are Cloneable
+	    throw new InternalError();
+	}
+    }
+
+    /**
+     * Converts to a rather lengthy String, in key order.
+     */
+    public synchronized String toString() {
+	StringBuilder buf = new StringBuilder();
+	buf.append("{");
+	for (TreeEntry e = first() ; e != null ; e = e.successor()) {
+	    if (buf.length() > 1) {
+		buf.append(", ");
+	    }
+	    buf.append(e.key.toString());
+	    buf.append('=');
+	    buf.append(e.value.toString());
+	}
+	buf.append("}");
+	return buf.toString();
+    }
+
+    /*
+     * Balancing. See Cormen, Leiserson and Rivest, Introduction to
+     * Algorithms, chapter 14. A missing child counts as black.
+     */
+
+    private static boolean isRed(TreeEntry e) {
+	return (e != null) && e.red;
+    }
+
+    private static void setBlack(TreeEntry e) {
+	if (e != null) {
+	    e.red = false;
+	}
+    }
+
+    private static TreeEntry parentOf(TreeEntry e) {
+	return (e != null) ? e.parent : null;
+    }
+
+    private static TreeEntry leftOf(TreeEntry e) {
+	return (e != null) ? e.left : null;
+    }
+
+    private static TreeEntry rightOf(TreeEntry e) {
+	return (e != null) ? e.right : null;
+    }
+
+    private void rotateLeft(TreeEntry p) {
+	TreeEntry r = p.right;
+	p.right = r.left;
+	if (r.left != null) {
+	    r.left.parent = p;
+	}
+	r.parent = p.parent;
+	if (p.parent == null) {
+	    root = r;
+	} else if (p.parent.left == p) {
+	    p.parent.left = r;
+	} else {
+	    p.parent.right = r;
+	}
+	r.left = p;
+	p.parent = r;
+    }
+
+    private void rotateRight(TreeEntry p) {
+	TreeEntry l = p.left;
+	p.left = l.right;
+	if (l.right != null) {
+	    l.right.parent = p;
+	}
+	l.parent = p.parent;
+	if (p.parent == null) {
+	    root = l;
+	} else if (p.parent.right == p) {
+	    p.parent.right = l;
+	} else {
+	    p.parent.left = l;
+	}
+	l.right = p;
+	p.parent = l;
+    }
+
+    private void fixAfterInsertion(TreeEntry x) {
+	while ((x != root) && x.parent.red) {
+	    TreeEntry p = x.parent;
+	    TreeEntry g = p.parent;
+	    if (p == g.left) {
+		TreeEntry y = g.right;
+		if (isRed(y)) {
+		    p.red = false;
+		    y.red = false;
+		    g.red = true;
+		    x = g;
+		} else {
+		    if (x == p.right) {
+			x = p;
+			rotateLeft(x);
+			p = x.parent;
+		    }
+		    p.red = false;
+		    g.red = true;
+		    rotateRight(g);
+		}
+	    } else {
+		TreeEntry y = g.left;
+		if (isRed(y)) {
+		    p.red = false;
+		    y.red = false;
+		    g.red = true;
+		    x = g;
+		} else {
+		    if (x == p.left) {
+			x = p;
+			rotateRight(x);
+			p = x.parent;
+		    }
+		    p.red = false;
+		    g.red = true;
+		    rotateLeft(g);
+		}
+	    }
+	}
+	root.red = false;
+    }
+
+    /**
+     * Removes a node from the tree and rebalances it.
+     */
+    private void delete(TreeEntry p) {
+	count--;
+	modCount++;
+
+	// A node with two children takes the key of its successor,
+	// which has at most one child, and the successor is removed.
+	if ((p.left != null) && (p.right != null)) {
+	    TreeEntry s = p.successor();
+	    p.key = s.key;
+	    p.value = s.value;
+	    p = s;
+	}
+
+	TreeEntry replacement = (p.left != null) ? p.left : p.right;
+	if (replacement != null) {
+	    replacement.parent = p.parent;
+	    if (p.parent == null) {
+		root = replacement;
+	    } else if (p == p.parent.left) {
+		p.parent.left = replacement;
+	    } else {
+		p.parent.right = replacement;
+	    }
+	    p.left = p.right = p.parent = null;
+	    if (!p.red) {
+		fixAfterDeletion(replacement);
+	    }
+	} else if (p.parent == null) {
+	    root = null;
+	} else {
+	    // The node is a leaf; rebalance while it is still linked in.
+	    if (!p.red) {
+		fixAfterDeletion(p);
+	    }
+	    if (p.parent != null) {
+		if (p == p.parent.left) {
+		    p.parent.left = null;
+		} else if (p == p.parent.right) {
+		    p.parent.right = null;
+		}
+		p.parent = null;
+	    }
+	}
+    }
+
+    private void fixAfterDeletion(TreeEntry x) {
+	while ((x != root) && !isRed(x)) {
+	    if (x == leftOf(parentOf(x))) {
+		TreeEntry sib = rightOf(parentOf(x));
+		if (isRed(sib)) {
+		    sib.red = false;
+		    parentOf(x).red = true;
+		    rotateLeft(parentOf(x));
+		    sib = rightOf(parentOf(x));
+		}
+		if (!isRed(leftOf(sib)) && !isRed(rightOf(sib))) {
+		    sib.red = true;
+		    x = parentOf(x);
+		} else {
+		    if (!isRed(rightOf(sib))) {
+			setBlack(leftOf(sib));
+			sib.red = true;
+			rotateRight(sib);
+			sib = rightOf(parentOf(x));
+		    }
+		    sib.red = parentOf(x).red;
+		    parentOf(x).red = false;
+		    setBlack(rightOf(sib));
+		    rotateLeft(parentOf(x));
+		    x = root;
+		}
+	    } else {
+		TreeEntry sib = leftOf(parentOf(x));
+		if (isRed(sib)) {
+		    sib.red = false;
+		    parentOf(x).red = true;
+		    rotateRight(parentOf(x));
+		    sib = leftOf(parentOf(x));
+		}
+		if (!isRed(rightOf(sib)) && !isRed(leftOf(sib))) {
+		    sib.red = true;
+		    x = parentOf(x);
+		} else {
+		    if (!isRed(leftOf(sib))) {
+			setBlack(rightOf(sib));
+			sib.red = true;
+			rotateLeft(sib);
+			sib = leftOf(parentOf(x));
+		    }
+		    sib.red = parentOf(x).red;
+		    parentOf(x).red = false;
+		    setBlack(leftOf(sib));
+		    rotateRight(parentOf(x));
+		    x = root;
+		}
+	    }
+	}
+	setBlack(x);
+    }
+}
+
+/**
+ * A tree dictionary enumerator class. This class should remain opaque
+ * to the client. It will use the Enumeration interface.
+ */
+final
+class TreeEnumerator implements Enumeration {
+    TreeDictionary tree;
+    TreeEntry next;
+    Object toKey;
+    boolean keys;
+    int expectedModCount;
+
+    TreeEnumerator(TreeDictionary tree, TreeEntry first, Object toKey, boolean keys) {
+	this.tree = tree;
+	this.toKey = toKey;
+	this.keys = keys;
+	this.expectedModCount = tree.modCount;
+	this.next = bound(first);
+    }
+
+    /**
+     * Returns the node, or null if it is past the end of the range.
+     */
+    private TreeEntry bound(TreeEntry e) {
+	if ((e != null) && (toKey != null) && (tree.compare(e.key, toKey) >= 0)) {
+	    return null;
+	}
+	return e;
+    }
+
+    public boolean hasMoreElements() {
+	return next != null;
+    }
+
+    public Object nextElement() {
+	synchronized (tree) {
+	    if (tree.modCount != expectedModCount) {
+		throw new ConcurrentModificationException("TreeEnumerator");
+	    }
+	    TreeEntry e = next;
+	    if (e != null) {
+		next = bound(e.successor());
+		return keys ? e.key : e.value;
+	    }
+	}
+	throw new NoSuchElementException("TreeEnumerator");
+    }
+}
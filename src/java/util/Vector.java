@@ -30,8 +30,17 @@ package java.util;
  * the capacity to what you want before inserting a large number of
  * objects will reduce the amount of incremental reallocation.
  * You can safely ignore the capacity and the vector will still work
- * correctly.
+ * correctly.<p>
  *
+ * An enumeration returned by elements() fails with a
+ * ConcurrentModificationException if elements are added to or removed
+ * from the vector while it is in use. A vector that is enumerated much
+ * more often than it is changed, such as a list of listeners, can be
+ * put in copy-on-write mode instead: its enumerations then see the
+ * elements as they were when elements() was called, without any locking,
+ * and the next change after elements() copies the buffer.
+ *
+ * @see ConcurrentModificationException
  * @version 	1.29, 01 Dec 1995
  * @author	Jonathan Payne
  * @author	Lee Boynton
@@ -54,6 +63,23 @@ class Vector implements Cloneable {
      */
     protected int capacityIncrement;
 
+    /**
+     * The number of times elements were added or removed. Enumerations
+     * compare it with the value it had when they were created.
+     */
+    int modCount;
+
+    /**
+     * If true, elements() returns a snapshot enumeration and the buffer
+     * is copied before it is next changed.
+     */
+    private boolean copyOnWrite;
+
+    /**
+     * True if a snapshot enumeration may still be reading elementData.
+     */
+    private boolean shared;
+
     /**
      * Constructs an empty vector with the specified storage
      * capacity and the specified capacityIncrement.
@@ -94,6 +120,23 @@ class Vector implements Cloneable {
 	}
     }
 
+    /**
+     * Copies a range of elements of this vector into the specified array.
+     * @param index the index of the first element to copy
+     * @param anArray the array where elements get copied into
+     * @param offset where to start in the array
+     * @param count the number of elements to copy
+     * @exception ArrayIndexOutOfBoundsException If the range is not
+     * inside the vector or does not fit in the array.
+     */
+    public final synchronized void copyInto(int index, Object anArray[], int offset, int count) {
+	if ((index < 0) || (count < 0) || (index + count > elementCount)) {
+	    throw new ArrayIndexOutOfBoundsException(index + " + " + count + " > " +
+						     elementCount);
+	}
+	System.arraycopy(elementData, index, anArray, offset, count);
+    }
+
     /**
      * Trims the vector's capacity down to size. Use this operation to
      * minimize the storage of a vector. Subsequent insertions will
@@ -102,6 +145,7 @@ class Vector implements Cloneable {
     public final synchronized void trimToSize() {
 	int oldCapacity = elementData.length;
 	if (elementCount < oldCapacity) {
+	    shared = false;
 	    Object oldData[] = elementData;
 	    elementData = new Object[elementCount];
 	    System.arraycopy(oldData, 0, elementData, 0, elementCount);
@@ -113,19 +157,25 @@ class Vector implements Cloneable {
      * @param minCapacity the desired minimum capacity
      */
     public final synchronized void ensureCapacity(int minCapacity) {
-	int oldCapacity = elementData.length;
-	if (minCapacity > oldCapacity) {
+	if (minCapacity > elementData.length) {
+	    shared = false;
 	    Object oldData[] = elementData;
-	    int newCapacity = (capacityIncrement > 0) ?
-		(oldCapacity + capacityIncrement) : (oldCapacity * 2);
-    	    if (newCapacity < minCapacity) {
-		newCapacity = minCapacity;
-	    }
-	    elementData = new Object[newCapacity];
+	    elementData = new Object[newCapacity(minCapacity)];
 	    System.arraycopy(oldData, 0, elementData, 0, elementCount);
 	}
     }
 
+    /**
+     * Returns the capacity to grow to when at least minCapacity
+     * elements are needed.
+     */
+    private int newCapacity(int minCapacity) {
+	int oldCapacity = elementData.length;
+	int newCapacity = (capacityIncrement > 0) ?
+	    (oldCapacity + capacityIncrement) : (oldCapacity * 2);
+	return (newCapacity < minCapacity) ? minCapacity : newCapacity;
+    }
+
     /**
      * Sets the size of the vector. If the size shrinks, the extra elements
      * (at the end of the vector) are lost; if the size increases, the
@@ -133,6 +183,7 @@ class Vector implements Cloneable {
      * @param newSize the new size of the vector
      */
     public final synchronized void setSize(int newSize) {
+	modified();
 	if (newSize > elementCount) {
 	    ensureCapacity(newSize);
 	} else {
@@ -167,11 +218,59 @@ class Vector implements Cloneable {
 
     /**
      * Returns an enumeration of the elements. Use the Enumeration methods on
-     * the returned object to fetch the elements sequentially.
+     * the returned object to fetch the elements sequentially. If elements
+     * are added or removed while the enumeration is in use, its next
+     * nextElement() call throws ConcurrentModificationException, unless
+     * the vector is in copy-on-write mode.
+     * @see Vector#setCopyOnWrite
      */
     public final synchronized Enumeration elements() {
+	if (copyOnWrite) {
+	    shared = true;
+	    return new VectorSnapshotEnumerator(elementData, elementCount);
+	}
 	return new VectorEnumerator(this);
     }
+
+    /**
+     * Turns copy-on-write mode on or off. In copy-on-write mode,
+     * elements() returns an enumeration of the elements at the time
+     * of the call, which never fails and never locks the vector. The
+     * next change to the vector copies its buffer, so a vector that
+     * changes often should not use this mode.
+     * @param on true to turn copy-on-write mode on
+     * @see Vector#elements
+     */
+    public final synchronized void setCopyOnWrite(boolean on) {
+	copyOnWrite = on;
+    }
+
+    /**
+     * Returns true if the vector is in copy-on-write mode.
+     */
+    public final boolean isCopyOnWrite() {
+	return copyOnWrite;
+    }
+
+    /**
+     * Prepares the buffer for a change that adds or removes elements.
+     */
+    private final void modified() {
+	modCount++;
+	copyWhenShared();
+    }
+
+    /**
+     * Copies the buffer if a snapshot enumeration may be reading it.
+     */
+    private final void copyWhenShared() {
+	if (shared) {
+	    Object newData[] = new Object[elementData.length];
+	    System.arraycopy(elementData, 0, newData, 0, elementCount);
+	    elementData = newData;
+	    shared = false;
+	}
+    }
     
     /**
      * Returns true if the specified object is a value of the 
@@ -291,6 +390,7 @@ class Vector implements Cloneable {
 	    throw new ArrayIndexOutOfBoundsException(index + " >= " + 
 						     elementCount);
 	}
+	copyWhenShared();
 	elementData[index] = obj;
     }
 
@@ -305,6 +405,7 @@ class Vector implements Cloneable {
 	    throw new ArrayIndexOutOfBoundsException(index + " >= " + 
 						     elementCount);
 	}
+	modified();
 	int j = elementCount - index - 1;
 	if (j > 0) {
 	    System.arraycopy(elementData, index + 1, elementData, index, j);
@@ -326,6 +427,7 @@ class Vector implements Cloneable {
 	    throw new ArrayIndexOutOfBoundsException(index + " >= " + 
 						     elementCount + 1);
 	}
+	modified();
 	ensureCapacity(elementCount + 1);
 	System.arraycopy(elementData, index, elementData, index + 1, elementCount - index);
 	elementData[index] = obj;
@@ -337,10 +439,88 @@ class Vector implements Cloneable {
      * @param obj the element to be added
      */
     public final synchronized void addElement(Object obj) {
+	modified();
 	ensureCapacity(elementCount + 1);
 	elementData[elementCount++] = obj;
     }
 
+    /**
+     * Adds a range of elements of the specified array to the end of the
+     * vector. The vector grows at most once.
+     * @param elements the array holding the elements to be added
+     * @param offset the index of the first element in the array
+     * @param count the number of elements to add
+     * @exception ArrayIndexOutOfBoundsException If the range is not
+     * inside the array.
+     */
+    public final synchronized void addAll(Object elements[], int offset, int count) {
+	checkRange(elements, offset, count);
+	modified();
+	ensureCapacity(elementCount + count);
+	System.arraycopy(elements, offset, elementData, elementCount, count);
+	elementCount += count;
+    }
+
+    /**
+     * Inserts a range of elements of the specified array at the specified
+     * index. Elements with an index greater or equal to the index are
+     * shifted up once, by count positions; if the vector has to grow,
+     * they are copied straight to their new positions.
+     * @param elements the array holding the elements to insert
+     * @param offset the index of the first element in the array
+     * @param count the number of elements to insert
+     * @param index where to insert the first new element
+     * @exception ArrayIndexOutOfBoundsException If the index or the range
+     * was invalid.
+     */
+    public final synchronized void insertElementsAt(Object elements[], int offset,
+						    int count, int index) {
+	if ((index < 0) || (index > elementCount)) {
+	    throw new ArrayIndexOutOfBoundsException(index + " > " + elementCount);
+	}
+	checkRange(elements, offset, count);
+	modified();
+	int tail = elementCount - index;
+	if (elementCount + count > elementData.length) {
+	    Object oldData[] = elementData;
+	    elementData = new Object[newCapacity(elementCount + count)];
+	    System.arraycopy(oldData, 0, elementData, 0, index);
+	    System.arraycopy(oldData, index, elementData, index + count, tail);
+	} else {
+	    System.arraycopy(elementData, index, elementData, index + count, tail);
+	}
+	System.arraycopy(elements, offset, elementData, index, count);
+	elementCount += count;
+    }
+
+    private static void checkRange(Object elements[], int offset, int count) {
+	if ((offset < 0) || (count < 0) || (offset + count > elements.length)) {
+	    throw new ArrayIndexOutOfBoundsException(offset + " + " + count + " > " +
+						     elements.length);
+	}
+    }
+
+    /**
+     * Deletes the elements from fromIndex (inclusive) to toIndex
+     * (exclusive). Elements with an index greater or equal to toIndex
+     * are moved down once.
+     * @param fromIndex the index of the first element to remove
+     * @param toIndex the index after the last element to remove
+     * @exception ArrayIndexOutOfBoundsException If the range was invalid.
+     */
+    public final synchronized void removeRange(int fromIndex, int toIndex) {
+	if ((fromIndex < 0) || (fromIndex > toIndex) || (toIndex > elementCount)) {
+	    throw new ArrayIndexOutOfBoundsException(fromIndex + ", " + toIndex);
+	}
+	modified();
+	System.arraycopy(elementData, toIndex, elementData, fromIndex, elementCount - toIndex);
+	int newCount = elementCount - (toIndex - fromIndex);
+	for (int i = newCount ; i < elementCount ; i++) {
+	    elementData[i] = null; /* to let gc do its work */
+	}
+	elementCount = newCount;
+    }
+
     /**
      * Removes the element from the vector. If the object occurs more
      * than once, only the first is removed. If the object is not an
@@ -361,12 +541,35 @@ class Vector implements Cloneable {
      * Removes all elements of the vector. The vector becomes empty.
      */
     public final synchronized void removeAllElements() {
+	modified();
 	for (int i = 0; i < elementCount; i++) {
 	    elementData[i] = null;
 	}
 	elementCount = 0;
     }
 
+    /**
+     * Sorts the elements of the vector in place, in the order given by
+     * a Comparator. The sort is stable: elements that compare equal
+     * keep their order.
+     * @param c the ordering of the elements
+     * @see Sort
+     */
+    public final synchronized void sort(Comparator c) {
+	modified();
+	Sort.sort(elementData, 0, elementCount, c);
+    }
+
+    /**
+     * Sorts a vector of Strings, Characters or Numbers in place, in
+     * their natural order.
+     * @exception ClassCastException If the elements cannot be compared.
+     * @see Sort
+     */
+    public final void sort() {
+	sort(new NaturalOrder());
+    }
+
     /**
      * Clones this vector. The elements are <strong>not</strong> cloned.
      */
@@ -387,7 +590,7 @@ class Vector implements Cloneable {
      */
     public final synchronized String toString() {
 	int max = size() - 1;
-	StringBuffer buf = new StringBuffer();
+	StringBuilder buf = new StringBuilder();
 	Enumeration e = elements();
 	buf.append("[");
 
@@ -407,10 +610,12 @@ final
 class VectorEnumerator implements Enumeration {
     Vector vector;
     int count;
+    int expectedModCount;
 
     VectorEnumerator(Vector v) {
 	vector = v;
 	count = 0;
+	expectedModCount = v.modCount;
     }
 
     public boolean hasMoreElements() {
@@ -419,6 +624,9 @@ class VectorEnumerator implements Enumeration {
 
     public Object nextElement() {
 	synchronized (vector) {
+	    if (vector.modCount != expectedModCount) {
+		throw new ConcurrentModificationException("VectorEnumerator");
+	    }
 	    if (count < vector.elementCount) {
 		return vector.elementData[count++];
 	    }
@@ -427,3 +635,31 @@ class VectorEnumerator implements Enumeration {
     }
 
 }
+
+/**
+ * An enumeration of the elements a copy-on-write Vector had when it was
+ * created. The Vector copies its buffer before changing it, so the
+ * buffer can be read without locking.
+ */
+final
+class VectorSnapshotEnumerator implements Enumeration {
+    Object elementData[];
+    int elementCount;
+    int count;
+
+    VectorSnapshotEnumerator(Object elementData[], int elementCount) {
+	this.elementData = elementData;
+	this.elementCount = elementCount;
+    }
+
+    public boolean hasMoreElements() {
+	return count < elementCount;
+    }
+
+    public Object nextElement() {
+	if (count < elementCount) {
+	    return elementData[count++];
+	}
+	throw new NoSuchElementException("VectorEnumerator");
+    }
+}